@@ -0,0 +1,147 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.Dices;
+
+/**
+ * The curated positions of the benchmarks: the start of each variant, and typical positions of the
+ * middle and the end of a game. Each position comes with the dice values to play in it.
+ * 
+ * @author Anastasios Patrikis
+ */
+public enum BenchmarkPosition {
+	
+	PORTES_START(Portes.class, null, null, 6, 5),
+	PORTES_CONTACT(Portes.class,
+			Arrays.asList(1, 1, 6, 6, 8, 12, 12, 13, 13, 17, 17, 19, 19, 19, 20),
+			Arrays.asList(3, 4, 4, 7, 10, 10, 10, 14, 16, 16, 18, 18, 21, 21, 23), 4, 2),
+	PORTES_BEAR_OFF(Portes.class,
+			Arrays.asList(19, 19, 20, 20, 21, 21, 22, 22, 23, 23, 24, 24, 25, 25, 25),
+			Arrays.asList(19, 19, 19, 20, 20, 21, 21, 22, 22, 23, 23, 24, 24, 25, 25), 3, 3),
+	PLAKOTO_START(Plakoto.class, null, null, 6, 5),
+	PLAKOTO_MIDDLE(Plakoto.class,
+			Arrays.asList(1, 1, 1, 5, 7, 9, 10, 12, 14, 16, 17, 18, 19, 20, 22),
+			Arrays.asList(1, 1, 2, 2, 4, 4, 10, 12, 12, 14, 17, 19, 21, 22, 23), 5, 2),
+	FEVGA_START(Fevga.class, null, null, 6, 5),
+	FEVGA_RACE(Fevga.class,
+			Arrays.asList(1, 1, 1, 1, 1, 1, 1, 1, 5, 9, 11, 14, 16, 18, 20),
+			Arrays.asList(1, 1, 1, 1, 1, 1, 1, 1, 3, 7, 10, 15, 19, 24, 24), 6, 6);
+	
+	private final Class<? extends Game> variant;
+	private final List<Integer> checkerPositionsPlayer1;
+	private final List<Integer> checkerPositionsPlayer2;
+	private final int dice1;
+	private final int dice2;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param variant the {@link Game} variant.
+	 * @param checkerPositionsPlayer1 the relative positions of the checkers of {@link IPlayer.ID#ONE},
+	 * or {@code null} for the start position.
+	 * @param checkerPositionsPlayer2 the relative positions of the checkers of {@link IPlayer.ID#TWO},
+	 * or {@code null} for the start position.
+	 * @param dice1 the value of the first dice.
+	 * @param dice2 the value of the second dice.
+	 */
+	private BenchmarkPosition(Class<? extends Game> variant, List<Integer> checkerPositionsPlayer1,
+			List<Integer> checkerPositionsPlayer2, int dice1, int dice2) {
+		this.variant = variant;
+		this.checkerPositionsPlayer1 = checkerPositionsPlayer1;
+		this.checkerPositionsPlayer2 = checkerPositionsPlayer2;
+		this.dice1 = dice1;
+		this.dice2 = dice2;
+	}
+	
+	/**
+	 * Create a {@link Game} in the position, with {@link IPlayer.ID#ONE} to move and the dice values rolled.
+	 * 
+	 * @param player1 the {@link IPlayer} number 1.
+	 * @param player2 the {@link IPlayer} number 2.
+	 * @return the initialized {@link Game}.
+	 */
+	public Game createGame(IPlayer player1, IPlayer player2) {
+		Game game = createVariant();
+		game.initialize(player1, player2, null);
+		((Dices)game.dices).restore(dice1, dice2);
+		return game;
+	}
+	
+	/**
+	 * Create the {@link Board} of the position.
+	 * 
+	 * @param player1 the {@link IPlayer} number 1.
+	 * @param player2 the {@link IPlayer} number 2.
+	 * @return the {@link Board}.
+	 */
+	public Board createBoard(IPlayer player1, IPlayer player2) {
+		return (Board)createGame(player1, player2).board;
+	}
+	
+	/**
+	 * @return the value of the first dice.
+	 */
+	public int getDice1() {
+		return dice1;
+	}
+	
+	/**
+	 * @return the value of the second dice.
+	 */
+	public int getDice2() {
+		return dice2;
+	}
+	
+	/**
+	 * @return a not initialized {@link Game} of the variant with the checkers of the position.
+	 */
+	private Game createVariant() {
+		if(checkerPositionsPlayer1 == null) {
+			try {
+				return (Game)GameFactory.get().create(variant);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Cannot create " + variant.getSimpleName(), e);
+			}
+		} else if(variant == Portes.class) {
+			return new Portes() {
+				@Override
+				protected List<Integer> getCheckerPositionsPlayer1() {
+					return checkerPositionsPlayer1;
+				}
+				@Override
+				protected List<Integer> getCheckerPositionsPlayer2() {
+					return checkerPositionsPlayer2;
+				}
+			};
+		} else if(variant == Plakoto.class) {
+			return new Plakoto() {
+				@Override
+				protected List<Integer> getCheckerPositionsPlayer1() {
+					return checkerPositionsPlayer1;
+				}
+				@Override
+				protected List<Integer> getCheckerPositionsPlayer2() {
+					return checkerPositionsPlayer2;
+				}
+			};
+		} else {
+			return new Fevga() {
+				@Override
+				protected List<Integer> getCheckerPositionsPlayer1() {
+					return checkerPositionsPlayer1;
+				}
+				@Override
+				protected List<Integer> getCheckerPositionsPlayer2() {
+					return checkerPositionsPlayer2;
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import net.ichmags.backgammon.exception.InvalidMoveException;
+import net.ichmags.backgammon.game.IMove;
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.DiceGenerator;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.DicesChoice;
+import net.ichmags.backgammon.setup.impl.Player;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the rule checks of a {@link Game} in the {@link BenchmarkPosition}s, for
+ * {@link IPlayer.ID#ONE} with the dice values of the position.
+ * 
+ * @author Anastasios Patrikis
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+	
+	/** The seed of the {@link DiceGenerator}. */
+	public static final long SEED = 20161024L;
+	
+	@Param({"PORTES_START", "PORTES_CONTACT", "PORTES_BEAR_OFF", "PLAKOTO_START", "PLAKOTO_MIDDLE", "FEVGA_START", "FEVGA_RACE"})
+	public String position;
+	
+	private BenchmarkPosition benchmarkPosition;
+	private Game game;
+	private IPlayer player;
+	private Board board;
+	private Dices dices;
+	private int fromPosition;
+	private int distance;
+	
+	@Setup
+	public void setUp() {
+		DiceGenerator.get().setSeed(SEED);
+		player = new Player().initialize("Player 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		IPlayer player2 = new Player().initialize("Player 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		
+		benchmarkPosition = BenchmarkPosition.valueOf(position);
+		game = benchmarkPosition.createGame(player, player2);
+		board = ((Board)game.board).clone();
+		dices = (Dices)game.dices;
+		
+		// the first move of the first legal play, played and taken back on the cloned board
+		LegalPlay legalPlay = LegalPlayGenerator.generate(game, player, board, dices).get(0);
+		fromPosition = legalPlay.getFromPosition(0);
+		distance = legalPlay.getDistance(0);
+	}
+	
+	@Benchmark
+	public IMove moveChecker()
+	throws InvalidMoveException {
+		IMove move = game.moveChecker(player, board, fromPosition, dices.getUnused(distance));
+		game.undoMoveCheker(player, board, move);
+		return move;
+	}
+	
+	@Benchmark
+	public boolean checkIfAnyMoveIsPossible() {
+		return game.checkIfAnyMoveIsPossible(player, dices.restore(benchmarkPosition.getDice1(), benchmarkPosition.getDice2()));
+	}
+	
+	@Benchmark
+	public DicesChoice findPlayableDices() {
+		return game.findPlayableDices(player, dices.restore(benchmarkPosition.getDice1(), benchmarkPosition.getDice2()));
+	}
+}
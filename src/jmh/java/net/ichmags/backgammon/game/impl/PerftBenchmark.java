@@ -0,0 +1,57 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Player;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the {@link LegalPlayGenerator} with {@link Perft} from the {@link BenchmarkPosition}s.
+ * 
+ * @author Anastasios Patrikis
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PerftBenchmark {
+	
+	@Param({"PORTES_START", "PORTES_CONTACT", "PLAKOTO_MIDDLE", "FEVGA_START", "FEVGA_RACE"})
+	public String position;
+	
+	@Param({"1"})
+	public int depth;
+	
+	private Game game;
+	private IPlayer player;
+	
+	@Setup
+	public void setUp() {
+		player = new Player().initialize("Player 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		IPlayer player2 = new Player().initialize("Player 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		game = BenchmarkPosition.valueOf(position).createGame(player, player2);
+	}
+	
+	@Benchmark
+	public long perft() {
+		return Perft.run(game, player, depth).getLeaves();
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.Player;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of a full {@link Game} per variant. The computer strategy is not part of this project, so
+ * both {@link IPlayer}s pick one of the {@link LegalPlay}s at random; the rolls and the picks come from
+ * a fixed sequence of seeds, so each run plays the same {@link Game}s.
+ * 
+ * Random play can lock a {@link Plakoto} {@link Game} up, so a {@link Game} ends after
+ * {@link #MAX_TURNS} turns.
+ * 
+ * @author Anastasios Patrikis
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SelfPlayBenchmark {
+	
+	/** The maximum number of turns of a {@link Game}. */
+	public static final int MAX_TURNS = 1000;
+	/** The number of seeds, and so of different {@link Game}s, played in a cycle. */
+	public static final int NR_OF_SEEDS = 64;
+	
+	@Param({"Portes", "Plakoto", "Fevga"})
+	public String variant;
+	
+	private Game game;
+	private IPlayer player1;
+	private IPlayer player2;
+	private int nextSeed;
+	
+	@Setup
+	public void setUp() throws ReflectiveOperationException {
+		player1 = new Player().initialize("Player 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		player2 = new Player().initialize("Player 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		game = (Game)GameFactory.get().create(Class.forName(Game.class.getPackage().getName() + "." + variant).asSubclass(Game.class));
+		nextSeed = 0;
+	}
+	
+	/**
+	 * Play one {@link Game} on the reused instance.
+	 * 
+	 * @return the number of turns played.
+	 */
+	@Benchmark
+	public int selfPlay() {
+		Random random = new Random(GameBenchmark.SEED + nextSeed);
+		nextSeed = (nextSeed + 1) % NR_OF_SEEDS;
+		game.initialize(player1, player2, null);
+		
+		IPlayer player = player1;
+		for(int turn = 1; turn <= MAX_TURNS; turn++) {
+			((Dices)game.dices).restore(1 + random.nextInt(6), 1 + random.nextInt(6));
+			List<LegalPlay> legalPlays = LegalPlayGenerator.generate(game, player, game.board, game.dices);
+			LegalPlay legalPlay = legalPlays.get(random.nextInt(legalPlays.size()));
+			for(int move = 0; move < legalPlay.getNrOfMoves(); move++) {
+				game.moveChecker(player, game.board, legalPlay.getFromPosition(move), game.dices.getUnused(legalPlay.getDistance(move)));
+			}
+			
+			if(game.isAllCheckersCollected(player)) {
+				return turn;
+			}
+			player = (player == player1) ? player2 : player1;
+		}
+		return MAX_TURNS;
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.notification.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import net.ichmags.backgammon.notification.INotification.Level;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the {@link StatusEmitter}: the {@link net.ichmags.backgammon.game.impl.Game} reports
+ * each move, also the ones on a cloned {@link net.ichmags.backgammon.setup.impl.Board} at trace level.
+ * 
+ * @author Anastasios Patrikis
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StatusEmitterBenchmark {
+	
+	@Benchmark
+	public String emitKey() {
+		return StatusEmitter.get().emit(Level.TRACE, "game.take_out");
+	}
+	
+	@Benchmark
+	public String emitWithArguments() {
+		return StatusEmitter.get().emit(Level.TRACE, "game.move", 1, 4);
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.setup.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import net.ichmags.backgammon.game.impl.BenchmarkPosition;
+import net.ichmags.backgammon.game.impl.GameBenchmark;
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.IPositions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the {@link Board} copies and views, and of rolling the {@link Dices}.
+ * 
+ * @author Anastasios Patrikis
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+	
+	@Param({"PORTES_START", "PORTES_CONTACT", "PLAKOTO_MIDDLE", "FEVGA_RACE"})
+	public String position;
+	
+	private IPlayer player;
+	private Board board;
+	private Dices dices;
+	
+	@Setup
+	public void setUp() {
+		DiceGenerator.get().setSeed(GameBenchmark.SEED);
+		player = new Player().initialize("Player 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		IPlayer player2 = new Player().initialize("Player 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		BenchmarkPosition benchmarkPosition = BenchmarkPosition.valueOf(position);
+		board = benchmarkPosition.createBoard(player, player2);
+		dices = new Dices();
+	}
+	
+	@Benchmark
+	public Board cloneBoard() {
+		return board.clone();
+	}
+	
+	@Benchmark
+	public IPositions createPlayerView() {
+		return board.createPlayerView(player);
+	}
+	
+	@Benchmark
+	public IDices rollDices() {
+		return dices.roll();
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.List;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@code EngineEvents} emit Java Flight Recorder events for {@link Game}s ({@link GameEvent}),
+ * turns ({@link TurnEvent}) and searches ({@link SearchEvent}), so a recording shows the engine next to
+ * the garbage collection and lock events of the JVM.
+ * 
+ * The events are only created while a recording is running: the state is tracked with a
+ * {@link FlightRecorderListener}, and otherwise a call costs a {@code volatile} read. A JVM without
+ * {@code jdk.jfr}, like a Java 8 before update 262, never loads the event classes. The methods
+ * starting an event return it as {@link Object}, or {@code null} when nothing is recorded; the
+ * methods ending an event accept {@code null}.
+ * 
+ * @author Anastasios Patrikis
+ */
+final class EngineEvents {
+	
+	private static Logger LOG = LoggerFactory.getLogger(EngineEvents.class);
+	
+	private static final boolean AVAILABLE = isAvailable();
+	private static volatile boolean recording;
+	
+	static {
+		if(AVAILABLE) {
+			FlightRecorder.addListener(new RecordingListener());
+		}
+	}
+	
+	/**
+	 * Follows the state of the {@link Recording}s.
+	 */
+	private static final class RecordingListener implements FlightRecorderListener {
+		
+		@Override
+		public void recorderInitialized(FlightRecorder recorder) {
+			update(recorder.getRecordings());
+		}
+		
+		@Override
+		public void recordingStateChanged(Recording changed) {
+			update(FlightRecorder.getFlightRecorder().getRecordings());
+		}
+		
+		/**
+		 * @param recordings the {@link Recording}s of the {@link FlightRecorder}.
+		 */
+		private void update(List<Recording> recordings) {
+			recording = recordings.stream().anyMatch(r -> r.getState() == RecordingState.RUNNING);
+		}
+	}
+	
+	/**
+	 * {@code private} constructor, only static methods.
+	 */
+	private EngineEvents() {
+	}
+	
+	/**
+	 * @return {@code true} if a Java Flight Recorder recording is running.
+	 */
+	static boolean isRecording() {
+		return recording;
+	}
+	
+	/**
+	 * Start a {@link GameEvent}.
+	 * 
+	 * @param game the started {@link Game}.
+	 * @param player the starting {@link IPlayer}.
+	 * @return the {@link GameEvent}, or {@code null}.
+	 */
+	static Object gameStarted(Game game, IPlayer player) {
+		if( ! recording) {
+			return null;
+		}
+		GameEvent event = new GameEvent();
+		if( ! event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		event.variant = game.getName();
+		event.startingPlayer = player.getName();
+		return event;
+	}
+	
+	/**
+	 * End a {@link GameEvent}.
+	 * 
+	 * @param started the value of {@link #gameStarted(Game, IPlayer)}.
+	 * @param winner the winner.
+	 * @param points the points won.
+	 */
+	static void gameEnded(Object started, IPlayer winner, int points) {
+		if(started != null) {
+			GameEvent event = (GameEvent)started;
+			event.winner = winner.getName();
+			event.points = points;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Start a {@link TurnEvent}, before the {@link IDices} are rolled.
+	 * 
+	 * @return the {@link TurnEvent}, or {@code null}.
+	 */
+	static Object turnStarted() {
+		if( ! recording) {
+			return null;
+		}
+		TurnEvent event = new TurnEvent();
+		if( ! event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		event.start = System.nanoTime();
+		return event;
+	}
+	
+	/**
+	 * Add the result of the analysis of the roll to a {@link TurnEvent}.
+	 * 
+	 * @param started the value of {@link #turnStarted()}.
+	 * @param game the {@link Game}.
+	 * @param player the active {@link IPlayer}.
+	 * @param dices the rolled {@link IDices}.
+	 * @param movePossible {@code false} if no move is possible.
+	 */
+	static void turnAnalyzed(Object started, Game game, IPlayer player, IDices dices, boolean movePossible) {
+		if(started != null) {
+			TurnEvent event = (TurnEvent)started;
+			event.analysisTime = System.nanoTime() - event.start;
+			event.variant = game.getName();
+			event.player = player.getName();
+			event.playerType = player.getType().name();
+			event.dice1 = dices.get(0).getValue();
+			event.dice2 = dices.get(1).getValue();
+			event.legalPlays = movePossible ? -1 : 0;
+		}
+	}
+	
+	/**
+	 * Add the number of {@link LegalPlay}s to a {@link TurnEvent}, found by a search the {@link Game}
+	 * ran anyway, like the check for forced moves or for a proposed play. No search is run for the
+	 * event; only the first search of the roll counts.
+	 * 
+	 * @param started the value of {@link #turnStarted()}.
+	 * @param legalPlays the number of found {@link LegalPlay}s.
+	 */
+	static void turnPlaysFound(Object started, int legalPlays) {
+		if(started != null) {
+			TurnEvent event = (TurnEvent)started;
+			if(event.legalPlays < 0) {
+				event.legalPlays = legalPlays;
+			}
+		}
+	}
+	
+	/**
+	 * End a {@link TurnEvent}.
+	 * 
+	 * @param started the value of {@link #turnStarted()}.
+	 */
+	static void turnEnded(Object started) {
+		if(started != null) {
+			((TurnEvent)started).commit();
+		}
+	}
+	
+	/**
+	 * Start a {@link SearchEvent}.
+	 * 
+	 * @return the {@link SearchEvent}, or {@code null}.
+	 */
+	static Object searchStarted() {
+		if( ! recording) {
+			return null;
+		}
+		SearchEvent event = new SearchEvent();
+		if( ! event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * End a {@link SearchEvent}.
+	 * 
+	 * @param started the value of {@link #searchStarted()}.
+	 * @param search the name of the search.
+	 * @param game the {@link Game} with the rules.
+	 * @param nodes the number of visited positions.
+	 * @param depth the reached depth.
+	 */
+	static void searchEnded(Object started, String search, Game game, long nodes, int depth) {
+		if(started != null) {
+			SearchEvent event = (SearchEvent)started;
+			event.search = search;
+			event.variant = game.getName();
+			event.nodes = nodes;
+			event.depth = depth;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * @return {@code true} if the JVM has the {@code jdk.jfr} API.
+	 */
+	private static boolean isAvailable() {
+		try {
+			Class.forName("jdk.jfr.FlightRecorder", false, EngineEvents.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			LOG.debug("No Java Flight Recorder, engine events are disabled");
+			return false;
+		}
+	}
+}
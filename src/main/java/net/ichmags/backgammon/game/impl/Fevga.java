@@ -4,6 +4,7 @@
 package net.ichmags.backgammon.game.impl;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import net.ichmags.backgammon.game.IMove;
@@ -17,6 +18,7 @@ import net.ichmags.backgammon.setup.IPlayer;
 import net.ichmags.backgammon.setup.IPosition;
 import net.ichmags.backgammon.setup.IPositions;
 import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.BoardLayout;
 import net.ichmags.backgammon.setup.impl.Checker;
 import net.ichmags.backgammon.setup.impl.Player;
 import net.ichmags.backgammon.setup.impl.Position;
@@ -35,6 +37,15 @@ import net.ichmags.backgammon.setup.impl.Position;
  */
 public class Fevga extends Game {
 	
+	private static final int FIRST_6_POSITIONS_MASK = 0x7E; // positions 1 to 6
+	private static final List<Integer> INITIAL_CHECKER_POSITIONS = Collections.unmodifiableList(Arrays.asList(
+			1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1));
+	private static final List<Integer> PLAYER1_PLAY_POSITIONS = Collections.unmodifiableList(Arrays.asList(
+			0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, /* just append opponent */ 26, 27));
+	private static final List<Integer> PLAYER2_PLAY_POSITIONS = Collections.unmodifiableList(Arrays.asList(
+			26, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 27, /* just append opponent */ 0, 25));
+	private static final BoardLayout BOARD_LAYOUT = new BoardLayout(PLAYER1_PLAY_POSITIONS, PLAYER2_PLAY_POSITIONS);
+	
 	/**
 	 * Default constructor.
 	 * 
@@ -51,31 +62,36 @@ public class Fevga extends Game {
 
 	@Override
 	protected List<Integer> getCheckerPositionsPlayer1() {
-		return Arrays.asList(1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1);
+		return INITIAL_CHECKER_POSITIONS;
 	}
 	
 	@Override
 	protected List<Integer> getCheckerPositionsPlayer2() {
-		return Arrays.asList(1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1);
+		return INITIAL_CHECKER_POSITIONS;
 	}
 	
 	@Override
 	public void setupGamePlayerConfig() {
-		player1Config = new GamePlayerConfig(IPlayer.ID.ONE,
-				Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, /* just append opponent */ 26, 27),
-				getCheckerPositionsPlayer1());
-		player2Config = new GamePlayerConfig(IPlayer.ID.TWO,
-				Arrays.asList(26, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 27, /* just append opponent */ 0, 25),
-				getCheckerPositionsPlayer2());
+		player1Config = new GamePlayerConfig(IPlayer.ID.ONE, PLAYER1_PLAY_POSITIONS, getCheckerPositionsPlayer1());
+		player2Config = new GamePlayerConfig(IPlayer.ID.TWO, PLAYER2_PLAY_POSITIONS, getCheckerPositionsPlayer2());
+	}
+	
+	@Override
+	protected BoardLayout getBoardLayout() {
+		return BOARD_LAYOUT;
 	}
 	
 	@Override
 	public boolean isValidMoveTarget(IPlayer player, IBoard board, int fromPosition, int toPosition) {
+		if(board instanceof Board) {
+			return isValidMoveTarget(player.getID(), (Board)board, fromPosition, toPosition);
+		}
+		
 		boolean checkFirstCheckerBeyond12OK = false;
 		boolean checkBlockFirst6OK = true;
 		boolean checkTargetPositionOK = false;
 		
-		IPositions playerPositions = board.createPlayerView(player);
+		IPositions playerPositions = getPlayerView(board, player);
 		IPosition targtePosition = playerPositions.get(toPosition);
 		
 		// check if the first checker is played beyond position 12 or this is the first one 
@@ -83,7 +99,7 @@ public class Fevga extends Game {
 		for(int index = 24; index > 0; index--) {
 			IPosition pos = playerPositions.get(index);
 			IChecker posChecker = pos.readTopChecker();
-			if((posChecker != null) && posChecker.getOwner().equals(player.getID())) {
+			if((posChecker != null) && posChecker.getOwner() == player.getID()) {
 				if(index > 12) {
 					checkFirstCheckerBeyond12OK = true;
 				} else if (index == fromPosition){
@@ -98,7 +114,7 @@ public class Fevga extends Game {
 			for(int index = 1; index < 7; index++) {
 				IPosition pos = playerPositions.get(index);
 				IChecker posChecker = pos.readTopChecker();
-				if((posChecker == null) || (posChecker.getOwner().equals(player.getID()) == false)) {
+				if((posChecker == null) || (posChecker.getOwner() != player.getID())) {
 					if(index == toPosition) {
 						checkBlockFirst6OK = false;
 					} else {
@@ -106,7 +122,7 @@ public class Fevga extends Game {
 						break;
 					}
 				} else if ( (fromPosition == index) && (pos.getNrOfCheckers() == 1)
-						&& (posChecker != null) && posChecker.getOwner().equals(player.getID()) ) {
+						&& (posChecker != null) && posChecker.getOwner() == player.getID() ) {
 					// the starting position will be empty after the move
 					checkBlockFirst6OK = true;
 					break;
@@ -117,7 +133,7 @@ public class Fevga extends Game {
 		if(targtePosition.hasCheckers() == false) {
 			checkTargetPositionOK = true;
 		} else {
-			if(targtePosition.readTopChecker().getOwner().equals(player.getID())) {
+			if(targtePosition.readTopChecker().getOwner() == player.getID()) {
 				checkTargetPositionOK = true;
 			}
 		}
@@ -125,6 +141,56 @@ public class Fevga extends Game {
 		return (checkFirstCheckerBeyond12OK && checkBlockFirst6OK && checkTargetPositionOK);
 	}
 	
+	/**
+	 * The same checks as {@link #isValidMoveTarget(IPlayer, IBoard, int, int)}, performed on the
+	 * {@link Position} bit masks the {@link Board} keeps up to date.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the moving {@link Player}.
+	 * @param board the {@link Board} to check.
+	 * @param fromPosition the start {@link Position} of the move.
+	 * @param toPosition the target {@link Position} of the move.
+	 * @return {@code true} if the move is valid.
+	 */
+	private boolean isValidMoveTarget(IPlayer.ID playerID, Board board, int fromPosition, int toPosition) {
+		int targetBit = 1 << toPosition;
+		
+		// a single opponent checker blocks the position
+		if((board.getBlockedPositions(playerID) & targetBit) != 0) {
+			return false;
+		}
+		
+		// check if the first checker is played beyond position 12 or this is the first one 
+		// before playing another checker
+		int leadingPosition = board.getLeadingCheckerPosition(playerID);
+		if((leadingPosition <= 12) && (leadingPosition != fromPosition)) {
+			return false;
+		}
+		
+		// check blocking of the first 6 positions is not allowed
+		int ownedPositions = board.getOwnedPositions(playerID);
+		if((toPosition < 7) && ((ownedPositions & targetBit) == 0)) {
+			int ownedAfterMove = (ownedPositions | targetBit) & FIRST_6_POSITIONS_MASK;
+			if(board.getNrOfCheckers(playerID, fromPosition) == 1) {
+				// the starting position will be empty after the move
+				ownedAfterMove &= ~(1 << fromPosition);
+			}
+			if(ownedAfterMove == FIRST_6_POSITIONS_MASK) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * A single opponent {@link Checker} blocks a {@link Position}, so the blocked targets are the
+	 * {@link Board#getBlockedTargets(IPlayer.ID, int)}.
+	 */
+	@Override
+	protected int getBlockedTargets(IPlayer player, Board board, int diceValue) {
+		return board.getBlockedTargets(player.getID(), diceValue);
+	}
+	
 	@Override
 	public void beforeMoveChecker(IPlayer player, IBoard board, IMove move) {
 		// nothing to do: a single checker blocks the position
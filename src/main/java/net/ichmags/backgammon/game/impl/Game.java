@@ -3,6 +3,7 @@
  */
 package net.ichmags.backgammon.game.impl;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -16,6 +17,9 @@ import net.ichmags.backgammon.game.IPlay;
 import net.ichmags.backgammon.game.pojo.GamePlayerConfig;
 import net.ichmags.backgammon.interaction.ICommand;
 import net.ichmags.backgammon.interaction.ICommandProvider;
+import net.ichmags.backgammon.interaction.impl.PlayCommand;
+import net.ichmags.backgammon.interaction.impl.RedoCommand;
+import net.ichmags.backgammon.interaction.impl.RemoteCommandProvider;
 import net.ichmags.backgammon.interaction.pojo.LoadDiceValuesCommand;
 import net.ichmags.backgammon.interaction.pojo.MoveCommand;
 import net.ichmags.backgammon.interaction.pojo.PrintBoardCommand;
@@ -41,13 +45,16 @@ import net.ichmags.backgammon.setup.IPosition;
 import net.ichmags.backgammon.setup.IPositions;
 import net.ichmags.backgammon.setup.impl.AvailableDices;
 import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.BoardLayout;
 import net.ichmags.backgammon.setup.impl.DiceGenerator;
 import net.ichmags.backgammon.setup.impl.Dices;
 import net.ichmags.backgammon.setup.impl.DicesChoice;
 import net.ichmags.backgammon.setup.impl.Positions;
 import net.ichmags.backgammon.statistic.IGameStatistics;
 import net.ichmags.backgammon.statistic.IPlayerStatistics;
+import net.ichmags.backgammon.statistic.impl.EngineMetrics;
 import net.ichmags.backgammon.statistic.impl.GameStatistics;
+import net.ichmags.backgammon.statistic.impl.StatisticsAggregator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,6 +68,7 @@ public abstract class Game implements IGame {
 	
 	private static Logger LOG = LoggerFactory.getLogger(Game.class);
 	private static StatusEmitter SE = StatusEmitter.get();
+	private static EngineMetrics METRICS = EngineMetrics.get();
 	
 	protected static final int RELATIVE_HIT_POS = 0;
 	protected static final int RELATIVE_OUT_POS = 25;
@@ -75,6 +83,28 @@ public abstract class Game implements IGame {
 	protected GamePlayerConfig player2Config;
 	
 	private ICommandProvider commandProvider;
+	private RemoteCommandProvider[] remoteCommandProviders = new RemoteCommandProvider[2];
+	private MoveHistory history = new MoveHistory();
+	private DiceGenerator diceGenerator = new DiceGenerator();
+	private MatchJournal journal;
+	private boolean autoPlayForcedMoves;
+	private boolean instrumented;
+	private boolean turnResumed;
+	private DicesChoice resumedDicesChoice;
+	private Object gameEvent;
+	private Object turnEvent;
+	
+	/**
+	 * The outcome of a {@link ICommand} executed for a human {@link IPlayer}.
+	 */
+	enum CommandResult {
+		/** The {@link IPlayer} has to continue with the current {@link IDices}. */
+		CONTINUE,
+		/** All selected {@link IDices} are played. */
+		DICES_PLAYED,
+		/** The last {@link IChecker} was collected and the {@link IPlayer} wins. */
+		GAME_WON
+	}
 	
 	/**
 	 * Default constructor.
@@ -84,6 +114,12 @@ public abstract class Game implements IGame {
 	public Game() {
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * An instance can be initialized again for a new {@code IGame}, even with different {@link IPlayer}s:
+	 * the {@link IDices} and the {@link IBoard} are reused then, see {@link #reset()}.
+	 */
 	@Override
 	public IGame initialize(IPlayer player1, IPlayer player2, ICommandProvider commandProvider) {
 		this.player1 = player1;
@@ -91,9 +127,147 @@ public abstract class Game implements IGame {
 		this.commandProvider = commandProvider;
 		
 		setupGamePlayerConfig();
+		Arrays.fill(remoteCommandProviders, null);
+		this.journal = null;
+		this.autoPlayForcedMoves = false;
+		this.instrumented = true;
+		this.turnResumed = false;
+		this.resumedDicesChoice = null;
+		this.turnEvent = null;
+		this.diceGenerator.clear();
 		
-		this.dices = new Dices();
-		this.board = new Board(this);
+		if(this.board == null) {
+			this.dices = new Dices(diceGenerator);
+			this.board = new Board(this, getBoardLayout());
+		}
+		
+		return reset();
+	}
+	
+	/**
+	 * Take a {@link GameSnapshot} of the {@code IGame}: the variant, the {@link IBoard}, the
+	 * {@link IDices} and the {@link IPlayer} to move.
+	 * 
+	 * @param playerToMove the {@link IPlayer} to move, or {@code null}.
+	 * @return the {@link GameSnapshot}.
+	 */
+	public GameSnapshot snapshot(IPlayer playerToMove) {
+		return GameSnapshot.of(this, playerToMove);
+	}
+	
+	/**
+	 * Restore the state of a {@link GameSnapshot}, keeping the {@link IPlayer}s. New
+	 * {@link IGameStatistics} are started, the statistics are not part of a {@link GameSnapshot}, and
+	 * no move can be undone or redone.
+	 * 
+	 * <b>The {@code IGame} must have been initialized with
+	 * {@link #initialize(IPlayer, IPlayer, ICommandProvider)} before.</b>
+	 * 
+	 * @param snapshot the {@link GameSnapshot} of the same variant.
+	 * @return the restored {@code IGame}.
+	 */
+	public Game restore(GameSnapshot snapshot) {
+		if( ! snapshot.getVariant().isInstance(this)) {
+			throw new RuntimeException("Snapshot of " + snapshot.getVariant().getSimpleName() + " cannot be restored into " + getName());
+		}
+		
+		((Board)this.board).clear();
+		this.history.clear();
+		this.statistics = new GameStatistics();
+		snapshot.applyTo((Board)this.board, (Dices)this.dices, player1, player2);
+		return this;
+	}
+	
+	/**
+	 * Switch the reporting of the moves off or on: the status messages of
+	 * {@link #moveChecker(IPlayer, IBoard, int, IDice)}, its {@link EngineMetrics} and the
+	 * {@link EngineEvents} of the {@link LegalPlayGenerator} search. An initialized {@code IGame} is
+	 * instrumented.
+	 * 
+	 * @param instrumented {@code false} to check moves silently.
+	 * @return this {@code IGame}.
+	 */
+	Game setInstrumented(boolean instrumented) {
+		this.instrumented = instrumented;
+		return this;
+	}
+	
+	/**
+	 * @return {@code true} if the moves are reported, see {@link #setInstrumented(boolean)}.
+	 */
+	boolean isInstrumented() {
+		return instrumented;
+	}
+	
+	/**
+	 * @return {@code true} if the {@code IGame} has state that is not part of a {@link GameSnapshot}:
+	 * moves of the current turn that can be undone or redone, or a {@link MatchJournal}.
+	 */
+	boolean hasTransientState() {
+		return history.canUndo() || history.canRedo() || (journal != null);
+	}
+	
+	/**
+	 * Get the {@link DiceGenerator} of the {@code IGame}: the values loaded into it are only rolled by
+	 * this {@code IGame}.
+	 * 
+	 * @return the {@link DiceGenerator} of the {@link IDices}.
+	 */
+	public DiceGenerator getDiceGenerator() {
+		return diceGenerator;
+	}
+	
+	/**
+	 * Let a {@link IPlayer} play from another process: the dices choices and the moves are requested
+	 * from the {@link RemoteCommandProvider} instead of the {@link ICommandProvider} of the {@code IGame},
+	 * regardless of the {@link IPlayer.Type}.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the remote {@link IPlayer}.
+	 * @param remoteCommandProvider the connection to the remote side, or {@code null} to play locally again.
+	 * @return the {@code IGame}.
+	 */
+	public Game setRemoteCommandProvider(IPlayer.ID playerID, RemoteCommandProvider remoteCommandProvider) {
+		remoteCommandProviders[playerID.ordinal()] = remoteCommandProvider;
+		return this;
+	}
+	
+	/**
+	 * Record the {@code IGame} in a {@link MatchJournal}: the start, the rolls, the moves and the end.
+	 * The turns are committed to the {@link MatchJournal} when they end.
+	 * 
+	 * @param journal the {@link MatchJournal}, or {@code null} to stop recording.
+	 * @return the {@code IGame}.
+	 */
+	public Game setJournal(MatchJournal journal) {
+		this.journal = journal;
+		return this;
+	}
+	
+	/**
+	 * Play the moves of human and remote {@link IPlayer}s without asking, when the {@link IDices} can
+	 * only be played in one way, see {@link LegalPlayGenerator#findForcedPlay(Game, IPlayer, IBoard, IDices)}.
+	 * 
+	 * @param autoPlayForcedMoves {@code true} to play forced moves automatically.
+	 * @return the {@code IGame}.
+	 */
+	public Game setAutoPlayForcedMoves(boolean autoPlayForcedMoves) {
+		this.autoPlayForcedMoves = autoPlayForcedMoves;
+		return this;
+	}
+	
+	/**
+	 * Reset the {@code IGame} to its initial state, keeping the {@link IPlayer}s: the {@link IBoard}
+	 * is cleared and the {@link IChecker} are set up again, the moves to undo or redo are forgotten, and
+	 * new {@link IGameStatistics} are started.
+	 * 
+	 * <b>The {@code IGame} must have been initialized with
+	 * {@link #initialize(IPlayer, IPlayer, ICommandProvider)} before.</b>
+	 * 
+	 * @return the reset {@code IGame}.
+	 */
+	public Game reset() {
+		((Board)this.board).clear();
+		this.history.clear();
 		this.statistics = new GameStatistics();
 		
 		this.board.setInitialCheker(player1);
@@ -118,6 +292,29 @@ public abstract class Game implements IGame {
 	 */
 	protected abstract List<Integer> getCheckerPositionsPlayer2();
 	
+	/**
+	 * Get the {@link BoardLayout} of the {@code IGame}, the shared one of the {@link GamePlayerConfig}s.
+	 * Implementations may override this and return their own {@link BoardLayout} constant, which saves
+	 * looking it up for each {@code IGame}.
+	 * 
+	 * @return the {@link BoardLayout} to use for the {@link IBoard}.
+	 */
+	protected BoardLayout getBoardLayout() {
+		return BoardLayout.of(player1Config.getAbsolutePlayPositions(), player2Config.getAbsolutePlayPositions());
+	}
+	
+	/**
+	 * Get the {@link IPositions} of a {@link IPlayer} for the move rules: the shared read-only view of
+	 * {@link Board#getPlayerView(IPlayer)}, or a new view of another {@link IBoard}.
+	 * 
+	 * @param board the {@link IBoard}.
+	 * @param player the {@link IPlayer}.
+	 * @return the {@link IPositions} of the {@link IPlayer}, not to be changed.
+	 */
+	static IPositions getPlayerView(IBoard board, IPlayer player) {
+		return (board instanceof Board) ? ((Board)board).getPlayerView(player) : board.createPlayerView(player);
+	}
+	
 	@Override
 	public String getRules() {
 		LocalizationManager.get().addBundle(this.getClass().getName());
@@ -137,13 +334,19 @@ public abstract class Game implements IGame {
 	@Override
 	public IPlayer play(IPlayer player)
 	throws ExitException {
-		SE.info("game.start", getName());
-		
-		if(player == null) {
-			player = getStartingPlayer();
-		}
-		SE.info("game.player_starts", player.getName());
-		
+		return resume(startGame(player));
+	}
+	
+	/**
+	 * Continue a started {@code IGame}, for instance one replayed from a {@link MatchJournal}, until it is
+	 * over.
+	 * 
+	 * @param player the {@link IPlayer} to move next.
+	 * @return the winner of the {@code IGame}.
+	 * @throws ExitException in case a {@link IPlayer} requested to end the {@link net.ichmags.backgammon.game.IMatch}.
+	 */
+	public IPlayer resume(IPlayer player)
+	throws ExitException {
 		try {
 			while(nextMoves(player)) {
 				player = CommonEngine.getOponent(player, player1, player2);
@@ -171,7 +374,7 @@ public abstract class Game implements IGame {
 	
 	@Override
 	public boolean isAllCheckersCollected(IPlayer player) {
-		return (board.createPlayerView(player).get(RELATIVE_OUT_POS).getNrOfCheckers() == 15);
+		return (getPlayerView(board, player).get(RELATIVE_OUT_POS).getNrOfCheckers() == 15);
 	}
 
 	@Override
@@ -181,50 +384,64 @@ public abstract class Game implements IGame {
 	
 	@Override
 	public IMove moveChecker(IPlayer player, IBoard board, int fromPosition, IDice moveDistance) {
-		IMove move = new Move(player.getID(), fromPosition, moveDistance);
-		
-		if( ! IDice.Status.AVAILABLE.equals(moveDistance.getStatus()) ) {
-			SE.info("game.dice_already_used", moveDistance.getValue());
-			return move;
-		}
-		
-		int toPosition = fromPosition + moveDistance.getValue();
-		IPositions playerPositions = board.createPlayerView(player);
-		
-		IPosition pos = playerPositions.get(fromPosition);
-		if((fromPosition < RELATIVE_OUT_POS) && pos.hasCheckers() && pos.readTopChecker().getOwner().equals(player.getID())) {
+		long start = instrumented ? METRICS.start() : 0L;
+		try {
+			IMove move = new Move(player.getID(), fromPosition, moveDistance);
 			
-			boolean isCollecting = isCollectionPhase(player, playerPositions);
+			if( ! IDice.Status.AVAILABLE.equals(moveDistance.getStatus()) ) {
+				if(instrumented) {
+					SE.info("game.dice_already_used", moveDistance.getValue());
+				}
+				return move;
+			}
 			
-			try {
-				if(isCollecting && (toPosition > 24)) {
-					if(isValidCollectionMove(player.getID(), playerPositions, fromPosition, toPosition)) {
-						SE.emit(board.isClone() ? Level.TRACE : Level.INFO, "game.take_out");
-						IChecker takeOutCheker = playerPositions.get(fromPosition).removeTopChecker();
-						playerPositions.get(RELATIVE_OUT_POS).setTopChecker(takeOutCheker);
+			int toPosition = fromPosition + moveDistance.getValue();
+			IPositions playerPositions = getPlayerView(board, player);
+			
+			IPosition pos = playerPositions.get(fromPosition);
+			if((fromPosition < RELATIVE_OUT_POS) && pos.hasCheckers() && pos.readTopChecker().getOwner() == player.getID()) {
+				
+				boolean isCollecting = isCollectionPhase(player, board, playerPositions);
+				
+				try {
+					if(isCollecting && (toPosition > 24)) {
+						if(isValidCollectionMove(player.getID(), playerPositions, fromPosition, toPosition)) {
+							if(instrumented) {
+								SE.emit(board.isClone() ? Level.TRACE : Level.INFO, "game.take_out");
+							}
+							IChecker takeOutCheker = playerPositions.get(fromPosition).removeTopChecker();
+							playerPositions.get(RELATIVE_OUT_POS).setTopChecker(takeOutCheker);
+							moveDistance.setStatus(IDice.Status.USED);
+							move.setTakeOutCheker(takeOutCheker);
+							move.setSuccess(true);
+						} else if(instrumented) {
+							SE.emit(board.isClone() ? Level.TRACE : Level.INFO, "game.no_takeout_must_move_higher_checker");
+						}
+					} else if((toPosition < 25) && isValidMoveTarget(player, board, fromPosition, toPosition)){
+						if(instrumented) {
+							SE.emit(board.isClone() ? Level.TRACE : Level.INFO, "game.move", fromPosition, toPosition);
+						}
+						beforeMoveChecker(player, board, move);
+						playerPositions.get(toPosition).setTopChecker(playerPositions.get(fromPosition).removeTopChecker());
 						moveDistance.setStatus(IDice.Status.USED);
-						move.setTakeOutCheker(takeOutCheker);
 						move.setSuccess(true);
-					} else {
-						SE.emit(board.isClone() ? Level.TRACE : Level.INFO, "game.no_takeout_must_move_higher_checker");
+					} else if(instrumented) {
+						SE.emit(board.isClone() ? Level.TRACE : Level.INFO, "game.invalid_target_position");
 					}
-				} else if((toPosition < 25) && isValidMoveTarget(player, board, fromPosition, toPosition)){
-					SE.emit(board.isClone() ? Level.TRACE : Level.INFO, "game.move", fromPosition, toPosition);
-					beforeMoveChecker(player, board, move);
-					playerPositions.get(toPosition).setTopChecker(playerPositions.get(fromPosition).removeTopChecker());
-					moveDistance.setStatus(IDice.Status.USED);
-					move.setSuccess(true);
-				} else {
-					SE.emit(board.isClone() ? Level.TRACE : Level.INFO, "game.invalid_target_position");
+				} catch (Exception e) {
+					LOG.error("Exception while moving checker", e);
 				}
-			} catch (Exception e) {
-				LOG.error("Exception while moving checker", e);
+			} else if(instrumented) {
+				SE.emit(board.isClone() ? Level.TRACE : Level.INFO, "game.invalid_start_position");
 			}
-		} else {
-			SE.emit(board.isClone() ? Level.TRACE : Level.INFO, "game.invalid_start_position");
+			
+			if((journal != null) && (board == this.board) && move.isSuccess()) {
+				journal.moved(player, fromPosition, moveDistance.getValue());
+			}
+			return move;
+		} finally {
+			METRICS.stop(EngineMetrics.Operation.MOVE_CHECKER, start);
 		}
-		
-		return move;
 	}
 	
 	@Override
@@ -234,7 +451,7 @@ public abstract class Game implements IGame {
 			throw new InvalidMoveException("The move was not successful an cannot be undone");			
 		}
 		
-		IPositions playerPositions = board.createPlayerView(player);
+		IPositions playerPositions = getPlayerView(board, player);
 		
 		// just for convenience
 		IChecker takeOutCheker = moveToUndo.getTakeOutCheker();
@@ -243,16 +460,18 @@ public abstract class Game implements IGame {
 		IPosition opponentPosition0 = null;
 		
 		// step 1: check
+		// checkers are shared per owner and color, so the positions are checked instead of the instances
 		if(takeOutCheker != null) {
-			if(takeOutCheker.getOwner().equals(player.getID()) == false) {
+			if(takeOutCheker.getOwner() != player.getID()) {
 				throw new InvalidMoveException("The move could not be undone: the checker taken out has a different owner.");
 			}
-			if( ! takeOutCheker.equals(playerPositions.get(RELATIVE_OUT_POS).readTopChecker()) ) {
-				throw new InvalidMoveException("The move could not be undone: the checker taken does not match.");
+			IChecker outChecker = playerPositions.get(RELATIVE_OUT_POS).readTopChecker();
+			if((outChecker == null) || (outChecker.getOwner() != player.getID())) {
+				throw new InvalidMoveException("The move could not be undone: no checker was taken out.");
 			}
 		} else {
 			movedChecker = playerPositions.get(moveToUndo.getToPosition()).readTopChecker();
-			if(movedChecker.getOwner().equals(player.getID()) == false) {
+			if((movedChecker == null) || (movedChecker.getOwner() != player.getID())) {
 				throw new InvalidMoveException("The move could not be undone: the checker to move back has a different owner.");
 			}
 			
@@ -262,11 +481,14 @@ public abstract class Game implements IGame {
 				}
 				
 				IPlayer opponent = CommonEngine.getOponent(player, player1, player2);
-				opponentPosition0 = board.createPlayerView(opponent).get(RELATIVE_HIT_POS);
+				opponentPosition0 = getPlayerView(board, opponent).get(RELATIVE_HIT_POS);
 				
 				IChecker hitChecker = opponentPosition0.readTopChecker();
-				if(hitChecker != opponentChecker) {
-					throw new InvalidMoveException("The move could not be played: the hit token does not match.");
+				if((hitChecker == null) || (hitChecker.getOwner() != opponentChecker.getOwner())) {
+					throw new InvalidMoveException("The move could not be undone: the hit checker is not on the hit position.");
+				}
+				if(playerPositions.get(moveToUndo.getToPosition()).getNrOfCheckers() != 1) {
+					throw new InvalidMoveException("The move could not be undone: the hit checker cannot return to a position with several checkers.");
 				}
 			}
 		}
@@ -287,6 +509,10 @@ public abstract class Game implements IGame {
 		}
 		moveToUndo.getMoveDistance().setStatus(IDice.Status.AVAILABLE);
 		moveToUndo.setSuccess(false);
+		
+		if((journal != null) && (board == this.board)) {
+			journal.undone(player);
+		}
 	}
 	
 	
@@ -319,57 +545,177 @@ public abstract class Game implements IGame {
 	 */
 	protected boolean nextMoves(IPlayer currentPlayer)
 	throws ExitException {
-		boolean gameFinished = false; // default return value: game continues
+		long start = METRICS.start();
+		try {
+			boolean gameFinished = false; // default return value: game continues
+			
+			startTurn(currentPlayer);
+			
+			boolean playerContinues = false; // default assumption: after moving, the next player is the opponent
+			do {
+				DicesChoice dicesChoice = rollDices(currentPlayer);
+				
+				if(dicesChoice != null) {
+					// play
+					RemoteCommandProvider remote = remoteCommandProviders[currentPlayer.getID().ordinal()];
+					if(remote != null) {
+						remote.startTurn(currentPlayer, (Board)board, dices);
+						gameFinished = localPlayer(currentPlayer, dicesChoice, remote);
+					} else if(IPlayer.Type.LOCAL.equals(currentPlayer.getType())) {
+						gameFinished = localPlayer(currentPlayer, dicesChoice, commandProvider);
+					} else if(IPlayer.Type.COMPUTER.equals(currentPlayer.getType())){
+						gameFinished = computerPlayer(currentPlayer, dicesChoice);
+					} else {
+						throw new RuntimeException("Unexpected player type without remote connection: " + currentPlayer.getType());
+					}
+					
+					playerContinues = isTurnContinued(gameFinished);
+				} else {
+					playerContinues = false;
+				}
+			} while(playerContinues);
+			
+			if((journal != null) && !gameFinished) {
+				journal.turnEnded(CommonEngine.getOponent(currentPlayer, player1, player2));
+			}
+			return (!gameFinished);
+		} finally {
+			METRICS.stop(EngineMetrics.Operation.NEXT_MOVES, start);
+		}
+	}
+	
+	/**
+	 * Find out which {@link IPlayer} should start the {@code IGame}, and announce the start.
+	 * 
+	 * @param player the {@link IPlayer} to start, or {@code null} to let the {@link IDices} decide.
+	 * @return the starting {@link IPlayer}.
+	 */
+	IPlayer startGame(IPlayer player) {
+		SE.info("game.start", getName());
 		
+		if(player == null) {
+			player = getStartingPlayer();
+		}
+		SE.info("game.player_starts", player.getName());
+		if(journal != null) {
+			journal.gameStarted(this, player);
+		}
+		gameEvent = EngineEvents.gameStarted(this, player);
+		return player;
+	}
+	
+	/**
+	 * Start the turn of a {@link IPlayer}: adjust the display preference and show the {@link IBoard}.
+	 * 
+	 * @param currentPlayer the active {@link IPlayer}.
+	 */
+	void startTurn(IPlayer currentPlayer) {
 		SE.info("game.player", currentPlayer);
 		if(IPlayer.ID.TWO.equals(currentPlayer.getID())) {
 			IPlayer opponent = CommonEngine.getOponent(currentPlayer, player1, player2);
 			currentPlayer.setDisplayPreference(this, getInverseBoardView(opponent.getDisplayPreference(this)));
 		}
 		SE.emitNotification(new BoardChangedNotification(Level.INFO, currentPlayer, this, board));
-		
-		boolean playerContinues = false; // default assumption: after moving, the next player is the opponent
-		do {
-			dices.roll();
+	}
+	
+	/**
+	 * Roll the {@link IDices} for a {@link IPlayer} and find out what can be played. A turn continued
+	 * with {@link #resumeTurn(DicesChoice, List)} is not rolled again.
+	 * 
+	 * Each roll is recorded as {@link TurnEvent}, which ends with {@link #isTurnContinued(boolean)} or
+	 * {@link #gameOver(IPlayer)}, or right away if no move is possible.
+	 * 
+	 * @param currentPlayer the active {@link IPlayer}.
+	 * @return the {@link DicesChoice} to play, or {@code null} if no move is possible.
+	 */
+	DicesChoice rollDices(IPlayer currentPlayer) {
+		endTurnEvent();
+		turnEvent = EngineEvents.turnStarted();
+		DicesChoice dicesChoice = rollOrResumeDices(currentPlayer);
+		EngineEvents.turnAnalyzed(turnEvent, this, currentPlayer, dices, dicesChoice != null);
+		if(dicesChoice == null) {
+			endTurnEvent();
+		}
+		return dicesChoice;
+	}
+	
+	/**
+	 * @param currentPlayer the active {@link IPlayer}.
+	 * @return the {@link DicesChoice} to play, or {@code null} if no move is possible.
+	 */
+	private DicesChoice rollOrResumeDices(IPlayer currentPlayer) {
+		if(turnResumed) {
+			turnResumed = false;
 			SE.emitNotification(new DicesChangedNotification(Level.INFO, dices));
-			this.getStatistics().addDices(dices);
-			currentPlayer.getStatistics().addDices(dices);
-			
-			if(checkIfAnyMoveIsPossible(currentPlayer, dices)) {
-				DicesChoice dicesChoice = findPlayableDices(currentPlayer, dices);
-				
-				if(dicesChoice.isSingleOption()) {
-					if( ! dicesChoice.getOption1().allUsed()) {
-						SE.emitNotification(new DicesChangedNotification(Level.INFO, dicesChoice.getOption1()));
-					}
-				}
-				
-				// play
-				if(IPlayer.Type.LOCAL.equals(currentPlayer.getType())) {
-					gameFinished = localPlayer(currentPlayer, dicesChoice);
-				} else if(IPlayer.Type.COMPUTER.equals(currentPlayer.getType())){
-					gameFinished = computerPlayer(currentPlayer, dicesChoice);
-				} else {
-					// TODO: implement a remote player
-					throw new RuntimeException("Unexpected player type: " + currentPlayer.getType());
-				}
-				
-				// check for "doubling boost" conditions
-				if(!gameFinished && hasDoublingBoost(dices)) {
-					SE.info("game.doubling_info");
-					int nextDoubleValue = dices.get(3).getValue() + 1;
-					DiceGenerator.get().load(new int[]{nextDoubleValue, nextDoubleValue});
-					playerContinues = true;
-				} else {
-					playerContinues = false;
+			DicesChoice dicesChoice = resumedDicesChoice;
+			resumedDicesChoice = null;
+			return dicesChoice;
+		}
+		history.clear();
+		
+		dices.roll();
+		if(journal != null) {
+			journal.diceRolled(currentPlayer, dices);
+		}
+		SE.emitNotification(new DicesChangedNotification(Level.INFO, dices));
+		this.getStatistics().addDices(dices);
+		currentPlayer.getStatistics().addDices(dices);
+		
+		DicesChoice dicesChoice = analyzeDices(currentPlayer);
+		if(dicesChoice != null) {
+			if(dicesChoice.isSingleOption()) {
+				if( ! dicesChoice.getOption1().allUsed()) {
+					SE.emitNotification(new DicesChangedNotification(Level.INFO, dicesChoice.getOption1()));
 				}
-			} else {
-				SE.emitNotification(new DicesChangedNotification(Level.INFO, dices));
-				playerContinues = false;
 			}
-		} while(playerContinues);
-		
-		return (!gameFinished);
+			return dicesChoice;
+		} else {
+			SE.emitNotification(new DicesChangedNotification(Level.INFO, dices));
+			return null;
+		}
+	}
+	
+	/**
+	 * Find out what can be played with the rolled {@link IDices}.
+	 * 
+	 * @param currentPlayer the active {@link IPlayer}.
+	 * @return the {@link DicesChoice} to play, or {@code null} if no move is possible.
+	 */
+	DicesChoice analyzeDices(IPlayer currentPlayer) {
+		return checkIfAnyMoveIsPossible(currentPlayer, dices) ? findPlayableDices(currentPlayer, dices) : null;
+	}
+	
+	/**
+	 * Continue a turn replayed from a {@link MatchJournal} that was not finished: the next
+	 * {@link #rollDices(IPlayer)} does not roll, but returns the {@link DicesChoice} of the turn.
+	 * 
+	 * @param dicesChoice the {@link DicesChoice} of the turn, with the {@link IDices} of the replayed
+	 * moves used, or {@code null} if no move is possible.
+	 * @param moves the replayed {@link IMove}s of the turn in the order they were played; they can be undone.
+	 */
+	void resumeTurn(DicesChoice dicesChoice, List<IMove> moves) {
+		history.clear();
+		moves.forEach(history::add);
+		turnResumed = true;
+		resumedDicesChoice = dicesChoice;
+	}
+	
+	/**
+	 * Check for "doubling boost" conditions after the {@link IDices} have been played.
+	 * 
+	 * @param gameFinished {@code true} if the {@code IGame} is over.
+	 * @return {@code true} if the {@link IPlayer} rolls again, {@code false} if the opponent continues.
+	 */
+	boolean isTurnContinued(boolean gameFinished) {
+		endTurnEvent();
+		if(!gameFinished && hasDoublingBoost(dices)) {
+			SE.info("game.doubling_info");
+			int nextDoubleValue = dices.get(3).getValue() + 1;
+			diceGenerator.load(new int[]{nextDoubleValue, nextDoubleValue});
+			return true;
+		} else {
+			return false;
+		}
 	}
 	
 	/**
@@ -380,23 +726,33 @@ public abstract class Game implements IGame {
 	 * @param dicesChoice the {@link DicesChoice} to play. If this contains more then one item
 	 * not all {@link IDices} can be played, in this case the {@link IPlayer} will have choose
 	 * which ones to play.
+	 * @param commandProvider the {@link ICommandProvider} of the {@link IPlayer}.
 	 * @return {@code true} it the game is finished and the {@link IPlayer} wins the {@code IGame}.
 	 * @throws ExitException in case a {@link IPlayer} requested to end the {@code IGame} before
 	 * it's normal end.
 	 */
-	private boolean localPlayer(IPlayer player, DicesChoice dicesChoice)
+	private boolean localPlayer(IPlayer player, DicesChoice dicesChoice, ICommandProvider commandProvider)
 	throws ExitException {
-		IMove lastMove = null;
-		
 		IDices selectedDices;
 		if( ! dicesChoice.isSingleOption()) {
 			// finally ... select the dices to play
 			selectedDices = commandProvider.chooseDices(dicesChoice);
+			if(commandProvider instanceof RemoteCommandProvider) {
+				((RemoteCommandProvider)commandProvider).checkConnection();
+			}
+			if(journal != null) {
+				journal.diceChosen(selectedDices);
+			}
 			SE.emitNotification(new DicesChangedNotification(Level.INFO, selectedDices));
 		} else {
 			selectedDices = dicesChoice.getOption1();
 		}
 		
+		CommandResult forcedResult = playForcedMoves(player, selectedDices);
+		if(forcedResult != null) {
+			return (forcedResult == CommandResult.GAME_WON);
+		}
+		
 		while(true) {
 			ICommand cmd = null;
 			try {
@@ -409,57 +765,165 @@ public abstract class Game implements IGame {
 				}
 			}
 			
-			if(cmd instanceof PrintBoardCommand) {
-				SE.emitNotification(new BoardChangedNotification(Level.INFO, player, this, board));
-			} else if(cmd instanceof RulesCommand) {
-				SE.info(getRules());
-			} else if(cmd instanceof PrintDiceCommand) {
-				SE.emitNotification(new DicesChangedNotification(Level.INFO, selectedDices));
-			} else if(cmd instanceof TurnBoardViewCommand) {
-				TurnBoardViewCommand turn = (TurnBoardViewCommand)cmd;
-				player.setDisplayPreference(this, turn.getBoardView());
-				SE.emitNotification(new BoardChangedNotification(Level.INFO, player, this, board));
-			} else if(cmd instanceof LoadDiceValuesCommand) {
-				LoadDiceValuesCommand change = (LoadDiceValuesCommand)cmd;
-				DiceGenerator.get().load(change.getValues());
-			} else if(cmd instanceof UndoCommand) {
-				if(lastMove != null) {
-					try {
-						undoMoveCheker(player, board, lastMove);
-						SE.emitNotification(new BoardChangedNotification(Level.INFO, player, this, board));
-					} catch (InvalidMoveException e) {
-						SE.info("game.undo_error", e.toString());
-					}
-				} else {
-					SE.info("game.no_undo_move");
+			switch (executeCommand(player, selectedDices, cmd)) {
+				case GAME_WON:
+					return true;
+				case DICES_PLAYED:
+					return false;
+				default:
+					break;
+			}
+		}
+	}
+	
+	/**
+	 * Play the {@link IDices} of a human {@link IPlayer} if there is only one way to play them, and
+	 * automatic play of forced moves is enabled.
+	 * 
+	 * @param player the active human {@link IPlayer}.
+	 * @param selectedDices the {@link IDices} to play.
+	 * @return {@link CommandResult#DICES_PLAYED} or {@link CommandResult#GAME_WON} if the moves were
+	 * played, {@code null} if the {@link IPlayer} has to move.
+	 */
+	CommandResult playForcedMoves(IPlayer player, IDices selectedDices) {
+		if( ! autoPlayForcedMoves) {
+			return null;
+		}
+		
+		LegalPlay forcedPlay = LegalPlayGenerator.findForcedPlay(this, player, board, selectedDices);
+		if((forcedPlay == null) || (forcedPlay.getNrOfMoves() == 0)) {
+			return null;
+		}
+		
+		SE.info("game.forced_moves", forcedPlay);
+		for(int move = 0; move < forcedPlay.getNrOfMoves(); move++) {
+			IDice moveDice = selectedDices.getUnused(forcedPlay.getDistance(move));
+			IMove forcedMove = moveChecker(player, board, forcedPlay.getFromPosition(move), moveDice);
+			if( ! forcedMove.isSuccess()) {
+				throw new RuntimeException("Forced move failed: " + forcedPlay);
+			}
+			history.add(forcedMove);
+		}
+		SE.emitNotification(new BoardChangedNotification(Level.INFO, player, this, board));
+		
+		return isAllCheckersCollected(player) ? CommandResult.GAME_WON : CommandResult.DICES_PLAYED;
+	}
+	
+	/**
+	 * Execute one {@link ICommand} of a human {@link IPlayer}.
+	 * 
+	 * @param player the active human {@link IPlayer}.
+	 * @param selectedDices the {@link IDices} to play.
+	 * @param cmd the {@link ICommand} to execute.
+	 * @return the {@link CommandResult}.
+	 */
+	CommandResult executeCommand(IPlayer player, IDices selectedDices, ICommand cmd) {
+		if(cmd instanceof PrintBoardCommand) {
+			SE.emitNotification(new BoardChangedNotification(Level.INFO, player, this, board));
+		} else if(cmd instanceof RulesCommand) {
+			SE.info(getRules());
+		} else if(cmd instanceof PrintDiceCommand) {
+			SE.emitNotification(new DicesChangedNotification(Level.INFO, selectedDices));
+		} else if(cmd instanceof TurnBoardViewCommand) {
+			TurnBoardViewCommand turn = (TurnBoardViewCommand)cmd;
+			player.setDisplayPreference(this, turn.getBoardView());
+			SE.emitNotification(new BoardChangedNotification(Level.INFO, player, this, board));
+		} else if(cmd instanceof LoadDiceValuesCommand) {
+			LoadDiceValuesCommand change = (LoadDiceValuesCommand)cmd;
+			diceGenerator.load(change.getValues());
+		} else if(cmd instanceof UndoCommand) {
+			if(history.canUndo()) {
+				try {
+					history.undo(this, board);
+					SE.emitNotification(new BoardChangedNotification(Level.INFO, player, this, board));
+				} catch (InvalidMoveException e) {
+					SE.info("game.undo_error", e.toString());
 				}
-			} else if(cmd instanceof MoveCommand) {
-				MoveCommand move = (MoveCommand)cmd;
-				
-				IDice moveDice = selectedDices.getUnused(move.getDistance());
-				if(moveDice != null) {
-					IMove currentMove = moveChecker(player, board, move.getFrom(), moveDice);
-					if(currentMove.isSuccess()) {
-						SE.emitNotification(new BoardChangedNotification(Level.INFO, player, this, board));
-						lastMove = currentMove;
-						
-						if(isAllCheckersCollected(player)) {
-							return true;
-						}
-						
-						if(selectedDices.allUsed()) {
-							return false;
-						} else {
-							// show available dices to play next
-							SE.emitNotification(new DicesChangedNotification(Level.INFO, selectedDices));
-						}
-					}
-				} else {
-					SE.info("game.cannot_find_dice_for_value", move.getDistance());
+			} else {
+				SE.info("game.no_undo_move");
+			}
+		} else if(cmd instanceof RedoCommand) {
+			if(history.canRedo()) {
+				try {
+					history.redo(this, board);
+					return afterMove(player, selectedDices);
+				} catch (InvalidMoveException e) {
+					SE.info("game.redo_error", e.toString());
+				}
+			} else {
+				SE.info("game.no_redo_move");
+			}
+		} else if(cmd instanceof PlayCommand) {
+			return executePlay(player, selectedDices, (PlayCommand)cmd);
+		} else if(cmd instanceof MoveCommand) {
+			MoveCommand move = (MoveCommand)cmd;
+			
+			IDice moveDice = selectedDices.getUnused(move.getDistance());
+			if(moveDice != null) {
+				IMove currentMove = moveChecker(player, board, move.getFrom(), moveDice);
+				if(currentMove.isSuccess()) {
+					history.add(currentMove);
+					return afterMove(player, selectedDices);
 				}
 			} else {
-				SE.info("game.unsupported_command", cmd.getName());
+				SE.info("game.cannot_find_dice_for_value", move.getDistance());
+			}
+		} else {
+			SE.info("game.unsupported_command", cmd.getName());
+		}
+		return CommandResult.CONTINUE;
+	}
+	
+	/**
+	 * Play all moves of a {@link PlayCommand}. The moves are checked together against the
+	 * {@link LegalPlay}s, and played only if they are legal; otherwise the {@link IBoard} is not changed.
+	 * 
+	 * @param player the active human {@link IPlayer}.
+	 * @param selectedDices the {@link IDices} to play.
+	 * @param play the {@link PlayCommand}.
+	 * @return the {@link CommandResult}.
+	 */
+	private CommandResult executePlay(IPlayer player, IDices selectedDices, PlayCommand play) {
+		LegalPlay legalPlay = play.getPlay();
+		if( ! LegalPlayGenerator.isLegal(this, player, board, selectedDices, legalPlay)) {
+			SE.info("game.invalid_play", legalPlay);
+			return CommandResult.CONTINUE;
+		}
+		
+		for(int move = 0; move < legalPlay.getNrOfMoves(); move++) {
+			IDice moveDice = selectedDices.getUnused(legalPlay.getDistance(move));
+			IMove playedMove = moveChecker(player, board, legalPlay.getFromPosition(move), moveDice);
+			if( ! playedMove.isSuccess()) {
+				throw new RuntimeException("Legal play failed: " + legalPlay);
 			}
+			history.add(playedMove);
+		}
+		SE.emitNotification(new BoardChangedNotification(Level.INFO, player, this, board));
+		
+		// a legal play has the most possible moves, so the turn is over
+		return isAllCheckersCollected(player) ? CommandResult.GAME_WON : CommandResult.DICES_PLAYED;
+	}
+	
+	/**
+	 * Inform about a played move and find out how the turn continues.
+	 * 
+	 * @param player the active human {@link IPlayer}.
+	 * @param selectedDices the {@link IDices} to play.
+	 * @return the {@link CommandResult}.
+	 */
+	private CommandResult afterMove(IPlayer player, IDices selectedDices) {
+		SE.emitNotification(new BoardChangedNotification(Level.INFO, player, this, board));
+		
+		if(isAllCheckersCollected(player)) {
+			return CommandResult.GAME_WON;
+		}
+		
+		if(selectedDices.allUsed()) {
+			return CommandResult.DICES_PLAYED;
+		} else {
+			// show available dices to play next
+			SE.emitNotification(new DicesChangedNotification(Level.INFO, selectedDices));
+			return CommandResult.CONTINUE;
 		}
 	}
 	
@@ -477,11 +941,16 @@ public abstract class Game implements IGame {
 	 * @throws ExitException in case a calculated move cannot be executed; this should never happen,
 	 * and is an implementation error. As a consequence the {@link IGame} will be ended.
 	 */
-	private boolean computerPlayer(IPlayer player, IDicesChoice dicesChoice)
+	boolean computerPlayer(IPlayer player, IDicesChoice dicesChoice)
 	throws ExitException {
-		// TODO: move to IPLayer.getPlayExecutor() -> return IPlay
-		IPlay computerPlayer = getPlayInstance();
-		return computerPlayer.play(player, this, board, dicesChoice, SE);
+		long start = METRICS.start();
+		try {
+			// TODO: move to IPLayer.getPlayExecutor() -> return IPlay
+			IPlay computerPlayer = getPlayInstance();
+			return computerPlayer.play(player, this, board, dicesChoice, SE);
+		} finally {
+			METRICS.stop(EngineMetrics.Operation.COMPUTER_PLAYER, start);
+		}
 	}
 	
 	/**
@@ -489,13 +958,17 @@ public abstract class Game implements IGame {
 	 * {@link IBoard}. This is the case when no {@link IChecker} is on a {@link IPosition} up to 18.
 	 * 
 	 * @param player the {@link IPlayer} to check.
+	 * @param board the {@link IBoard} to check; a {@link Board} provides the answer without
+	 * scanning the {@link IPositions}.
 	 * @param positions the {@link IPositions} to check.
 	 * @return {@code true} if the {@link IPlayer} is in collection phase.
 	 */
-	private boolean isCollectionPhase(IPlayer player, IPositions positions) {
+	private boolean isCollectionPhase(IPlayer player, IBoard board, IPositions positions) {
 		// fast logic: if a checker is already collected, the player is in the phase
 		if((hasPosition0() == false) && (positions.get(RELATIVE_OUT_POS).getNrOfCheckers() > 0)) {
 			return true;
+		} else if(board instanceof Board) {
+			return (((Board)board).getNrOfCheckersOutsideHome(player.getID()) == 0);
 		} else {
 			boolean allCheckersInEndzone = true;
 			
@@ -546,7 +1019,7 @@ public abstract class Game implements IGame {
 			// if a higher position dice exists it must be played
 			for(int pos = 19; pos < fromPosition; pos++) {
 				IChecker topChecker = positions.get(pos).readTopChecker();
-				if(topChecker != null && topChecker.getOwner().equals(playerID)) {
+				if(topChecker != null && topChecker.getOwner() == playerID) {
 					checkerMoveIsValid = false;
 					break;
 				}
@@ -562,12 +1035,41 @@ public abstract class Game implements IGame {
 	 * @param winner the winner, who will receive the points as <i>vicrory</i>; the oponent
 	 * will receive the <i>looser</i> points.
 	 */
-	private void gameOver(IPlayer winner) {
+	void gameOver(IPlayer winner) {
 		int gameValue = getGameValue(winner);
 		gameValue *= 1; // TODO: double dice
 		SE.info((gameValue == 1) ? "game.end_1point" : "game.end_Npoint", gameValue, winner.getName());
 		winner.getStatistics().addGameVictory(gameValue);
 		CommonEngine.getOponent(winner, player1, player2).getStatistics().addGameDefeat(gameValue);
+		StatisticsAggregator.get().add(statistics);
+		
+		if(journal != null) {
+			journal.gameEnded(winner, gameValue);
+		}
+		endTurnEvent();
+		EngineEvents.gameEnded(gameEvent, winner, gameValue);
+		gameEvent = null;
+	}
+	
+	/**
+	 * Add the number of {@link LegalPlay}s found by a {@link LegalPlayGenerator} search to the
+	 * {@link TurnEvent} of the current roll; only a search on the {@link IBoard} of the {@code IGame} counts.
+	 * 
+	 * @param board the searched {@link IBoard}.
+	 * @param nrOfPlays the number of found {@link LegalPlay}s.
+	 */
+	void legalPlaysFound(IBoard board, int nrOfPlays) {
+		if(board == this.board) {
+			EngineEvents.turnPlaysFound(turnEvent, nrOfPlays);
+		}
+	}
+	
+	/**
+	 * End the {@link TurnEvent} of the current roll, if there is one.
+	 */
+	private void endTurnEvent() {
+		EngineEvents.turnEnded(turnEvent);
+		turnEvent = null;
 	}
 	
 	/**
@@ -583,7 +1085,7 @@ public abstract class Game implements IGame {
 	 */
 	protected int getGameValue(IPlayer player) {
 		IPlayer opponentPlayer = CommonEngine.getOponent(player, player1, player2);
-		return (board.createPlayerView(opponentPlayer).get(RELATIVE_OUT_POS).hasCheckers())
+		return (getPlayerView(board, opponentPlayer).get(RELATIVE_OUT_POS).hasCheckers())
 				? 1 : 2;
 	}
 	
@@ -595,39 +1097,44 @@ public abstract class Game implements IGame {
 	 * @return {@code true} if the {@link IPlayer} can use a {@link IDice} to move a {@link IChecker}.
 	 */
 	protected boolean checkIfAnyMoveIsPossible(IPlayer currentPlayer, IDices dices) {
-		SE.info("game.check_for_possible_move");
-		
-		// use clones, so the originals will not be changed
-		IBoard testBoard = board.clone();
-		IDices testDices = dices.clone();
-		
-		IPositions checkPositions;
-		IPosition checkPosition = getMandatoryPosition(currentPlayer, testBoard);
-		if(checkPosition == null) {
-			checkPositions = testBoard.createPlayerView(currentPlayer);
-		} else {
-			checkPositions = new Positions().add(checkPosition);
-		}
-		
-		IPositions playerPositions = testBoard.createPlayerView(currentPlayer);
-		for(IPosition pos : checkPositions.get()) {
-			if((pos.hasCheckers() == false) || (pos.readTopChecker().getOwner().equals(currentPlayer.getID()) == false)) {
-				continue; // minimum condition not satisfied
+		long start = METRICS.start();
+		try {
+			SE.info("game.check_for_possible_move");
+			
+			// use clones, so the originals will not be changed
+			IBoard testBoard = board.clone();
+			IDices testDices = dices.clone();
+			
+			IPositions checkPositions;
+			IPosition checkPosition = getMandatoryPosition(currentPlayer, testBoard);
+			if(checkPosition == null) {
+				checkPositions = getPlayerView(testBoard, currentPlayer);
+			} else {
+				checkPositions = new Positions().add(checkPosition);
 			}
 			
-			for(IDice dice : testDices.get()) {
-				int currentPos = pos.getIndexIn(playerPositions);
+			IPositions playerPositions = getPlayerView(testBoard, currentPlayer);
+			for(IPosition pos : checkPositions.get()) {
+				if((pos.hasCheckers() == false) || (pos.readTopChecker().getOwner() != currentPlayer.getID())) {
+					continue; // minimum condition not satisfied
+				}
 				
-				SE.trace("game.test_move", currentPos, dice);
-				if(moveChecker(currentPlayer, testBoard, currentPos, dice).isSuccess()) {
-					return true;
+				for(IDice dice : testDices.get()) {
+					int currentPos = pos.getIndexIn(playerPositions);
+					
+					SE.trace("game.test_move", currentPos, dice);
+					if(moveChecker(currentPlayer, testBoard, currentPos, dice).isSuccess()) {
+						return true;
+					}
 				}
 			}
+			
+			dices.get().forEach(dice -> dice.setStatus(IDice.Status.BLOCKED));
+			SE.info("game.no_moves", dices.toString());
+			return false;
+		} finally {
+			METRICS.stop(EngineMetrics.Operation.CHECK_ANY_MOVE, start);
 		}
-		
-		dices.get().forEach(dice -> dice.setStatus(IDice.Status.BLOCKED));
-		SE.info("game.no_moves", dices.toString());
-		return false;
 	}
 	
 	/**
@@ -658,37 +1165,42 @@ public abstract class Game implements IGame {
 	 * </dl>
 	 */
 	protected DicesChoice findPlayableDices(IPlayer currentPlayer, IDices dices) {
-		SE.info("game.find_only_possible_moves");
-		
-		IDices markedDices = dices;
-		DicesChoice foundDices = null;
-		boolean checkComplete = false;
-		
-		IPosition mandatoryPosition = getMandatoryPosition(currentPlayer, board);
-		if(mandatoryPosition != null) {
-			int mandatoryCheckers = mandatoryPosition.getNrOfCheckers();
-			foundDices = findDices(true, currentPlayer, markedDices);
+		long start = METRICS.start();
+		try {
+			SE.info("game.find_only_possible_moves");
+			
+			IDices markedDices = dices;
+			DicesChoice foundDices = null;
+			boolean checkComplete = false;
+			
+			IPosition mandatoryPosition = getMandatoryPosition(currentPlayer, board);
+			if(mandatoryPosition != null) {
+				int mandatoryCheckers = mandatoryPosition.getNrOfCheckers();
+				foundDices = findDices(true, currentPlayer, markedDices);
+				
+				assert (foundDices.isSingleOption()); // for mandatory always 1 item
+				markedDices = foundDices.getOption1();
+				if(markedDices.usedCount() < mandatoryCheckers) {
+					SE.info("game.cannot_play_all_mandatory_moves");
+					checkComplete = true;
+				} else if(markedDices.allUsed()) {
+					// all moves are possible
+					checkComplete = true;
+				} else if(markedDices.usedCount() > mandatoryCheckers) {
+					throw new RuntimeException("More moves then mandatory chekcer");
+				}
+			}
 			
-			assert (foundDices.isSingleOption()); // for mandatory always 1 item
-			markedDices = foundDices.getOption1();
-			if(markedDices.usedCount() < mandatoryCheckers) {
-				SE.info("game.cannot_play_all_mandatory_moves");
-				checkComplete = true;
-			} else if(markedDices.allUsed()) {
-				// all moves are possible
-				checkComplete = true;
-			} else if(markedDices.usedCount() > mandatoryCheckers) {
-				throw new RuntimeException("More moves then mandatory chekcer");
+			if ( ! checkComplete) {
+				foundDices = findDices(false, currentPlayer, markedDices);
 			}
+			
+			// invert the dice marking before returning
+			foundDices.convertStatusFromTestToPlay();
+			return foundDices;
+		} finally {
+			METRICS.stop(EngineMetrics.Operation.FIND_PLAYABLE_DICES, start);
 		}
-		
-		if ( ! checkComplete) {
-			foundDices = findDices(false, currentPlayer, markedDices);
-		}
-		
-		// invert the dice marking before returning
-		foundDices.convertStatusFromTestToPlay();
-		return foundDices;
 	}
 	
 	/**
@@ -713,7 +1225,7 @@ public abstract class Game implements IGame {
 		if(mandatoryPosition) {
 			checkPositions = new Positions().add(getMandatoryPosition(currentPlayer, testBoard));
 		} else {
-			checkPositions = testBoard.createPlayerView(currentPlayer);
+			checkPositions = getPlayerView(testBoard, currentPlayer);
 			applyMandatoryMoves(currentPlayer, testBoard, testDices);
 		}
 		IAvailableDices playableDices = new AvailableDices().initialize(testDices, false);
@@ -734,7 +1246,7 @@ public abstract class Game implements IGame {
 				if(mandatoryPosition) {
 					checkPositions = new Positions().add(getMandatoryPosition(currentPlayer, testBoard));
 				} else {
-					checkPositions = testBoard.createPlayerView(currentPlayer);
+					checkPositions = getPlayerView(testBoard, currentPlayer);
 					applyMandatoryMoves(currentPlayer, testBoard, testDices);
 				}
 				playableDices = new AvailableDices().initialize(testDices, true);
@@ -795,7 +1307,7 @@ public abstract class Game implements IGame {
 		for(Iterator<IPosition> positionIterator = checkPositions.get().iterator(); positionIterator.hasNext(); ) {
 			IPosition position = positionIterator.next();
 			
-			if((position.hasCheckers() == false) || (position.readTopChecker().getOwner().equals(currentPlayer.getID()) == false)) {
+			if((position.hasCheckers() == false) || (position.readTopChecker().getOwner() != currentPlayer.getID())) {
 				continue; // minimum condition not satisfied
 			}
 			int currentPosition = position.getIndexIn(checkPositions);
@@ -813,6 +1325,23 @@ public abstract class Game implements IGame {
 		}
 	}
 
+	/**
+	 * Get the relative target {@link IPosition}s no {@link IChecker} of the {@link IPlayer} can move to
+	 * with a dice value, as bit mask where bit {@code n} stands for the relative {@link IPosition}
+	 * {@code n}. The move search skips the start {@link IPosition}s of these targets without trying them.
+	 * 
+	 * The default knows no blocked targets; a {@link Game} whose blocking only depends on the top
+	 * {@link IChecker} of the target answers it from the {@link Board} masks.
+	 * 
+	 * @param player the {@link IPlayer} to move.
+	 * @param board the {@link Board}.
+	 * @param diceValue the dice value, 1 to 6.
+	 * @return the bit mask of the blocked relative target {@link IPosition}s.
+	 */
+	protected int getBlockedTargets(IPlayer player, Board board, int diceValue) {
+		return 0;
+	}
+	
 	/**
 	 * Get the mandatory {@link IPosition}. This depends on the {@link IGame} and the {@link IPlayer}.
 	 * Even if the {@link IGame} defines such a position it is checked if it is empty; an empty
@@ -822,11 +1351,11 @@ public abstract class Game implements IGame {
 	 * @param testBoard the {@link IBoard} to use for playing the moves.
 	 * @return A found mandatory {@link IPosition}, or {@code null}.
 	 */
-	private IPosition getMandatoryPosition(IPlayer currentPlayer, IBoard testBoard) {
+	IPosition getMandatoryPosition(IPlayer currentPlayer, IBoard testBoard) {
 		IPosition mandatoryPosition = null;
 		
 		if(hasPosition0()) {
-			IPosition position0 = testBoard.createPlayerView(currentPlayer).get(RELATIVE_HIT_POS);
+			IPosition position0 = getPlayerView(testBoard, currentPlayer).get(RELATIVE_HIT_POS);
 			if(position0.hasCheckers()) {
 				mandatoryPosition = position0;
 			}
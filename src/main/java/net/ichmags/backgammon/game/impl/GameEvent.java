@@ -0,0 +1,34 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder event of a {@link Game}, from the start to the end; created by the
+ * {@link EngineEvents} only.
+ * 
+ * @author Anastasios Patrikis
+ */
+@Name("net.ichmags.backgammon.Game")
+@Label("Backgammon Game")
+@Category("Backgammon")
+@Description("A game from the start to the end")
+final class GameEvent extends jdk.jfr.Event {
+	
+	@Label("Variant")
+	String variant;
+	
+	@Label("Starting Player")
+	String startingPlayer;
+	
+	@Label("Winner")
+	String winner;
+	
+	@Label("Points")
+	int points;
+}
@@ -0,0 +1,76 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import net.ichmags.backgammon.game.IGame;
+
+/**
+ * The {@code GameFactory} is a registry of the {@link Supplier}s that create {@link IGame} instances,
+ * so no reflection is needed for the known variants. {@link Portes}, {@link Plakoto} and {@link Fevga}
+ * are registered from the start; other {@link IGame} classes may be registered, and unregistered ones
+ * are created by their default {@link Constructor}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class GameFactory {
+	
+	/**
+	 * {@code Singleton} pattern.
+	 */
+	private static GameFactory INSTANCE = new GameFactory();
+	
+	private Map<Class<? extends IGame>, Supplier<? extends IGame>> suppliers;
+	
+	/**
+	 * {@code private} default {@link Constructor} to enforce the {@code singleton} pattern.
+	 */
+	private GameFactory() {
+		suppliers = new ConcurrentHashMap<>(8, 0.9f, 1);
+		register(Portes.class, Portes::new);
+		register(Plakoto.class, Plakoto::new);
+		register(Fevga.class, Fevga::new);
+	}
+	
+	/**
+	 * Get a reference to the {@code singleton} instance.
+	 * 
+	 * @return the reference to the sole {@link Object} of this class.
+	 */
+	public static GameFactory get() {
+		return INSTANCE;
+	}
+	
+	/**
+	 * Register the {@link Supplier} for a {@link IGame} class; an existing registration is replaced.
+	 * 
+	 * @param gameClass the {@link IGame} class.
+	 * @param supplier the {@link Supplier} creating new, not initialized instances of the class.
+	 * @return the {@code GameFactory}.
+	 */
+	public <T extends IGame> GameFactory register(Class<T> gameClass, Supplier<T> supplier) {
+		suppliers.put(gameClass, supplier);
+		return this;
+	}
+	
+	/**
+	 * Create a new {@link IGame} instance.
+	 * <b>Call {@link IGame#initialize(net.ichmags.backgammon.setup.IPlayer, net.ichmags.backgammon.setup.IPlayer,
+	 * net.ichmags.backgammon.interaction.ICommandProvider)} to make the instance usable.</b>
+	 * 
+	 * @param gameClass the {@link IGame} class to create.
+	 * @return the new {@link IGame}.
+	 * @throws ReflectiveOperationException in case the class is not registered and cannot be
+	 * created by its default {@link Constructor}.
+	 */
+	public IGame create(Class<? extends IGame> gameClass)
+	throws ReflectiveOperationException {
+		Supplier<? extends IGame> supplier = suppliers.get(gameClass);
+		return (supplier != null) ? supplier.get() : gameClass.newInstance();
+	}
+}
@@ -0,0 +1,488 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import net.ichmags.backgammon.interaction.ICommand;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.statistic.IGameStatistics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@code GameHibernator} holds many {@link GameSession}s, but keeps only the recently used ones on
+ * the heap. A {@link GameSession} is hibernated to a file, as {@link GameSnapshot}, when
+ * <ul>
+ * <li>it was not used for the idle period, see {@link #hibernateIdle()}</li>
+ * <li>more than the maximum number of resident {@link GameSession}s are in use; the least recently
+ * used one is hibernated</li>
+ * </ul>
+ * The next event for a hibernated {@link GameSession} restores it transparently, with a new {@link Game}
+ * from the {@link GamePool}. The {@link Game} of a hibernated {@link GameSession} is not released to the
+ * {@link GamePool}, since the caller of {@link #add(GameSession)} may still hold it; after adding, a
+ * {@link GameSession} must only be used through the {@code GameHibernator}.
+ * 
+ * The files are written and read outside of the lock of the {@code GameHibernator}: events for other
+ * {@link GameSession}s go on, and events for a {@link GameSession} being hibernated or woken up wait
+ * until it is done.
+ * 
+ * The {@link IGameStatistics} stay on the heap while a {@link GameSession} is hibernated, and are
+ * handed to the restored {@link Game}. A {@link GameSession} with moves that can be undone, or with a
+ * {@link MatchJournal}, is not hibernated, since that state is not part of the {@link GameSnapshot}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class GameHibernator {
+	
+	private static Logger LOG = LoggerFactory.getLogger(GameHibernator.class);
+	
+	private static final String FILE_SUFFIX = ".game";
+	private static final int NO_PLAYER = 0xFF;
+	
+	/**
+	 * Where a {@link GameSession} is.
+	 */
+	private enum Residency {
+		RESIDENT,
+		HIBERNATING,
+		HIBERNATED,
+		WAKING
+	}
+	
+	/**
+	 * The data kept for each {@link GameSession}, hibernated or not.
+	 */
+	private static class Entry {
+		private IPlayer player1;
+		private IPlayer player2;
+		private long lastAccess;
+		private int eventsInProgress;
+		private Residency residency;
+		private IGameStatistics statistics;
+	}
+	
+	private Path directory;
+	private int maxResidentGames;
+	private long idleNanos;
+	private long nextID;
+	private Map<Long, Entry> entries;
+	private LinkedHashMap<Long, GameSession> residentSessions;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param directory the directory for the hibernated {@link GameSession}s.
+	 * @param maxResidentGames the maximum number of {@link GameSession}s on the heap.
+	 * @param idlePeriod the time after which an unused {@link GameSession} may be hibernated.
+	 * @param unit the {@link TimeUnit} of the idle period.
+	 * @throws IOException in case the directory cannot be created.
+	 */
+	public GameHibernator(Path directory, int maxResidentGames, long idlePeriod, TimeUnit unit)
+	throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.maxResidentGames = maxResidentGames;
+		this.idleNanos = unit.toNanos(idlePeriod);
+		this.nextID = 1L;
+		this.entries = new HashMap<>();
+		this.residentSessions = new LinkedHashMap<>(16, 0.75f, true); // access order: LRU first
+	}
+	
+	/**
+	 * Add a {@link GameSession}.
+	 * 
+	 * @param session the {@link GameSession}; use it only through the {@code GameHibernator} afterwards.
+	 * @return the ID to address the {@link GameSession}.
+	 */
+	public long add(GameSession session) {
+		Entry entry = new Entry();
+		entry.player1 = session.getGame().getPlayerOne();
+		entry.player2 = session.getGame().getPlayerTwo();
+		entry.lastAccess = System.nanoTime();
+		entry.residency = Residency.RESIDENT;
+		
+		long id;
+		Map<Long, GameSession> evicted;
+		synchronized (this) {
+			id = nextID++;
+			entries.put(id, entry);
+			residentSessions.put(id, session);
+			evicted = selectLeastRecentlyUsed(id);
+		}
+		hibernate(evicted, false);
+		return id;
+	}
+	
+	/**
+	 * Run an event on a {@link GameSession}, restoring it if it is hibernated. The {@link GameSession} is
+	 * not hibernated while the event runs; the event must not keep a reference to it.
+	 * 
+	 * @param <T> the type of the result.
+	 * @param id the ID of the {@link GameSession}.
+	 * @param event the event.
+	 * @return the result of the event.
+	 * @throws IllegalArgumentException in case the ID is unknown.
+	 * @throws UncheckedIOException in case the {@link GameSession} cannot be read.
+	 */
+	public <T> T apply(long id, Function<GameSession, T> event) {
+		GameSession session = startEvent(id);
+		try {
+			return event.apply(session);
+		} finally {
+			endEvent(id);
+		}
+	}
+	
+	/**
+	 * Forward a {@link ICommand} to a {@link GameSession}, see {@link GameSession#handle(ICommand)}.
+	 * 
+	 * @param id the ID of the {@link GameSession}.
+	 * @param cmd the {@link ICommand}.
+	 * @return the new {@link GameSession.State}.
+	 */
+	public GameSession.State handle(long id, ICommand cmd) {
+		return apply(id, session -> session.handle(cmd));
+	}
+	
+	/**
+	 * Forward the selected {@link IDices} to a {@link GameSession}, see {@link GameSession#chooseDices(IDices)}.
+	 * 
+	 * @param id the ID of the {@link GameSession}.
+	 * @param dices the {@link IDices}.
+	 * @return the new {@link GameSession.State}.
+	 */
+	public GameSession.State chooseDices(long id, IDices dices) {
+		return apply(id, session -> session.chooseDices(dices));
+	}
+	
+	/**
+	 * Remove a {@link GameSession}, for instance when it is finished.
+	 * 
+	 * @param id the ID of the {@link GameSession}.
+	 * @throws IOException in case the file of a hibernated {@link GameSession} cannot be deleted.
+	 */
+	public void remove(long id)
+	throws IOException {
+		boolean hibernated;
+		synchronized (this) {
+			if(awaitSettled(id) == null) {
+				return;
+			}
+			entries.remove(id);
+			hibernated = (residentSessions.remove(id) == null);
+		}
+		if(hibernated) {
+			Files.deleteIfExists(getFile(id));
+		}
+	}
+	
+	/**
+	 * Hibernate all resident {@link GameSession}s that were not used for the idle period.
+	 * Call this method regularly, for instance from a {@link java.util.concurrent.ScheduledExecutorService}.
+	 * 
+	 * @return the number of hibernated {@link GameSession}s.
+	 * @throws UncheckedIOException in case a {@link GameSession} cannot be written; it stays on the heap.
+	 */
+	public int hibernateIdle() {
+		Map<Long, GameSession> idle = new LinkedHashMap<>();
+		synchronized (this) {
+			long now = System.nanoTime();
+			Iterator<Map.Entry<Long, GameSession>> resident = residentSessions.entrySet().iterator();
+			while(resident.hasNext()) {
+				Map.Entry<Long, GameSession> session = resident.next();
+				Entry entry = entries.get(session.getKey());
+				if(canHibernate(entry, session.getValue()) && ((now - entry.lastAccess) >= idleNanos)) {
+					idle.put(session.getKey(), session.getValue());
+					entry.residency = Residency.HIBERNATING;
+					resident.remove();
+				}
+			}
+		}
+		return hibernate(idle, true);
+	}
+	
+	/**
+	 * @param id the ID of the {@link GameSession}.
+	 * @return {@code true} if the {@link GameSession} is on the heap.
+	 */
+	public synchronized boolean isResident(long id) {
+		return residentSessions.containsKey(id);
+	}
+	
+	/**
+	 * @return the number of {@link GameSession}s on the heap.
+	 */
+	public synchronized int getNrOfResidentGames() {
+		return residentSessions.size();
+	}
+	
+	/**
+	 * @return the number of {@link GameSession}s, on the heap or hibernated.
+	 */
+	public synchronized int getNrOfGames() {
+		return entries.size();
+	}
+	
+	/**
+	 * Get a {@link GameSession} for an event, restoring it if it is hibernated; it will not be hibernated
+	 * until {@link #endEvent(long)}. The file is read outside of the lock of the {@code GameHibernator}.
+	 * 
+	 * @param id the ID of the {@link GameSession}.
+	 * @return the {@link GameSession}.
+	 * @throws IllegalArgumentException in case the ID is unknown.
+	 * @throws UncheckedIOException in case the {@link GameSession} cannot be read.
+	 */
+	private GameSession startEvent(long id) {
+		Entry entry;
+		synchronized (this) {
+			entry = awaitSettled(id);
+			if(entry == null) {
+				throw new IllegalArgumentException("Unknown game: " + id);
+			}
+			entry.eventsInProgress++;
+			entry.lastAccess = System.nanoTime();
+			if(entry.residency == Residency.RESIDENT) {
+				return residentSessions.get(id);
+			}
+			entry.residency = Residency.WAKING;
+		}
+		
+		GameSession session;
+		try {
+			session = wakeUp(id, entry);
+		} catch (RuntimeException e) {
+			synchronized (this) {
+				entry.residency = Residency.HIBERNATED;
+				entry.eventsInProgress--;
+				notifyAll();
+			}
+			throw e;
+		}
+		
+		Map<Long, GameSession> evicted;
+		synchronized (this) {
+			entry.residency = Residency.RESIDENT;
+			entry.statistics = null;
+			residentSessions.put(id, session);
+			evicted = selectLeastRecentlyUsed(id);
+			notifyAll();
+		}
+		hibernate(evicted, false);
+		return session;
+	}
+	
+	/**
+	 * Allow to hibernate a {@link GameSession} again after an event.
+	 * 
+	 * @param id the ID of the {@link GameSession}.
+	 */
+	private synchronized void endEvent(long id) {
+		Entry entry = entries.get(id);
+		if(entry != null) {
+			entry.eventsInProgress--;
+			entry.lastAccess = System.nanoTime();
+		}
+	}
+	
+	/**
+	 * Wait until a {@link GameSession} is neither hibernated nor woken up by another thread.
+	 * Call it with the lock of the {@code GameHibernator}.
+	 * 
+	 * @param id the ID of the {@link GameSession}.
+	 * @return the {@link Entry}, or {@code null} if the ID is unknown.
+	 * @throws IllegalStateException in case the thread is interrupted while waiting.
+	 */
+	private Entry awaitSettled(long id) {
+		Entry entry = entries.get(id);
+		while((entry != null) && ((entry.residency == Residency.HIBERNATING) || (entry.residency == Residency.WAKING))) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for game " + id, e);
+			}
+			entry = entries.get(id);
+		}
+		return entry;
+	}
+	
+	/**
+	 * Take the least recently used {@link GameSession}s above the limit off the heap, to be hibernated.
+	 * Call it with the lock of the {@code GameHibernator}.
+	 * 
+	 * @param id the ID of the {@link GameSession} just put on the heap, it stays.
+	 * @return the {@link GameSession}s to hibernate, by ID.
+	 */
+	private Map<Long, GameSession> selectLeastRecentlyUsed(long id) {
+		Map<Long, GameSession> evicted = new LinkedHashMap<>();
+		
+		// sessions with an event in progress stay, even if the limit is exceeded for a while
+		Iterator<Map.Entry<Long, GameSession>> lru = residentSessions.entrySet().iterator();
+		while((residentSessions.size() > maxResidentGames) && lru.hasNext()) {
+			Map.Entry<Long, GameSession> eldest = lru.next();
+			Entry entry = entries.get(eldest.getKey());
+			if((eldest.getKey() != id) && canHibernate(entry, eldest.getValue())) {
+				evicted.put(eldest.getKey(), eldest.getValue());
+				entry.residency = Residency.HIBERNATING;
+				lru.remove();
+			}
+		}
+		return evicted;
+	}
+	
+	/**
+	 * @param entry the {@link Entry} of the {@link GameSession}.
+	 * @param session the resident {@link GameSession}.
+	 * @return {@code true} if no event is in progress, and the {@link Game} has no state that would get lost.
+	 */
+	private static boolean canHibernate(Entry entry, GameSession session) {
+		return (entry.eventsInProgress == 0) && ! session.getGame().hasTransientState();
+	}
+	
+	/**
+	 * Write {@link GameSession}s taken off the heap to their files, outside of the lock of the
+	 * {@code GameHibernator}. A {@link GameSession} that cannot be written goes back on the heap.
+	 * 
+	 * @param sessions the {@link GameSession}s by ID.
+	 * @param throwFailure {@code true} to throw in case of a failure, {@code false} to log it.
+	 * @return the number of hibernated {@link GameSession}s.
+	 * @throws UncheckedIOException in case a {@link GameSession} cannot be written, and failures are thrown.
+	 */
+	private int hibernate(Map<Long, GameSession> sessions, boolean throwFailure) {
+		int hibernated = 0;
+		IOException failure = null;
+		for(Map.Entry<Long, GameSession> session : sessions.entrySet()) {
+			boolean written = false;
+			try {
+				write(session.getKey(), session.getValue());
+				written = true;
+				hibernated++;
+			} catch (IOException e) {
+				if(failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			} finally {
+				hibernated(session.getKey(), session.getValue(), written);
+			}
+		}
+		
+		if(failure != null) {
+			if(throwFailure) {
+				throw new UncheckedIOException("Cannot hibernate games, they stay on the heap", failure);
+			}
+			LOG.error("Cannot hibernate games, they stay on the heap", failure);
+		}
+		return hibernated;
+	}
+	
+	/**
+	 * Finish the hibernation of a {@link GameSession}, and wake up the events waiting for it.
+	 * 
+	 * @param id the ID of the {@link GameSession}.
+	 * @param session the {@link GameSession}.
+	 * @param written {@code true} if the file was written, {@code false} to put it back on the heap.
+	 */
+	private synchronized void hibernated(long id, GameSession session, boolean written) {
+		Entry entry = entries.get(id);
+		if(written) {
+			entry.residency = Residency.HIBERNATED;
+			entry.statistics = session.getGame().getStatistics();
+		} else {
+			entry.residency = Residency.RESIDENT;
+			residentSessions.put(id, session);
+		}
+		notifyAll();
+	}
+	
+	/**
+	 * Write a {@link GameSession} to its file.
+	 * The file holds the {@link GameSession.State}, the winner and the {@link GameSnapshot}.
+	 * 
+	 * @param id the ID of the {@link GameSession}.
+	 * @param session the {@link GameSession}.
+	 * @throws IOException in case the file cannot be written.
+	 */
+	private void write(long id, GameSession session)
+	throws IOException {
+		byte[] snapshot;
+		GameSession.State state;
+		IPlayer winner;
+		synchronized (session) {
+			snapshot = session.snapshot().toBytes();
+			state = session.getState();
+			winner = session.getWinner();
+		}
+		
+		ByteBuffer buffer = ByteBuffer.allocate(2 + snapshot.length);
+		buffer.put((byte)state.ordinal());
+		buffer.put((byte)((winner != null) ? winner.getID().ordinal() : NO_PLAYER));
+		buffer.put(snapshot);
+		Files.write(getFile(id), buffer.array());
+	}
+	
+	/**
+	 * Restore a hibernated {@link GameSession}, with its {@link IGameStatistics}, and delete its file.
+	 * 
+	 * @param id the ID of the {@link GameSession}.
+	 * @param entry the {@link Entry} of the {@link GameSession}.
+	 * @return the restored {@link GameSession}.
+	 */
+	private GameSession wakeUp(long id, Entry entry) {
+		try {
+			Path file = getFile(id);
+			byte[] data = Files.readAllBytes(file);
+			
+			GameSession.State state = GameSession.State.values()[data[0]];
+			IPlayer winner = getPlayer(entry, data[1] & 0xFF);
+			GameSnapshot snapshot = GameSnapshot.fromBytes(Arrays.copyOfRange(data, 2, data.length));
+			IPlayer.ID playerToMove = snapshot.getPlayerToMove();
+			Game game = snapshot.restore(entry.player1, entry.player2, null);
+			game.statistics = entry.statistics;
+			
+			Files.delete(file);
+			return new GameSession(game, state, (playerToMove != null) ? getPlayer(entry, playerToMove.ordinal()) : null, winner);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot restore game " + id, e);
+		} catch (ReflectiveOperationException e) {
+			throw new RuntimeException("Cannot create game " + id, e);
+		}
+	}
+	
+	/**
+	 * Get a {@link IPlayer} of a {@link GameSession}.
+	 * 
+	 * @param entry the {@link Entry} of the {@link GameSession}.
+	 * @param playerOrdinal the {@link IPlayer.ID} ordinal, or {@link #NO_PLAYER}.
+	 * @return the {@link IPlayer}, or {@code null}.
+	 */
+	private static IPlayer getPlayer(Entry entry, int playerOrdinal) {
+		if(playerOrdinal == NO_PLAYER) {
+			return null;
+		}
+		return (entry.player1.getID().ordinal() == playerOrdinal) ? entry.player1 : entry.player2;
+	}
+	
+	/**
+	 * @param id the ID of the {@link GameSession}.
+	 * @return the file of the hibernated {@link GameSession}.
+	 */
+	private Path getFile(long id) {
+		return directory.resolve(id + FILE_SUFFIX);
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.ichmags.backgammon.game.IGame;
+import net.ichmags.backgammon.interaction.ICommandProvider;
+import net.ichmags.backgammon.setup.IPlayer;
+
+/**
+ * The {@code GamePool} keeps finished {@link IGame} instances per variant for reuse, so playing many
+ * short {@link IGame}s does not set up a new {@link IGame} with its {@link net.ichmags.backgammon.setup.IBoard}
+ * and {@link net.ichmags.backgammon.setup.IDices} each time.
+ * New instances are created by the {@link GameFactory}.
+ * 
+ * The {@code GamePool} may be used from different threads.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class GamePool {
+	
+	private static final int DEFAULT_MAX_IDLE_GAMES = 16;
+	
+	/**
+	 * {@code Singleton} pattern.
+	 */
+	private static GamePool INSTANCE = new GamePool();
+	
+	private Map<Class<? extends IGame>, Deque<IGame>> idleGames;
+	private volatile int maxIdleGames;
+	
+	/**
+	 * {@code private} default {@link Constructor} to enforce the {@code singleton} pattern.
+	 */
+	private GamePool() {
+		idleGames = new ConcurrentHashMap<>(8, 0.9f, 1);
+		maxIdleGames = DEFAULT_MAX_IDLE_GAMES;
+	}
+	
+	/**
+	 * Get a reference to the {@code singleton} instance.
+	 * 
+	 * @return the reference to the sole {@link Object} of this class.
+	 */
+	public static GamePool get() {
+		return INSTANCE;
+	}
+	
+	/**
+	 * Get a ready to play {@link IGame}: an idle instance of the variant if available, otherwise
+	 * a new one from the {@link GameFactory}.
+	 * 
+	 * @param gameClass the {@link IGame} variant.
+	 * @param player1 the {@link IPlayer} number 1.
+	 * @param player2 the {@link IPlayer} number 2.
+	 * @param commandProvider the {@link ICommandProvider} for the {@link IGame}.
+	 * @return the initialized {@link IGame}.
+	 * @throws ReflectiveOperationException in case a new instance cannot be created.
+	 */
+	public IGame acquire(Class<? extends IGame> gameClass, IPlayer player1, IPlayer player2, ICommandProvider commandProvider)
+	throws ReflectiveOperationException {
+		IGame game = null;
+		
+		Deque<IGame> idle = idleGames.get(gameClass);
+		if(idle != null) {
+			synchronized (idle) {
+				game = idle.pollFirst();
+			}
+		}
+		
+		if(game == null) {
+			game = GameFactory.get().create(gameClass);
+		}
+		
+		return game.initialize(player1, player2, commandProvider);
+	}
+	
+	/**
+	 * Return a finished {@link IGame} for reuse. The {@link IGame} will be dropped if the pool already
+	 * holds the maximum number of idle instances of the variant.
+	 * <b>The {@link IGame} must not be used by the caller after the release.</b>
+	 * 
+	 * @param game the finished {@link IGame}.
+	 * @return {@code true} if the {@link IGame} was added to the pool.
+	 */
+	public boolean release(IGame game) {
+		Deque<IGame> idle = idleGames.computeIfAbsent(game.getClass(), gameClass -> new ArrayDeque<>());
+		synchronized (idle) {
+			if(idle.size() < maxIdleGames) {
+				idle.addFirst(game);
+				return true;
+			} else {
+				return false;
+			}
+		}
+	}
+	
+	/**
+	 * Set the maximum number of idle {@link IGame}s kept per variant.
+	 * 
+	 * @param maxIdleGames the maximum number of idle {@link IGame}s.
+	 */
+	public void setMaxIdleGames(int maxIdleGames) {
+		this.maxIdleGames = maxIdleGames;
+	}
+	
+	/**
+	 * Remove all idle {@link IGame}s.
+	 */
+	public void clear() {
+		idleGames.clear();
+	}
+}
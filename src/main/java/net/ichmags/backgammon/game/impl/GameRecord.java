@@ -0,0 +1,220 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.IPosition;
+
+/**
+ * A {@code GameRecord} is the course of a {@link Game}: the variant, the starting {@link IPlayer} and for
+ * each turn the rolled {@link IDice} and the played moves. It is the input of the {@link GameReplay}.
+ * 
+ * The turns are kept in one byte array, with an index of the turn offsets:
+ * <ol>
+ * <li>the {@link IPlayer.ID} ordinal in bit 7 and the number of moves in bits 0 to 2</li>
+ * <li>the values of both {@link IDice}, the first one in the upper 4 bits</li>
+ * <li>one byte per move: the relative start {@link IPosition} in bits 3 to 7, the distance in bits 0 to 2</li>
+ * </ol>
+ * The format of {@link #toBytes()} is the variant as in {@link GameSnapshot}, the starting
+ * {@link IPlayer.ID} ordinal and the turns.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class GameRecord {
+	
+	private static final int PLAYER_TWO = 0x80;
+	private static final int MOVES_MASK = 0x07;
+	private static final int MAX_MOVES = 4;
+	private static final int HEADER_SIZE = 2;
+	
+	private final Class<? extends Game> variant;
+	private final IPlayer.ID startingPlayer;
+	private byte[] data;
+	private int size;
+	private int[] turnOffsets;
+	private int nrOfTurns;
+	
+	/**
+	 * Constructor for an empty {@code GameRecord}, add the turns with {@link #addTurn(IPlayer.ID, int, int)}
+	 * and {@link #addMove(int, int)}.
+	 * 
+	 * @param variant the {@link Game} variant.
+	 * @param startingPlayer the {@link IPlayer.ID} of the starting {@link IPlayer}.
+	 */
+	public GameRecord(Class<? extends Game> variant, IPlayer.ID startingPlayer) {
+		this.variant = GameSnapshot.variantClass(GameSnapshot.variantID(variant));
+		this.startingPlayer = startingPlayer;
+		this.data = new byte[256];
+		this.size = 0;
+		this.turnOffsets = new int[64];
+		this.nrOfTurns = 0;
+	}
+	
+	/**
+	 * Read a {@code GameRecord}.
+	 * 
+	 * @param bytes the bytes of a {@code GameRecord}, see {@link #toBytes()}.
+	 * @return the {@code GameRecord}.
+	 * @throws IllegalArgumentException in case the bytes are not a {@code GameRecord}.
+	 */
+	public static GameRecord fromBytes(byte[] bytes) {
+		if(bytes.length < 2) {
+			throw new IllegalArgumentException("Not a game record");
+		}
+		GameRecord record = new GameRecord(GameSnapshot.variantClass(bytes[0]), IPlayer.ID.values()[bytes[1]]);
+		ByteBuffer turns = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+		while(turns.hasRemaining()) {
+			int header = turns.get() & 0xFF;
+			if(turns.remaining() < 1 + (header & MOVES_MASK)) {
+				throw new IllegalArgumentException("Incomplete turn in game record: " + record.nrOfTurns);
+			}
+			int diceValues = turns.get();
+			record.addTurn(((header & PLAYER_TWO) != 0) ? IPlayer.ID.TWO : IPlayer.ID.ONE, (diceValues >> 4) & 0x0F, diceValues & 0x0F);
+			for(int move = 0; move < (header & MOVES_MASK); move++) {
+				int encodedMove = turns.get() & 0xFF;
+				record.addMove(encodedMove >> 3, encodedMove & MOVES_MASK);
+			}
+		}
+		return record;
+	}
+	
+	/**
+	 * @return the {@code GameRecord} as bytes.
+	 */
+	public byte[] toBytes() {
+		byte[] bytes = new byte[2 + size];
+		bytes[0] = (byte)GameSnapshot.variantID(variant);
+		bytes[1] = (byte)startingPlayer.ordinal();
+		System.arraycopy(data, 0, bytes, 2, size);
+		return bytes;
+	}
+	
+	/**
+	 * Add a turn.
+	 * 
+	 * @param player the {@link IPlayer.ID} of the {@link IPlayer} who rolled.
+	 * @param dice1 the value of the first {@link IDice}.
+	 * @param dice2 the value of the second {@link IDice}.
+	 * @return the {@code GameRecord}.
+	 */
+	public GameRecord addTurn(IPlayer.ID player, int dice1, int dice2) {
+		if(nrOfTurns == turnOffsets.length) {
+			turnOffsets = Arrays.copyOf(turnOffsets, 2 * nrOfTurns);
+		}
+		ensureCapacity(HEADER_SIZE);
+		turnOffsets[nrOfTurns++] = size;
+		data[size++] = (byte)((player == IPlayer.ID.TWO) ? PLAYER_TWO : 0);
+		data[size++] = (byte)((dice1 << 4) | dice2);
+		return this;
+	}
+	
+	/**
+	 * Add a move to the last turn.
+	 * 
+	 * @param fromPosition the relative start {@link IPosition}.
+	 * @param distance the distance.
+	 * @return the {@code GameRecord}.
+	 * @throws IllegalStateException in case there is no turn, or the turn has all moves already.
+	 */
+	public GameRecord addMove(int fromPosition, int distance) {
+		if(nrOfTurns == 0) {
+			throw new IllegalStateException("Add a turn before the moves");
+		}
+		int header = turnOffsets[nrOfTurns - 1];
+		int nrOfMoves = data[header] & MOVES_MASK;
+		if(nrOfMoves == MAX_MOVES) {
+			throw new IllegalStateException("A turn has at most " + MAX_MOVES + " moves");
+		}
+		ensureCapacity(1);
+		data[size++] = (byte)((fromPosition << 3) | distance);
+		data[header]++;
+		return this;
+	}
+	
+	/**
+	 * @return the {@link Game} variant.
+	 */
+	public Class<? extends Game> getVariant() {
+		return variant;
+	}
+	
+	/**
+	 * @return the {@link IPlayer.ID} of the starting {@link IPlayer}.
+	 */
+	public IPlayer.ID getStartingPlayer() {
+		return startingPlayer;
+	}
+	
+	/**
+	 * @return the number of turns.
+	 */
+	public int getNrOfTurns() {
+		return nrOfTurns;
+	}
+	
+	/**
+	 * @param turn the turn index.
+	 * @return the {@link IPlayer.ID} of the {@link IPlayer} of the turn.
+	 */
+	public IPlayer.ID getPlayer(int turn) {
+		return ((data[turnOffsets[turn]] & PLAYER_TWO) != 0) ? IPlayer.ID.TWO : IPlayer.ID.ONE;
+	}
+	
+	/**
+	 * @param turn the turn index.
+	 * @return the value of the first {@link IDice}.
+	 */
+	public int getDice1(int turn) {
+		return (data[turnOffsets[turn] + 1] >> 4) & 0x0F;
+	}
+	
+	/**
+	 * @param turn the turn index.
+	 * @return the value of the second {@link IDice}.
+	 */
+	public int getDice2(int turn) {
+		return data[turnOffsets[turn] + 1] & 0x0F;
+	}
+	
+	/**
+	 * @param turn the turn index.
+	 * @return the number of moves of the turn.
+	 */
+	public int getNrOfMoves(int turn) {
+		return data[turnOffsets[turn]] & MOVES_MASK;
+	}
+	
+	/**
+	 * @param turn the turn index.
+	 * @param move the move index within the turn.
+	 * @return the relative start {@link IPosition} of the move.
+	 */
+	public int getFromPosition(int turn, int move) {
+		return (data[turnOffsets[turn] + HEADER_SIZE + move] & 0xFF) >> 3;
+	}
+	
+	/**
+	 * @param turn the turn index.
+	 * @param move the move index within the turn.
+	 * @return the distance of the move.
+	 */
+	public int getDistance(int turn, int move) {
+		return data[turnOffsets[turn] + HEADER_SIZE + move] & MOVES_MASK;
+	}
+	
+	/**
+	 * Grow the turn data if needed.
+	 * 
+	 * @param bytes the number of bytes to add.
+	 */
+	private void ensureCapacity(int bytes) {
+		if(size + bytes > data.length) {
+			data = Arrays.copyOf(data, 2 * data.length);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.ichmags.backgammon.exception.InvalidMoveException;
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.DicesChoice;
+
+/**
+ * The {@code GameReplay} plays a {@link GameRecord} again, to rebuild the state of the {@link Game} after
+ * any turn, or to check a recorded {@link Game} against changed rules.
+ * 
+ * Every move is executed with {@link Game#moveChecker(IPlayer, net.ichmags.backgammon.setup.IBoard, int, IDice)}.
+ * In strict mode (the default) the {@link IDices} that have to be played are determined like in a real
+ * {@link Game} as well, so a turn that does not play all playable {@link IDices} is an error.
+ * 
+ * One {@link Game} instance per variant is reused for all replays; the {@link Game} returned by
+ * {@link #replay(GameRecord, int)} is valid until the next replay. A {@code GameReplay} is not thread
+ * safe, use one instance per thread.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class GameReplay {
+	
+	private IPlayer player1;
+	private IPlayer player2;
+	private boolean strict;
+	private Map<Class<? extends Game>, Game> games;
+	private IPlayer winner;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param player1 the {@link IPlayer} number 1.
+	 * @param player2 the {@link IPlayer} number 2.
+	 */
+	public GameReplay(IPlayer player1, IPlayer player2) {
+		this.player1 = player1;
+		this.player2 = player2;
+		this.strict = true;
+		this.games = new HashMap<>();
+	}
+	
+	/**
+	 * Set the strict mode, which checks that each turn plays all playable {@link IDices}. Without it only
+	 * the single moves are checked, which is faster.
+	 * 
+	 * @param strict {@code true} for the strict mode.
+	 * @return the {@code GameReplay}.
+	 */
+	public GameReplay setStrict(boolean strict) {
+		this.strict = strict;
+		return this;
+	}
+	
+	/**
+	 * Replay all turns of a {@link GameRecord}.
+	 * 
+	 * @param record the {@link GameRecord}.
+	 * @return the {@link Game} after the last turn.
+	 * @throws InvalidMoveException in case the {@link GameRecord} breaks the rules.
+	 */
+	public Game replay(GameRecord record)
+	throws InvalidMoveException {
+		return replay(record, record.getNrOfTurns());
+	}
+	
+	/**
+	 * Replay the first turns of a {@link GameRecord}.
+	 * 
+	 * @param record the {@link GameRecord}.
+	 * @param nrOfTurns the number of turns to replay.
+	 * @return the {@link Game} after the turns.
+	 * @throws InvalidMoveException in case the {@link GameRecord} breaks the rules.
+	 */
+	public Game replay(GameRecord record, int nrOfTurns)
+	throws InvalidMoveException {
+		Game game = getGame(record.getVariant());
+		game.reset();
+		winner = null;
+		replay(game, record, 0, nrOfTurns);
+		return game;
+	}
+	
+	/**
+	 * Get the state before a turn of an {@link IndexedGameRecord}: the nearest keyframe is restored and
+	 * the remaining turns of its interval are replayed.
+	 *
+	 * @param record the {@link IndexedGameRecord}.
+	 * @param turn the number of turns played, up to the number of turns of the {@link GameRecord}.
+	 * @return the {@link Game} after the turns.
+	 * @throws InvalidMoveException in case the {@link GameRecord} breaks the rules.
+	 */
+	public Game seek(IndexedGameRecord record, int turn)
+	throws InvalidMoveException {
+		Game game = getGame(record.getRecord().getVariant());
+		game.restore(record.getKeyframe(turn));
+		winner = game.isAllCheckersCollected(player1) ? player1
+				: game.isAllCheckersCollected(player2) ? player2 : null;
+		replay(game, record.getRecord(), turn / record.getInterval() * record.getInterval(), turn);
+		return game;
+	}
+
+	/**
+	 * @return the winner of the last replay, or {@code null} if the {@link Game} is not finished.
+	 */
+	public IPlayer getWinner() {
+		return winner;
+	}
+	
+	/**
+	 * Replay turns of a {@link GameRecord} on a {@link Game} in the state before the first of them.
+	 * 
+	 * @param game the {@link Game}.
+	 * @param record the {@link GameRecord}.
+	 * @param fromTurn the first turn to replay.
+	 * @param toTurn the turn to stop before.
+	 * @throws InvalidMoveException in case the {@link GameRecord} breaks the rules.
+	 */
+	void replay(Game game, GameRecord record, int fromTurn, int toTurn)
+	throws InvalidMoveException {
+		for(int turn = fromTurn; turn < toTurn; turn++) {
+			if(winner != null) {
+				throw new InvalidMoveException("Turn " + turn + " after the end of the game");
+			}
+			replayTurn(game, record, turn);
+		}
+	}
+	
+	/**
+	 * Replay one turn.
+	 * 
+	 * @param game the {@link Game}.
+	 * @param record the {@link GameRecord}.
+	 * @param turn the turn index.
+	 * @throws InvalidMoveException in case the turn breaks the rules.
+	 */
+	private void replayTurn(Game game, GameRecord record, int turn)
+	throws InvalidMoveException {
+		IPlayer player = (player1.getID() == record.getPlayer(turn)) ? player1 : player2;
+		Dices dices = ((Dices)game.dices).restore(record.getDice1(turn), record.getDice2(turn));
+		int nrOfMoves = record.getNrOfMoves(turn);
+		
+		IDices playDices = dices;
+		if(strict) {
+			if(game.checkIfAnyMoveIsPossible(player, dices)) {
+				DicesChoice dicesChoice = game.findPlayableDices(player, dices);
+				playDices = dicesChoice.getOption1();
+				if( ! dicesChoice.isSingleOption() && (nrOfMoves > 0)
+						&& (playDices.getUnused(record.getDistance(turn, 0)) == null)) {
+					playDices = dicesChoice.getOption2();
+				}
+			}
+		}
+		
+		for(int move = 0; move < nrOfMoves; move++) {
+			if(winner != null) {
+				throw new InvalidMoveException("Turn " + turn + ", move " + move + " after the end of the game");
+			}
+			IDice dice = playDices.getUnused(record.getDistance(turn, move));
+			if((dice == null) || ! game.moveChecker(player, game.board, record.getFromPosition(turn, move), dice).isSuccess()) {
+				throw new InvalidMoveException("Turn " + turn + ", move " + move + " is not valid: "
+						+ record.getFromPosition(turn, move) + " by " + record.getDistance(turn, move));
+			}
+			if(game.isAllCheckersCollected(player)) {
+				winner = player;
+			}
+		}
+		
+		if(strict && (winner == null) && ! playDices.allUsed()) {
+			throw new InvalidMoveException("Turn " + turn + " does not play all playable dices " + playDices);
+		}
+		if(playDices != dices) {
+			playDices.inheritStatus(dices);
+		}
+	}
+	
+	/**
+	 * Get the {@link Game} of a variant, creating it on first use.
+	 * 
+	 * @param variant the {@link Game} variant.
+	 * @return the {@link Game}.
+	 */
+	private Game getGame(Class<? extends Game> variant) {
+		Game game = games.get(variant);
+		if(game == null) {
+			try {
+				game = (Game)GameFactory.get().create(variant).initialize(player1, player2, null);
+			} catch (ReflectiveOperationException e) {
+				throw new RuntimeException("Cannot create game " + variant.getName(), e);
+			}
+			games.put(variant, game);
+		}
+		return game;
+	}
+}
@@ -0,0 +1,322 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import net.ichmags.backgammon.CommonEngine;
+import net.ichmags.backgammon.exception.ExitException;
+import net.ichmags.backgammon.game.IGame;
+import net.ichmags.backgammon.interaction.ICommand;
+import net.ichmags.backgammon.interaction.ICommandProvider;
+import net.ichmags.backgammon.notification.INotification.Level;
+import net.ichmags.backgammon.notification.impl.StatusEmitter;
+import net.ichmags.backgammon.notification.pojo.DicesChangedNotification;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.DicesChoice;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@code GameSession} plays a {@link Game} driven by events instead of a blocking loop.
+ * 
+ * {@link Game#play(IPlayer)} waits on the {@link ICommandProvider} for the whole {@link IGame}, which
+ * binds one thread to each {@link IGame} with a human {@link IPlayer}. A {@code GameSession} advances the
+ * {@link Game} only as far as possible without input, and then returns the {@link State}
+ * describing the input it expects. The caller feeds the input with {@link #chooseDices(IDices)} and
+ * {@link #handle(ICommand)} whenever it arrives, so a few threads can host many {@link IGame}s.
+ * Moves of {@link IPlayer.Type#COMPUTER} {@link IPlayer}s are played without input.
+ * 
+ * The methods are {@code synchronized}, so the events of a {@code GameSession} may arrive on different
+ * threads; they must not be called while {@link Game#play(IPlayer)} runs for the same {@link Game}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class GameSession {
+	
+	private static Logger LOG = LoggerFactory.getLogger(GameSession.class);
+	
+	/**
+	 * The state of a {@link GameSession}, which tells the input it expects next.
+	 */
+	public enum State {
+		/** The {@link IGame} has not been started, call {@link GameSession#start(IPlayer)}. */
+		NOT_STARTED,
+		/** The current {@link IPlayer} has to choose the {@link IDices} to play, call {@link GameSession#chooseDices(IDices)}. */
+		CHOOSE_DICES,
+		/** The current {@link IPlayer} has to move, call {@link GameSession#handle(ICommand)}. */
+		MOVE,
+		/** The {@link IGame} is over, the winner is known. */
+		FINISHED
+	}
+	
+	private Game game;
+	private State state;
+	private IPlayer currentPlayer;
+	private IPlayer winner;
+	private DicesChoice dicesChoice;
+	private IDices selectedDices;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param game the initialized {@link Game} to play.
+	 */
+	public GameSession(Game game) {
+		this.game = game;
+		this.state = State.NOT_STARTED;
+	}
+	
+	/**
+	 * Constructor for a {@link Game} restored from a {@link #snapshot()}.
+	 * In {@link State#MOVE} the {@link IDices} of the {@link Game} are the ones to play, and the
+	 * last move cannot be undone anymore.
+	 * 
+	 * @param game the restored {@link Game}.
+	 * @param state the {@link State} at the time of the {@link GameSnapshot}.
+	 * @param currentPlayer the {@link IPlayer} to move.
+	 * @param winner the winning {@link IPlayer}, or {@code null}.
+	 */
+	GameSession(Game game, State state, IPlayer currentPlayer, IPlayer winner) {
+		this.game = game;
+		this.state = state;
+		this.currentPlayer = currentPlayer;
+		this.winner = winner;
+		
+		if(state == State.CHOOSE_DICES) {
+			dicesChoice = game.findPlayableDices(currentPlayer, game.dices);
+		} else if(state == State.MOVE) {
+			selectedDices = game.dices;
+		}
+	}
+	
+	/**
+	 * Start the {@link IGame} and play until input of a human {@link IPlayer} is needed.
+	 * 
+	 * @param player the {@link IPlayer} to start, or {@code null} to let the {@link IDices} decide.
+	 * @return the new {@link State}.
+	 */
+	public synchronized State start(IPlayer player) {
+		checkState(State.NOT_STARTED);
+		
+		currentPlayer = game.startGame(player);
+		game.startTurn(currentPlayer);
+		return advance();
+	}
+	
+	/**
+	 * Select the {@link IDices} to play, in case not all {@link IDices} can be played.
+	 * 
+	 * @param dices the {@link IDices}, one of the options of {@link #getDicesChoice()}.
+	 * @return the new {@link State}.
+	 */
+	public synchronized State chooseDices(IDices dices) {
+		checkState(State.CHOOSE_DICES);
+		if((dices == null) || ((dices != dicesChoice.getOption1()) && (dices != dicesChoice.getOption2()))) {
+			throw new IllegalArgumentException("The dices are not an option of the current choice: " + dices);
+		}
+		
+		selectedDices = dices;
+		StatusEmitter.get().emitNotification(new DicesChangedNotification(Level.INFO, selectedDices));
+		state = State.MOVE;
+		if(playForcedMoves() && (state != State.FINISHED)) {
+			return advance();
+		}
+		return state;
+	}
+	
+	/**
+	 * Execute a {@link ICommand} of the current {@link IPlayer}. When all {@link IDices} are played
+	 * the {@link IGame} continues until input of a human {@link IPlayer} is needed again.
+	 * 
+	 * @param cmd the {@link ICommand} to execute.
+	 * @return the new {@link State}.
+	 */
+	public synchronized State handle(ICommand cmd) {
+		checkState(State.MOVE);
+		
+		switch (game.executeCommand(currentPlayer, selectedDices, cmd)) {
+			case GAME_WON:
+				finish(currentPlayer);
+				return state;
+			case DICES_PLAYED:
+				if( ! game.isTurnContinued(false)) {
+					nextPlayer();
+				}
+				return advance();
+			default:
+				return state;
+		}
+	}
+	
+	/**
+	 * End the {@link IGame} prematurely: the current {@link IPlayer} gives up and the opponent wins.
+	 * 
+	 * @return the new {@link State}.
+	 */
+	public synchronized State giveUp() {
+		if((state == State.NOT_STARTED) || (state == State.FINISHED)) {
+			throw new IllegalStateException("The game is not running: " + state);
+		}
+		
+		StatusEmitter.get().info("game.player_give_up", currentPlayer.getName());
+		finish(CommonEngine.getOponent(currentPlayer, game.getPlayerOne(), game.getPlayerTwo()));
+		return state;
+	}
+	
+	/**
+	 * Take a {@link GameSnapshot} of the {@link Game}, including the {@link IDices} still to play
+	 * in {@link State#MOVE}.
+	 * 
+	 * @return the {@link GameSnapshot}.
+	 */
+	public synchronized GameSnapshot snapshot() {
+		return GameSnapshot.of(game, currentPlayer, (state == State.MOVE) ? selectedDices : game.dices);
+	}
+	
+	/**
+	 * Play until input of a human {@link IPlayer} is needed, or the {@link IGame} is over.
+	 * 
+	 * @return the new {@link State}.
+	 */
+	private State advance() {
+		while(true) {
+			dicesChoice = game.rollDices(currentPlayer);
+			selectedDices = null;
+			
+			if(dicesChoice == null) {
+				nextPlayer();
+			} else if(IPlayer.Type.LOCAL.equals(currentPlayer.getType())) {
+				if(dicesChoice.isSingleOption()) {
+					selectedDices = dicesChoice.getOption1();
+					state = State.MOVE;
+					if( ! playForcedMoves()) {
+						return state;
+					} else if(state == State.FINISHED) {
+						return state;
+					}
+				} else {
+					state = State.CHOOSE_DICES;
+					return state;
+				}
+			} else if(IPlayer.Type.COMPUTER.equals(currentPlayer.getType())) {
+				boolean gameFinished;
+				try {
+					gameFinished = game.computerPlayer(currentPlayer, dicesChoice);
+				} catch (ExitException e) {
+					LOG.error("Computer player failed", e);
+					finish(CommonEngine.getOponent(currentPlayer, game.getPlayerOne(), game.getPlayerTwo()));
+					return state;
+				}
+				
+				if(gameFinished) {
+					finish(currentPlayer);
+					return state;
+				}
+				if( ! game.isTurnContinued(false)) {
+					nextPlayer();
+				}
+			} else {
+				throw new RuntimeException("Unexpected player type: " + currentPlayer.getType());
+			}
+		}
+	}
+	
+	/**
+	 * Play the selected {@link IDices} if the moves are forced, see {@link Game#setAutoPlayForcedMoves(boolean)},
+	 * and pass the turn on.
+	 * 
+	 * @return {@code true} if the moves were played.
+	 */
+	private boolean playForcedMoves() {
+		Game.CommandResult result = game.playForcedMoves(currentPlayer, selectedDices);
+		if(result == null) {
+			return false;
+		}
+		
+		if(result == Game.CommandResult.GAME_WON) {
+			finish(currentPlayer);
+		} else if( ! game.isTurnContinued(false)) {
+			nextPlayer();
+		}
+		return true;
+	}
+	
+	/**
+	 * Pass the turn to the opponent of the current {@link IPlayer}.
+	 */
+	private void nextPlayer() {
+		currentPlayer = CommonEngine.getOponent(currentPlayer, game.getPlayerOne(), game.getPlayerTwo());
+		game.startTurn(currentPlayer);
+	}
+	
+	/**
+	 * End the {@link IGame}.
+	 * 
+	 * @param winner the winning {@link IPlayer}.
+	 */
+	private void finish(IPlayer winner) {
+		this.winner = winner;
+		this.currentPlayer = winner;
+		this.dicesChoice = null;
+		this.selectedDices = null;
+		game.gameOver(winner);
+		state = State.FINISHED;
+	}
+	
+	/**
+	 * Verify the {@code GameSession} expects the kind of input.
+	 * 
+	 * @param expected the expected {@link State}.
+	 */
+	private void checkState(State expected) {
+		if(state != expected) {
+			throw new IllegalStateException("Expected state " + expected + ", but is " + state);
+		}
+	}
+	
+	/**
+	 * @return the {@link Game} played.
+	 */
+	public Game getGame() {
+		return game;
+	}
+	
+	/**
+	 * @return the current {@link State}.
+	 */
+	public synchronized State getState() {
+		return state;
+	}
+	
+	/**
+	 * @return the {@link IPlayer} whose input is expected, or the winner if the {@link IGame} is over.
+	 */
+	public synchronized IPlayer getCurrentPlayer() {
+		return currentPlayer;
+	}
+	
+	/**
+	 * @return the winning {@link IPlayer}, or {@code null} while the {@link IGame} is running.
+	 */
+	public synchronized IPlayer getWinner() {
+		return winner;
+	}
+	
+	/**
+	 * @return the {@link DicesChoice} of the current {@link IPlayer}, or {@code null} if the {@link IGame}
+	 * is not running or was restored while waiting for a move.
+	 */
+	public synchronized DicesChoice getDicesChoice() {
+		return dicesChoice;
+	}
+	
+	/**
+	 * @return the {@link IDices} the current {@link IPlayer} plays, or {@code null} if they are not
+	 * selected yet.
+	 */
+	public synchronized IDices getSelectedDices() {
+		return selectedDices;
+	}
+}
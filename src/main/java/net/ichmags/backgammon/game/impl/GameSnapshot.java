@@ -0,0 +1,361 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import net.ichmags.backgammon.game.IGame;
+import net.ichmags.backgammon.interaction.ICommandProvider;
+import net.ichmags.backgammon.setup.IChecker;
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.IPosition;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.Checker;
+import net.ichmags.backgammon.setup.impl.Dices;
+
+/**
+ * A {@code GameSnapshot} is the state of a {@link Game} in a compact binary form, to take a {@link Game}
+ * off the heap, move it to another node or recover it after a crash.
+ * 
+ * The format is versioned; version 1 contains:
+ * <ol>
+ * <li>the version</li>
+ * <li>the variant: 1 {@link Portes}, 2 {@link Plakoto}, 3 {@link Fevga}</li>
+ * <li>the {@link IPlayer.ID} ordinal of the {@link IPlayer} to move, or {@code 0xFF}</li>
+ * <li>the number of {@link IDice}, followed by one byte per {@link IDice}: the value in the lower and the
+ * {@link IDice.Status} ordinal in the upper 4 bits</li>
+ * <li>the 28 absolute {@link IPosition}s, one byte each: the number of {@link IChecker} in bits 0 to 4,
+ * bit 5 is set if the bottom {@link IChecker} belongs to {@link IPlayer.ID#TWO}, bit 6 if the others do.
+ * If the others have different owners bit 7 is set, and a bit mask of the owners from bottom to top
+ * follows.</li>
+ * </ol>
+ * A {@link Board} in the start position takes 34 bytes with the {@link IDice}. The statistics are not
+ * part of the snapshot.
+ * 
+ * There is no snapshot of a {@link Match}: the finished {@link Game}s and their points are kept by the
+ * {@link MatchJournal}, so a {@link Match} is restored from the {@link MatchJournal} and the snapshot of
+ * its running {@link Game}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class GameSnapshot {
+	
+	/** The current format version. */
+	public static final byte VERSION = 1;
+	
+	private static final int NO_PLAYER = 0xFF;
+	private static final int NR_OF_POSITIONS = 28;
+	private static final int COUNT_MASK = 0x1F;
+	private static final int BOTTOM_PLAYER_TWO = 0x20;
+	private static final int OTHERS_PLAYER_TWO = 0x40;
+	private static final int MIXED = 0x80;
+	private static final int MAX_SIZE = 4 + 4 + NR_OF_POSITIONS * 5;
+	
+	private static final List<Class<? extends Game>> VARIANTS = Arrays.asList(Portes.class, Plakoto.class, Fevga.class);
+	
+	private final byte[] data;
+	
+	/**
+	 * {@code private} constructor, use {@link #of(Game, IPlayer)} or {@link #fromBytes(byte[])}.
+	 * 
+	 * @param data the encoded snapshot.
+	 */
+	private GameSnapshot(byte[] data) {
+		this.data = data;
+	}
+	
+	/**
+	 * Take a snapshot of a {@link Game}.
+	 * 
+	 * @param game the {@link Game}, it must use a {@link Board} and {@link Dices}.
+	 * @param playerToMove the {@link IPlayer} to move, or {@code null}.
+	 * @return the {@code GameSnapshot}.
+	 */
+	public static GameSnapshot of(Game game, IPlayer playerToMove) {
+		return of(game, playerToMove, game.dices);
+	}
+	
+	/**
+	 * Take a snapshot of a {@link Game} with other {@link IDices} than the ones of the {@link Game},
+	 * like the {@link IDices} selected to play in a turn.
+	 * 
+	 * @param game the {@link Game}, it must use a {@link Board} and {@link Dices}.
+	 * @param playerToMove the {@link IPlayer} to move, or {@code null}.
+	 * @param dices the {@link IDices} to record.
+	 * @return the {@code GameSnapshot}.
+	 */
+	public static GameSnapshot of(Game game, IPlayer playerToMove, IDices dices) {
+		ByteBuffer buffer = ByteBuffer.allocate(MAX_SIZE);
+		buffer.put(VERSION);
+		buffer.put((byte)variantID(game.getClass()));
+		buffer.put((byte)((playerToMove != null) ? playerToMove.getID().ordinal() : NO_PLAYER));
+		
+		List<IDice> diceList = dices.get();
+		buffer.put((byte)diceList.size());
+		for(IDice dice : diceList) {
+			buffer.put((byte)(dice.getValue() | (dice.getStatus().ordinal() << 4)));
+		}
+		
+		Board board = (Board)game.board;
+		for(int absolutePosition = 0; absolutePosition < NR_OF_POSITIONS; absolutePosition++) {
+			encodePosition(buffer, board.getAbsolutePosition(absolutePosition));
+		}
+		
+		return new GameSnapshot(Arrays.copyOf(buffer.array(), buffer.position()));
+	}
+	
+	/**
+	 * Read a snapshot.
+	 * 
+	 * @param data the bytes of a {@code GameSnapshot}, see {@link #toBytes()}.
+	 * @return the {@code GameSnapshot}.
+	 * @throws IllegalArgumentException in case the bytes are not a snapshot of a known version.
+	 */
+	public static GameSnapshot fromBytes(byte[] data) {
+		if((data.length < 4) || (data[0] != VERSION)) {
+			throw new IllegalArgumentException("Unsupported snapshot version: " + ((data.length > 0) ? data[0] : "none"));
+		}
+		variantClass(data[1]);
+		validate(ByteBuffer.wrap(data));
+		return new GameSnapshot(data.clone());
+	}
+	
+	/**
+	 * Check the structure of an encoded snapshot, so {@link #applyTo(Board, Dices, IPlayer, IPlayer)} can
+	 * read it without running out of bytes.
+	 * 
+	 * @param buffer the encoded snapshot, it is read completely.
+	 * @throws IllegalArgumentException in case the bytes are truncated, too long or contain invalid values.
+	 */
+	private static void validate(ByteBuffer buffer) {
+		buffer.position(2);
+		int player = buffer.get() & 0xFF;
+		if((player != NO_PLAYER) && (player >= IPlayer.ID.values().length)) {
+			throw new IllegalArgumentException("Invalid player to move in snapshot: " + player);
+		}
+		
+		int nrOfDice = buffer.get() & 0xFF;
+		if((nrOfDice > LegalPlay.MAX_MOVES) || (buffer.remaining() < nrOfDice)) {
+			throw new IllegalArgumentException("Invalid number of dice in snapshot: " + nrOfDice);
+		}
+		for(int index = 0; index < nrOfDice; index++) {
+			int dice = buffer.get() & 0xFF;
+			if(((dice & 0x0F) > LegalPlay.MAX_DISTANCE) || ((dice >> 4) >= IDice.Status.values().length)) {
+				throw new IllegalArgumentException("Invalid dice in snapshot: " + dice);
+			}
+		}
+		
+		for(int absolutePosition = 0; absolutePosition < NR_OF_POSITIONS; absolutePosition++) {
+			if( ! buffer.hasRemaining()) {
+				throw new IllegalArgumentException("Snapshot truncated at position " + absolutePosition);
+			}
+			int header = buffer.get() & 0xFF;
+			if((header & MIXED) != 0) {
+				int ownerBytes = ((header & COUNT_MASK) + 7) / 8;
+				if(buffer.remaining() < ownerBytes) {
+					throw new IllegalArgumentException("Snapshot truncated at position " + absolutePosition);
+				}
+				buffer.position(buffer.position() + ownerBytes);
+			}
+		}
+		if(buffer.hasRemaining()) {
+			throw new IllegalArgumentException("Unexpected " + buffer.remaining() + " bytes after the snapshot");
+		}
+	}
+	
+	/**
+	 * @return a copy of the encoded snapshot.
+	 */
+	public byte[] toBytes() {
+		return data.clone();
+	}
+	
+	/**
+	 * @return the size of the encoded snapshot in bytes.
+	 */
+	public int size() {
+		return data.length;
+	}
+	
+	/**
+	 * @return the {@link Game} variant.
+	 */
+	public Class<? extends Game> getVariant() {
+		return variantClass(data[1]);
+	}
+	
+	/**
+	 * @return the {@link IPlayer.ID} of the {@link IPlayer} to move, or {@code null}.
+	 */
+	public IPlayer.ID getPlayerToMove() {
+		int player = data[2] & 0xFF;
+		return (player == NO_PLAYER) ? null : IPlayer.ID.values()[player];
+	}
+	
+	/**
+	 * Create a {@link Game} of the variant and restore the state.
+	 * 
+	 * @param player1 the {@link IPlayer} number 1.
+	 * @param player2 the {@link IPlayer} number 2.
+	 * @param commandProvider the {@link ICommandProvider} for the {@link IGame}.
+	 * @return the restored {@link Game}; call {@link Game#play(IPlayer)} with the {@link IPlayer} of
+	 * {@link #getPlayerToMove()} to continue.
+	 * @throws ReflectiveOperationException in case the {@link Game} cannot be created.
+	 */
+	public Game restore(IPlayer player1, IPlayer player2, ICommandProvider commandProvider)
+	throws ReflectiveOperationException {
+		Game game = (Game)GamePool.get().acquire(getVariant(), player1, player2, commandProvider);
+		return game.restore(this);
+	}
+	
+	/**
+	 * Write the state into a cleared {@link Board} and the {@link Dices}.
+	 * 
+	 * @param board the empty {@link Board}.
+	 * @param dices the {@link Dices}.
+	 * @param player1 the {@link IPlayer} number 1.
+	 * @param player2 the {@link IPlayer} number 2.
+	 */
+	void applyTo(Board board, Dices dices, IPlayer player1, IPlayer player2) {
+		ByteBuffer buffer = ByteBuffer.wrap(data);
+		buffer.position(3);
+		
+		int nrOfDice = buffer.get();
+		if(nrOfDice >= 2) {
+			byte[] dice = new byte[nrOfDice];
+			buffer.get(dice);
+			dices.restore(dice[0] & 0x0F, dice[1] & 0x0F);
+			for(int index = 0; index < nrOfDice; index++) {
+				dices.get(index).setStatus(IDice.Status.values()[(dice[index] >> 4) & 0x0F]);
+			}
+		}
+		
+		IChecker[] checkers = new IChecker[]{Checker.get(player1), Checker.get(player2)};
+		for(int absolutePosition = 0; absolutePosition < NR_OF_POSITIONS; absolutePosition++) {
+			IPosition position = board.getAbsolutePosition(absolutePosition);
+			int header = buffer.get() & 0xFF;
+			int count = header & COUNT_MASK;
+			if(count == 0) {
+				continue;
+			}
+			
+			if((header & MIXED) != 0) {
+				byte[] owners = new byte[(count + 7) / 8];
+				buffer.get(owners);
+				for(int index = 0; index < count; index++) {
+					position.setTopChecker(checkers[(owners[index / 8] >> (index % 8)) & 1]);
+				}
+			} else {
+				position.setTopChecker(checkers[((header & BOTTOM_PLAYER_TWO) != 0) ? 1 : 0]);
+				IChecker others = checkers[((header & OTHERS_PLAYER_TWO) != 0) ? 1 : 0];
+				for(int index = 1; index < count; index++) {
+					position.setTopChecker(others);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Encode the {@link IChecker} of all {@link IPosition}s of a {@link Board}, like in a snapshot.
+	 * Two {@link Board}s with the same {@link IChecker} placement have equal encodings.
+	 * 
+	 * @param board the {@link Board}.
+	 * @return the encoded {@link IPosition}s.
+	 */
+	static byte[] encodeBoard(Board board) {
+		ByteBuffer buffer = ByteBuffer.allocate(NR_OF_POSITIONS * 5);
+		for(int absolutePosition = 0; absolutePosition < NR_OF_POSITIONS; absolutePosition++) {
+			encodePosition(buffer, board.getAbsolutePosition(absolutePosition));
+		}
+		return Arrays.copyOf(buffer.array(), buffer.position());
+	}
+	
+	/**
+	 * Encode the {@link IChecker} of an {@link IPosition}.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 * @param position the {@link IPosition}.
+	 */
+	private static void encodePosition(ByteBuffer buffer, IPosition position) {
+		int count = position.getNrOfCheckers();
+		if(count == 0) {
+			buffer.put((byte)0);
+			return;
+		}
+		
+		int header = count;
+		if(position.readChecker(0).getOwner() == IPlayer.ID.TWO) {
+			header |= BOTTOM_PLAYER_TWO;
+		}
+		IPlayer.ID others = (count > 1) ? position.readChecker(1).getOwner() : IPlayer.ID.ONE;
+		if(others == IPlayer.ID.TWO) {
+			header |= OTHERS_PLAYER_TWO;
+		}
+		
+		byte[] owners = new byte[(count + 7) / 8];
+		for(int index = 0; index < count; index++) {
+			IPlayer.ID owner = position.readChecker(index).getOwner();
+			if(owner == IPlayer.ID.TWO) {
+				owners[index / 8] |= (1 << (index % 8));
+			}
+			if((index > 0) && (owner != others)) {
+				header |= MIXED;
+			}
+		}
+		
+		buffer.put((byte)header);
+		if((header & MIXED) != 0) {
+			buffer.put(owners);
+		}
+	}
+	
+	/**
+	 * Get the variant ID of a {@link Game} class.
+	 * 
+	 * @param gameClass the {@link Game} class, or a subclass of a variant.
+	 * @return the variant ID.
+	 */
+	static int variantID(Class<?> gameClass) {
+		for(int index = 0; index < VARIANTS.size(); index++) {
+			if(VARIANTS.get(index).isAssignableFrom(gameClass)) {
+				return index + 1;
+			}
+		}
+		throw new RuntimeException("Game variant not supported by snapshots: " + gameClass.getName());
+	}
+	
+	/**
+	 * Get the {@link Game} class of a variant ID.
+	 * 
+	 * @param variantID the variant ID.
+	 * @return the {@link Game} class.
+	 */
+	static Class<? extends Game> variantClass(int variantID) {
+		if((variantID < 1) || (variantID > VARIANTS.size())) {
+			throw new IllegalArgumentException("Unknown game variant: " + variantID);
+		}
+		return VARIANTS.get(variantID - 1);
+	}
+	
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(data);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		GameSnapshot other = (GameSnapshot) obj;
+		return Arrays.equals(data, other.data);
+	}
+}
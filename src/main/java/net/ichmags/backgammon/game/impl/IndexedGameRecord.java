@@ -0,0 +1,167 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.nio.ByteBuffer;
+
+import net.ichmags.backgammon.exception.InvalidMoveException;
+import net.ichmags.backgammon.setup.IPlayer;
+
+/**
+ * An {@code IndexedGameRecord} is a {@link GameRecord} with a {@link GameSnapshot} (keyframe) every few
+ * turns. To get the state after any turn, the nearest keyframe is restored and at most the turns of one
+ * interval are replayed, see {@link GameReplay#seek(IndexedGameRecord, int)}.
+ * 
+ * The format of {@link #toBytes()} is:
+ * <ol>
+ * <li>the version</li>
+ * <li>the keyframe interval in turns</li>
+ * <li>the number of keyframes, two bytes</li>
+ * <li>the index: the offset of each keyframe, four bytes each</li>
+ * <li>the size of the {@link GameRecord}, four bytes, and the {@link GameRecord}</li>
+ * <li>the keyframes, each with its size in one byte; keyframe {@code n} is the state before turn
+ * {@code n * interval}</li>
+ * </ol>
+ * So a reader can jump to a keyframe with the index, without reading the keyframes before.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class IndexedGameRecord {
+	
+	/** The current format version. */
+	public static final byte VERSION = 1;
+	
+	private final GameRecord record;
+	private final int interval;
+	private final GameSnapshot[] keyframes;
+	
+	/**
+	 * {@code private} constructor, use {@link #index(GameRecord, int, GameReplay)} or {@link #fromBytes(byte[])}.
+	 * 
+	 * @param record the {@link GameRecord}.
+	 * @param interval the keyframe interval in turns.
+	 * @param keyframes the keyframes.
+	 */
+	private IndexedGameRecord(GameRecord record, int interval, GameSnapshot[] keyframes) {
+		this.record = record;
+		this.interval = interval;
+		this.keyframes = keyframes;
+	}
+	
+	/**
+	 * Create the keyframes of a {@link GameRecord} by replaying it once.
+	 * 
+	 * @param record the {@link GameRecord}.
+	 * @param interval the keyframe interval in turns, 1 to 255.
+	 * @param replay the {@link GameReplay} to use.
+	 * @return the {@code IndexedGameRecord}.
+	 * @throws InvalidMoveException in case the {@link GameRecord} breaks the rules.
+	 */
+	public static IndexedGameRecord index(GameRecord record, int interval, GameReplay replay)
+	throws InvalidMoveException {
+		if((interval < 1) || (interval > 0xFF)) {
+			throw new IllegalArgumentException("Invalid keyframe interval: " + interval);
+		}
+		
+		GameSnapshot[] keyframes = new GameSnapshot[record.getNrOfTurns() / interval + 1];
+		Game game = replay.replay(record, 0);
+		for(int keyframe = 0; keyframe < keyframes.length; keyframe++) {
+			int turn = keyframe * interval;
+			if(keyframe > 0) {
+				replay.replay(game, record, turn - interval, turn);
+			}
+			keyframes[keyframe] = game.snapshot((turn < record.getNrOfTurns())
+					? getPlayer(game, record.getPlayer(turn)) : null);
+		}
+		return new IndexedGameRecord(record, interval, keyframes);
+	}
+	
+	/**
+	 * Read an {@code IndexedGameRecord}.
+	 * 
+	 * @param bytes the bytes of an {@code IndexedGameRecord}, see {@link #toBytes()}.
+	 * @return the {@code IndexedGameRecord}.
+	 * @throws IllegalArgumentException in case the bytes are not an {@code IndexedGameRecord} of a known version.
+	 */
+	public static IndexedGameRecord fromBytes(byte[] bytes) {
+		if((bytes.length < 4) || (bytes[0] != VERSION)) {
+			throw new IllegalArgumentException("Unsupported game record version: " + ((bytes.length > 0) ? bytes[0] : "none"));
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		buffer.get();
+		int interval = buffer.get() & 0xFF;
+		GameSnapshot[] keyframes = new GameSnapshot[buffer.getShort()];
+		int[] offsets = new int[keyframes.length];
+		for(int keyframe = 0; keyframe < keyframes.length; keyframe++) {
+			offsets[keyframe] = buffer.getInt();
+		}
+		
+		byte[] recordBytes = new byte[buffer.getInt()];
+		buffer.get(recordBytes);
+		for(int keyframe = 0; keyframe < keyframes.length; keyframe++) {
+			buffer.position(offsets[keyframe]);
+			byte[] snapshot = new byte[buffer.get() & 0xFF];
+			buffer.get(snapshot);
+			keyframes[keyframe] = GameSnapshot.fromBytes(snapshot);
+		}
+		return new IndexedGameRecord(GameRecord.fromBytes(recordBytes), interval, keyframes);
+	}
+	
+	/**
+	 * @return the {@code IndexedGameRecord} as bytes.
+	 */
+	public byte[] toBytes() {
+		byte[] recordBytes = record.toBytes();
+		int size = 4 + 4 * keyframes.length + 4 + recordBytes.length;
+		for(GameSnapshot keyframe : keyframes) {
+			size += 1 + keyframe.size();
+		}
+		
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.put(VERSION).put((byte)interval).putShort((short)keyframes.length);
+		int offset = 4 + 4 * keyframes.length + 4 + recordBytes.length;
+		for(GameSnapshot keyframe : keyframes) {
+			buffer.putInt(offset);
+			offset += 1 + keyframe.size();
+		}
+		buffer.putInt(recordBytes.length).put(recordBytes);
+		for(GameSnapshot keyframe : keyframes) {
+			buffer.put((byte)keyframe.size()).put(keyframe.toBytes());
+		}
+		return buffer.array();
+	}
+	
+	/**
+	 * @return the {@link GameRecord}.
+	 */
+	public GameRecord getRecord() {
+		return record;
+	}
+	
+	/**
+	 * @return the keyframe interval in turns.
+	 */
+	public int getInterval() {
+		return interval;
+	}
+	
+	/**
+	 * Get the nearest keyframe before a turn.
+	 * 
+	 * @param turn the turn index.
+	 * @return the {@link GameSnapshot} of the state before turn {@code turn / interval * interval}.
+	 */
+	public GameSnapshot getKeyframe(int turn) {
+		return keyframes[turn / interval];
+	}
+	
+	/**
+	 * @param game the {@link Game}.
+	 * @param playerID the {@link IPlayer.ID}.
+	 * @return the {@link IPlayer} of the {@link Game}.
+	 */
+	private static IPlayer getPlayer(Game game, IPlayer.ID playerID) {
+		return (game.getPlayerOne().getID() == playerID) ? game.getPlayerOne() : game.getPlayerTwo();
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.Arrays;
+
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IPosition;
+
+/**
+ * A {@code LegalPlay} is the sequence of moves a {@link net.ichmags.backgammon.setup.IPlayer} plays with
+ * the {@link IDice} of a turn, up to four moves. Each move is a relative start {@link IPosition} and a
+ * distance. The {@link LegalPlayGenerator} finds all of them.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class LegalPlay {
+	
+	/** The maximum number of moves of a turn. */
+	public static final int MAX_MOVES = 4;
+	/** The maximum distance of a move. */
+	public static final int MAX_DISTANCE = 6;
+	
+	private final byte[] moves;
+	
+	/**
+	 * {@code private} constructor, use {@link #of(int...)}.
+	 * 
+	 * @param moves the moves, the start {@link IPosition} in the upper and the distance in the lower 3 bits.
+	 */
+	private LegalPlay(byte[] moves) {
+		this.moves = moves;
+	}
+	
+	/**
+	 * Create a {@code LegalPlay}.
+	 * 
+	 * @param fromAndDistance the relative start {@link IPosition} and the distance of each move.
+	 * @return the {@code LegalPlay}.
+	 * @throws IllegalArgumentException in case the values are not pairs, there are too many moves, or a
+	 * move is out of range.
+	 */
+	public static LegalPlay of(int... fromAndDistance) {
+		if(((fromAndDistance.length % 2) != 0) || (fromAndDistance.length > 2 * MAX_MOVES)) {
+			throw new IllegalArgumentException("Expected up to " + MAX_MOVES + " pairs of position and distance");
+		}
+		byte[] moves = new byte[fromAndDistance.length / 2];
+		for(int move = 0; move < moves.length; move++) {
+			moves[move] = encode(fromAndDistance[2 * move], fromAndDistance[2 * move + 1]);
+		}
+		return new LegalPlay(moves);
+	}
+	
+	/**
+	 * Create a {@code LegalPlay} from encoded moves.
+	 * 
+	 * @param moves the encoded moves, see {@link #encode(int, int)}.
+	 * @param nrOfMoves the number of moves.
+	 * @return the {@code LegalPlay}.
+	 */
+	static LegalPlay of(byte[] moves, int nrOfMoves) {
+		return new LegalPlay(Arrays.copyOf(moves, nrOfMoves));
+	}
+	
+	/**
+	 * Check if the values can describe a move: a relative start {@link IPosition} from
+	 * {@link Game#RELATIVE_HIT_POS} to {@link Game#RELATIVE_OUT_POS}, and a distance of a {@link IDice}.
+	 * 
+	 * @param fromPosition the relative start {@link IPosition}.
+	 * @param distance the distance.
+	 * @return {@code true} if the move is in range.
+	 */
+	public static boolean isMove(int fromPosition, int distance) {
+		return (fromPosition >= Game.RELATIVE_HIT_POS) && (fromPosition <= Game.RELATIVE_OUT_POS)
+				&& (distance >= 1) && (distance <= MAX_DISTANCE);
+	}
+	
+	/**
+	 * Encode a move in one byte.
+	 * 
+	 * @param fromPosition the relative start {@link IPosition}.
+	 * @param distance the distance.
+	 * @return the encoded move.
+	 * @throws IllegalArgumentException in case the move is out of range, see {@link #isMove(int, int)}.
+	 */
+	static byte encode(int fromPosition, int distance) {
+		if( ! isMove(fromPosition, distance)) {
+			throw new IllegalArgumentException("Move out of range: " + fromPosition + "/" + distance);
+		}
+		return (byte)((fromPosition << 3) | distance);
+	}
+	
+	/**
+	 * @return the number of moves.
+	 */
+	public int getNrOfMoves() {
+		return moves.length;
+	}
+	
+	/**
+	 * @param move the move index.
+	 * @return the relative start {@link IPosition} of the move.
+	 */
+	public int getFromPosition(int move) {
+		return (moves[move] & 0xFF) >> 3;
+	}
+	
+	/**
+	 * @param move the move index.
+	 * @return the distance of the move.
+	 */
+	public int getDistance(int move) {
+		return moves[move] & 0x07;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(moves);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		LegalPlay other = (LegalPlay) obj;
+		return Arrays.equals(moves, other.moves);
+	}
+	
+	/**
+	 * Write the moves in the usual notation, like {@code 13/7 8/7}; a checker taken out is written as
+	 * {@code 22/off}.
+	 * 
+	 * @return the moves.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for(int move = 0; move < moves.length; move++) {
+			if(move > 0) {
+				sb.append(' ');
+			}
+			int toPosition = getFromPosition(move) + getDistance(move);
+			sb.append(getFromPosition(move)).append('/');
+			if(toPosition >= Game.RELATIVE_OUT_POS) {
+				sb.append("off");
+			} else {
+				sb.append(toPosition);
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.ichmags.backgammon.exception.InvalidMoveException;
+import net.ichmags.backgammon.game.IMove;
+import net.ichmags.backgammon.setup.IBoard;
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.IPosition;
+import net.ichmags.backgammon.setup.impl.Board;
+
+/**
+ * The {@code LegalPlayGenerator} finds all {@link LegalPlay}s of a {@link IPlayer} for the available
+ * {@link IDice}, with the rules of a {@link Game}:
+ * <ul>
+ * <li>each move is checked with {@link Game#moveChecker(IPlayer, IBoard, int, IDice)}</li>
+ * <li>a {@link net.ichmags.backgammon.setup.IChecker} on the mandatory {@link IPosition} has to be moved first</li>
+ * <li>only the {@link LegalPlay}s with the most moves count, like in {@link Game#findPlayableDices(IPlayer, IDices)}</li>
+ * <li>{@link LegalPlay}s leading to the same {@link IBoard} count once</li>
+ * </ul>
+ * The search works on one clone of the {@link IBoard}: each move is undone after its sub tree is
+ * searched, so no {@link IBoard} is copied per move. The start {@link IPosition}s come from the
+ * {@link Board} masks, without the ones whose target {@link Game#getBlockedTargets(IPlayer, Board, int)}
+ * knows as blocked.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class LegalPlayGenerator {
+	
+	private final Game game;
+	private final IPlayer player;
+	private final Board board;
+	private final IDices dices;
+	private final byte[] moves;
+	private final Map<ByteBuffer, LegalPlay> plays;
+	private int maxMoves;
+	private long nodes;
+	
+	/**
+	 * {@code private} constructor, use {@link #generate(Game, IPlayer, IBoard, IDices)}.
+	 * 
+	 * @param game the {@link Game} with the rules.
+	 * @param player the {@link IPlayer} to move.
+	 * @param board the {@link Board} to search on.
+	 * @param dices the {@link IDices} to play.
+	 */
+	private LegalPlayGenerator(Game game, IPlayer player, Board board, IDices dices) {
+		this.game = game;
+		this.player = player;
+		this.board = board;
+		this.dices = dices;
+		this.moves = new byte[LegalPlay.MAX_MOVES];
+		this.plays = new LinkedHashMap<>();
+		this.maxMoves = 0;
+	}
+	
+	/**
+	 * Find all {@link LegalPlay}s.
+	 * 
+	 * @param game the {@link Game} with the rules.
+	 * @param player the {@link IPlayer} to move.
+	 * @param board the {@link Board}, it is not changed.
+	 * @param dices the {@link IDices}; only the {@link IDice.Status#AVAILABLE} ones are played, and they
+	 * are not changed.
+	 * @return the {@link LegalPlay}s, one per resulting {@link IBoard}; a single empty {@link LegalPlay}
+	 * if no move is possible.
+	 */
+	public static List<LegalPlay> generate(Game game, IPlayer player, IBoard board, IDices dices) {
+		return new ArrayList<>(search(game, player, board, dices).plays.values());
+	}
+	
+	/**
+	 * Check if a {@link LegalPlay} proposed by a {@link IPlayer} is legal: it has to play as many moves
+	 * as possible, and lead to the {@link IBoard} of one of the generated {@link LegalPlay}s. The order of
+	 * the moves does not matter.
+	 * 
+	 * @param game the {@link Game} with the rules.
+	 * @param player the {@link IPlayer} to move.
+	 * @param board the {@link Board}, it is not changed.
+	 * @param dices the {@link IDices} to play, they are not changed.
+	 * @param play the proposed {@link LegalPlay}.
+	 * @return {@code true} if the {@link LegalPlay} is legal.
+	 */
+	public static boolean isLegal(Game game, IPlayer player, IBoard board, IDices dices, LegalPlay play) {
+		LegalPlayGenerator generator = search(game, player, board, dices);
+		if(play.getNrOfMoves() != generator.maxMoves) {
+			return false;
+		}
+		
+		// the search left the board and the dices as they were
+		for(int move = 0; move < play.getNrOfMoves(); move++) {
+			IDice dice = generator.dices.getUnused(play.getDistance(move));
+			if((dice == null) || ! game.moveChecker(player, generator.board, play.getFromPosition(move), dice).isSuccess()) {
+				return false;
+			}
+		}
+		return generator.plays.containsKey(ByteBuffer.wrap(GameSnapshot.encodeBoard(generator.board)));
+	}
+	
+	/**
+	 * Find the {@link LegalPlay} of a forced turn, where all ways to play the {@link IDices} lead to the
+	 * same {@link IBoard}.
+	 * 
+	 * @param game the {@link Game} with the rules.
+	 * @param player the {@link IPlayer} to move.
+	 * @param board the {@link Board}, it is not changed.
+	 * @param dices the {@link IDices} to play.
+	 * @return the forced {@link LegalPlay}, or {@code null} if the {@link IPlayer} has a choice.
+	 */
+	public static LegalPlay findForcedPlay(Game game, IPlayer player, IBoard board, IDices dices) {
+		List<LegalPlay> legalPlays = generate(game, player, board, dices);
+		return (legalPlays.size() == 1) ? legalPlays.get(0) : null;
+	}
+	
+	/**
+	 * Run the search on clones of the {@link IBoard} and the {@link IDices}.
+	 * 
+	 * @param game the {@link Game} with the rules.
+	 * @param player the {@link IPlayer} to move.
+	 * @param board the {@link Board}.
+	 * @param dices the {@link IDices}.
+	 * @return the {@code LegalPlayGenerator} with the found {@link LegalPlay}s.
+	 */
+	private static LegalPlayGenerator search(Game game, IPlayer player, IBoard board, IDices dices) {
+		if( ! (board instanceof Board)) {
+			throw new IllegalArgumentException("Legal plays need a Board: " + board.getClass().getName());
+		}
+		Object searchEvent = game.isInstrumented() ? EngineEvents.searchStarted() : null;
+		LegalPlayGenerator generator = new LegalPlayGenerator(game, player, ((Board)board).clone(), dices.clone());
+		generator.search(0);
+		game.legalPlaysFound(board, generator.plays.size());
+		EngineEvents.searchEnded(searchEvent, "LegalPlayGenerator", game, generator.nodes, generator.maxMoves);
+		return generator;
+	}
+	
+	/**
+	 * Try all moves of the available {@link IDice} values, and search on after each successful one.
+	 * 
+	 * @param depth the number of moves played so far.
+	 */
+	private void search(int depth) {
+		nodes++;
+		boolean moved = false;
+		
+		if(board.getNrOfOutCheckers(player.getID()) < 15) {
+			int lastPosition = (game.getMandatoryPosition(player, board) != null) ? Game.RELATIVE_HIT_POS : Game.RELATIVE_OUT_POS - 1;
+			int ownedPositions = board.getOwnedPositions(player.getID()) & ((2 << lastPosition) - 1);
+			int triedValues = 0;
+			for(IDice dice : dices.get()) {
+				if( ! IDice.Status.AVAILABLE.equals(dice.getStatus()) || ((triedValues & (1 << dice.getValue())) != 0)) {
+					continue;
+				}
+				triedValues |= (1 << dice.getValue());
+				
+				// the start positions in ascending order, without those whose target is blocked
+				int startPositions = ownedPositions & ~(game.getBlockedTargets(player, board, dice.getValue()) >>> dice.getValue());
+				for(; startPositions != 0; startPositions &= (startPositions - 1)) {
+					int fromPosition = Integer.numberOfTrailingZeros(startPositions);
+					IMove move = game.moveChecker(player, board, fromPosition, dice);
+					if(move.isSuccess()) {
+						moved = true;
+						moves[depth] = LegalPlay.encode(fromPosition, dice.getValue());
+						search(depth + 1);
+						undo(move);
+					}
+				}
+			}
+		}
+		
+		if( ! moved) {
+			addPlay(depth);
+		}
+	}
+	
+	/**
+	 * Keep the moves played so far as {@link LegalPlay}, if no other one with more moves or the same
+	 * result is known.
+	 * 
+	 * @param nrOfMoves the number of moves.
+	 */
+	private void addPlay(int nrOfMoves) {
+		if(nrOfMoves < maxMoves) {
+			return;
+		} else if(nrOfMoves > maxMoves) {
+			plays.clear();
+			maxMoves = nrOfMoves;
+		}
+		plays.putIfAbsent(ByteBuffer.wrap(GameSnapshot.encodeBoard(board)), LegalPlay.of(moves, nrOfMoves));
+	}
+	
+	/**
+	 * Take back a move of the search.
+	 * 
+	 * @param move the {@link IMove}.
+	 */
+	private void undo(IMove move) {
+		try {
+			game.undoMoveCheker(player, board, move);
+		} catch (InvalidMoveException e) {
+			throw new RuntimeException("Cannot take back a searched move", e);
+		}
+	}
+}
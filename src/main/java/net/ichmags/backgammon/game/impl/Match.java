@@ -3,8 +3,12 @@
  */
 package net.ichmags.backgammon.game.impl;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import net.ichmags.backgammon.CommonEngine;
 import net.ichmags.backgammon.exception.ExitException;
@@ -16,6 +20,9 @@ import net.ichmags.backgammon.notification.INotificationConsumer;
 import net.ichmags.backgammon.notification.impl.StatusEmitter;
 import net.ichmags.backgammon.setup.IPlayer;
 import net.ichmags.backgammon.setup.impl.DiceGenerator;
+import net.ichmags.backgammon.statistic.IGameStatistics;
+import net.ichmags.backgammon.statistic.impl.GameStatistics;
+import net.ichmags.backgammon.statistic.impl.GameStatisticsSnapshot;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +36,10 @@ public class Match implements IMatch {
 	
 	private static Logger LOG = LoggerFactory.getLogger(Match.class);
 	
+	private Path journalFile;
+	private List<GameStatisticsSnapshot> gameStatistics = Collections.emptyList();
+	private volatile List<IGameStatistics> playedGames = Collections.emptyList();
+	
 	/**
 	 * Constructor.
 	 */
@@ -36,6 +47,44 @@ public class Match implements IMatch {
 		LocalizationManager.get().addBundle("net.ichmags.backgammon.l10n.backgammon");
 	}
 	
+	/**
+	 * Record the {@code IMatch} in a {@link MatchJournal}. If the file already contains an interrupted
+	 * {@code IMatch}, it is continued: the results of the finished {@link IGame}s are added to the
+	 * {@link IPlayer} statistics, and the running {@link IGame} is replayed up to its last record; an
+	 * unfinished turn goes on with the recorded roll.
+	 * The same {@link IPlayer}s and {@link IGame} sequence must be passed to
+	 * {@link #start(IPlayer, IPlayer, int, List, boolean, ICommandProvider, INotificationConsumer)}.
+	 * 
+	 * @param journalFile the journal file, or {@code null} for no journal.
+	 * @return the {@code IMatch}.
+	 */
+	public Match setJournal(Path journalFile) {
+		this.journalFile = journalFile;
+		return this;
+	}
+	
+	/**
+	 * Get the numbers of the {@link IGame}s of the last {@code IMatch}, for instance to export them
+	 * with {@link net.ichmags.backgammon.statistic.impl.StatisticsExporter}.
+	 * 
+	 * @return the {@link GameStatisticsSnapshot}s of the played {@link IGame}s, in order; empty before
+	 * the first {@code IMatch} ended.
+	 */
+	public List<GameStatisticsSnapshot> getGameStatistics() {
+		return gameStatistics;
+	}
+	
+	/**
+	 * Get the numbers of the {@link IGame}s of the running {@code IMatch}, e.g. from another thread while
+	 * it is played. Each {@link GameStatisticsSnapshot} is taken as a whole between two rolls.
+	 * 
+	 * @return the {@link GameStatisticsSnapshot}s of the {@link IGame}s played so far, including the
+	 * running one, in order; the ones of the last {@code IMatch} after it ended.
+	 */
+	public List<GameStatisticsSnapshot> getCurrentGameStatistics() {
+		return snapshot(playedGames);
+	}
+	
 	@Override
 	public void start(IPlayer player1, IPlayer player2,
 			int nrOfWins, List<Class<IGame>> gameSequence, boolean winnerStartsNextGame,
@@ -45,55 +94,151 @@ public class Match implements IMatch {
 		se.addConsumer(notificationConsumer);
 		se.info(winnerStartsNextGame ? "match.winner_start" : "match.random_start", nrOfWins, player1.getName(), player2.getName(), DiceGenerator.get().getSeed());
 		
-		List<IGame> playedGames = new ArrayList<>();
+		List<IGameStatistics> playedGames = new CopyOnWriteArrayList<>();
+		this.playedGames = playedGames;
 //		IPlayer currentPlayer = null;
 //		DiceGenerator.get().load(new int[]{5, 1, 1, 1, 6, 2});
 		IPlayer currentPlayer = player1; // TODO: remove after testing
-		for(int nrOfGame = 0; ; ) {
+		
+		MatchJournal journal = null;
+		int nrOfGame = 0;
+		boolean matchFinished = false;
+		boolean resumeGame = false;
+		if(journalFile != null) {
+			try {
+				journal = MatchJournal.open(journalFile);
+			} catch (IOException e) {
+				LOG.error("Error opening the match journal", e);
+				return;
+			}
+			
+			for( ; nrOfGame < journal.getNrOfFinishedGames(); nrOfGame++) {
+				currentPlayer = getPlayer(journal.getGameWinner(nrOfGame), player1, player2);
+				currentPlayer.getStatistics().addGameVictory(journal.getGameValue(nrOfGame));
+				CommonEngine.getOponent(currentPlayer, player1, player2).getStatistics().addGameDefeat(journal.getGameValue(nrOfGame));
+			}
+			if(journal.getMatchWinner() != null) {
+				currentPlayer = getPlayer(journal.getMatchWinner(), player1, player2);
+				matchFinished = true;
+			}
+			resumeGame = journal.hasRunningGame();
+		}
+		
+		while( ! matchFinished) {
 			IGame game = null;
 			try {
-				game = gameSequence.get(nrOfGame % gameSequence.size()).newInstance();
+				game = GamePool.get().acquire(gameSequence.get(nrOfGame % gameSequence.size()), player1, player2, commandProvider);
 			} catch (Exception e) {
 				LOG.error("Error invoking game constructor", e);
+				closeJournal(journal);
 				return;
 			}
-			game.initialize(player1, player2, commandProvider);
 			
 			se.info("match.game_number", ++nrOfGame);
-			playedGames.add(game);
+			playedGames.add(game.getStatistics());
 			try {
-				currentPlayer = game.play((winnerStartsNextGame) ? currentPlayer : null);
+				if(resumeGame) {
+					resumeGame = false;
+					IPlayer playerToMove = journal.replayRunningGame((Game)game);
+					currentPlayer = ((Game)game).setJournal(journal).resume(playerToMove);
+				} else {
+					if(journal != null) {
+						((Game)game).setJournal(journal);
+					}
+					currentPlayer = game.play((winnerStartsNextGame) ? currentPlayer : null);
+				}
 			} catch (ExitException e) {
 				// set the premature winner
 				currentPlayer = CommonEngine.getOponent(currentPlayer, player1, player2);
 				break;
+			} finally {
+				if(journal != null) {
+					((Game)game).setJournal(null);
+				}
+				GamePool.get().release(game);
 			}
 			
-			if(currentPlayer.getStatistics().getGameVictories() >= nrOfWins) {
-				break;
+			matchFinished = (currentPlayer.getStatistics().getGameVictories() >= nrOfWins);
+		}
+		if(journal != null) {
+			if(journal.getMatchWinner() == null) {
+				journal.matchEnded(currentPlayer);
 			}
+			closeJournal(journal);
 		}
+		
 		se.info("match.end", currentPlayer.getName());
 		currentPlayer.getStatistics().addMatchVictory();
 		CommonEngine.getOponent(currentPlayer, player1, player2).getStatistics().addMatchDefeat();
 		
+		gameStatistics = snapshot(playedGames);
 		printStatistics(player1, player2, playedGames);
 	}
 	
+	/**
+	 * @param playedGames the {@link IGameStatistics} of the played {@link IGame}s.
+	 * @return the {@link GameStatisticsSnapshot}s, in the same order.
+	 */
+	private static List<GameStatisticsSnapshot> snapshot(List<IGameStatistics> playedGames) {
+		List<GameStatisticsSnapshot> snapshots = new ArrayList<>(playedGames.size());
+		for(IGameStatistics played : playedGames) {
+			if(played instanceof GameStatistics) {
+				snapshots.add(((GameStatistics)played).snapshot());
+			}
+		}
+		return Collections.unmodifiableList(snapshots);
+	}
+	
+	/**
+	 * Get the {@link IPlayer} of an {@link IPlayer.ID}.
+	 * 
+	 * @param playerID the {@link IPlayer.ID}.
+	 * @param player1 the {@link IPlayer} #1.
+	 * @param player2 the {@link IPlayer} #2.
+	 * @return the {@link IPlayer}.
+	 */
+	private IPlayer getPlayer(IPlayer.ID playerID, IPlayer player1, IPlayer player2) {
+		return (player1.getID() == playerID) ? player1 : player2;
+	}
+	
+	/**
+	 * Close the {@link MatchJournal}, logging an error.
+	 * 
+	 * @param journal the {@link MatchJournal}, or {@code null}.
+	 */
+	private void closeJournal(MatchJournal journal) {
+		if(journal != null) {
+			try {
+				journal.close();
+			} catch (IOException e) {
+				LOG.error("Error closing the match journal", e);
+			}
+		}
+	}
+	
 	/**
 	 * Print the collected statistics for the {@link IMatch}, the {@link IGame}s and the
-	 * {@link IPlayer}s.
+	 * {@link IPlayer}s. The {@link net.ichmags.backgammon.statistic.impl.DiceRecording}s of the
+	 * {@link IGame}s are only rendered for the debug log.
 	 * 
 	 * @param player1 the {@link IPlayer} #1.
 	 * @param player2 the {@link IPlayer} #2.
-	 * @param playedGames the {@link List} of the played {@link IGame}s.
+	 * @param playedGames the {@link List} of the {@link IGameStatistics} of the played {@link IGame}s.
 	 */
-	private void printStatistics(IPlayer player1, IPlayer player2, List<IGame> playedGames) {
+	private void printStatistics(IPlayer player1, IPlayer player2, List<IGameStatistics> playedGames) {
 		StatusEmitter se = StatusEmitter.get();
 		
 		for(int pos = 0; pos < playedGames.size(); pos++) {
 			se.info("match.game_statistics", pos+1);
-			se.info(playedGames.get(pos).getStatistics().toString());
+			IGameStatistics played = playedGames.get(pos);
+			if(played instanceof GameStatistics) {
+				se.info(((GameStatistics)played).snapshot().toString());
+				if(LOG.isDebugEnabled()) {
+					LOG.debug("Dice recording of game {}: {}", pos+1, ((GameStatistics)played).getDiceRecording());
+				}
+			} else {
+				se.info(played.toString());
+			}
 		}
 		
 		se.info("match.payer_statistics", player1.getName());
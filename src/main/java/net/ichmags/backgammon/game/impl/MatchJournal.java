@@ -0,0 +1,599 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import net.ichmags.backgammon.exception.InvalidMoveException;
+import net.ichmags.backgammon.game.IMatch;
+import net.ichmags.backgammon.game.IMove;
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.DicesChoice;
+
+/**
+ * The {@code MatchJournal} is an append-only log of a {@link IMatch}: the start and end of each
+ * {@link Game}, every roll, chosen {@link IDices} option and move. It is used to rebuild a {@link Match}
+ * after a crash.
+ * 
+ * Each record is a type byte and a few bytes of payload:
+ * <ul>
+ * <li>{@link #GAME_START}: variant and starting {@link IPlayer.ID}</li>
+ * <li>{@link #ROLL}: {@link IPlayer.ID}, both {@link IDice} values packed in one byte</li>
+ * <li>{@link #CHOICE}: number and values of the available {@link IDice} of the chosen option</li>
+ * <li>{@link #MOVE}: {@link IPlayer.ID} and distance packed in one byte, relative start position</li>
+ * <li>{@link #UNDO}: {@link IPlayer.ID}</li>
+ * <li>{@link #TURN_END}: {@link IPlayer.ID} of the next {@link IPlayer}</li>
+ * <li>{@link #GAME_END}: winning {@link IPlayer.ID} and points</li>
+ * <li>{@link #MATCH_END}: winning {@link IPlayer.ID}</li>
+ * </ul>
+ * Records are collected in memory and written together by {@link #commit()} at the end of each turn
+ * (group commit), so recording a move costs no I/O. Only a {@link #ROLL} is written at once, so a crash
+ * of the application cannot lead to another roll. Whether the records are forced to the storage device is
+ * chosen with {@link #setForceOnCommit(boolean)}.
+ * 
+ * On recovery all complete records are kept, only a half-written record at the end is cut off. The roll,
+ * the chosen option and the moves of an unfinished turn are replayed, and the turn is continued with the
+ * same {@link IDices}. A complete record with invalid values is rejected.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class MatchJournal implements Closeable {
+	
+	static final byte GAME_START = 0x01;
+	static final byte ROLL = 0x02;
+	static final byte CHOICE = 0x03;
+	static final byte MOVE = 0x04;
+	static final byte UNDO = 0x05;
+	static final byte TURN_END = 0x06;
+	static final byte GAME_END = 0x07;
+	static final byte MATCH_END = 0x08;
+	
+	private static final int BUFFER_SIZE = 8 * 1024;
+	private static final int MAX_RECORD_SIZE = 8;
+	
+	private FileChannel channel;
+	private ByteBuffer buffer;
+	private boolean forceOnCommit;
+	
+	private List<IPlayer.ID> gameWinners;
+	private List<Integer> gameValues;
+	private IPlayer.ID matchWinner;
+	private byte[] runningGame;
+	
+	/**
+	 * {@code private} constructor, use {@link #open(Path)}.
+	 * 
+	 * @param channel the {@link FileChannel} of the journal.
+	 */
+	private MatchJournal(FileChannel channel) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		this.forceOnCommit = false;
+		this.gameWinners = new ArrayList<>();
+		this.gameValues = new ArrayList<>();
+	}
+	
+	/**
+	 * Open a journal file, creating it if it does not exist. The records of an existing file are read for
+	 * recovery, and a half-written record at its end is cut off.
+	 * 
+	 * @param file the journal file.
+	 * @return the {@code MatchJournal}.
+	 * @throws IOException in case the file cannot be opened or read, or contains a corrupt record.
+	 */
+	public static MatchJournal open(Path file)
+	throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		MatchJournal journal = new MatchJournal(channel);
+		try {
+			journal.read();
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		return journal;
+	}
+	
+	/**
+	 * Force the records to the storage device on each {@link #commit()} and roll, not only to the operating system.
+	 * 
+	 * Without it a crash of the application loses no records, since the operating system still writes them,
+	 * but a power failure or crash of the operating system may lose the last turns, or let a roll be rolled
+	 * again after the recovery. Forcing costs a wait for the device on every turn.
+	 * 
+	 * @param forceOnCommit {@code true} to force the records to the device.
+	 * @return the {@code MatchJournal}.
+	 */
+	public MatchJournal setForceOnCommit(boolean forceOnCommit) {
+		this.forceOnCommit = forceOnCommit;
+		return this;
+	}
+	
+	/**
+	 * @return the number of {@link Game}s finished according to the journal.
+	 */
+	public int getNrOfFinishedGames() {
+		return gameWinners.size();
+	}
+	
+	/**
+	 * @param game the index of a finished {@link Game}.
+	 * @return the {@link IPlayer.ID} of the winner.
+	 */
+	public IPlayer.ID getGameWinner(int game) {
+		return gameWinners.get(game);
+	}
+	
+	/**
+	 * @param game the index of a finished {@link Game}.
+	 * @return the points of the winner.
+	 */
+	public int getGameValue(int game) {
+		return gameValues.get(game);
+	}
+	
+	/**
+	 * @return the {@link IPlayer.ID} of the winner, or {@code null} if the {@link IMatch} is not finished.
+	 */
+	public IPlayer.ID getMatchWinner() {
+		return matchWinner;
+	}
+	
+	/**
+	 * @return {@code true} if the journal ends within a {@link Game}.
+	 */
+	public boolean hasRunningGame() {
+		return runningGame != null;
+	}
+	
+	/**
+	 * Record the start of a {@link Game}.
+	 * 
+	 * @param game the {@link Game}.
+	 * @param startingPlayer the starting {@link IPlayer}.
+	 */
+	public synchronized void gameStarted(Game game, IPlayer startingPlayer) {
+		reserve().put(GAME_START).put((byte)GameSnapshot.variantID(game.getClass())).put((byte)startingPlayer.getID().ordinal());
+	}
+	
+	/**
+	 * Record a roll, and write it to the file together with the collected records; they are forced to the
+	 * storage device if {@link #setForceOnCommit(boolean)} is set.
+	 * 
+	 * @param player the {@link IPlayer} who rolled.
+	 * @param dices the rolled {@link IDices}.
+	 * @throws UncheckedIOException in case the records cannot be written.
+	 */
+	public synchronized void diceRolled(IPlayer player, IDices dices) {
+		reserve().put(ROLL).put((byte)player.getID().ordinal()).put((byte)((dices.get(0).getValue() << 4) | dices.get(1).getValue()));
+		write(forceOnCommit);
+	}
+	
+	/**
+	 * Record the {@link IDices} option chosen when not all {@link IDices} can be played.
+	 * 
+	 * @param dices the chosen {@link IDices}.
+	 */
+	public synchronized void diceChosen(IDices dices) {
+		ByteBuffer record = reserve();
+		int countPos = record.put(CHOICE).position();
+		record.put((byte)0);
+		int count = 0;
+		for(IDice dice : dices.get()) {
+			if(IDice.Status.AVAILABLE.equals(dice.getStatus())) {
+				record.put((byte)dice.getValue());
+				count++;
+			}
+		}
+		record.put(countPos, (byte)count);
+	}
+	
+	/**
+	 * Record a move.
+	 * 
+	 * @param player the moving {@link IPlayer}.
+	 * @param fromPosition the relative start position.
+	 * @param distance the distance.
+	 */
+	public synchronized void moved(IPlayer player, int fromPosition, int distance) {
+		reserve().put(MOVE).put((byte)((player.getID().ordinal() << 4) | distance)).put((byte)fromPosition);
+	}
+	
+	/**
+	 * Record the undo of the last move.
+	 * 
+	 * @param player the {@link IPlayer} undoing the move.
+	 */
+	public synchronized void undone(IPlayer player) {
+		reserve().put(UNDO).put((byte)player.getID().ordinal());
+	}
+	
+	/**
+	 * Record the end of a turn and {@link #commit()} it.
+	 * 
+	 * @param nextPlayer the {@link IPlayer} to move next.
+	 */
+	public synchronized void turnEnded(IPlayer nextPlayer) {
+		reserve().put(TURN_END).put((byte)nextPlayer.getID().ordinal());
+		commit();
+	}
+	
+	/**
+	 * Record the end of a {@link Game} and {@link #commit()} it.
+	 * 
+	 * @param winner the winning {@link IPlayer}.
+	 * @param gameValue the points of the winner.
+	 */
+	public synchronized void gameEnded(IPlayer winner, int gameValue) {
+		reserve().put(GAME_END).put((byte)winner.getID().ordinal()).put((byte)gameValue);
+		commit();
+	}
+	
+	/**
+	 * Record the end of the {@link IMatch} and {@link #commit()} it.
+	 * 
+	 * @param winner the winning {@link IPlayer}.
+	 */
+	public synchronized void matchEnded(IPlayer winner) {
+		reserve().put(MATCH_END).put((byte)winner.getID().ordinal());
+		commit();
+	}
+	
+	/**
+	 * Write the collected records to the file with one write.
+	 * 
+	 * @throws UncheckedIOException in case the records cannot be written.
+	 */
+	public synchronized void commit() {
+		write(forceOnCommit);
+	}
+	
+	/**
+	 * Write the collected records to the file with one write.
+	 * 
+	 * @param force {@code true} to force the records to the storage device.
+	 * @throws UncheckedIOException in case the records cannot be written.
+	 */
+	private void write(boolean force) {
+		buffer.flip();
+		try {
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			if(force) {
+				channel.force(false);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot write the match journal", e);
+		} finally {
+			buffer.clear();
+		}
+	}
+	
+	/**
+	 * Replay the running {@link Game} of the journal: the rolls, choices, moves and undos are applied with
+	 * the rule code of the {@link Game}. An unfinished turn is continued with its {@link IDices}, see
+	 * {@link Game#resumeTurn(DicesChoice, List)}.
+	 * 
+	 * @param game the initialized {@link Game} of the recorded variant.
+	 * @return the {@link IPlayer} to move next.
+	 * @throws RuntimeException in case the journal does not match the {@link Game}.
+	 */
+	IPlayer replayRunningGame(Game game) {
+		ByteBuffer records = ByteBuffer.wrap(runningGame);
+		if((records.get() != GAME_START) || (GameSnapshot.variantClass(records.get()) != getVariant(game))) {
+			throw new RuntimeException("The journal does not match the game " + game.getName());
+		}
+		IPlayer playerToMove = getPlayer(game, records.get());
+		
+		boolean turnRunning = false;
+		DicesChoice dicesChoice = null;
+		IDices turnDices = null;
+		Deque<IMove> moves = new ArrayDeque<>();
+		while(records.hasRemaining()) {
+			byte type = records.get();
+			switch (type) {
+				case ROLL: {
+					playerToMove = getPlayer(game, records.get());
+					int values = records.get();
+					((Dices)game.dices).restore((values >> 4) & 0x0F, values & 0x0F);
+					game.getStatistics().addDices(game.dices);
+					playerToMove.getStatistics().addDices(game.dices);
+					
+					dicesChoice = game.analyzeDices(playerToMove);
+					turnDices = ((dicesChoice != null) && dicesChoice.isSingleOption()) ? dicesChoice.getOption1() : null;
+					turnRunning = true;
+					moves.clear();
+					break;
+				}
+				case CHOICE: {
+					int[] values = new int[records.get()];
+					for(int index = 0; index < values.length; index++) {
+						values[index] = records.get();
+					}
+					turnDices = findOption(dicesChoice, values);
+					if(turnDices == null) {
+						throw new RuntimeException("The journal contains an invalid dices choice for " + game.getName());
+					}
+					dicesChoice = DicesChoice.of(turnDices);
+					break;
+				}
+				case MOVE: {
+					int playerAndDistance = records.get();
+					IPlayer player = getPlayer(game, playerAndDistance >> 4);
+					int distance = playerAndDistance & 0x0F;
+					if((turnDices == null) && (dicesChoice != null)) {
+						// the option was chosen without a record, like by a computer player
+						turnDices = findOption(dicesChoice, distance);
+						dicesChoice = (turnDices != null) ? DicesChoice.of(turnDices) : dicesChoice;
+					}
+					IDice dice = (turnDices != null) ? turnDices.getUnused(distance) : null;
+					IMove move = (dice != null) ? game.moveChecker(player, game.board, records.get(), dice) : null;
+					if((move == null) || !move.isSuccess()) {
+						throw new RuntimeException("The journal contains an invalid move for " + game.getName());
+					}
+					moves.addLast(move);
+					break;
+				}
+				case UNDO:
+					try {
+						IPlayer player = getPlayer(game, records.get());
+						if(moves.isEmpty()) {
+							throw new InvalidMoveException("There is no move to undo");
+						}
+						game.undoMoveCheker(player, game.board, moves.pollLast());
+					} catch (InvalidMoveException e) {
+						throw new RuntimeException("The journal contains an invalid undo for " + game.getName(), e);
+					}
+					break;
+				case TURN_END:
+					playerToMove = getPlayer(game, records.get());
+					turnRunning = false;
+					dicesChoice = null;
+					turnDices = null;
+					moves.clear();
+					break;
+				default:
+					throw new RuntimeException("Unexpected record in the match journal: " + type);
+			}
+		}
+		
+		if(turnRunning) {
+			game.resumeTurn(dicesChoice, new ArrayList<>(moves));
+		}
+		return playerToMove;
+	}
+	
+	/**
+	 * Find the option of a {@link DicesChoice} recorded as {@link #CHOICE}.
+	 * 
+	 * @param dicesChoice the {@link DicesChoice} of the turn, or {@code null}.
+	 * @param values the values of the available {@link IDice} of the chosen option.
+	 * @return the chosen {@link IDices}, or {@code null} if no option has these values.
+	 */
+	private static IDices findOption(DicesChoice dicesChoice, int[] values) {
+		if(dicesChoice == null) {
+			return null;
+		}
+		Arrays.sort(values);
+		for(IDices option : dicesChoice.getAsList()) {
+			int[] available = option.get().stream()
+					.filter(dice -> IDice.Status.AVAILABLE.equals(dice.getStatus()))
+					.mapToInt(IDice::getValue).sorted().toArray();
+			if(Arrays.equals(values, available)) {
+				return option;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Find the first option of a {@link DicesChoice} that can play a distance.
+	 * 
+	 * @param dicesChoice the {@link DicesChoice} of the turn.
+	 * @param distance the distance of a move.
+	 * @return the {@link IDices} of the option, or {@code null} if no option has the distance.
+	 */
+	private static IDices findOption(DicesChoice dicesChoice, int distance) {
+		for(IDices option : dicesChoice.getAsList()) {
+			if(option.getUnused(distance) != null) {
+				return option;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Read the existing records, and cut off a half-written record at the end.
+	 * 
+	 * @throws IOException in case the file cannot be read, or contains a corrupt record.
+	 */
+	private void read()
+	throws IOException {
+		ByteBuffer records = ByteBuffer.allocate((int)channel.size());
+		while(records.hasRemaining() && (channel.read(records, records.position()) >= 0)) {
+			// read all
+		}
+		records.flip();
+		
+		int validLength = 0;
+		int gameStart = -1;
+		while(records.hasRemaining()) {
+			int start = records.position();
+			int size = getRecordSize(records);
+			if(size < 0) {
+				throw new IOException("Unknown record in the match journal at offset " + start + ": " + records.get(start));
+			} else if(records.remaining() < size) {
+				break; // half-written record
+			}
+			checkRecord(records, start);
+			
+			byte type = records.get(start);
+			switch (type) {
+				case GAME_START:
+					gameStart = start;
+					break;
+				case GAME_END:
+					gameWinners.add(IPlayer.ID.values()[records.get(start + 1)]);
+					gameValues.add((int)records.get(start + 2));
+					gameStart = -1;
+					break;
+				case MATCH_END:
+					matchWinner = IPlayer.ID.values()[records.get(start + 1)];
+					break;
+				default:
+					break;
+			}
+			validLength = start + size;
+			records.position(validLength);
+		}
+		
+		if(gameStart >= 0) {
+			runningGame = new byte[validLength - gameStart];
+			records.position(gameStart);
+			records.get(runningGame);
+		}
+		
+		channel.truncate(validLength);
+		channel.position(validLength);
+	}
+	
+	/**
+	 * Check the values of a complete record.
+	 * 
+	 * @param records the {@link ByteBuffer} with the records.
+	 * @param start the position of the record.
+	 * @throws IOException in case the record contains invalid values.
+	 */
+	private static void checkRecord(ByteBuffer records, int start)
+	throws IOException {
+		boolean valid;
+		switch (records.get(start)) {
+			case GAME_START: {
+				int variant = records.get(start + 1);
+				valid = (variant >= 1) && (variant <= 3) && isPlayer(records.get(start + 2));
+				break;
+			}
+			case ROLL: {
+				int values = records.get(start + 2) & 0xFF;
+				valid = isPlayer(records.get(start + 1)) && isDiceValue(values >> 4) && isDiceValue(values & 0x0F);
+				break;
+			}
+			case CHOICE: {
+				int count = records.get(start + 1);
+				valid = (count >= 1) && (count <= LegalPlay.MAX_MOVES);
+				for(int index = 0; valid && (index < count); index++) {
+					valid = isDiceValue(records.get(start + 2 + index));
+				}
+				break;
+			}
+			case MOVE: {
+				int playerAndDistance = records.get(start + 1) & 0xFF;
+				valid = isPlayer(playerAndDistance >> 4) && LegalPlay.isMove(records.get(start + 2), playerAndDistance & 0x0F);
+				break;
+			}
+			case GAME_END:
+				valid = isPlayer(records.get(start + 1)) && (records.get(start + 2) > 0);
+				break;
+			default:
+				valid = isPlayer(records.get(start + 1));
+				break;
+		}
+		if( ! valid) {
+			throw new IOException("Corrupt record in the match journal at offset " + start);
+		}
+	}
+	
+	/**
+	 * @param playerOrdinal a recorded {@link IPlayer.ID} ordinal.
+	 * @return {@code true} if it is an {@link IPlayer.ID}.
+	 */
+	private static boolean isPlayer(int playerOrdinal) {
+		return (playerOrdinal >= 0) && (playerOrdinal < IPlayer.ID.values().length);
+	}
+	
+	/**
+	 * @param value a recorded {@link IDice} value.
+	 * @return {@code true} if it is a value of a {@link IDice}.
+	 */
+	private static boolean isDiceValue(int value) {
+		return (value >= 1) && (value <= LegalPlay.MAX_DISTANCE);
+	}
+	
+	/**
+	 * Get the size of the record at the position of a {@link ByteBuffer}.
+	 * 
+	 * @param records the {@link ByteBuffer}.
+	 * @return the size of the record including the type, it may exceed the remaining bytes of a
+	 * half-written record; {@code -1} if the type is unknown.
+	 */
+	private static int getRecordSize(ByteBuffer records) {
+		int start = records.position();
+		switch (records.get(start)) {
+			case GAME_START:
+			case ROLL:
+			case MOVE:
+			case GAME_END:
+				return 3;
+			case UNDO:
+			case TURN_END:
+			case MATCH_END:
+				return 2;
+			case CHOICE:
+				return (records.remaining() >= 2) ? 2 + (records.get(start + 1) & 0xFF) : 2;
+			default:
+				return -1;
+		}
+	}
+	
+	/**
+	 * Make sure a record fits in the buffer, writing the collected records if necessary.
+	 * 
+	 * @return the buffer to write the record to.
+	 */
+	private ByteBuffer reserve() {
+		if(buffer.remaining() < MAX_RECORD_SIZE) {
+			commit();
+		}
+		return buffer;
+	}
+	
+	/**
+	 * @param game the {@link Game}.
+	 * @return the variant class of the {@link Game}.
+	 */
+	private static Class<? extends Game> getVariant(Game game) {
+		return GameSnapshot.variantClass(GameSnapshot.variantID(game.getClass()));
+	}
+	
+	/**
+	 * @param game the {@link Game}.
+	 * @param playerOrdinal the {@link IPlayer.ID} ordinal.
+	 * @return the {@link IPlayer} of the {@link Game}.
+	 */
+	private static IPlayer getPlayer(Game game, int playerOrdinal) {
+		return (game.getPlayerOne().getID().ordinal() == playerOrdinal) ? game.getPlayerOne() : game.getPlayerTwo();
+	}
+	
+	@Override
+	public synchronized void close()
+	throws IOException {
+		commit();
+		channel.close();
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.Arrays;
+
+import net.ichmags.backgammon.exception.InvalidMoveException;
+import net.ichmags.backgammon.game.IMove;
+import net.ichmags.backgammon.setup.IBoard;
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IPlayer;
+
+/**
+ * The {@code MoveHistory} keeps the played {@link IMove}s, so they can be undone and redone step by step.
+ * Each step moves one {@link net.ichmags.backgammon.setup.IChecker} on the {@link IBoard}, no
+ * {@link IBoard} is cloned or rebuilt. Adding an {@link IMove} after an undo drops the undone
+ * {@link IMove}s, like in an editor.
+ * 
+ * The {@link Game} uses a {@code MoveHistory} for the moves of a turn; analysis tools may use one for a
+ * whole {@link Game}, as long as the {@link IDice} of the {@link IMove}s are not reused.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class MoveHistory {
+	
+	private IMove[] moves;
+	private int size;
+	private int cursor;
+	
+	/**
+	 * Constructor.
+	 */
+	public MoveHistory() {
+		this.moves = new IMove[8];
+		this.size = 0;
+		this.cursor = 0;
+	}
+	
+	/**
+	 * Remove all {@link IMove}s.
+	 */
+	public void clear() {
+		Arrays.fill(moves, 0, size, null);
+		size = 0;
+		cursor = 0;
+	}
+	
+	/**
+	 * Add a successful {@link IMove}, dropping the undone ones.
+	 * 
+	 * @param move the {@link IMove}.
+	 */
+	public void add(IMove move) {
+		if(cursor == moves.length) {
+			moves = Arrays.copyOf(moves, 2 * moves.length);
+		}
+		Arrays.fill(moves, cursor, size, null);
+		moves[cursor++] = move;
+		size = cursor;
+	}
+	
+	/**
+	 * @return {@code true} if there is an {@link IMove} to undo.
+	 */
+	public boolean canUndo() {
+		return (cursor > 0);
+	}
+	
+	/**
+	 * @return {@code true} if there is an undone {@link IMove} to redo.
+	 */
+	public boolean canRedo() {
+		return (cursor < size);
+	}
+	
+	/**
+	 * @return the number of played {@link IMove}s, not counting the undone ones.
+	 */
+	public int getNrOfMoves() {
+		return cursor;
+	}
+	
+	/**
+	 * Undo the last played {@link IMove}.
+	 * 
+	 * @param game the {@link Game} to apply the rules of.
+	 * @param board the {@link IBoard} the {@link IMove} was played on.
+	 * @return the undone {@link IMove}.
+	 * @throws InvalidMoveException in case there is no {@link IMove}, or it cannot be undone; the
+	 * {@code MoveHistory} is not changed then.
+	 */
+	public IMove undo(Game game, IBoard board)
+	throws InvalidMoveException {
+		if( ! canUndo()) {
+			throw new InvalidMoveException("There is no move to undo");
+		}
+		IMove move = moves[cursor - 1];
+		game.undoMoveCheker(getPlayer(game, move), board, move);
+		cursor--;
+		return move;
+	}
+	
+	/**
+	 * Play the last undone {@link IMove} again.
+	 * 
+	 * @param game the {@link Game} to apply the rules of.
+	 * @param board the {@link IBoard} the {@link IMove} was played on.
+	 * @return the played {@link IMove}.
+	 * @throws InvalidMoveException in case there is no undone {@link IMove}, or it cannot be played; the
+	 * {@code MoveHistory} is not changed then.
+	 */
+	public IMove redo(Game game, IBoard board)
+	throws InvalidMoveException {
+		if( ! canRedo()) {
+			throw new InvalidMoveException("There is no move to redo");
+		}
+		IMove move = moves[cursor];
+		IMove redoneMove = game.moveChecker(getPlayer(game, move), board, move.getFromPosition(), move.getMoveDistance());
+		if( ! redoneMove.isSuccess()) {
+			throw new InvalidMoveException("The move could not be played again: " + move);
+		}
+		moves[cursor++] = redoneMove;
+		return redoneMove;
+	}
+	
+	/**
+	 * @param game the {@link Game}.
+	 * @param move the {@link IMove}.
+	 * @return the {@link IPlayer} of the {@link IMove}.
+	 */
+	private static IPlayer getPlayer(Game game, IMove move) {
+		return (game.getPlayerOne().getID() == move.getPlayerID()) ? game.getPlayerOne() : game.getPlayerTwo();
+	}
+}
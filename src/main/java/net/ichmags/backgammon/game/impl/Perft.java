@@ -0,0 +1,224 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.List;
+
+import net.ichmags.backgammon.exception.InvalidMoveException;
+import net.ichmags.backgammon.game.IMove;
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.Player;
+
+/**
+ * {@code Perft} counts the positions reachable from a {@link Board}, like the perft tools of chess
+ * engines: for each of the 21 different rolls all {@link LegalPlay}s are played, then the same for
+ * the opponent, down to a depth in turns. The rolls are not weighted, and {@link LegalPlay}s leading to
+ * the same {@link Board} count once, see {@link LegalPlayGenerator}. A won {@link Game} ends a line
+ * early and counts as leaf.
+ * 
+ * Known counts catch changes of the rules of the variants, and the time gives the throughput of the
+ * {@link LegalPlayGenerator}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class Perft {
+	
+	/**
+	 * The counts of a {@code Perft} run.
+	 */
+	public static final class Result {
+		
+		private final int depth;
+		private final long leaves;
+		private final long nodes;
+		private final long nanos;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param depth the depth in turns.
+		 * @param leaves the number of leaves.
+		 * @param nodes the number of visited positions, including the leaves.
+		 * @param nanos the duration in nanoseconds.
+		 */
+		private Result(int depth, long leaves, long nodes, long nanos) {
+			this.depth = depth;
+			this.leaves = leaves;
+			this.nodes = nodes;
+			this.nanos = nanos;
+		}
+		
+		/**
+		 * @return the depth in turns.
+		 */
+		public int getDepth() {
+			return depth;
+		}
+		
+		/**
+		 * @return the number of leaves: the positions after {@link #getDepth()} turns, and the won ones before.
+		 */
+		public long getLeaves() {
+			return leaves;
+		}
+		
+		/**
+		 * @return the number of visited positions, including the start and the leaves.
+		 */
+		public long getNodes() {
+			return nodes;
+		}
+		
+		/**
+		 * @return the visited positions per second.
+		 */
+		public long getNodesPerSecond() {
+			return (nanos > 0) ? (nodes * 1000000000L / nanos) : 0;
+		}
+		
+		@Override
+		public String toString() {
+			return "depth " + depth + ": " + leaves + " leaves, " + nodes + " nodes, " + getNodesPerSecond() + " nodes/s";
+		}
+	}
+	
+	private final Game game;
+	private final Board board;
+	private final Dices[] dices;
+	private long leaves;
+	private long nodes;
+	
+	/**
+	 * {@code private} constructor, use {@link #run(Game, IPlayer, int)}.
+	 * 
+	 * @param game the {@link Game} with the rules.
+	 * @param board the {@link Board} to search on.
+	 * @param depth the depth in turns.
+	 */
+	private Perft(Game game, Board board, int depth) {
+		this.game = game;
+		this.board = board;
+		this.dices = new Dices[depth];
+		for(int turn = 0; turn < depth; turn++) {
+			dices[turn] = new Dices();
+		}
+	}
+	
+	/**
+	 * Count the positions reachable from the {@link Board} of a {@link Game}.
+	 * 
+	 * @param game the initialized {@link Game}; its {@link Board} is not changed.
+	 * @param player the {@link IPlayer} to move first.
+	 * @param depth the depth in turns.
+	 * @return the {@link Result}.
+	 */
+	public static Result run(Game game, IPlayer player, int depth) {
+		if(depth < 0) {
+			throw new IllegalArgumentException("Invalid depth: " + depth);
+		}
+		Perft perft = new Perft(game, ((Board)game.board).clone(), depth);
+		Object searchEvent = EngineEvents.searchStarted();
+		long start = System.nanoTime();
+		perft.search(player, depth);
+		EngineEvents.searchEnded(searchEvent, "Perft", game, perft.nodes, depth);
+		return new Result(depth, perft.leaves, perft.nodes, System.nanoTime() - start);
+	}
+	
+	/**
+	 * Count the positions of a variant from its start position.
+	 * 
+	 * @param args the variant, {@code Portes}, {@code Plakoto} or {@code Fevga}, and the depth in turns.
+	 * @throws ReflectiveOperationException in case the variant cannot be created.
+	 */
+	public static void main(String[] args)
+	throws ReflectiveOperationException {
+		if(args.length != 2) {
+			System.out.println("Usage: Perft <Portes|Plakoto|Fevga> <depth>");
+			return;
+		}
+		
+		Class<? extends Game> variant = Class.forName(Perft.class.getPackage().getName() + "." + args[0]).asSubclass(Game.class);
+		IPlayer player1 = new Player().initialize("Player 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		IPlayer player2 = new Player().initialize("Player 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		Game game = (Game)GameFactory.get().create(variant);
+		game.initialize(player1, player2, null);
+		
+		for(int depth = 1; depth <= Integer.parseInt(args[1]); depth++) {
+			System.out.println(run(game, player1, depth));
+		}
+	}
+	
+	/**
+	 * Play all rolls and {@link LegalPlay}s of a turn, and search on for the opponent.
+	 * 
+	 * @param player the {@link IPlayer} to move.
+	 * @param depth the remaining depth in turns.
+	 */
+	private void search(IPlayer player, int depth) {
+		nodes++;
+		if(depth == 0) {
+			leaves++;
+			return;
+		}
+		
+		IPlayer opponent = (player == game.getPlayerOne()) ? game.getPlayerTwo() : game.getPlayerOne();
+		Dices rollDices = dices[depth - 1];
+		for(int dice1 = 1; dice1 <= 6; dice1++) {
+			for(int dice2 = dice1; dice2 <= 6; dice2++) {
+				rollDices.restore(dice1, dice2);
+				List<LegalPlay> legalPlays = LegalPlayGenerator.generate(game, player, board, rollDices);
+				for(LegalPlay legalPlay : legalPlays) {
+					IMove[] moves = play(player, legalPlay, rollDices);
+					if(board.getPipCount(player.getID()) == 0) {
+						nodes++;
+						leaves++;
+					} else {
+						search(opponent, depth - 1);
+					}
+					undo(player, moves);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Play the moves of a {@link LegalPlay}.
+	 * 
+	 * @param player the {@link IPlayer} to move.
+	 * @param legalPlay the {@link LegalPlay}.
+	 * @param rollDices the {@link Dices} of the roll.
+	 * @return the played {@link IMove}s.
+	 */
+	private IMove[] play(IPlayer player, LegalPlay legalPlay, Dices rollDices) {
+		IMove[] moves = new IMove[legalPlay.getNrOfMoves()];
+		for(int move = 0; move < moves.length; move++) {
+			IDice moveDice = rollDices.getUnused(legalPlay.getDistance(move));
+			moves[move] = game.moveChecker(player, board, legalPlay.getFromPosition(move), moveDice);
+			if( ! moves[move].isSuccess()) {
+				throw new IllegalStateException("Legal play failed: " + legalPlay);
+			}
+		}
+		return moves;
+	}
+	
+	/**
+	 * Take back played {@link IMove}s.
+	 * 
+	 * @param player the {@link IPlayer} who moved.
+	 * @param moves the {@link IMove}s, in the order they were played.
+	 */
+	private void undo(IPlayer player, IMove[] moves) {
+		try {
+			for(int move = moves.length - 1; move >= 0; move--) {
+				game.undoMoveCheker(player, board, moves[move]);
+			}
+		} catch (InvalidMoveException e) {
+			throw new IllegalStateException("Cannot take back a legal play", e);
+		}
+	}
+}
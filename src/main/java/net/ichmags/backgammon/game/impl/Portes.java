@@ -4,6 +4,7 @@
 package net.ichmags.backgammon.game.impl;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import net.ichmags.backgammon.CommonEngine;
@@ -21,6 +22,7 @@ import net.ichmags.backgammon.setup.IPlayer;
 import net.ichmags.backgammon.setup.IPosition;
 import net.ichmags.backgammon.setup.IPositions;
 import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.BoardLayout;
 import net.ichmags.backgammon.setup.impl.Checker;
 import net.ichmags.backgammon.setup.impl.Player;
 import net.ichmags.backgammon.setup.impl.Position;
@@ -41,6 +43,14 @@ import net.ichmags.backgammon.setup.impl.Position;
  */
 public class Portes extends Game {
 	
+	private static final List<Integer> INITIAL_CHECKER_POSITIONS = Collections.unmodifiableList(Arrays.asList(
+			1, 1, 12, 12, 12, 12, 12, 17, 17, 17, 19, 19, 19, 19, 19));
+	private static final List<Integer> PLAYER1_PLAY_POSITIONS = Collections.unmodifiableList(Arrays.asList(
+			0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, /* just append opponent */ 26, 27));
+	private static final List<Integer> PLAYER2_PLAY_POSITIONS = Collections.unmodifiableList(Arrays.asList(
+			26, 24, 23 ,22, 21, 20, 19, 18, 17, 16, 15, 14, 13, 12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 27, /* just append opponent */ 0, 25));
+	private static final BoardLayout BOARD_LAYOUT = new BoardLayout(PLAYER1_PLAY_POSITIONS, PLAYER2_PLAY_POSITIONS);
+	
 	/**
 	 * Default constructor.
 	 * 
@@ -57,29 +67,30 @@ public class Portes extends Game {
 	
 	@Override
 	protected List<Integer> getCheckerPositionsPlayer1() {
-		return Arrays.asList(1, 1, 12, 12, 12, 12, 12, 17, 17, 17, 19, 19, 19, 19, 19);
+		return INITIAL_CHECKER_POSITIONS;
 	}
 	
 	@Override
 	protected List<Integer> getCheckerPositionsPlayer2() {
-		return Arrays.asList(1, 1, 12, 12, 12, 12, 12, 17, 17, 17, 19, 19, 19, 19, 19);
+		return INITIAL_CHECKER_POSITIONS;
 	}
 	
 	@Override
 	public void setupGamePlayerConfig() {
-		player1Config = new GamePlayerConfig(IPlayer.ID.ONE,
-				Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, /* just append opponent */ 26, 27),
-				getCheckerPositionsPlayer1());
-		player2Config = new GamePlayerConfig(IPlayer.ID.TWO,
-				Arrays.asList(26, 24, 23 ,22, 21, 20, 19, 18, 17, 16, 15, 14, 13, 12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 27, /* just append opponent */ 0, 25),
-				getCheckerPositionsPlayer2());
+		player1Config = new GamePlayerConfig(IPlayer.ID.ONE, PLAYER1_PLAY_POSITIONS, getCheckerPositionsPlayer1());
+		player2Config = new GamePlayerConfig(IPlayer.ID.TWO, PLAYER2_PLAY_POSITIONS, getCheckerPositionsPlayer2());
+	}
+	
+	@Override
+	protected BoardLayout getBoardLayout() {
+		return BOARD_LAYOUT;
 	}
 	
 	@Override
 	public boolean isValidMoveTarget(IPlayer player, IBoard board, int fromPosition, int toPosition) {
 		boolean canMove = false;
 		
-		IPositions playerPositions = board.createPlayerView(player);
+		IPositions playerPositions = getPlayerView(board, player);
 		IPosition targetPos = playerPositions.get(toPosition);
 		IPosition outPosition = playerPositions.get(0);
 		
@@ -88,7 +99,7 @@ public class Portes extends Game {
 		} else if(targetPos.getNrOfCheckers() < 2) {
 			canMove = true;
 		} else {
-			if(targetPos.hasCheckers() && targetPos.readTopChecker().getOwner().equals(player.getID())) {
+			if(targetPos.hasCheckers() && targetPos.readTopChecker().getOwner() == player.getID()) {
 				canMove =  true;
 			}
 		}
@@ -101,16 +112,16 @@ public class Portes extends Game {
 	throws InvalidMoveException {
 		if(isValidMoveTarget(player, board, move.getFromPosition(), move.getToPosition())) {
 			
-			IPositions playerPositions = board.createPlayerView(player);
+			IPositions playerPositions = getPlayerView(board, player);
 			IPosition targetPos = playerPositions.get(move.getToPosition());
 			
-			if((targetPos.getNrOfCheckers() == 1) && (targetPos.readTopChecker().getOwner().equals(player.getID()) == false)) {
+			if((targetPos.getNrOfCheckers() == 1) && (targetPos.readTopChecker().getOwner() != player.getID())) {
 				IChecker kickedChecker = targetPos.removeTopChecker();
 				StatusEmitter.get().emit(board.isClone() ? Level.TRACE : Level.INFO, "game.portes.kick_opponent");
 				move.setOpponentHitChecker(kickedChecker);
 				
 				IPlayer opponent = CommonEngine.getOponent(player, player1, player2);
-				IPosition opponentPosition0 = board.createPlayerView(opponent).get(0);
+				IPosition opponentPosition0 = getPlayerView(board, opponent).get(0);
 				opponentPosition0.setTopChecker(kickedChecker);
 			} 
 		} else {
@@ -0,0 +1,178 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.Player;
+
+/**
+ * The {@code RulesService} answers rule questions about a position given as {@link GameSnapshot}, which
+ * holds the variant and the {@link IPlayer} to move, without a running {@link Game}: the legal plays
+ * for a roll, if a play is legal, and the position after it.
+ * 
+ * The {@code RulesService} may be called from many threads at once. The rules are implemented by the
+ * {@link Game} variants, which keep their state in fields; so each thread works on its own {@link Game}
+ * per variant, created on first use and reused afterwards. Nothing is shared between the threads, and
+ * no {@link Game} is created per call. A thread keeps its {@link Game}s as long as it lives, a pooled
+ * thread can release them with {@link #clear()}.
+ * 
+ * The {@link Game}s of the {@code RulesService} are not instrumented: their moves are neither reported
+ * to the {@link net.ichmags.backgammon.notification.impl.StatusEmitter}, nor measured by the
+ * {@link EngineMetrics}, nor recorded as {@link EngineEvents}, so the answers do not show up as
+ * moves of running {@link Game}s.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class RulesService {
+	
+	/**
+	 * {@code Singleton} pattern.
+	 */
+	private static RulesService INSTANCE = new RulesService();
+	
+	private final ThreadLocal<Map<Class<? extends Game>, Game>> games;
+	
+	/**
+	 * {@code private} constructor to enforce the {@code singleton} pattern.
+	 */
+	private RulesService() {
+		this.games = ThreadLocal.withInitial(HashMap::new);
+	}
+	
+	/**
+	 * Get a reference to the {@code singleton} instance.
+	 * 
+	 * @return the reference to the sole {@link Object} of this class.
+	 */
+	public static RulesService get() {
+		return INSTANCE;
+	}
+	
+	/**
+	 * Find the {@link LegalPlay}s for a roll.
+	 * 
+	 * @param position the {@link GameSnapshot} with the {@link IPlayer} to move; its {@link IDice} are ignored.
+	 * @param dice1 the value of the first {@link IDice}.
+	 * @param dice2 the value of the second {@link IDice}.
+	 * @return the {@link LegalPlay}s, one per resulting position; a single empty {@link LegalPlay} if no
+	 * move is possible.
+	 * @throws IllegalArgumentException in case there is no {@link IPlayer} to move, or a value is not 1 to 6.
+	 */
+	public List<LegalPlay> getLegalPlays(GameSnapshot position, int dice1, int dice2) {
+		Game game = prepare(position, dice1, dice2);
+		return LegalPlayGenerator.generate(game, getPlayerToMove(game, position), game.board, game.dices);
+	}
+	
+	/**
+	 * Check if a {@link LegalPlay} is legal for a roll.
+	 * 
+	 * @param position the {@link GameSnapshot} with the {@link IPlayer} to move; its {@link IDice} are ignored.
+	 * @param dice1 the value of the first {@link IDice}.
+	 * @param dice2 the value of the second {@link IDice}.
+	 * @param play the proposed {@link LegalPlay}, the moves may be in any order.
+	 * @return {@code true} if the {@link LegalPlay} is legal.
+	 * @throws IllegalArgumentException in case there is no {@link IPlayer} to move, or a value is not 1 to 6.
+	 */
+	public boolean isLegal(GameSnapshot position, int dice1, int dice2, LegalPlay play) {
+		Game game = prepare(position, dice1, dice2);
+		return LegalPlayGenerator.isLegal(game, getPlayerToMove(game, position), game.board, game.dices, play);
+	}
+	
+	/**
+	 * Play a {@link LegalPlay} for a roll.
+	 * 
+	 * @param position the {@link GameSnapshot} with the {@link IPlayer} to move; its {@link IDice} are ignored.
+	 * @param dice1 the value of the first {@link IDice}.
+	 * @param dice2 the value of the second {@link IDice}.
+	 * @param play the {@link LegalPlay}, the moves may be in any order.
+	 * @return the {@link GameSnapshot} after the {@link LegalPlay}, with the opponent to move and the
+	 * played {@link IDice}.
+	 * @throws IllegalArgumentException in case there is no {@link IPlayer} to move, a value is not 1 to 6,
+	 * or the {@link LegalPlay} is not legal.
+	 */
+	public GameSnapshot play(GameSnapshot position, int dice1, int dice2, LegalPlay play) {
+		Game game = prepare(position, dice1, dice2);
+		IPlayer player = getPlayerToMove(game, position);
+		if( ! LegalPlayGenerator.isLegal(game, player, game.board, game.dices, play)) {
+			throw new IllegalArgumentException("Not a legal play: " + play);
+		}
+		
+		for(int move = 0; move < play.getNrOfMoves(); move++) {
+			IDice moveDice = game.dices.getUnused(play.getDistance(move));
+			if( ! game.moveChecker(player, game.board, play.getFromPosition(move), moveDice).isSuccess()) {
+				throw new IllegalStateException("Legal play failed: " + play);
+			}
+		}
+		return game.snapshot((player == game.getPlayerOne()) ? game.getPlayerTwo() : game.getPlayerOne());
+	}
+	
+	/**
+	 * Release the {@link Game}s of the current thread, e.g. before the thread is returned to a pool. They
+	 * are created again on the next call.
+	 */
+	public void clear() {
+		games.remove();
+	}
+	
+	/**
+	 * Set up the {@link Game} of the current thread for a position and a roll.
+	 * 
+	 * @param position the {@link GameSnapshot}.
+	 * @param dice1 the value of the first {@link IDice}.
+	 * @param dice2 the value of the second {@link IDice}.
+	 * @return the {@link Game} of the variant.
+	 */
+	private Game prepare(GameSnapshot position, int dice1, int dice2) {
+		if((dice1 < 1) || (dice1 > 6) || (dice2 < 1) || (dice2 > 6)) {
+			throw new IllegalArgumentException("Invalid dice values: " + dice1 + ", " + dice2);
+		}
+		
+		Game game = games.get().computeIfAbsent(position.getVariant(), RulesService::createGame);
+		((Board)game.board).clear();
+		position.applyTo((Board)game.board, (Dices)game.dices, game.getPlayerOne(), game.getPlayerTwo());
+		((Dices)game.dices).restore(dice1, dice2);
+		return game;
+	}
+	
+	/**
+	 * @param game the {@link Game}.
+	 * @param position the {@link GameSnapshot}.
+	 * @return the {@link IPlayer} to move.
+	 */
+	private static IPlayer getPlayerToMove(Game game, GameSnapshot position) {
+		IPlayer.ID playerID = position.getPlayerToMove();
+		if(playerID == null) {
+			throw new IllegalArgumentException("The position has no player to move");
+		}
+		return (playerID == IPlayer.ID.ONE) ? game.getPlayerOne() : game.getPlayerTwo();
+	}
+	
+	/**
+	 * Create the {@link Game} of a variant for the current thread.
+	 * 
+	 * @param variant the {@link Game} variant.
+	 * @return the initialized {@link Game}, not instrumented and working on a cloned {@link Board}.
+	 */
+	private static Game createGame(Class<? extends Game> variant) {
+		try {
+			Game game = (Game)GameFactory.get().create(variant);
+			game.initialize(
+					new Player().initialize("Player 1", IPlayer.ID.ONE, IPlayer.Type.COMPUTER, Player.Level.AVERAGE, CheckerColor.WHITE),
+					new Player().initialize("Player 2", IPlayer.ID.TWO, IPlayer.Type.COMPUTER, Player.Level.AVERAGE, CheckerColor.BLACK),
+					null);
+			game.board = ((Board)game.board).clone();
+			return game.setInstrumented(false);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Cannot create the rules of " + variant.getSimpleName(), e);
+		}
+	}
+}
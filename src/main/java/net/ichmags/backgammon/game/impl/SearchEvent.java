@@ -0,0 +1,36 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder event of a search over moves, by the {@link LegalPlayGenerator} or
+ * {@link Perft}; created by the {@link EngineEvents} only.
+ * 
+ * @author Anastasios Patrikis
+ */
+@Name("net.ichmags.backgammon.Search")
+@Label("Backgammon Search")
+@Category("Backgammon")
+@Description("A search over the moves of a position")
+final class SearchEvent extends jdk.jfr.Event {
+	
+	@Label("Search")
+	String search;
+	
+	@Label("Variant")
+	String variant;
+	
+	@Label("Nodes")
+	@Description("The number of visited positions")
+	long nodes;
+	
+	@Label("Depth")
+	@Description("The depth, in moves for legal plays and in turns for perft")
+	int depth;
+}
@@ -0,0 +1,52 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder event of a turn, from rolling the dices to the last move; created by the
+ * {@link EngineEvents} only.
+ * 
+ * @author Anastasios Patrikis
+ */
+@Name("net.ichmags.backgammon.Turn")
+@Label("Backgammon Turn")
+@Category("Backgammon")
+@Description("A turn from rolling the dices to the last move")
+final class TurnEvent extends jdk.jfr.Event {
+	
+	@Label("Variant")
+	String variant;
+	
+	@Label("Player")
+	String player;
+	
+	@Label("Player Type")
+	String playerType;
+	
+	@Label("First Dice")
+	int dice1;
+	
+	@Label("Second Dice")
+	int dice2;
+	
+	@Label("Legal Plays")
+	@Description("The number of legal plays of the roll, 0 if no move is possible, -1 if the plays were not searched")
+	int legalPlays;
+	
+	@Label("Analysis Time")
+	@Description("The time to roll the dices and find what can be played")
+	@Timespan(Timespan.NANOSECONDS)
+	long analysisTime;
+	
+	/**
+	 * The start of the turn, not recorded.
+	 */
+	transient long start;
+}
@@ -0,0 +1,72 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.interaction.impl;
+
+import net.ichmags.backgammon.game.impl.LegalPlay;
+import net.ichmags.backgammon.interaction.ICommand;
+import net.ichmags.backgammon.interaction.pojo.MoveCommand;
+
+/**
+ * The {@link ICommand} to play all moves of a turn at once, instead of one {@link MoveCommand} per
+ * {@link net.ichmags.backgammon.setup.IDice}. The moves are checked together and played only if all of
+ * them are legal, with a single board notification.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class PlayCommand implements ICommand {
+	
+	private LegalPlay play;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param fromAndDistance the relative start {@link net.ichmags.backgammon.setup.IPosition} and the
+	 * distance of each move.
+	 * @throws IllegalArgumentException in case the values are no valid {@link LegalPlay}, see
+	 * {@link LegalPlay#of(int...)}.
+	 */
+	public PlayCommand(int... fromAndDistance) {
+		this.play = LegalPlay.of(fromAndDistance);
+	}
+	
+	/**
+	 * @return the number of moves.
+	 */
+	public int getNrOfMoves() {
+		return play.getNrOfMoves();
+	}
+	
+	/**
+	 * @param move the move index.
+	 * @return the relative start {@link net.ichmags.backgammon.setup.IPosition} of the move.
+	 */
+	public int getFrom(int move) {
+		return play.getFromPosition(move);
+	}
+	
+	/**
+	 * @param move the move index.
+	 * @return the distance of the move.
+	 */
+	public int getDistance(int move) {
+		return play.getDistance(move);
+	}
+	
+	/**
+	 * @return the moves as {@link LegalPlay}.
+	 */
+	public LegalPlay getPlay() {
+		return play;
+	}
+	
+	@Override
+	public String getName() {
+		return "PlayCommand";
+	}
+	
+	@Override
+	public String toString() {
+		return getName() + "[" + play + "]";
+	}
+}
@@ -0,0 +1,20 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.interaction.impl;
+
+import net.ichmags.backgammon.interaction.ICommand;
+import net.ichmags.backgammon.interaction.pojo.UndoCommand;
+
+/**
+ * The {@link ICommand} to play the last move undone with an {@link UndoCommand} again.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class RedoCommand implements ICommand {
+	
+	@Override
+	public String getName() {
+		return "RedoCommand";
+	}
+}
@@ -0,0 +1,344 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.interaction.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import net.ichmags.backgammon.exception.ExitException;
+import net.ichmags.backgammon.game.ExitLevel;
+import net.ichmags.backgammon.game.impl.LegalPlay;
+import net.ichmags.backgammon.interaction.ICommand;
+import net.ichmags.backgammon.interaction.ICommandProvider;
+import net.ichmags.backgammon.interaction.pojo.MoveCommand;
+import net.ichmags.backgammon.interaction.pojo.UndoCommand;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IDicesChoice;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of the {@link ICommandProvider} {@code interface} for a {@link IPlayer} playing in another
+ * process, connected by a non-blocking {@link SocketChannel} and talking the {@link RemoteProtocol}.
+ * 
+ * The host side does not ask for each move: {@link #startTurn(IPlayer, Board, IDices)} only queues the
+ * changed {@link net.ichmags.backgammon.setup.IPosition}s and the {@link IDices}, and the frames are sent
+ * together when input is needed. The remote side may send all moves of a turn at once, as single moves or
+ * as one play; they are queued and handed out by {@link #getCommand()} without waiting for the network again.
+ * 
+ * A failed connection is remembered: {@link #startTurn(IPlayer, Board, IDices)} and
+ * {@link #chooseDices(IDicesChoice)} cannot end the {@link net.ichmags.backgammon.game.IGame}, so the
+ * next {@link #getCommand()} or {@link #checkConnection()} throws an {@link ExitException} with
+ * {@link ExitLevel#GAME}, like a failure while waiting for a command.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class RemoteCommandProvider implements ICommandProvider, Closeable {
+	
+	private static Logger LOG = LoggerFactory.getLogger(RemoteCommandProvider.class);
+	
+	private static final long DEFAULT_TIMEOUT_MILLIS = 5L * 60L * 1000L;
+	private static final int BUFFER_SIZE = 4 * RemoteProtocol.MAX_FRAME_SIZE;
+	private static final int NO_CHOICE = 0;
+	
+	private SocketChannel channel;
+	private Selector selector;
+	private SelectionKey key;
+	private ByteBuffer in;
+	private ByteBuffer out;
+	private Deque<Object> commands;
+	private int choice;
+	private int[] sentPositions;
+	private long timeoutMillis;
+	private IOException failure;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param channel the connected {@link SocketChannel} to the remote side; it will be switched to
+	 * non-blocking mode.
+	 * @throws IOException in case the {@link SocketChannel} cannot be set up.
+	 */
+	public RemoteCommandProvider(SocketChannel channel)
+	throws IOException {
+		this.channel = channel;
+		this.selector = Selector.open();
+		channel.configureBlocking(false);
+		this.key = channel.register(selector, SelectionKey.OP_READ);
+		
+		this.in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		this.out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		this.commands = new ArrayDeque<>();
+		this.choice = NO_CHOICE;
+		this.sentPositions = new int[RemoteProtocol.NR_OF_POSITIONS];
+		Arrays.fill(sentPositions, -1);
+		this.timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+	}
+	
+	/**
+	 * Set how long to wait for the remote side.
+	 * 
+	 * @param timeoutMillis the timeout in milliseconds.
+	 * @return the {@code RemoteCommandProvider}.
+	 */
+	public RemoteCommandProvider setTimeout(long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+		return this;
+	}
+	
+	/**
+	 * Inform the remote side about a new turn: the changed {@link net.ichmags.backgammon.setup.IPosition}s
+	 * and the rolled {@link IDices}. The frames are sent with the next request for input; a failure to make
+	 * room for them is remembered.
+	 * 
+	 * @param player the {@link IPlayer} to move.
+	 * @param board the {@link Board}.
+	 * @param dices the rolled {@link IDices}.
+	 */
+	public void startTurn(IPlayer player, Board board, IDices dices) {
+		if(failure != null) {
+			return;
+		}
+		try {
+			ensureCapacity(RemoteProtocol.MAX_FRAME_SIZE);
+			RemoteProtocol.writeBoardDelta(out, board, sentPositions);
+			ensureCapacity(RemoteProtocol.MAX_FRAME_SIZE);
+			RemoteProtocol.writeDices(out, player.getID(), dices);
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+	
+	@Override
+	public ICommand getCommand()
+	throws ExitException {
+		checkConnection();
+		try {
+			flush();
+			while(commands.isEmpty()) {
+				receive();
+			}
+		} catch (IOException e) {
+			fail(e);
+			checkConnection();
+		}
+		
+		Object command = commands.pollFirst();
+		if(command instanceof ExitLevel) {
+			throw new ExitException((ExitLevel)command);
+		}
+		return (ICommand)command;
+	}
+	
+	/**
+	 * Ask the remote side which {@link IDices} to play. In case the connection failed, the first option is
+	 * returned and the failure is remembered, check it with {@link #checkConnection()}.
+	 * 
+	 * @param dicesChoice the options.
+	 * @return the chosen {@link IDices}.
+	 */
+	@Override
+	public IDices chooseDices(IDicesChoice dicesChoice) {
+		IDices option1 = dicesChoice.getAsList().get(0);
+		IDices option2 = dicesChoice.getAsList().get(1);
+		
+		if(failure == null) {
+			try {
+				ensureCapacity(RemoteProtocol.MAX_FRAME_SIZE);
+				RemoteProtocol.writeChooseDices(out, option1, option2);
+				flush();
+				while(choice == NO_CHOICE) {
+					receive();
+				}
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+		
+		IDices selectedDices = (choice == 2) ? option2 : option1;
+		choice = NO_CHOICE;
+		return selectedDices;
+	}
+	
+	/**
+	 * Check that the connection to the remote side did not fail.
+	 * 
+	 * @throws ExitException with {@link ExitLevel#GAME} in case the connection failed.
+	 */
+	public void checkConnection()
+	throws ExitException {
+		if(failure != null) {
+			throw new ExitException(ExitLevel.GAME);
+		}
+	}
+	
+	/**
+	 * Remember a failed connection; the first failure is kept.
+	 * 
+	 * @param e the failure.
+	 */
+	private void fail(IOException e) {
+		if(failure == null) {
+			LOG.error("Connection to the remote player failed", e);
+			failure = e;
+		}
+	}
+	
+	/**
+	 * Write all queued frames, waiting while the {@link SocketChannel} cannot take more bytes.
+	 * 
+	 * @throws IOException in case of an I/O error or a timeout.
+	 */
+	private void flush()
+	throws IOException {
+		out.flip();
+		try {
+			while(out.hasRemaining()) {
+				if(channel.write(out) == 0) {
+					key.interestOps(SelectionKey.OP_WRITE);
+					await();
+				}
+			}
+		} finally {
+			out.compact();
+			key.interestOps(SelectionKey.OP_READ);
+		}
+	}
+	
+	/**
+	 * Read the available bytes and decode all complete frames.
+	 * 
+	 * @throws IOException in case of an I/O error, a closed connection or a timeout.
+	 */
+	private void receive()
+	throws IOException {
+		int read = channel.read(in);
+		if(read < 0) {
+			throw new IOException("Connection closed by the remote player");
+		} else if(read == 0) {
+			await();
+			return;
+		}
+		
+		in.flip();
+		RemoteProtocol.readFrames(in, (type, payload) -> handleFrame(type, payload));
+		in.compact();
+	}
+	
+	/**
+	 * Wait until the {@link SocketChannel} is ready for the selected operation.
+	 * 
+	 * @throws IOException in case of an I/O error or a timeout.
+	 */
+	private void await()
+	throws IOException {
+		if(selector.select(timeoutMillis) == 0) {
+			throw new IOException("No response from the remote player within " + timeoutMillis + " ms");
+		}
+		selector.selectedKeys().clear();
+	}
+	
+	/**
+	 * Queue a received frame. Frames with an unexpected length or out of range values are dropped, so a
+	 * misbehaving remote side cannot break the {@link net.ichmags.backgammon.game.IGame}.
+	 * 
+	 * @param type the frame type.
+	 * @param payload the payload.
+	 */
+	private void handleFrame(byte type, ByteBuffer payload) {
+		int length = payload.remaining();
+		switch (type) {
+			case RemoteProtocol.MOVE:
+				if((length == 2) && LegalPlay.isMove(payload.get(0), payload.get(1))) {
+					commands.addLast(new MoveCommand(payload.get(0), payload.get(1)));
+					return;
+				}
+				break;
+			case RemoteProtocol.PLAY:
+				if(isPlay(payload)) {
+					int[] fromAndDistance = new int[length];
+					for(int i = 0; i < fromAndDistance.length; i++) {
+						fromAndDistance[i] = payload.get(i);
+					}
+					commands.addLast(new PlayCommand(fromAndDistance));
+					return;
+				}
+				break;
+			case RemoteProtocol.UNDO:
+				if(length == 0) {
+					commands.addLast(new UndoCommand());
+					return;
+				}
+				break;
+			case RemoteProtocol.REDO:
+				if(length == 0) {
+					commands.addLast(new RedoCommand());
+					return;
+				}
+				break;
+			case RemoteProtocol.CHOICE:
+				if((length == 1) && ((payload.get(0) == 1) || (payload.get(0) == 2))) {
+					choice = payload.get(0);
+					return;
+				}
+				break;
+			case RemoteProtocol.EXIT:
+				if((length == 1) && (payload.get(0) >= 0) && (payload.get(0) < ExitLevel.values().length)) {
+					commands.addLast(ExitLevel.values()[payload.get(0)]);
+					return;
+				}
+				break;
+			default:
+				break;
+		}
+		LOG.warn("Dropped invalid frame from the remote player: type {}, {} bytes payload", type, length);
+	}
+	
+	/**
+	 * @param payload the payload of a {@link RemoteProtocol#PLAY} frame.
+	 * @return {@code true} if the payload has up to {@link LegalPlay#MAX_MOVES} moves in range.
+	 */
+	private static boolean isPlay(ByteBuffer payload) {
+		int length = payload.remaining();
+		if(((length % 2) != 0) || (length > 2 * LegalPlay.MAX_MOVES)) {
+			return false;
+		}
+		for(int i = 0; i < length; i += 2) {
+			if( ! LegalPlay.isMove(payload.get(i), payload.get(i + 1))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Make room in the output buffer by sending the queued frames.
+	 * 
+	 * @param bytes the number of bytes needed.
+	 * @throws IOException in case of an I/O error or a timeout.
+	 */
+	private void ensureCapacity(int bytes)
+	throws IOException {
+		if(out.remaining() < bytes) {
+			flush();
+		}
+	}
+	
+	@Override
+	public void close()
+	throws IOException {
+		selector.close();
+		channel.close();
+	}
+}
@@ -0,0 +1,303 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.interaction.impl;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import net.ichmags.backgammon.game.ExitLevel;
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.IPosition;
+import net.ichmags.backgammon.setup.impl.Board;
+
+/**
+ * The binary protocol between a {@link RemoteCommandProvider} (the host of the game) and the remote side
+ * playing for a {@link IPlayer}.
+ * 
+ * Every message is a frame of one byte type, one byte payload length and the payload. Frames are
+ * independent of each other, so both sides may write several frames at once and read them in one go:
+ * <ul>
+ * <li>host to remote: {@link #BOARD}, {@link #DICES}, {@link #CHOOSE_DICES}</li>
+ * <li>remote to host: {@link #MOVE}, {@link #PLAY}, {@link #UNDO}, {@link #REDO}, {@link #CHOICE}, {@link #EXIT}</li>
+ * </ul>
+ * A {@link #BOARD} frame only contains the absolute {@link IPosition}s that changed since the last
+ * frame, with two bytes each:
+ * <ol>
+ * <li>the absolute {@link IPosition} in the lower 7 bits; the highest bit is set if the top
+ * {@link net.ichmags.backgammon.setup.IChecker} belongs to {@link IPlayer.ID#TWO}</li>
+ * <li>the number of {@link net.ichmags.backgammon.setup.IChecker} of {@link IPlayer.ID#ONE} in the
+ * upper 4 bits and of {@link IPlayer.ID#TWO} in the lower 4 bits</li>
+ * </ol>
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class RemoteProtocol {
+	
+	/** Host: changed absolute {@link IPosition}s. */
+	public static final byte BOARD = 0x01;
+	/** Host: the rolled {@link IDices}, the {@link IPlayer.ID} ordinal followed by the values. */
+	public static final byte DICES = 0x02;
+	/** Host: two {@link IDices} options to choose from, each as count followed by the values. */
+	public static final byte CHOOSE_DICES = 0x03;
+	/** Remote: move a checker, the relative {@link IPosition} and the distance. */
+	public static final byte MOVE = 0x10;
+	/** Remote: undo the last move, no payload. */
+	public static final byte UNDO = 0x11;
+	/** Remote: the chosen {@link IDices} option, 1 or 2. */
+	public static final byte CHOICE = 0x12;
+	/** Remote: end the game, the {@link ExitLevel} ordinal. */
+	public static final byte EXIT = 0x13;
+	/** Remote: play the last undone move again, no payload. */
+	public static final byte REDO = 0x14;
+	/** Remote: all moves of a turn, the relative {@link IPosition} and the distance of each move. */
+	public static final byte PLAY = 0x15;
+	
+	/** The size of the frame header. */
+	public static final int HEADER_SIZE = 2;
+	/** The maximum size of a frame. */
+	public static final int MAX_FRAME_SIZE = HEADER_SIZE + 0xFF;
+	/** The number of absolute {@link IPosition}s of a {@link Board}. */
+	public static final int NR_OF_POSITIONS = 28;
+	
+	private static final int TOP_PLAYER_TWO = 0x80;
+	
+	/**
+	 * Receives the frames found by {@link RemoteProtocol#readFrames(ByteBuffer, FrameHandler)}.
+	 */
+	public interface FrameHandler {
+		/**
+		 * Handle one frame.
+		 * 
+		 * @param type the frame type.
+		 * @param payload the payload, positioned at its start and limited to its end.
+		 */
+		void frame(byte type, ByteBuffer payload);
+	}
+	
+	/**
+	 * {@code private} constructor, there are only {@code static} methods.
+	 */
+	private RemoteProtocol() {
+	}
+	
+	/**
+	 * Read all complete frames of a {@link ByteBuffer} in flip mode. An incomplete frame at the end is
+	 * left in the {@link ByteBuffer}, so it can be compacted and filled up.
+	 * 
+	 * @param buffer the {@link ByteBuffer} holding the received bytes.
+	 * @param handler the {@link FrameHandler} to call for each frame.
+	 * @return the number of frames read.
+	 */
+	public static int readFrames(ByteBuffer buffer, FrameHandler handler) {
+		int nrOfFrames = 0;
+		while(buffer.remaining() >= HEADER_SIZE) {
+			int start = buffer.position();
+			int length = buffer.get(start + 1) & 0xFF;
+			if(buffer.remaining() < HEADER_SIZE + length) {
+				break;
+			}
+			
+			int limit = buffer.limit();
+			buffer.position(start + HEADER_SIZE).limit(start + HEADER_SIZE + length);
+			handler.frame(buffer.get(start), buffer.slice());
+			buffer.limit(limit).position(start + HEADER_SIZE + length);
+			nrOfFrames++;
+		}
+		return nrOfFrames;
+	}
+	
+	/**
+	 * Encode the state of an absolute {@link IPosition} as used in the {@link #BOARD} frame.
+	 * 
+	 * @param board the {@link Board}.
+	 * @param absolutePosition the absolute {@link IPosition}.
+	 * @return the encoded state: the top owner flag in bit 8, the numbers of {@link IPlayer.ID#ONE} and
+	 * {@link IPlayer.ID#TWO} in bits 4 to 7 and 0 to 3.
+	 */
+	public static int encodePosition(Board board, int absolutePosition) {
+		int state = (countCheckers(board, IPlayer.ID.ONE, absolutePosition) << 4)
+				| countCheckers(board, IPlayer.ID.TWO, absolutePosition);
+		IPosition position = board.getAbsolutePosition(absolutePosition);
+		if(position.hasCheckers() && (position.readTopChecker().getOwner() == IPlayer.ID.TWO)) {
+			state |= (TOP_PLAYER_TWO << 1);
+		}
+		return state;
+	}
+	
+	/**
+	 * Write a {@link #BOARD} frame with the absolute {@link IPosition}s that differ from the last sent
+	 * state, and update the last sent state.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 * @param board the {@link Board}.
+	 * @param sentState the last sent state of each absolute {@link IPosition}, see
+	 * {@link #encodePosition(Board, int)}; {@code -1} for unknown.
+	 * @return the number of changed {@link IPosition}s; no frame is written if there are none.
+	 */
+	public static int writeBoardDelta(ByteBuffer buffer, Board board, int[] sentState) {
+		int headerPos = buffer.position();
+		buffer.position(headerPos + HEADER_SIZE);
+		
+		int nrOfChanges = 0;
+		for(int absolutePosition = 0; absolutePosition < NR_OF_POSITIONS; absolutePosition++) {
+			int state = encodePosition(board, absolutePosition);
+			if(state != sentState[absolutePosition]) {
+				sentState[absolutePosition] = state;
+				buffer.put((byte)(absolutePosition | ((state >> 1) & TOP_PLAYER_TWO)));
+				buffer.put((byte)state);
+				nrOfChanges++;
+			}
+		}
+		
+		if(nrOfChanges > 0) {
+			buffer.put(headerPos, BOARD).put(headerPos + 1, (byte)(nrOfChanges * 2));
+		} else {
+			buffer.position(headerPos);
+		}
+		return nrOfChanges;
+	}
+	
+	/**
+	 * Apply a {@link #BOARD} frame on the remote side.
+	 * 
+	 * @param payload the payload of the frame.
+	 * @param positions the state of each absolute {@link IPosition}, see {@link #encodePosition(Board, int)}.
+	 */
+	public static void readBoardDelta(ByteBuffer payload, int[] positions) {
+		while(payload.remaining() >= 2) {
+			int position = payload.get() & 0xFF;
+			int counts = payload.get() & 0xFF;
+			positions[position & ~TOP_PLAYER_TWO] = counts | ((position & TOP_PLAYER_TWO) << 1);
+		}
+	}
+	
+	/**
+	 * Write a {@link #DICES} frame.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 * @param playerID the {@link IPlayer.ID} who rolled the {@link IDices}.
+	 * @param dices the {@link IDices}.
+	 */
+	public static void writeDices(ByteBuffer buffer, IPlayer.ID playerID, IDices dices) {
+		List<IDice> diceList = dices.get();
+		buffer.put(DICES).put((byte)(1 + diceList.size())).put((byte)playerID.ordinal());
+		for(IDice dice : diceList) {
+			buffer.put((byte)dice.getValue());
+		}
+	}
+	
+	/**
+	 * Write a {@link #CHOOSE_DICES} frame with the available {@link IDice} of both options.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 * @param option1 the first {@link IDices} option.
+	 * @param option2 the second {@link IDices} option.
+	 */
+	public static void writeChooseDices(ByteBuffer buffer, IDices option1, IDices option2) {
+		int headerPos = buffer.position();
+		buffer.position(headerPos + HEADER_SIZE);
+		writeAvailableDice(buffer, option1);
+		writeAvailableDice(buffer, option2);
+		buffer.put(headerPos, CHOOSE_DICES).put(headerPos + 1, (byte)(buffer.position() - headerPos - HEADER_SIZE));
+	}
+	
+	/**
+	 * Write a {@link #MOVE} frame.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 * @param fromPosition the relative {@link IPosition} to move from.
+	 * @param distance the distance to move.
+	 */
+	public static void writeMove(ByteBuffer buffer, int fromPosition, int distance) {
+		buffer.put(MOVE).put((byte)2).put((byte)fromPosition).put((byte)distance);
+	}
+	
+	/**
+	 * Write a {@link #PLAY} frame.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 * @param fromAndDistance the relative {@link IPosition} to move from and the distance of each move.
+	 */
+	public static void writePlay(ByteBuffer buffer, int... fromAndDistance) {
+		buffer.put(PLAY).put((byte)fromAndDistance.length);
+		for(int value : fromAndDistance) {
+			buffer.put((byte)value);
+		}
+	}
+	
+	/**
+	 * Write a {@link #UNDO} frame.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 */
+	public static void writeUndo(ByteBuffer buffer) {
+		buffer.put(UNDO).put((byte)0);
+	}
+	
+	/**
+	 * Write a {@link #REDO} frame.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 */
+	public static void writeRedo(ByteBuffer buffer) {
+		buffer.put(REDO).put((byte)0);
+	}
+	
+	/**
+	 * Write a {@link #CHOICE} frame.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 * @param option the chosen option, 1 or 2.
+	 */
+	public static void writeChoice(ByteBuffer buffer, int option) {
+		buffer.put(CHOICE).put((byte)1).put((byte)option);
+	}
+	
+	/**
+	 * Write a {@link #EXIT} frame.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 * @param exitLevel the {@link ExitLevel}.
+	 */
+	public static void writeExit(ByteBuffer buffer, ExitLevel exitLevel) {
+		buffer.put(EXIT).put((byte)1).put((byte)exitLevel.ordinal());
+	}
+	
+	/**
+	 * Count the {@link net.ichmags.backgammon.setup.IChecker} of a {@link IPlayer} on an absolute
+	 * {@link IPosition}, using the figures tracked by the {@link Board}.
+	 * 
+	 * @param board the {@link Board}.
+	 * @param playerID the {@link IPlayer.ID}.
+	 * @param absolutePosition the absolute {@link IPosition}.
+	 * @return the number of {@link net.ichmags.backgammon.setup.IChecker}.
+	 */
+	private static int countCheckers(Board board, IPlayer.ID playerID, int absolutePosition) {
+		int relativePosition = board.getLayout().getRelativePosition(playerID, absolutePosition);
+		return (relativePosition < 0) ? 0 : board.getNrOfCheckers(playerID, relativePosition);
+	}
+	
+	/**
+	 * Write the count and the values of the available {@link IDice} of {@link IDices}.
+	 * 
+	 * @param buffer the {@link ByteBuffer} to write to.
+	 * @param dices the {@link IDices}.
+	 */
+	private static void writeAvailableDice(ByteBuffer buffer, IDices dices) {
+		int countPos = buffer.position();
+		buffer.put((byte)0);
+		int count = 0;
+		if(dices != null) {
+			for(IDice dice : dices.get()) {
+				if(IDice.Status.AVAILABLE.equals(dice.getStatus())) {
+					buffer.put((byte)dice.getValue());
+					count++;
+				}
+			}
+		}
+		buffer.put(countPos, (byte)count);
+	}
+}
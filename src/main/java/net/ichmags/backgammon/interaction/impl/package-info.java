@@ -0,0 +1,13 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+
+/**
+ * The package contains implementations of the {@code interfaces} that are used for the interaction
+ * with the {@link net.ichmags.backgammon.setup.IPlayer}s, like a
+ * {@link net.ichmags.backgammon.interaction.ICommandProvider} for a {@link net.ichmags.backgammon.setup.IPlayer}
+ * playing in another process.
+ * 
+ * @author Anastasios Patrikis
+ */
+package net.ichmags.backgammon.interaction.impl;
@@ -4,15 +4,15 @@
 package net.ichmags.backgammon.setup.impl;
 
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import net.ichmags.backgammon.game.IGame;
+import net.ichmags.backgammon.game.pojo.GamePlayerConfig;
 import net.ichmags.backgammon.setup.BoardView;
 import net.ichmags.backgammon.setup.IBoard;
+import net.ichmags.backgammon.setup.IChecker;
 import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.IPosition;
 import net.ichmags.backgammon.setup.IPositions;
 import net.ichmags.backgammon.setup.PositionColor;
 import net.ichmags.backgammon.setup.tool.BoardVisualizer;
@@ -20,13 +20,46 @@ import net.ichmags.backgammon.setup.tool.BoardVisualizer;
 /**
  * Implementation of the {@link IBoard} {@code interface}.
  * 
+ * Besides the {@link Positions} the {@code Board} keeps track of some per {@link Player} figures,
+ * which are updated incrementally whenever a {@link Checker} is placed on or removed from a
+ * {@link Position}: the pip count, the number of {@link Checker} outside the home board, the number of
+ * <i>hit</i> and <i>out</i> {@link Checker} and the rearmost and leading {@link Checker}.
+ * All figures use the relative {@link Position} numbers of the {@link Player}.
+ * 
+ * The {@link Player} views of {@link #getPlayerView(IPlayer)} are created once per {@link BoardView}
+ * and shared, because the move rules ask for them on every move; they are read-only. The views of
+ * {@link #createPlayerView(IPlayer)} are new on each call, so the caller may change them. The initial
+ * {@link Checker} {@link Position}s are unboxed once as well, and reused while the
+ * {@link GamePlayerConfig} returns the same {@link List}.
+ * 
+ * The occupation of the {@link Position}s is also available as bit masks, where bit {@code n} stands for
+ * the relative {@link Position} {@code n} of the {@link Player}. Rules can be checked with a few mask
+ * operations this way, even for all {@link Checker} and a whole roll at once, see
+ * {@link #getBlockedTargets(IPlayer.ID, int)}.
+ * 
  * @author Anastasios Patrikis
  */
 public class Board implements IBoard {
 
+	private static final int RELATIVE_HIT_POS = 0;
+	private static final int RELATIVE_OUT_POS = 25;
+	private static final int RELATIVE_HOME_START_POS = 19;
+	private static final int NO_POSITION = -1;
+	private static final int BOARD_POSITIONS_MASK = 0x1FFFFFE; // relative positions 1 to 24
+	
 	private IGame game;
 	private Positions absolutePositions;
-	private Map<BoardView, List<Integer>> boardViews;
+	private BoardLayout layout;
+	private int[][] relativePositions;
+	private int[][] checkerCount;
+	private int[] pipCount;
+	private int[] outsideHomeCount;
+	private int[] checkerMask;
+	private int[] ownedMask;
+	private int[] blockedMask;
+	private IPositions[] sharedViews;
+	private List<?>[] initialPositionLists;
+	private int[][] initialPositions;
 	private int cloneGeneration;
 	
 	/**
@@ -38,20 +71,43 @@ public class Board implements IBoard {
 	
 	/**
 	 * Constructor.
+	 * The shared {@link BoardLayout} of the {@link IGame#getGamePlayerConfig(IPlayer.ID)} is used, see
+	 * {@link BoardLayout#of(List, List)}.
 	 * 
 	 * @param game the {@link IGame} to play on the {@code Board}.
 	 */
 	public Board(IGame game) {
+		this(game, BoardLayout.of(
+				game.getGamePlayerConfig(IPlayer.ID.ONE).getAbsolutePlayPositions(),
+				game.getGamePlayerConfig(IPlayer.ID.TWO).getAbsolutePlayPositions()));
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param game the {@link IGame} to play on the {@code Board}.
+	 * @param layout the {@link BoardLayout} of the {@link IGame}, usually shared by all {@link Board}s
+	 * of the {@link IGame} variant.
+	 */
+	public Board(IGame game, BoardLayout layout) {
 		this.game = game;
+		this.layout = layout;
 		setup();
 	}
 	
 	@Override
 	public IBoard setInitialCheker(IPlayer player) {
-		IPositions playerPositions = createPlayerView(player);
+		int id = player.getID().ordinal();
 		List<Integer> initPositions = game.getGamePlayerConfig(player.getID()).getRelativeInitialCheckerPositions();
-		for(Integer pos : initPositions) {
-			playerPositions.get(pos).setTopChecker(new Checker(player));
+		if(initialPositionLists[id] != initPositions) {
+			initialPositions[id] = BoardLayout.toArray(initPositions);
+			initialPositionLists[id] = initPositions;
+		}
+		
+		IPositions playerPositions = getPlayerView(player);
+		IChecker checker = Checker.get(player);
+		for(int position : initialPositions[id]) {
+			playerPositions.get(position).setTopChecker(checker);
 		}
 		return this;
 	}
@@ -62,6 +118,23 @@ public class Board implements IBoard {
 		return createMappedView(playerView, playerView);
 	}
 	
+	/**
+	 * Get the {@link Positions} of a {@link Player} like {@link #createPlayerView(IPlayer)}, without
+	 * creating them: the view is shared by all calls for the same {@link BoardView}, and it is read-only.
+	 * 
+	 * @param player the {@link Player}.
+	 * @return the shared {@link Positions} of the {@link Player}.
+	 */
+	public IPositions getPlayerView(IPlayer player) {
+		BoardView playerView = player.getBoardView();
+		IPositions sharedView = sharedViews[playerView.ordinal()];
+		if(sharedView == null) {
+			sharedView = ((Positions)createMappedView(playerView, playerView)).readOnly();
+			sharedViews[playerView.ordinal()] = sharedView;
+		}
+		return sharedView;
+	}
+	
 	/**
 	 * <b>This method is essential because it sets up the logic for moving the {@link Player} {@link Checker}
 	 * for a {@link IGame} and displaying the {@link Board}</b>.
@@ -74,31 +147,247 @@ public class Board implements IBoard {
 	 * </ul>
 	 */
 	private void setup() {
-		boardViews = new HashMap<>(10, 0.9f);
-		
 		// Step 1: create the absolute positions
-		absolutePositions = new Positions();
+		absolutePositions = new Positions(28);
 		
 		// special positions: out (for all games) / hit (only for Backgammon)
 		// player 1: 0 / 25
 		// player 2: 26 / 27
 		for(int pos = 0; pos < 28; pos++) {
-			absolutePositions.add(new Position(pos, PositionColor.values()[pos%2]));
+			Position position = new Position(pos, PositionColor.values()[pos%2]);
+			position.setBoard(this);
+			absolutePositions.add(position);
 		}
 		
-		// Step 2: create a view on the absolute board positions
-		boardViews.put(BoardView.ABSOLUTE, Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27));
+		// Step 2: the views on the absolute positions come from the layout,
+		// including the inverse player views (absolute to relative position)
+		relativePositions = layout.getRelativePositions();
 		
-		// Step 3: create the game depending view of the players on top of the absolute board
-		boardViews.put(BoardView.PLAYER1, game.getGamePlayerConfig(IPlayer.ID.ONE).getAbsolutePlayPositions());
-		boardViews.put(BoardView.PLAYER2, game.getGamePlayerConfig(IPlayer.ID.TWO).getAbsolutePlayPositions());
+		// Step 3: the tracked figures
+		checkerCount = new int[2][RELATIVE_OUT_POS + 1];
+		pipCount = new int[2];
+		outsideHomeCount = new int[2];
+		checkerMask = new int[2];
+		ownedMask = new int[2];
+		blockedMask = new int[2];
 		
-		// Step 3: create the visualizing views on top of a player's start position, without the "out" positions
-		// Goes from left to right and top top bottom, out positions are always on the same position
-		boardViews.put(BoardView.START_TOP_RIGHT, Arrays.asList(12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 27, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23 , 24, 25));
-		boardViews.put(BoardView.START_TOP_LEFT, Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 27, 24, 23, 22, 21, 20, 19, 18, 17, 16, 15, 14, 13, 25));
-		boardViews.put(BoardView.START_BOTTOM_LEFT, Arrays.asList(24, 23, 22, 21, 20, 19, 18, 17, 16, 15, 14, 13, 27, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 25));
-		boardViews.put(BoardView.START_BOTTOM_RIGHT, Arrays.asList(13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23 ,24, 27, 12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 25));
+		// Step 4: the caches
+		sharedViews = new IPositions[BoardView.values().length];
+		initialPositionLists = new List<?>[2];
+		initialPositions = new int[2][];
+	}
+	
+	/**
+	 * Remove all {@link Checker} from the {@code Board}, so it can be reused for a new {@link IGame}
+	 * of the same variant. Call {@link #setInitialCheker(IPlayer)} afterwards.
+	 * 
+	 * @return the empty {@code Board}.
+	 */
+	public Board clear() {
+		absolutePositions.get().forEach(position -> ((Position)position).clearCheckers());
+		for(int player = 0; player < 2; player++) {
+			Arrays.fill(checkerCount[player], 0);
+			pipCount[player] = 0;
+			outsideHomeCount[player] = 0;
+			checkerMask[player] = 0;
+			ownedMask[player] = 0;
+			blockedMask[player] = 0;
+		}
+		return this;
+	}
+	
+	/**
+	 * Update the tracked figures after a {@link Checker} was placed on a {@link Position}.
+	 * 
+	 * @param position the {@link Position} that received the {@link Checker}.
+	 * @param checker the placed {@link IChecker}.
+	 */
+	void checkerAdded(Position position, IChecker checker) {
+		int absolutePosition = position.getCreationIndex();
+		int player = checker.getOwner().ordinal();
+		int relativePos = relativePositions[player][absolutePosition];
+		if(relativePos != NO_POSITION) {
+			if(checkerCount[player][relativePos]++ == 0) {
+				checkerMask[player] |= (1 << relativePos);
+			}
+			pipCount[player] += RELATIVE_OUT_POS - relativePos;
+			if(relativePos < RELATIVE_HOME_START_POS) {
+				outsideHomeCount[player]++;
+			}
+		}
+		updateTopCheckerMasks(absolutePosition, position.readTopChecker());
+	}
+	
+	/**
+	 * Update the tracked figures after a {@link Checker} was removed from a {@link Position}.
+	 * 
+	 * @param position the {@link Position} that lost the {@link Checker}.
+	 * @param checker the removed {@link IChecker}.
+	 */
+	void checkerRemoved(Position position, IChecker checker) {
+		int absolutePosition = position.getCreationIndex();
+		int player = checker.getOwner().ordinal();
+		int relativePos = relativePositions[player][absolutePosition];
+		if(relativePos != NO_POSITION) {
+			if(--checkerCount[player][relativePos] == 0) {
+				checkerMask[player] &= ~(1 << relativePos);
+			}
+			pipCount[player] -= RELATIVE_OUT_POS - relativePos;
+			if(relativePos < RELATIVE_HOME_START_POS) {
+				outsideHomeCount[player]--;
+			}
+		}
+		updateTopCheckerMasks(absolutePosition, position.readTopChecker());
+	}
+	
+	/**
+	 * Set the bits of an absolute {@link Position} in the owned and blocked masks of both {@link Player}s
+	 * according to the owner of the top {@link Checker}.
+	 * 
+	 * @param absolutePosition the absolute index of the {@link Position}.
+	 * @param topChecker the top {@link IChecker} of the {@link Position}, or {@code null} if it is empty.
+	 */
+	private void updateTopCheckerMasks(int absolutePosition, IChecker topChecker) {
+		for(int player = 0; player < 2; player++) {
+			int relativePos = relativePositions[player][absolutePosition];
+			if(relativePos != NO_POSITION) {
+				int bit = 1 << relativePos;
+				ownedMask[player] &= ~bit;
+				blockedMask[player] &= ~bit;
+				if(topChecker != null) {
+					if(topChecker.getOwner().ordinal() == player) {
+						ownedMask[player] |= bit;
+					} else {
+						blockedMask[player] |= bit;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Get the pip count: the sum of the distances all {@link Checker} of the {@link Player} still have
+	 * to move until they are out. A <i>hit</i> {@link Checker} counts 25.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @return the pip count.
+	 */
+	public int getPipCount(IPlayer.ID playerID) {
+		return pipCount[playerID.ordinal()];
+	}
+	
+	/**
+	 * Get the number of {@link Checker} outside the home board (relative {@link Position} 0 to 18).
+	 * If this is {@code 0} the {@link Player} may collect his {@link Checker}.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @return the number of {@link Checker} outside the home board, including <i>hit</i> ones.
+	 */
+	public int getNrOfCheckersOutsideHome(IPlayer.ID playerID) {
+		return outsideHomeCount[playerID.ordinal()];
+	}
+	
+	/**
+	 * Get the number of <i>hit</i> {@link Checker} (relative {@link Position} 0).
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @return the number of <i>hit</i> {@link Checker}.
+	 */
+	public int getNrOfHitCheckers(IPlayer.ID playerID) {
+		return checkerCount[playerID.ordinal()][RELATIVE_HIT_POS];
+	}
+	
+	/**
+	 * Get the number of {@link Checker} already taken out (relative {@link Position} 25).
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @return the number of {@link Checker} taken out.
+	 */
+	public int getNrOfOutCheckers(IPlayer.ID playerID) {
+		return checkerCount[playerID.ordinal()][RELATIVE_OUT_POS];
+	}
+	
+	/**
+	 * Get the number of {@link Checker} of a {@link Player} on a relative {@link Position}, regardless
+	 * whether they are on top or captured below an opponent {@link Checker}.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @param relativePosition the relative {@link Position} of the {@link Player}, 0 to 25.
+	 * @return the number of {@link Checker}.
+	 */
+	public int getNrOfCheckers(IPlayer.ID playerID, int relativePosition) {
+		return checkerCount[playerID.ordinal()][relativePosition];
+	}
+	
+	/**
+	 * Get the relative {@link Position} of the {@link Checker} furthest away from being taken out.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @return the lowest relative {@link Position} holding a {@link Checker} of the {@link Player},
+	 * or 25 if all {@link Checker} are out.
+	 */
+	public int getRearmostCheckerPosition(IPlayer.ID playerID) {
+		int mask = checkerMask[playerID.ordinal()];
+		return (mask != 0) ? Integer.numberOfTrailingZeros(mask) : RELATIVE_OUT_POS;
+	}
+	
+	/**
+	 * Get the relative {@link Position} of the most advanced {@link Checker} still on the {@link Board}.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @return the highest relative {@link Position} from 1 to 24 holding a {@link Checker} of the
+	 * {@link Player}, or {@code -1} if there is none.
+	 */
+	public int getLeadingCheckerPosition(IPlayer.ID playerID) {
+		int mask = checkerMask[playerID.ordinal()] & BOARD_POSITIONS_MASK;
+		return (mask != 0) ? (31 - Integer.numberOfLeadingZeros(mask)) : NO_POSITION;
+	}
+	
+	/**
+	 * Get the relative {@link Position}s holding at least one {@link Checker} of the {@link Player},
+	 * regardless whether on top or captured below an opponent {@link Checker}.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @return the bit mask of the relative {@link Position}s.
+	 */
+	public int getOccupiedPositions(IPlayer.ID playerID) {
+		return checkerMask[playerID.ordinal()];
+	}
+	
+	/**
+	 * Get the relative {@link Position}s where the top {@link Checker} belongs to the {@link Player}.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @return the bit mask of the relative {@link Position}s.
+	 */
+	public int getOwnedPositions(IPlayer.ID playerID) {
+		return ownedMask[playerID.ordinal()];
+	}
+	
+	/**
+	 * Get the relative {@link Position}s of the {@link Player} where the top {@link Checker} belongs
+	 * to the opponent.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @return the bit mask of the relative {@link Position}s.
+	 */
+	public int getBlockedPositions(IPlayer.ID playerID) {
+		return blockedMask[playerID.ordinal()];
+	}
+	
+	/**
+	 * Get the relative {@link Position}s from 1 to 24 a {@link Checker} of the {@link Player} on top
+	 * of a {@link Position} reaches with a dice value, but where the top {@link Checker} belongs to the
+	 * opponent: {@code (getOwnedPositions(id) << diceValue) & getBlockedPositions(id)}.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @param diceValue the dice value, 1 to 6.
+	 * @return the bit mask of the relative target {@link Position}s; shifted right by the dice value it
+	 * gives the start {@link Position}s.
+	 */
+	public int getBlockedTargets(IPlayer.ID playerID, int diceValue) {
+		int player = playerID.ordinal();
+		return (ownedMask[player] << diceValue) & blockedMask[player] & BOARD_POSITIONS_MASK;
 	}
 	
 	/**
@@ -117,24 +406,52 @@ public class Board implements IBoard {
 	 * @return the {@link Positions} mapped from a {@link BoardView} into another.
 	 */
 	public IPositions createMappedView(BoardView sourceView, BoardView targetView) {
-		List<Integer> sourcePositions = getAbsolutePositions(sourceView);
-		List<Integer> targetPositions = getAbsolutePositions(targetView);
-		
-		IPositions mappedView = new Positions();
-		for(Integer targetIndex : targetPositions) {
-			if(sourceView.equals(targetView)) {
-				mappedView.add(absolutePositions.get(targetIndex));
-			} else {
-				Integer sourceIndex = sourcePositions.get(targetIndex);
-				mappedView.add(absolutePositions.get(sourceIndex));
+		if(sourceView == targetView) {
+			IPositions view = new Positions(layout.getView(sourceView).length);
+			for(int absolutePosition : layout.getView(sourceView)) {
+				view.add(absolutePositions.get(absolutePosition));
 			}
+			return view;
+		}
+		
+		int[] sourcePositions = layout.getView(sourceView);
+		int[] targetPositions = layout.getView(targetView);
+		IPositions mappedView = new Positions(targetPositions.length);
+		for(int targetIndex : targetPositions) {
+			mappedView.add(absolutePositions.get(sourcePositions[targetIndex]));
 		}
 		
 		return mappedView;
 	}
 	
+	/**
+	 * Get the absolute {@link Position}s of a {@link BoardView}.
+	 * 
+	 * @param view the {@link BoardView}.
+	 * @return the unmodifiable {@link List} of the absolute {@link Position}s in the order of the
+	 * {@link BoardView}.
+	 */
 	public List<Integer> getAbsolutePositions(BoardView view) {
-		return Collections.unmodifiableList(boardViews.get(view));
+		return layout.getViewAsList(view);
+	}
+	
+	/**
+	 * Get a {@link Position} by its absolute index, without creating a view.
+	 * 
+	 * @param absolutePosition the absolute {@link Position}, 0 to 27.
+	 * @return the {@link IPosition}.
+	 */
+	public IPosition getAbsolutePosition(int absolutePosition) {
+		return absolutePositions.get(absolutePosition);
+	}
+	
+	/**
+	 * Get the {@link BoardLayout} of the {@code Board}.
+	 * 
+	 * @return the {@link BoardLayout}.
+	 */
+	public BoardLayout getLayout() {
+		return layout;
 	}
 	
 	@Override
@@ -146,8 +463,19 @@ public class Board implements IBoard {
 	public Board clone() {
 		Board clone = new Board();
 		clone.game = this.game;
-		clone.boardViews = this.boardViews; // no cloning needed
+		clone.layout = this.layout; // no cloning needed
+		clone.relativePositions = this.relativePositions; // no cloning needed
 		clone.absolutePositions = this.absolutePositions.clone();
+		clone.absolutePositions.get().forEach(position -> ((Position)position).setBoard(clone));
+		clone.checkerCount = new int[][]{this.checkerCount[0].clone(), this.checkerCount[1].clone()};
+		clone.pipCount = this.pipCount.clone();
+		clone.outsideHomeCount = this.outsideHomeCount.clone();
+		clone.checkerMask = this.checkerMask.clone();
+		clone.ownedMask = this.ownedMask.clone();
+		clone.blockedMask = this.blockedMask.clone();
+		clone.sharedViews = new IPositions[this.sharedViews.length]; // views of the cloned positions
+		clone.initialPositionLists = this.initialPositionLists.clone();
+		clone.initialPositions = this.initialPositions.clone(); // the arrays are not changed
 		clone.cloneGeneration = this.cloneGeneration + 1;
 		
 		return clone;
@@ -162,7 +490,7 @@ public class Board implements IBoard {
 				+ ((absolutePositions == null) ? 0 : absolutePositions
 						.hashCode());
 		result = prime * result
-				+ ((boardViews == null) ? 0 : boardViews.hashCode());
+				+ ((layout == null) ? 0 : layout.hashCode());
 		result = prime * result + ((game == null) ? 0 : game.hashCode());
 		return result;
 	}
@@ -181,10 +509,10 @@ public class Board implements IBoard {
 				return false;
 		} else if (!absolutePositions.equals(other.absolutePositions))
 			return false;
-		if (boardViews == null) {
-			if (other.boardViews != null)
+		if (layout == null) {
+			if (other.layout != null)
 				return false;
-		} else if (!boardViews.equals(other.boardViews))
+		} else if (!layout.equals(other.layout))
 			return false;
 		if (game == null) {
 			if (other.game != null)
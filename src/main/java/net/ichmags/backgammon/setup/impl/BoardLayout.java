@@ -0,0 +1,201 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.setup.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.ichmags.backgammon.game.IGame;
+import net.ichmags.backgammon.game.pojo.GamePlayerConfig;
+import net.ichmags.backgammon.setup.BoardView;
+import net.ichmags.backgammon.setup.IPlayer;
+
+/**
+ * The {@code BoardLayout} is the geometry of a {@link IGame} compiled into primitive tables:
+ * <ul>
+ * <li>for each {@link BoardView} the absolute {@link Position}s in the order of the view</li>
+ * <li>for each {@link Player} the relative {@link Position} of each absolute {@link Position}</li>
+ * </ul>
+ * A {@code BoardLayout} is immutable, so a {@link IGame} variant creates it once and shares it with
+ * all its {@link Board}s. Looking up a {@link Position} needs no boxing and no hashing this way.
+ * Code without an own {@code BoardLayout} gets a shared one from {@link #of(List, List)}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class BoardLayout {
+	
+	private static final int NR_OF_POSITIONS = 28;
+	private static final int NR_OF_PLAY_POSITIONS = 26; // hit, 1 to 24, out
+	private static final int NO_POSITION = -1;
+	
+	private static final ConcurrentMap<List<List<Integer>>, BoardLayout> LAYOUTS = new ConcurrentHashMap<>();
+	
+	private final Map<BoardView, int[]> views;
+	private final Map<BoardView, List<Integer>> viewLists;
+	private final int[][] relativePositions;
+	
+	/**
+	 * Get the shared {@code BoardLayout} of the play {@link Position}s; it is compiled on the first call.
+	 * 
+	 * @param player1PlayPositions the absolute {@link Position}s of {@link IPlayer.ID#ONE} in the
+	 * order of play, like in the {@link GamePlayerConfig}.
+	 * @param player2PlayPositions the absolute {@link Position}s of {@link IPlayer.ID#TWO} in the
+	 * order of play, like in the {@link GamePlayerConfig}.
+	 * @return the {@code BoardLayout}.
+	 */
+	public static BoardLayout of(List<Integer> player1PlayPositions, List<Integer> player2PlayPositions) {
+		List<List<Integer>> key = Arrays.asList(new ArrayList<>(player1PlayPositions), new ArrayList<>(player2PlayPositions));
+		return LAYOUTS.computeIfAbsent(key, playPositions -> new BoardLayout(playPositions.get(0), playPositions.get(1)));
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param player1PlayPositions the absolute {@link Position}s of {@link IPlayer.ID#ONE} in the
+	 * order of play, like in the {@link GamePlayerConfig}.
+	 * @param player2PlayPositions the absolute {@link Position}s of {@link IPlayer.ID#TWO} in the
+	 * order of play, like in the {@link GamePlayerConfig}.
+	 */
+	public BoardLayout(List<Integer> player1PlayPositions, List<Integer> player2PlayPositions) {
+		views = new EnumMap<>(BoardView.class);
+		
+		// the absolute board positions
+		// special positions: out (for all games) / hit (only for Backgammon)
+		// player 1: 0 / 25
+		// player 2: 26 / 27
+		views.put(BoardView.ABSOLUTE, new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27});
+		
+		// the game depending view of the players on top of the absolute board
+		views.put(BoardView.PLAYER1, toArray(player1PlayPositions));
+		views.put(BoardView.PLAYER2, toArray(player2PlayPositions));
+		
+		// the visualizing views on top of a player's start position, without the "out" positions
+		// Goes from left to right and top top bottom, out positions are always on the same position
+		views.put(BoardView.START_TOP_RIGHT, new int[]{12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 27, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23 , 24, 25});
+		views.put(BoardView.START_TOP_LEFT, new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 27, 24, 23, 22, 21, 20, 19, 18, 17, 16, 15, 14, 13, 25});
+		views.put(BoardView.START_BOTTOM_LEFT, new int[]{24, 23, 22, 21, 20, 19, 18, 17, 16, 15, 14, 13, 27, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 25});
+		views.put(BoardView.START_BOTTOM_RIGHT, new int[]{13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23 ,24, 27, 12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 25});
+		
+		// boxed copies, only for callers that need a List
+		viewLists = new EnumMap<>(BoardView.class);
+		for(Map.Entry<BoardView, int[]> view : views.entrySet()) {
+			List<Integer> list = new ArrayList<>(view.getValue().length);
+			for(int pos : view.getValue()) {
+				list.add(pos);
+			}
+			viewLists.put(view.getKey(), Collections.unmodifiableList(list));
+		}
+		
+		// inverse player views: absolute to relative position
+		relativePositions = new int[][]{
+			createRelativePositions(views.get(BoardView.PLAYER1)),
+			createRelativePositions(views.get(BoardView.PLAYER2))};
+	}
+	
+	/**
+	 * Get the absolute {@link Position}s of a {@link BoardView}.
+	 * <b>The returned array is shared and must not be modified.</b>
+	 * 
+	 * @param view the {@link BoardView}.
+	 * @return the absolute {@link Position}s in the order of the {@link BoardView}.
+	 */
+	int[] getView(BoardView view) {
+		return views.get(view);
+	}
+	
+	/**
+	 * Get the absolute {@link Position}s of a {@link BoardView}.
+	 * 
+	 * @param view the {@link BoardView}.
+	 * @return the unmodifiable {@link List} of the absolute {@link Position}s in the order of the
+	 * {@link BoardView}.
+	 */
+	public List<Integer> getViewAsList(BoardView view) {
+		return viewLists.get(view);
+	}
+	
+	/**
+	 * Get the relative {@link Position} of a {@link Player} for an absolute {@link Position}.
+	 * 
+	 * @param playerID the {@link IPlayer.ID} of the {@link Player}.
+	 * @param absolutePosition the absolute {@link Position}, 0 to 27.
+	 * @return the relative {@link Position} from 0 to 25, or {@code -1} if the {@link Player}
+	 * cannot use the absolute {@link Position}.
+	 */
+	public int getRelativePosition(IPlayer.ID playerID, int absolutePosition) {
+		return relativePositions[playerID.ordinal()][absolutePosition];
+	}
+	
+	/**
+	 * Get the inverse {@link Player} views, indexed by the {@link IPlayer.ID} ordinal and the absolute
+	 * {@link Position}. <b>The returned arrays are shared and must not be modified.</b>
+	 * 
+	 * @return the relative {@link Position}s, or {@code -1} for unused absolute {@link Position}s.
+	 */
+	int[][] getRelativePositions() {
+		return relativePositions;
+	}
+	
+	/**
+	 * Unbox a {@link List} of {@link Position}s.
+	 * 
+	 * @param positions the {@link Position}s.
+	 * @return the {@link Position}s as array.
+	 */
+	static int[] toArray(List<Integer> positions) {
+		int[] array = new int[positions.size()];
+		for(int index = 0; index < array.length; index++) {
+			array[index] = positions.get(index);
+		}
+		return array;
+	}
+	
+	/**
+	 * Invert a {@link Player} view, so the relative {@link Position} can be looked up by
+	 * the absolute {@link Position}.
+	 * 
+	 * @param absolutePlayPositions the absolute {@link Position}s in the order of the {@link Player}.
+	 * @return the relative {@link Position} for each absolute {@link Position}, or {@code -1} for
+	 * {@link Position}s the {@link Player} cannot use.
+	 */
+	private static int[] createRelativePositions(int[] absolutePlayPositions) {
+		int[] relative = new int[NR_OF_POSITIONS];
+		Arrays.fill(relative, NO_POSITION);
+		for(int relativePos = 0; relativePos < NR_OF_PLAY_POSITIONS; relativePos++) {
+			relative[absolutePlayPositions[relativePos]] = relativePos;
+		}
+		return relative;
+	}
+	
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(views.get(BoardView.PLAYER1));
+		result = prime * result + Arrays.hashCode(views.get(BoardView.PLAYER2));
+		return result;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		BoardLayout other = (BoardLayout) obj;
+		if (!Arrays.equals(views.get(BoardView.PLAYER1), other.views.get(BoardView.PLAYER1)))
+			return false;
+		if (!Arrays.equals(views.get(BoardView.PLAYER2), other.views.get(BoardView.PLAYER2)))
+			return false;
+		return true;
+	}
+}
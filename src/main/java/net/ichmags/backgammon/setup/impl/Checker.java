@@ -10,20 +10,60 @@ import net.ichmags.backgammon.setup.IPlayer;
 /**
  * Implementation of the {@link IChecker} {@code interface}.
  * 
+ * A {@code Checker} has no state besides its owner and its {@link CheckerColor}, so there is only one
+ * immutable instance for each combination, shared by all {@link Board}s: use {@link #get(IPlayer)}.
+ * {@code Checker}s are compared by identity.
+ * 
  * @author Anastasios Patrikis
  */
-public class Checker implements IChecker {
-	private CheckerColor color;
-	private IPlayer.ID owner;
+public final class Checker implements IChecker {
+	
+	/**
+	 * The shared instances, indexed by the {@link IPlayer.ID} and the {@link CheckerColor} ordinal.
+	 */
+	private static final Checker[][] CHECKERS = new Checker[IPlayer.ID.values().length][CheckerColor.values().length];
+	
+	static {
+		for(IPlayer.ID owner : IPlayer.ID.values()) {
+			for(CheckerColor color : CheckerColor.values()) {
+				CHECKERS[owner.ordinal()][color.ordinal()] = new Checker(owner, color);
+			}
+		}
+	}
+	
+	private final CheckerColor color;
+	private final IPlayer.ID owner;
+	
+	/**
+	 * {@code private} constructor, use {@link #get(IPlayer)} or {@link #get(IPlayer.ID, CheckerColor)}.
+	 * 
+	 * @param owner the owner of the {@code Checker}.
+	 * @param color the {@link CheckerColor} of the {@code Checker}.
+	 */
+	private Checker(IPlayer.ID owner, CheckerColor color) {
+		this.color = color;
+		this.owner = owner;
+	}
 	
 	/**
-	 * Constructor.
+	 * Get the shared {@code Checker} of a {@link Player}.
 	 * 
-	 * @param owner the owner of the {@code Checker}; the color is derived from the {@link Player}'s choice. 
+	 * @param owner the owner of the {@code Checker}; the color is derived from the {@link Player}'s choice.
+	 * @return the shared {@code Checker}.
 	 */
-	public Checker(IPlayer owner) {
-		this.color = owner.getCheckerColor();
-		this.owner = owner.getID();
+	public static Checker get(IPlayer owner) {
+		return get(owner.getID(), owner.getCheckerColor());
+	}
+	
+	/**
+	 * Get the shared {@code Checker} for an owner and a {@link CheckerColor}.
+	 * 
+	 * @param owner the {@link IPlayer.ID} of the owner.
+	 * @param color the {@link CheckerColor}.
+	 * @return the shared {@code Checker}.
+	 */
+	public static Checker get(IPlayer.ID owner, CheckerColor color) {
+		return CHECKERS[owner.ordinal()][color.ordinal()];
 	}
 	
 	@Override
@@ -40,32 +80,4 @@ public class Checker implements IChecker {
 	public String toString() {
 		return color.toString();
 	}
-
-	@Override
-	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((color == null) ? 0 : color.hashCode());
-		result = prime * result + ((owner == null) ? 0 : owner.hashCode());
-		return result;
-	}
-
-	@Override
-	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		Checker other = (Checker) obj;
-		if (color != other.color)
-			return false;
-		if (owner == null) {
-			if (other.owner != null)
-				return false;
-		} else if (!owner.equals(other.owner))
-			return false;
-		return true;
-	}
 }
@@ -0,0 +1,430 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.setup.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.ichmags.backgammon.notification.INotification.Level;
+import net.ichmags.backgammon.notification.impl.StatusEmitter;
+import net.ichmags.backgammon.setup.IDice;
+
+/**
+ * The {@code DiceFairnessMonitor} checks the {@link java.util.Random} values of the {@link DiceGenerator}s
+ * while they are rolled, separately for each {@link java.util.Random} ({@link Sequence}):
+ * <ul>
+ * <li>the chi-square statistic of the counts of the faces, with 5 degrees of freedom</li>
+ * <li>the serial correlation of consecutive values, after Knuth</li>
+ * </ul>
+ * Values loaded with {@link DiceGenerator#load(int[])} are chosen on purpose, like the <i>doubling
+ * boost</i> of Portes, so they are not checked.
+ * 
+ * Only counts and sums are kept, so the memory is constant however many values are rolled. The values
+ * are checked in windows of {@value #WINDOW_SIZE} values: starting with {@value #MIN_SAMPLES} values,
+ * the statistics of the window are checked every {@value #CHECK_INTERVAL} values, and a full window is
+ * started over, so a dice getting biased late is not hidden by a long fair history. When a
+ * {@link Sequence} starts to look biased within a window, a {@link Level#WARN} notification is emitted.
+ * 
+ * A window has at most 500 checks of two statistics each. The thresholds are the critical values for
+ * a probability of 0.0001% of a fair dice exceeding them in one check, so the probability of a false
+ * warning per window stays below 0.1% (Bonferroni correction).
+ * 
+ * The {@link Sequence} of a {@link java.util.Random} shared by many threads counts the values in
+ * stripes, one per group of threads, so threads rolling at once do not wait for each other; the
+ * stripes are added up for a check or a {@link Report}. The {@code DiceFairnessMonitor} only keeps weak
+ * references to the {@link Sequence}s, and adds them up for {@link #getReport()}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class DiceFairnessMonitor {
+	
+	/**
+	 * The chi-square value for 5 degrees of freedom at a probability of 0.0001%.
+	 */
+	public static final double CHI_SQUARE_THRESHOLD = 35.888;
+	
+	/**
+	 * The serial correlation of a fair dice is about normally distributed with a standard deviation
+	 * of {@code 1/sqrt(n)}; this is the two-sided limit at a probability of 0.0001%, in standard deviations.
+	 */
+	public static final double CORRELATION_THRESHOLD = 4.892;
+	
+	/**
+	 * The number of values before the first check.
+	 */
+	public static final int MIN_SAMPLES = 600;
+	
+	/**
+	 * The number of values between two checks.
+	 */
+	public static final int CHECK_INTERVAL = 100;
+	
+	/**
+	 * The number of values after which the counting starts over.
+	 */
+	public static final int WINDOW_SIZE = 50000;
+	
+	private static final int MAX_STRIPES = 16;
+	private static final int SAMPLES = 7;
+	private static final int SUM = 8;
+	private static final int SQUARES = 9;
+	private static final int PRODUCTS = 10;
+	
+	/**
+	 * {@code Singleton} pattern.
+	 */
+	private static DiceFairnessMonitor INSTANCE = new DiceFairnessMonitor();
+	
+	private final Map<Sequence, Boolean> sequences;
+	private final int nrOfStripes;
+	private volatile boolean enabled;
+	
+	/**
+	 * The statistics of a {@link Sequence} at one point in time.
+	 */
+	public static final class Report {
+		
+		private final String name;
+		private final long samples;
+		private final long[] counts;
+		private final double chiSquare;
+		private final double serialCorrelation;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param name the name of the {@link Sequence}.
+		 * @param samples the number of values.
+		 * @param counts the counts of the faces, the index {@code 0} is not used.
+		 * @param chiSquare the chi-square statistic.
+		 * @param serialCorrelation the serial correlation.
+		 */
+		private Report(String name, long samples, long[] counts, double chiSquare, double serialCorrelation) {
+			this.name = name;
+			this.samples = samples;
+			this.counts = counts;
+			this.chiSquare = chiSquare;
+			this.serialCorrelation = serialCorrelation;
+		}
+		
+		/**
+		 * @return the name of the {@link Sequence}.
+		 */
+		public String getName() {
+			return name;
+		}
+		
+		/**
+		 * @return the number of values.
+		 */
+		public long getSamples() {
+			return samples;
+		}
+		
+		/**
+		 * @param value the face, 1 to 6.
+		 * @return how often the face was rolled.
+		 */
+		public long getCount(int value) {
+			return counts[value];
+		}
+		
+		/**
+		 * @return the chi-square statistic of the counts, {@code 0} without values.
+		 */
+		public double getChiSquare() {
+			return chiSquare;
+		}
+		
+		/**
+		 * @return the serial correlation of consecutive values, from {@code -1} to {@code 1}; {@code 0}
+		 * if it cannot be computed yet.
+		 */
+		public double getSerialCorrelation() {
+			return serialCorrelation;
+		}
+		
+		/**
+		 * @return {@code true} if there are enough values, and a statistic exceeds its threshold.
+		 */
+		public boolean isBiased() {
+			return (samples >= MIN_SAMPLES)
+					&& ((chiSquare > CHI_SQUARE_THRESHOLD)
+					|| (Math.abs(serialCorrelation) * Math.sqrt(samples) > CORRELATION_THRESHOLD));
+		}
+		
+		@Override
+		public String toString() {
+			return name + ": " + samples + " values " + Arrays.toString(Arrays.copyOfRange(counts, 1, 7))
+					+ ", chi-square " + String.format("%.3f", chiSquare)
+					+ ", serial correlation " + String.format("%.4f", serialCorrelation)
+					+ (isBiased() ? ", biased" : "");
+		}
+	}
+	
+	/**
+	 * The counts and sums of the values of one stripe.
+	 */
+	private static final class Stripe {
+		
+		private final long[] counts = new long[7];
+		private long samples;
+		private long sum;
+		private long sumOfSquares;
+		private long sumOfProducts;
+		private int first;
+		private int previous;
+		
+		/**
+		 * Add a value.
+		 * 
+		 * @param value the value, 1 to 6.
+		 * @return {@code true} if it is time to check the statistics.
+		 */
+		private synchronized boolean add(int value) {
+			counts[value]++;
+			sum += value;
+			sumOfSquares += value * value;
+			if(samples == 0) {
+				first = value;
+			} else {
+				sumOfProducts += previous * value;
+			}
+			previous = value;
+			samples++;
+			return (samples % CHECK_INTERVAL) == 0;
+		}
+		
+		/**
+		 * Add the values of the {@code Stripe} to the totals, and optionally forget them.
+		 * 
+		 * @param totals the counts of the faces at index 1 to 6, followed by the number of values, the sum,
+		 * the sum of squares and the sum of products.
+		 * @param clear {@code true} to forget the values.
+		 */
+		private synchronized void addTo(long[] totals, boolean clear) {
+			for(int face = 1; face <= 6; face++) {
+				totals[face] += counts[face];
+			}
+			totals[SAMPLES] += samples;
+			totals[SUM] += sum;
+			totals[SQUARES] += sumOfSquares;
+			// the values of a stripe are taken as cycle, the last value is followed by the first one
+			totals[PRODUCTS] += sumOfProducts + (long)previous * first;
+			
+			if(clear) {
+				Arrays.fill(counts, 0L);
+				samples = 0;
+				sum = 0;
+				sumOfSquares = 0;
+				sumOfProducts = 0;
+				first = 0;
+				previous = 0;
+			}
+		}
+	}
+	
+	/**
+	 * The values of one {@link java.util.Random}, created with {@link DiceFairnessMonitor#register(String, boolean)}.
+	 */
+	public final class Sequence {
+		
+		private final String name;
+		private final Stripe[] stripes;
+		private final AtomicLong windows;
+		private boolean biased;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param name the name of the {@code Sequence}.
+		 * @param nrOfStripes the number of {@link Stripe}s, a power of two.
+		 */
+		private Sequence(String name, int nrOfStripes) {
+			this.name = name;
+			this.stripes = new Stripe[nrOfStripes];
+			for(int stripe = 0; stripe < nrOfStripes; stripe++) {
+				stripes[stripe] = new Stripe();
+			}
+			this.windows = new AtomicLong();
+		}
+		
+		/**
+		 * Add a rolled value, and check the statistics if it is time to.
+		 * 
+		 * @param value the {@link IDice} value, 1 to 6.
+		 */
+		public void record(int value) {
+			if( ! enabled) {
+				return;
+			}
+			Stripe stripe = stripes[(int)Thread.currentThread().getId() & (stripes.length - 1)];
+			Report biased = stripe.add(value) ? check() : null;
+			if(biased != null) {
+				StatusEmitter.get().emit(Level.WARN, "dicefairness.biased", name, biased.getSamples(),
+						String.format("%.3f", biased.getChiSquare()), String.format("%.4f", biased.getSerialCorrelation()));
+			}
+		}
+		
+		/**
+		 * @return the current {@link Report}, with the values of the current window.
+		 */
+		public Report getReport() {
+			long[] totals = new long[PRODUCTS + 1];
+			addTo(totals, false);
+			return createReport(name, totals);
+		}
+		
+		/**
+		 * @return the number of full windows of {@value #WINDOW_SIZE} values.
+		 */
+		public long getCompletedWindows() {
+			return windows.get();
+		}
+		
+		/**
+		 * Check the statistics of the window, and start a new window if it is full.
+		 * 
+		 * @return the {@link Report} if the {@code Sequence} just started to look biased, otherwise {@code null}.
+		 */
+		private synchronized Report check() {
+			Report report = getReport();
+			boolean wasBiased = biased;
+			biased = report.isBiased();
+			if(report.getSamples() >= WINDOW_SIZE) {
+				addTo(new long[PRODUCTS + 1], true);
+				windows.incrementAndGet();
+				biased = false;
+			}
+			return (report.isBiased() && ! wasBiased) ? report : null;
+		}
+		
+		/**
+		 * Add the values of all {@link Stripe}s to the totals; values added while they are cleared may be lost.
+		 * 
+		 * @param totals the totals, see {@link Stripe#addTo(long[], boolean)}.
+		 * @param clear {@code true} to forget the values.
+		 */
+		private void addTo(long[] totals, boolean clear) {
+			for(Stripe stripe : stripes) {
+				stripe.addTo(totals, clear);
+			}
+		}
+		
+		/**
+		 * Forget all values.
+		 */
+		private synchronized void reset() {
+			addTo(new long[PRODUCTS + 1], true);
+			windows.set(0L);
+			biased = false;
+		}
+	}
+	
+	/**
+	 * {@code private} constructor to enforce the {@code singleton} pattern.
+	 */
+	private DiceFairnessMonitor() {
+		this.sequences = Collections.synchronizedMap(new WeakHashMap<>());
+		this.nrOfStripes = Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+		this.enabled = true;
+	}
+	
+	/**
+	 * Get a reference to the {@code singleton} instance.
+	 * 
+	 * @return the reference to the sole {@link Object} of this class.
+	 */
+	public static DiceFairnessMonitor get() {
+		return INSTANCE;
+	}
+	
+	/**
+	 * Start checking the values of a {@link java.util.Random}.
+	 * 
+	 * @param name the name of the {@link Sequence}, used in the warnings.
+	 * @param shared {@code true} if values are rolled by many threads at once.
+	 * @return the new {@link Sequence}; it is checked as long as it is referenced.
+	 */
+	public Sequence register(String name, boolean shared) {
+		Sequence sequence = new Sequence(name, shared ? nrOfStripes : 1);
+		sequences.put(sequence, Boolean.TRUE);
+		return sequence;
+	}
+	
+	/**
+	 * Get the {@link Report} of all {@link Sequence}s, with the values of their current windows. The
+	 * serial correlation takes each {@link Sequence} on its own, not across them.
+	 * 
+	 * @return the {@link Report} of all {@link Sequence}s.
+	 */
+	public Report getReport() {
+		long[] totals = new long[PRODUCTS + 1];
+		for(Sequence sequence : getSequences()) {
+			sequence.addTo(totals, false);
+		}
+		return createReport("all", totals);
+	}
+	
+	/**
+	 * Forget all values of all {@link Sequence}s.
+	 */
+	public void reset() {
+		for(Sequence sequence : getSequences()) {
+			sequence.reset();
+		}
+	}
+	
+	/**
+	 * @return {@code true} if values are checked, the default.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * Switch the checking of values on or off.
+	 * 
+	 * @param enabled {@code true} to check the values.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+	
+	/**
+	 * @return a copy of the registered {@link Sequence}s.
+	 */
+	private List<Sequence> getSequences() {
+		synchronized(sequences) {
+			return new ArrayList<>(sequences.keySet());
+		}
+	}
+	
+	/**
+	 * @param name the name of the {@link Sequence}.
+	 * @param totals the totals, see {@link Stripe#addTo(long[], boolean)}.
+	 * @return the {@link Report} of the totals.
+	 */
+	private static Report createReport(String name, long[] totals) {
+		long samples = totals[SAMPLES];
+		double chiSquare = 0;
+		double expected = samples / 6.0;
+		for(int face = 1; face <= 6; face++) {
+			double deviation = totals[face] - expected;
+			chiSquare += (samples > 0) ? (deviation * deviation / expected) : 0;
+		}
+		
+		double products = (double)samples * totals[PRODUCTS];
+		double squares = (double)samples * totals[SQUARES];
+		double sumSquared = (double)totals[SUM] * totals[SUM];
+		double correlation = (squares > sumSquared) ? ((products - sumSquared) / (squares - sumSquared)) : 0;
+		
+		return new Report(name, samples, Arrays.copyOf(totals, 7), chiSquare, correlation);
+	}
+}
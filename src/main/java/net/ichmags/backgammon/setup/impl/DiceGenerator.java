@@ -7,10 +7,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.lang.reflect.Constructor;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import net.ichmags.backgammon.game.impl.Game;
 import net.ichmags.backgammon.notification.impl.StatusEmitter;
@@ -28,6 +27,15 @@ import org.slf4j.LoggerFactory;
  * <li>a {@link InputStream} to acquire the values</li>
  * </ul>
  * It may be useful to use predictable values, so a {@link Game} can be replayed. 
+ * The {@link Random} values are checked by the {@link DiceFairnessMonitor}, separately for each
+ * {@link Random}; predefined values are chosen on purpose and not checked.
+ * 
+ * The shared instance of {@link #get()} is used by default. Each {@link Game} has its own
+ * {@code DiceGenerator} for its {@link Dices}, so values loaded for one {@link Game} are not rolled by
+ * another one running in parallel. Such a {@code DiceGenerator} falls back on the shared one: when its
+ * own predefined values are consumed, the ones loaded into the shared instance are used, and then the
+ * {@link Random} values of the shared instance, unless an own {@code seed} was set.
+ * The predefined values are kept in a concurrent queue, so loading and rolling on different threads is safe.
  * 
  * @author Anastasios Patrikis
  */
@@ -36,34 +44,49 @@ public class DiceGenerator {
 	private static Logger LOG = LoggerFactory.getLogger(DiceGenerator.class);
 
 	/**
-	 * {@code Singleton} pattern.
+	 * {@code Singleton} pattern for the shared instance.
 	 */
-	private static DiceGenerator INSTANCE = new DiceGenerator();
+	private static DiceGenerator INSTANCE = new DiceGenerator(null);
 	
-	private Random rnd;
-	private List<Integer> predefinedValues;
-	private long randomSeed;
+	private final DiceGenerator shared;
+	private final Queue<Integer> predefinedValues;
+	private volatile DiceFairnessMonitor.Sequence fairness;
+	private volatile Random rnd;
+	private volatile long randomSeed;
 	
 	/**
-	 * {@code private} default {@link Constructor} to enforce the {@code singleton} pattern.
+	 * Constructor for the {@code DiceGenerator} of a {@link Game}, falling back on the shared one.
 	 */
-	private DiceGenerator() {
-		rnd = new Random() { // because there is no "getSeed": retrieve the used seed at startup time 
-			private static final long serialVersionUID = 1L;
-
-			@Override
-			public synchronized void setSeed(long seed) {
-				randomSeed = seed;
-				super.setSeed(seed);
-			}
-		};
-		predefinedValues = new LinkedList<>();
+	public DiceGenerator() {
+		this(INSTANCE);
 	}
 	
 	/**
-	 * Get a reference to the {@code singleton} instance.
+	 * Constructor.
 	 * 
-	 * @return the reference to the sole {@link Object} of this class.
+	 * @param shared the {@code DiceGenerator} to fall back on, {@code null} for the shared instance.
+	 */
+	private DiceGenerator(DiceGenerator shared) {
+		this.shared = shared;
+		this.predefinedValues = new ConcurrentLinkedQueue<>();
+		if(shared == null) {
+			fairness = DiceFairnessMonitor.get().register("shared", true);
+			rnd = new Random() { // because there is no "getSeed": retrieve the used seed at startup time 
+				private static final long serialVersionUID = 1L;
+				
+				@Override
+				public synchronized void setSeed(long seed) {
+					randomSeed = seed;
+					super.setSeed(seed);
+				}
+			};
+		}
+	}
+	
+	/**
+	 * Get a reference to the shared instance.
+	 * 
+	 * @return the reference to the shared {@code DiceGenerator}.
 	 */
 	public static DiceGenerator get() {
 		return INSTANCE;
@@ -76,17 +99,46 @@ public class DiceGenerator {
 	 * and all of them were consumed, {@link Random} values will be generated.
 	 */
 	public int roll() {
-		if(predefinedValues.isEmpty()) {
-			return (rnd.nextInt(6)+1);
-		} else {
-			synchronized (rnd) {
-				int next = predefinedValues.remove(0).intValue();
-				if(predefinedValues.isEmpty()) {
-					StatusEmitter.get().info("dicegenerator.loaded_values_exhausted");
-				}
-				return next;
+		Integer predefined = nextPredefined();
+		if(predefined != null) {
+			return predefined;
+		}
+		
+		int next = getRandom().nextInt(6)+1;
+		getFairness().record(next);
+		return next;
+	}
+	
+	/**
+	 * Take the next predefined value, an own one first and then one of the shared instance.
+	 * 
+	 * @return the value, or {@code null} if there is none.
+	 */
+	private Integer nextPredefined() {
+		Integer next = predefinedValues.poll();
+		if(next != null) {
+			if(predefinedValues.isEmpty()) {
+				StatusEmitter.get().info("dicegenerator.loaded_values_exhausted");
 			}
+			return next;
 		}
+		return (shared != null) ? shared.nextPredefined() : null;
+	}
+	
+	/**
+	 * @return the own {@link Random}, or the one of the shared instance.
+	 */
+	private Random getRandom() {
+		Random random = rnd;
+		return (random != null) ? random : shared.getRandom();
+	}
+	
+	/**
+	 * @return the {@link DiceFairnessMonitor.Sequence} of the own {@link Random}, or the one of the shared instance.
+	 */
+	DiceFairnessMonitor.Sequence getFairness() {
+		DiceFairnessMonitor.Sequence sequence = fairness;
+		return (sequence != null) ? sequence : shared.getFairness();
 	}
 	
 	/**
@@ -102,7 +154,7 @@ public class DiceGenerator {
 			for(int pos = 0; pos < values.length; pos++) {
 				int val = values[pos];
 				if((val > 0) && (val < 7)) {
-					predefinedValues.add(new Integer(val));
+					predefinedValues.add(val);
 				} else {
 					loadErrors = true;
 				}
@@ -126,7 +178,7 @@ public class DiceGenerator {
 			while((charValue = diceReader.read()) != -1) {
 				int dice = Character.getNumericValue(charValue);
 				if((dice > 0) && (dice < 7)) {
-					predefinedValues.add(new Integer(dice));
+					predefinedValues.add(dice);
 				}					
 			}
 		} catch (IOException e) {
@@ -134,14 +186,29 @@ public class DiceGenerator {
 		}
 	}
 	
+	/**
+	 * Drop all predefined values not rolled yet; the ones of the shared instance are kept.
+	 */
+	public void clear() {
+		predefinedValues.clear();
+	}
+	
 	/**
 	 * Set the {@link Random} {@code seed} value to use.
 	 * Knowing the seed means knowing the values {@link Random} will generate.
+	 * The {@code DiceGenerator} of a {@link Game} uses an own {@link Random} afterwards, checked
+	 * on its own by the {@link DiceFairnessMonitor}.
 	 * 
 	 * @param seed the {@code seed} value to use for {@link Random} value generation. 
 	 */
 	public void setSeed(long seed) {
-		rnd.setSeed(seed);
+		if(shared == null) {
+			rnd.setSeed(seed);
+		} else {
+			randomSeed = seed;
+			fairness = DiceFairnessMonitor.get().register("seed " + seed, false);
+			rnd = new Random(seed);
+		}
 		StatusEmitter.get().info("dicegenerator.seed_set");
 	}
 	
@@ -149,9 +216,10 @@ public class DiceGenerator {
 	 * Get the used {@link Random} {@code seed} value.
 	 * It can be used for reproducing the sequence of generated {@link Random} values.
 	 * 
-	 * @return the current {@link Random} {@code seed} value.
+	 * @return the current {@link Random} {@code seed} value, the one of the shared instance if no own
+	 * {@code seed} was set.
 	 */
 	public long getSeed() { 
-		return randomSeed;
+		return (rnd != null) ? randomSeed : shared.getSeed();
 	}
 }
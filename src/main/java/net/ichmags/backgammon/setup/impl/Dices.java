@@ -21,7 +21,7 @@ public class Dices implements IDices {
 
 	/**
 	 * A {@code RollableDice} is an implementation of the {@link IDice} interface.
-	 * It is using the {@link DiceGenerator} to obtain values when the {@code Dice} is thrown.
+	 * It is using the {@link DiceGenerator} of the {@link Dices} to obtain values when the {@code Dice} is thrown.
 	 * 
 	 * The class is implemented as {@code private} class within the {@link Dices} class to
 	 * make it impossible to change the {@link IDice} value.
@@ -52,7 +52,7 @@ public class Dices implements IDices {
 		 * @return The {@code Dice} object.
 		 */
 		private RollableDice roll() {
-			value = DiceGenerator.get().roll();
+			value = generator.roll();
 			return this;
 		}
 		
@@ -136,13 +136,24 @@ public class Dices implements IDices {
 		}
 	}
 	
+	private final DiceGenerator generator;
 	private List<RollableDice> dices;
 	private int cloneGeneration;
 	
 	/**
-	 * Constructor.
+	 * Constructor, rolling with the shared {@link DiceGenerator#get()}.
 	 */
 	public Dices() {
+		this(DiceGenerator.get());
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param generator the {@link DiceGenerator} to roll with.
+	 */
+	public Dices(DiceGenerator generator) {
+		this.generator = generator;
 		dices = new ArrayList<>(4);
 		dices.add(new RollableDice());
 		dices.add(new RollableDice());
@@ -167,6 +178,27 @@ public class Dices implements IDices {
 		}
 	}
 	
+	/**
+	 * Set the values of the {@code Dices} like after a {@link #roll()}, for restoring a saved state.
+	 * All {@link IDice} will be {@link Status#AVAILABLE}.
+	 * 
+	 * @param value1 the value of the first {@link IDice}, 1 to 6.
+	 * @param value2 the value of the second {@link IDice}, 1 to 6.
+	 * @return the {@code Dices}.
+	 */
+	public Dices restore(int value1, int value2) {
+		dices.removeIf(dice -> dice.isClone());
+		dices.get(0).value = value1;
+		dices.get(1).value = value2;
+		dices.forEach(dice -> dice.setStatus(Status.AVAILABLE));
+		
+		if(isDoubleDices()) {
+			dices.add(dices.get(0).privateClone());
+			dices.add(dices.get(0).privateClone());
+		}
+		return this;
+	}
+	
 	@Override
 	public boolean isDoubleDices() {
 		return (dices.get(0).getValue() == dices.get(1).getValue());
@@ -239,7 +271,7 @@ public class Dices implements IDices {
 	
 	@Override
 	public Dices clone() {
-		Dices clone = new Dices();
+		Dices clone = new Dices(generator);
 		clone.dices.clear();
 		this.dices.forEach(dice -> clone.dices.add(dice.privateClone()));
 		clone.cloneGeneration = cloneGeneration + 1;
@@ -35,6 +35,20 @@ public class DicesChoice implements IDicesChoice {
 		conversionDone = false;
 	}
 	
+	/**
+	 * Create a {@code DicesChoice} with an option that is ready to play, for instance the one chosen
+	 * in a replayed turn. It is not converted by {@link #convertStatusFromTestToPlay()}.
+	 * 
+	 * @param option the {@link IDices} to play.
+	 * @return the {@code DicesChoice} with the single option.
+	 */
+	public static DicesChoice of(IDices option) {
+		DicesChoice dicesChoice = new DicesChoice();
+		dicesChoice.option1 = option;
+		dicesChoice.conversionDone = true;
+		return dicesChoice;
+	}
+	
 	/**
 	 * Get the first {@link IDices} option.
 	 * 
@@ -20,6 +20,7 @@ public class Position implements IPosition {
 	private int index;
 	private PositionColor color;
 	private Stack<IChecker> checkers;
+	private Board board;
 	private int cloneGeneration; 
 	
 	/**
@@ -59,7 +60,7 @@ public class Position implements IPosition {
 		if(checkers.empty()) {
 			return false;
 		} else {
-			return (checkers.peek().getOwner().equals(playerID) || checkers.firstElement().getOwner().equals(playerID));
+			return (checkers.peek().getOwner() == playerID || checkers.firstElement().getOwner() == playerID);
 		}
 	}
 	
@@ -87,11 +88,36 @@ public class Position implements IPosition {
 	@Override
 	public void setTopChecker(IChecker newChecker) {
 		checkers.push(newChecker);
+		if(board != null) {
+			board.checkerAdded(this, newChecker);
+		}
 	}
 	
 	@Override
 	public IChecker removeTopChecker() {
-		return checkers.pop();
+		IChecker removedChecker = checkers.pop();
+		if(board != null) {
+			board.checkerRemoved(this, removedChecker);
+		}
+		return removedChecker;
+	}
+	
+	/**
+	 * Remove all {@link IChecker} without informing the {@link Board}.
+	 * Only to be used by the {@link Board} when it is reset.
+	 */
+	void clearCheckers() {
+		checkers.clear();
+	}
+	
+	/**
+	 * Attach the {@code Position} to the {@link Board} that owns it, so the {@link Board} is informed
+	 * about every {@link IChecker} placed on or removed from the {@code Position}.
+	 * 
+	 * @param board the owning {@link Board}, or {@code null} to detach.
+	 */
+	void setBoard(Board board) {
+		this.board = board;
 	}
 	
 	@Override
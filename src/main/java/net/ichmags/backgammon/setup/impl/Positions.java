@@ -3,8 +3,8 @@
  */
 package net.ichmags.backgammon.setup.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 import net.ichmags.backgammon.Common;
@@ -20,16 +20,40 @@ public class Positions implements IPositions {
 
 	private List<IPosition> positionSequence;
 	private int cloneGeneration;
+	private boolean readOnly;
 	
 	/**
 	 * Default constructor.
 	 */
 	public Positions() {
-		positionSequence = new LinkedList<>();
+		positionSequence = new ArrayList<>();
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param expectedSize the number of {@link IPosition}s that will be added.
+	 */
+	public Positions(int expectedSize) {
+		positionSequence = new ArrayList<>(expectedSize);
+	}
+	
+	/**
+	 * Make the {@code Positions} read-only, so they can be shared: {@link #add(IPosition)} fails afterwards.
+	 * A {@link #clone()} can be changed again.
+	 * 
+	 * @return the read-only {@code Positions}.
+	 */
+	Positions readOnly() {
+		this.readOnly = true;
+		return this;
 	}
 	
 	@Override
 	public IPositions add(IPosition position) {
+		if(readOnly) {
+			throw new UnsupportedOperationException("The positions are shared and cannot be changed");
+		}
 		positionSequence.add(position);
 		return this;
 	}
@@ -57,7 +81,7 @@ public class Positions implements IPositions {
 	
 	@Override
 	public Positions clone() {
-		Positions clone = new Positions();
+		Positions clone = new Positions(this.positionSequence.size());
 		
 		this.positionSequence.forEach(position -> clone.positionSequence.add(position.clone()));
 		clone.cloneGeneration = this.cloneGeneration + 1;
@@ -96,7 +96,7 @@ public class BoardVisualizer {
 	 */
 	private void dumpHitChecker(IPlayer player, StringBuilder sb) {
 		if(game.hasPosition0()) {
-			IPosition position0 = board.createPlayerView(player).get(0);
+			IPosition position0 = board.getPlayerView(player).get(0);
 			if(position0.getNrOfCheckers() > 0) {
 				sb.append("          ->->-> Hit ").append(player.getName()).append(": ").append(position0).append(Common.NEWLINE);
 			}
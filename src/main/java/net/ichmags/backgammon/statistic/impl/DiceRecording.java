@@ -0,0 +1,201 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import net.ichmags.backgammon.setup.IDices;
+
+/**
+ * The {@code DiceRecording} keeps the rolled {@link IDices} of a game in order, packed into one
+ * {@code byte} per roll: the first value in the high, the second in the low four bits. A <i>double</i>
+ * stands for its four dices, so a roll takes a quarter of the memory of four boxed {@link Integer}s in a
+ * {@link java.util.List}, or less.
+ * 
+ * The dices are read with {@link #forEachDice(IntConsumer)} without unpacking the whole recording, and
+ * written to a stream with {@link #writeTo(OutputStream)}: the number of rolls as {@code int} and then
+ * the packed rolls. A {@code DiceRecording} is not thread-safe.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class DiceRecording {
+	
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int READ_CHUNK_SIZE = 4 * 1024;
+	
+	private byte[] rolls;
+	private int nrOfRolls;
+	private int nrOfDices;
+	
+	/**
+	 * Constructor for an empty {@code DiceRecording}.
+	 */
+	public DiceRecording() {
+		this(new byte[INITIAL_CAPACITY], 0);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param rolls the packed rolls, not copied.
+	 * @param nrOfRolls the number of used {@code byte}s.
+	 */
+	private DiceRecording(byte[] rolls, int nrOfRolls) {
+		this.rolls = rolls;
+		this.nrOfRolls = nrOfRolls;
+		for(int roll = 0; roll < nrOfRolls; roll++) {
+			nrOfDices += isDouble(rolls[roll]) ? 4 : 2;
+		}
+	}
+	
+	/**
+	 * Record a roll.
+	 * 
+	 * @param dices the rolled {@link IDices}.
+	 */
+	public void add(IDices dices) {
+		add(dices.get(0).getValue(), dices.get(1).getValue());
+	}
+	
+	/**
+	 * Record a roll.
+	 * 
+	 * @param dice1 the value of the first dice, 1 to 6.
+	 * @param dice2 the value of the second dice, 1 to 6.
+	 */
+	public void add(int dice1, int dice2) {
+		if((dice1 < 1) || (dice1 > 6) || (dice2 < 1) || (dice2 > 6)) {
+			throw new IllegalArgumentException("Invalid dice values: " + dice1 + ", " + dice2);
+		}
+		if(nrOfRolls == rolls.length) {
+			rolls = Arrays.copyOf(rolls, rolls.length * 2);
+		}
+		rolls[nrOfRolls++] = (byte)((dice1 << 4) | dice2);
+		nrOfDices += (dice1 == dice2) ? 4 : 2;
+	}
+	
+	/**
+	 * @return the number of recorded rolls.
+	 */
+	public int getNrOfRolls() {
+		return nrOfRolls;
+	}
+	
+	/**
+	 * @return the number of recorded dices, four for a <i>double</i>.
+	 */
+	public int getNrOfDices() {
+		return nrOfDices;
+	}
+	
+	/**
+	 * Hand all recorded dice values to a consumer, in the order they were rolled; a <i>double</i> gives
+	 * four values.
+	 * 
+	 * @param consumer the {@link IntConsumer} for the values.
+	 */
+	public void forEachDice(IntConsumer consumer) {
+		for(int roll = 0; roll < nrOfRolls; roll++) {
+			int dice1 = (rolls[roll] >> 4) & 0x0F;
+			int dice2 = rolls[roll] & 0x0F;
+			consumer.accept(dice1);
+			consumer.accept(dice2);
+			if(dice1 == dice2) {
+				consumer.accept(dice1);
+				consumer.accept(dice2);
+			}
+		}
+	}
+	
+	/**
+	 * @return a copy of this {@code DiceRecording}, not changed by later rolls.
+	 */
+	public DiceRecording copy() {
+		return new DiceRecording(Arrays.copyOf(rolls, Math.max(nrOfRolls, 1)), nrOfRolls);
+	}
+	
+	/**
+	 * Write the packed rolls.
+	 * 
+	 * @param out the {@link OutputStream}, it is not closed.
+	 * @throws IOException in case the stream cannot be written.
+	 */
+	public void writeTo(OutputStream out)
+	throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(nrOfRolls);
+		data.write(rolls, 0, nrOfRolls);
+		data.flush();
+	}
+	
+	/**
+	 * Read packed rolls written with {@link #writeTo(OutputStream)}. The rolls are read in chunks, so the
+	 * memory grows with the bytes actually read and not with the number of rolls in the header.
+	 * 
+	 * @param in the {@link InputStream}, it is not closed.
+	 * @return the {@code DiceRecording}.
+	 * @throws IOException in case the stream cannot be read, or holds no valid rolls.
+	 */
+	public static DiceRecording readFrom(InputStream in)
+	throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		int nrOfRolls = data.readInt();
+		if(nrOfRolls < 0) {
+			throw new IOException("Invalid number of rolls: " + nrOfRolls);
+		}
+		byte[] rolls = new byte[Math.max(Math.min(nrOfRolls, READ_CHUNK_SIZE), 1)];
+		for(int read = 0; read < nrOfRolls; read += READ_CHUNK_SIZE) {
+			int chunk = Math.min(nrOfRolls - read, READ_CHUNK_SIZE);
+			if(rolls.length < read + chunk) {
+				rolls = Arrays.copyOf(rolls, (int)Math.min(2L * rolls.length, nrOfRolls));
+			}
+			data.readFully(rolls, read, chunk);
+		}
+		for(int roll = 0; roll < nrOfRolls; roll++) {
+			int dice1 = (rolls[roll] >> 4) & 0x0F;
+			int dice2 = rolls[roll] & 0x0F;
+			if((dice1 < 1) || (dice1 > 6) || (dice2 < 1) || (dice2 > 6)) {
+				throw new IOException("Invalid roll " + roll + ": " + Integer.toHexString(rolls[roll] & 0xFF));
+			}
+		}
+		return new DiceRecording(rolls, nrOfRolls);
+	}
+	
+	/**
+	 * Append the dice values like {@link Arrays#toString(int[])}, without creating an array.
+	 * 
+	 * @param sb the {@link StringBuilder} to append to.
+	 * @return the {@link StringBuilder}.
+	 */
+	public StringBuilder appendTo(StringBuilder sb) {
+		sb.append('[');
+		int start = sb.length();
+		forEachDice(dice -> {
+			if(sb.length() > start) {
+				sb.append(", ");
+			}
+			sb.append(dice);
+		});
+		return sb.append(']');
+	}
+	
+	@Override
+	public String toString() {
+		return appendTo(new StringBuilder(nrOfDices * 3 + 2)).toString();
+	}
+	
+	/**
+	 * @param roll a packed roll.
+	 * @return {@code true} for a <i>double</i>.
+	 */
+	private static boolean isDouble(byte roll) {
+		return ((roll >> 4) & 0x0F) == (roll & 0x0F);
+	}
+}
@@ -3,6 +3,8 @@
  */
 package net.ichmags.backgammon.statistic.impl;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import net.ichmags.backgammon.Common;
 import net.ichmags.backgammon.setup.IDice;
 import net.ichmags.backgammon.setup.IDices;
@@ -15,22 +17,58 @@ import net.ichmags.backgammon.statistic.IDiceStatistics;
  * The {@code DiceStatistics} keep track of the played dices by counting the occurence of
  * the values 1 to 6, differentiating <i>doubles</i>.
  * 
+ * The counters are striped {@link LongAdder}s, so the {@link Dices} of many {@link net.ichmags.backgammon.game.IGame}s
+ * may be added from many threads at once without contention, and reading a count does not block them.
+ * Statistics written by one thread at a time, like the ones of a single {@link net.ichmags.backgammon.game.IGame},
+ * use plain counters instead, see {@link #DiceStatistics(String, boolean)}; they are guarded by the
+ * monitor of the {@code DiceStatistics}, so they may still be read from other threads.
+ * 
  * @author Anastasios Patrikis
  */
 public class DiceStatistics implements IDiceStatistics {
 	private String display;
-	private int[] simpleDices;
-	private int[] doubleDices;
+	private LongAdder[] simpleDices;
+	private LongAdder[] doubleDices;
+	private long[] simpleCounts;
+	private long[] doubleCounts;
 	
 	/**
-	 * Constructor.
+	 * Constructor for {@code DiceStatistics} that may be written from many threads at once.
 	 * 
 	 * @param display A {@link String} that will be displayed in the {@link #toString()} method.
 	 */
 	public DiceStatistics(String display) {
+		this(display, true);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param display A {@link String} that will be displayed in the {@link #toString()} method.
+	 * @param concurrent {@code true} if {@link Dices} may be added from many threads at once;
+	 * {@code false} for plain counters guarded by the monitor of the {@code DiceStatistics}, for
+	 * {@link Dices} added by one thread at a time.
+	 */
+	protected DiceStatistics(String display, boolean concurrent) {
 		this.display = display;
-		simpleDices = new int[]{0, 0, 0, 0, 0, 0, 0};
-		doubleDices = new int[]{0, 0, 0, 0, 0, 0, 0};
+		if(concurrent) {
+			simpleDices = createCounters();
+			doubleDices = createCounters();
+		} else {
+			simpleCounts = new long[7];
+			doubleCounts = new long[7];
+		}
+	}
+	
+	/**
+	 * @return the counters for the values 1 to 6, the index {@code 0} is not used.
+	 */
+	private static LongAdder[] createCounters() {
+		LongAdder[] counters = new LongAdder[7];
+		for(int pos = 0; pos < counters.length; pos++) {
+			counters[pos] = new LongAdder();
+		}
+		return counters;
 	}
 
 	/**
@@ -42,10 +80,130 @@ public class DiceStatistics implements IDiceStatistics {
 	@Override
 	public void addDices(IDices dices) {
 		if(dices.get().size() == 2) {
-			simpleDices[dices.get(0).getValue()]++;
-			simpleDices[dices.get(1).getValue()]++;
+			addSimple(dices.get(0).getValue(), 1L);
+			addSimple(dices.get(1).getValue(), 1L);
+		} else {
+			addDouble(dices.get(0).getValue(), 1L);
+		}
+	}
+	
+	/**
+	 * @param value the {@link IDice} value, 1 to 6.
+	 * @return how often the value was rolled in a roll that was no <i>double</i>.
+	 */
+	public long getSimpleCount(int value) {
+		if(simpleDices != null) {
+			return simpleDices[value].sum();
+		}
+		synchronized(this) {
+			return simpleCounts[value];
+		}
+	}
+	
+	/**
+	 * @param value the {@link IDice} value, 1 to 6.
+	 * @return how often the value was rolled as <i>double</i>.
+	 */
+	public long getDoubleCount(int value) {
+		if(doubleDices != null) {
+			return doubleDices[value].sum();
+		}
+		synchronized(this) {
+			return doubleCounts[value];
+		}
+	}
+	
+	/**
+	 * @return the current counts as {@link DiceStatisticsSnapshot}.
+	 */
+	public DiceStatisticsSnapshot snapshot() {
+		return new DiceStatisticsSnapshot(display, getSimpleCounts(), getDoubleCounts());
+	}
+	
+	/**
+	 * @return the display text.
+	 */
+	String getDisplay() {
+		return display;
+	}
+	
+	/**
+	 * @return a copy of the counts of the values in rolls that were no <i>double</i>, the index
+	 * {@code 0} is not used.
+	 */
+	long[] getSimpleCounts() {
+		long[] values = new long[7];
+		for(int pos = 1; pos <= 6; pos++) {
+			values[pos] = getSimpleCount(pos);
+		}
+		return values;
+	}
+	
+	/**
+	 * @return a copy of the counts of the <i>doubles</i>, the index {@code 0} is not used.
+	 */
+	long[] getDoubleCounts() {
+		long[] values = new long[7];
+		for(int pos = 1; pos <= 6; pos++) {
+			values[pos] = getDoubleCount(pos);
+		}
+		return values;
+	}
+	
+	/**
+	 * Add the counts of other {@code DiceStatistics} to these ones.
+	 * 
+	 * @param other the {@code DiceStatistics} to add; they are not changed.
+	 */
+	public void merge(DiceStatistics other) {
+		for(int pos = 1; pos <= 6; pos++) {
+			addSimple(pos, other.getSimpleCount(pos));
+			addDouble(pos, other.getDoubleCount(pos));
+		}
+	}
+	
+	/**
+	 * Start counting again from zero.
+	 */
+	void reset() {
+		for(int pos = 1; pos <= 6; pos++) {
+			if(simpleDices != null) {
+				simpleDices[pos].reset();
+				doubleDices[pos].reset();
+			} else {
+				synchronized(this) {
+					simpleCounts[pos] = 0L;
+					doubleCounts[pos] = 0L;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @param value the {@link IDice} value, 1 to 6.
+	 * @param count the number of rolls that were no <i>double</i> to add.
+	 */
+	private void addSimple(int value, long count) {
+		if(simpleDices != null) {
+			simpleDices[value].add(count);
+		} else {
+			synchronized(this) {
+				simpleCounts[value] += count;
+			}
+		}
+	}
+	
+	/**
+	 * @param value the {@link IDice} value, 1 to 6.
+	 * @param count the number of <i>doubles</i> to add.
+	 */
+	private void addDouble(int value, long count) {
+		if(doubleDices != null) {
+			doubleDices[value].add(count);
 		} else {
-			doubleDices[dices.get(0).getValue()]++;
+			synchronized(this) {
+				doubleCounts[value] += count;
+			}
 		}
 	}
 	
@@ -54,12 +212,12 @@ public class DiceStatistics implements IDiceStatistics {
 		StringBuilder sb = new StringBuilder("Dice Statistics (").append(display).append(")").append(Common.NEWLINE);
 		sb.append("[Simple");
 		for(int pos = 1; pos <= 6; pos++) {
-			sb.append(", ").append(pos).append("'s:").append(simpleDices[pos]);
+			sb.append(", ").append(pos).append("'s:").append(getSimpleCount(pos));
 		}
 		sb.append("]").append(Common.NEWLINE);
 		sb.append("[Double");
 		for(int pos = 1; pos <= 6; pos++) {
-			sb.append(", ").append(pos).append("'s:").append(doubleDices[pos]);
+			sb.append(", ").append(pos).append("'s:").append(getDoubleCount(pos));
 		}
 		return sb.append("]").toString();
 	}
@@ -0,0 +1,76 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.util.Arrays;
+
+/**
+ * The {@code DiceStatisticsSnapshot} holds the counts of {@link DiceStatistics} at one point in time,
+ * for reading the numbers without parsing {@link DiceStatistics#toString()}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class DiceStatisticsSnapshot {
+	
+	private final String display;
+	private final long[] simpleDices;
+	private final long[] doubleDices;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param display the display text of the {@link DiceStatistics}.
+	 * @param simpleDices the counts of the values 1 to 6 in rolls that were no <i>double</i>, the
+	 * index {@code 0} is not used; not copied.
+	 * @param doubleDices the counts of the <i>doubles</i> 1 to 6, the index {@code 0} is not used;
+	 * not copied.
+	 */
+	DiceStatisticsSnapshot(String display, long[] simpleDices, long[] doubleDices) {
+		this.display = display;
+		this.simpleDices = simpleDices;
+		this.doubleDices = doubleDices;
+	}
+	
+	/**
+	 * @return the display text of the {@link DiceStatistics}.
+	 */
+	public String getDisplay() {
+		return display;
+	}
+	
+	/**
+	 * @param value the dice value, 1 to 6.
+	 * @return how often the value was rolled in a roll that was no <i>double</i>.
+	 */
+	public long getSimpleCount(int value) {
+		return simpleDices[value];
+	}
+	
+	/**
+	 * @param value the dice value, 1 to 6.
+	 * @return how often the value was rolled as <i>double</i>.
+	 */
+	public long getDoubleCount(int value) {
+		return doubleDices[value];
+	}
+	
+	/**
+	 * @return the number of counted rolls.
+	 */
+	public long getNrOfRolls() {
+		long dices = 0;
+		long doubles = 0;
+		for(int value = 1; value <= 6; value++) {
+			dices += simpleDices[value];
+			doubles += doubleDices[value];
+		}
+		return (dices / 2) + doubles;
+	}
+	
+	@Override
+	public String toString() {
+		return display + ": simple " + Arrays.toString(Arrays.copyOfRange(simpleDices, 1, 7))
+				+ ", double " + Arrays.toString(Arrays.copyOfRange(doubleDices, 1, 7));
+	}
+}
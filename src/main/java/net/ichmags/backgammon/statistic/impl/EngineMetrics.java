@@ -0,0 +1,168 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.ichmags.backgammon.Common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@code EngineMetrics} record how long the hot paths of a {@link net.ichmags.backgammon.game.impl.Game}
+ * take, one {@link LatencyHistogram} per {@link Operation}. The values are available here and through
+ * JMX as {@value #OBJECT_NAME}.
+ * 
+ * The recording is off by default, and is switched on with the system property {@code backgammon.metrics}
+ * or at runtime with {@link #setEnabled(boolean)}. When off, a measurement costs a {@code volatile} read:
+ * <pre>
+ * long start = EngineMetrics.get().start();
+ * try {
+ *     ...
+ * } finally {
+ *     EngineMetrics.get().stop(Operation.MOVE_CHECKER, start);
+ * }
+ * </pre>
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class EngineMetrics implements EngineMetricsMXBean {
+	
+	/**
+	 * The measured operations.
+	 */
+	public enum Operation {
+		/** A whole turn, from rolling the dices to the last move. */
+		NEXT_MOVES,
+		/** The check if any move is possible. */
+		CHECK_ANY_MOVE,
+		/** The search for the dices that can be played. */
+		FIND_PLAYABLE_DICES,
+		/** The validation and execution of a single move. */
+		MOVE_CHECKER,
+		/** The turn of a computer player. */
+		COMPUTER_PLAYER
+	}
+	
+	/**
+	 * The JMX {@link ObjectName}.
+	 */
+	public static final String OBJECT_NAME = "net.ichmags.backgammon:type=EngineMetrics";
+	
+	private static Logger LOG = LoggerFactory.getLogger(EngineMetrics.class);
+	
+	/**
+	 * {@code Singleton} pattern.
+	 */
+	private static EngineMetrics INSTANCE = new EngineMetrics();
+	
+	private final LatencyHistogram[] histograms;
+	private volatile boolean enabled;
+	
+	/**
+	 * {@code private} constructor to enforce the {@code singleton} pattern.
+	 */
+	private EngineMetrics() {
+		this.histograms = new LatencyHistogram[Operation.values().length];
+		for(Operation operation : Operation.values()) {
+			histograms[operation.ordinal()] = new LatencyHistogram();
+		}
+		this.enabled = Boolean.getBoolean("backgammon.metrics");
+		registerMBean();
+	}
+	
+	/**
+	 * Get a reference to the {@code singleton} instance.
+	 * 
+	 * @return the reference to the sole {@link Object} of this class.
+	 */
+	public static EngineMetrics get() {
+		return INSTANCE;
+	}
+	
+	/**
+	 * Start a measurement.
+	 * 
+	 * @return the start time for {@link #stop(Operation, long)}, or {@code 0} if the recording is off.
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+	
+	/**
+	 * End a measurement and record its duration.
+	 * 
+	 * @param operation the measured {@link Operation}.
+	 * @param start the value returned by {@link #start()}; nothing is recorded for {@code 0}.
+	 */
+	public void stop(Operation operation, long start) {
+		if(start != 0L) {
+			histograms[operation.ordinal()].record(System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * @param operation the {@link Operation}.
+	 * @return the {@link LatencyHistogram} of the {@link Operation}.
+	 */
+	public LatencyHistogram getHistogram(Operation operation) {
+		return histograms[operation.ordinal()];
+	}
+	
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+	
+	@Override
+	public Map<String, LatencySummary> getLatencies() {
+		Map<String, LatencySummary> latencies = new LinkedHashMap<>();
+		for(Operation operation : Operation.values()) {
+			latencies.put(operation.name(), getHistogram(operation).getSummary());
+		}
+		return latencies;
+	}
+	
+	@Override
+	public void reset() {
+		for(LatencyHistogram histogram : histograms) {
+			histogram.reset();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		getLatencies().forEach((name, summary) -> sb.append(name).append(": ").append(summary).append(Common.NEWLINE));
+		return sb.toString();
+	}
+	
+	/**
+	 * Register this instance with the platform {@link MBeanServer}; a failure is logged only, as the
+	 * values are available without JMX.
+	 */
+	private void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if( ! server.isRegistered(name)) {
+				server.registerMBean(this, name);
+			}
+		} catch (JMException | SecurityException e) {
+			LOG.warn("Cannot register the engine metrics with JMX", e);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.util.Map;
+
+/**
+ * The JMX view of the {@link EngineMetrics}, registered as {@value EngineMetrics#OBJECT_NAME}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public interface EngineMetricsMXBean {
+	
+	/**
+	 * @return {@code true} if durations are recorded.
+	 */
+	boolean isEnabled();
+	
+	/**
+	 * Switch the recording on or off; recorded durations are kept.
+	 * 
+	 * @param enabled {@code true} to record durations.
+	 */
+	void setEnabled(boolean enabled);
+	
+	/**
+	 * @return the {@link LatencySummary} for each {@link EngineMetrics.Operation}, by name.
+	 */
+	Map<String, LatencySummary> getLatencies();
+	
+	/**
+	 * Forget all recorded durations.
+	 */
+	void reset();
+}
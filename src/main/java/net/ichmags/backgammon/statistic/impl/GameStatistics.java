@@ -3,9 +3,8 @@
  */
 package net.ichmags.backgammon.statistic.impl;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
 import net.ichmags.backgammon.Common;
 import net.ichmags.backgammon.setup.IDices;
@@ -18,44 +17,72 @@ import net.ichmags.backgammon.statistic.IGameStatistics;
  * {@code GameStatistics} keep track of informations of the played game:
  * <ul>
  * <li>count of played {@link Dices}</li>
- * <li>recording of the order of {@link Dices}</li>
+ * <li>recording of the order of {@link Dices}, packed as {@link DiceRecording}</li>
  * <li>count of the rotations between the two players</li>
  * </ul>
+ * A {@link net.ichmags.backgammon.game.IGame} is played by one thread at a time, so the counters are
+ * plain fields instead of {@link java.util.concurrent.atomic.LongAdder}s. The counters and the
+ * recording are guarded by the monitor of the {@code GameStatistics}, and a roll is added as a whole,
+ * so they may be read while the {@link net.ichmags.backgammon.game.IGame} goes on, and a
+ * {@link #snapshot()} is consistent.
  * 
  * @author Anastasios Patrikis
  */
 public class GameStatistics extends DiceStatistics implements IGameStatistics {
 	private int rotations;
-	private List<Integer> diceRecording;
+	private DiceRecording diceRecording;
 	
 	/**
 	 * Default constructor.
 	 */
 	public GameStatistics() {
-		super("Game");
+		super("Game", false);
 		
 		rotations = 0;
-		diceRecording = new ArrayList<>();
+		diceRecording = new DiceRecording();
 	}
 
 	@Override
-	public int getRotations() {
+	public synchronized int getRotations() {
 		return rotations;
 	}
+	
+	/**
+	 * @return a copy of the {@link DiceRecording}, in the order the {@link Dices} were rolled.
+	 */
+	public synchronized DiceRecording getDiceRecording() {
+		return diceRecording.copy();
+	}
+	
+	/**
+	 * Write the packed {@link DiceRecording}, see {@link DiceRecording#writeTo(OutputStream)}.
+	 * 
+	 * @param out the {@link OutputStream}, it is not closed.
+	 * @throws IOException in case the stream cannot be written.
+	 */
+	public synchronized void writeDiceRecording(OutputStream out)
+	throws IOException {
+		diceRecording.writeTo(out);
+	}
 
 	@Override
-	public void addDices(IDices dices) {
+	public synchronized GameStatisticsSnapshot snapshot() {
+		return new GameStatisticsSnapshot(getDisplay(), getSimpleCounts(), getDoubleCounts(), getRotations());
+	}
+	
+	@Override
+	public synchronized void addDices(IDices dices) {
 		super.addDices(dices);
 		rotations++;
-		
-		dices.get().forEach(dice -> diceRecording.add(dice.getValue()));
+		diceRecording.add(dices);
 	}
 	
 	@Override
-	public String toString() {
+	public synchronized String toString() {
 		StringBuilder sb = new StringBuilder(super.toString()).append(Common.NEWLINE);
-		sb.append("Rotations: ").append(rotations).append(Common.NEWLINE);
-		sb.append("Dice recording: ").append(Arrays.toString(diceRecording.toArray())).append(Common.NEWLINE);
+		sb.append("Rotations: ").append(getRotations()).append(Common.NEWLINE);
+		sb.append("Dice recording: ");
+		diceRecording.appendTo(sb).append(Common.NEWLINE);
 		return sb.toString();
 	};
 }
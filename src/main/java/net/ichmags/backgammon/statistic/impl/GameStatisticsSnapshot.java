@@ -0,0 +1,40 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+/**
+ * The {@code GameStatisticsSnapshot} holds the numbers of {@link GameStatistics} at one point in time.
+ * The {@link DiceRecording} is not part of it, it is read with {@link GameStatistics#getDiceRecording()}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class GameStatisticsSnapshot extends DiceStatisticsSnapshot {
+	
+	private final int rotations;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param display the display text of the {@link GameStatistics}.
+	 * @param simpleDices the counts of the values in rolls that were no <i>double</i>, not copied.
+	 * @param doubleDices the counts of the <i>doubles</i>, not copied.
+	 * @param rotations the number of rotations between the players.
+	 */
+	GameStatisticsSnapshot(String display, long[] simpleDices, long[] doubleDices, int rotations) {
+		super(display, simpleDices, doubleDices);
+		this.rotations = rotations;
+	}
+	
+	/**
+	 * @return the number of rotations between the players.
+	 */
+	public int getRotations() {
+		return rotations;
+	}
+	
+	@Override
+	public String toString() {
+		return super.toString() + ", rotations " + rotations;
+	}
+}
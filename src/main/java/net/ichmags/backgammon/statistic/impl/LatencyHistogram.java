@@ -0,0 +1,173 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code LatencyHistogram} counts durations in nanoseconds in logarithmic buckets: each power of two
+ * is split into {@value #SUB_BUCKETS} buckets, so a percentile is at most an eighth above the real value.
+ * The buckets are fixed, so recording does not allocate, and may be done from many threads at once.
+ * 
+ * The threads do not share counters while recording: the number and the sum of the durations are
+ * {@link LongAdder}s, and the buckets and the longest duration are kept in stripes, one per group of
+ * threads. Reading adds the stripes up, so a value read while others record may be slightly behind.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class LatencyHistogram {
+	
+	/**
+	 * The number of buckets per power of two.
+	 */
+	public static final int SUB_BUCKETS = 8;
+	
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int NR_OF_BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	private static final int MAX_SLOT = NR_OF_BUCKETS;
+	private static final int STRIPE_LENGTH = NR_OF_BUCKETS + 1;
+	private static final int MAX_STRIPES = 16;
+	
+	private final int stripeMask;
+	private final AtomicLongArray stripes;
+	private final LongAdder count;
+	private final LongAdder total;
+	
+	/**
+	 * Constructor.
+	 */
+	public LatencyHistogram() {
+		int nrOfStripes = Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+		this.stripeMask = nrOfStripes - 1;
+		this.stripes = new AtomicLongArray(nrOfStripes * STRIPE_LENGTH);
+		this.count = new LongAdder();
+		this.total = new LongAdder();
+	}
+	
+	/**
+	 * Record a duration.
+	 * 
+	 * @param nanos the duration in nanoseconds; negative values count as {@code 0}.
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0L, nanos);
+		int stripe = ((int)Thread.currentThread().getId() & stripeMask) * STRIPE_LENGTH;
+		stripes.incrementAndGet(stripe + getBucket(value));
+		count.increment();
+		total.add(value);
+		
+		// only a new maximum of the stripe is written
+		long currentMax = stripes.get(stripe + MAX_SLOT);
+		while((value > currentMax) && ! stripes.compareAndSet(stripe + MAX_SLOT, currentMax, value)) {
+			currentMax = stripes.get(stripe + MAX_SLOT);
+		}
+	}
+	
+	/**
+	 * @return the number of recorded durations.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+	
+	/**
+	 * @return the longest recorded duration in nanoseconds, or {@code 0} if none was recorded.
+	 */
+	public long getMax() {
+		long max = 0L;
+		for(int stripe = 0; stripe < stripes.length(); stripe += STRIPE_LENGTH) {
+			max = Math.max(max, stripes.get(stripe + MAX_SLOT));
+		}
+		return max;
+	}
+	
+	/**
+	 * @return the average duration in nanoseconds, or {@code 0} if none was recorded.
+	 */
+	public long getMean() {
+		long recorded = count.sum();
+		return (recorded > 0) ? (total.sum() / recorded) : 0L;
+	}
+	
+	/**
+	 * Get the duration below which a share of the recorded durations lies.
+	 * 
+	 * @param percentile the share in percent, from {@code 0} to {@code 100}.
+	 * @return the upper bound of the bucket holding the percentile in nanoseconds, never more than
+	 * {@link #getMax()}; {@code 0} if none was recorded.
+	 */
+	public long getPercentile(double percentile) {
+		if((percentile < 0) || (percentile > 100)) {
+			throw new IllegalArgumentException("Invalid percentile: " + percentile);
+		}
+		
+		long recorded = count.sum();
+		if(recorded == 0) {
+			return 0L;
+		}
+		
+		long rank = Math.max(1L, (long)Math.ceil(recorded * percentile / 100));
+		long seen = 0;
+		for(int bucket = 0; bucket < NR_OF_BUCKETS; bucket++) {
+			for(int stripe = 0; stripe < stripes.length(); stripe += STRIPE_LENGTH) {
+				seen += stripes.get(stripe + bucket);
+			}
+			if(seen >= rank) {
+				return Math.min(getUpperBound(bucket), getMax());
+			}
+		}
+		return getMax(); // recorded concurrently
+	}
+	
+	/**
+	 * Forget all recorded durations.
+	 */
+	public void reset() {
+		for(int slot = 0; slot < stripes.length(); slot++) {
+			stripes.set(slot, 0L);
+		}
+		count.reset();
+		total.reset();
+	}
+	
+	/**
+	 * @return the current values as {@link LatencySummary}.
+	 */
+	public LatencySummary getSummary() {
+		return new LatencySummary(getCount(), getMean(),
+				getPercentile(50), getPercentile(90), getPercentile(99), getPercentile(99.9), getMax());
+	}
+	
+	/**
+	 * @param value the duration in nanoseconds, not negative.
+	 * @return the index of the bucket for the duration.
+	 */
+	static int getBucket(long value) {
+		if(value < SUB_BUCKETS) {
+			return (int)value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return ((shift + 1) * SUB_BUCKETS) + (int)((value >>> shift) & (SUB_BUCKETS - 1));
+	}
+	
+	/**
+	 * @param bucket the index of a bucket.
+	 * @return the largest duration in nanoseconds counted in the bucket.
+	 */
+	static long getUpperBound(int bucket) {
+		if(bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket / SUB_BUCKETS) - 1;
+		long lower = (long)(SUB_BUCKETS + (bucket % SUB_BUCKETS)) << shift;
+		return lower + (1L << shift) - 1;
+	}
+	
+	@Override
+	public String toString() {
+		return getSummary().toString();
+	}
+}
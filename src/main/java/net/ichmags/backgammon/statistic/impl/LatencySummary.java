@@ -0,0 +1,100 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The {@code LatencySummary} holds the values of a {@link LatencyHistogram} at one point in time, all
+ * durations in nanoseconds. It is read by JMX clients as composite data, see {@link EngineMetricsMXBean}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class LatencySummary {
+	
+	private final long count;
+	private final long mean;
+	private final long p50;
+	private final long p90;
+	private final long p99;
+	private final long p999;
+	private final long max;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param count the number of recorded durations.
+	 * @param mean the average duration.
+	 * @param p50 the median.
+	 * @param p90 the 90th percentile.
+	 * @param p99 the 99th percentile.
+	 * @param p999 the 99.9th percentile.
+	 * @param max the longest duration.
+	 */
+	@ConstructorProperties({"count", "mean", "p50", "p90", "p99", "p999", "max"})
+	public LatencySummary(long count, long mean, long p50, long p90, long p99, long p999, long max) {
+		this.count = count;
+		this.mean = mean;
+		this.p50 = p50;
+		this.p90 = p90;
+		this.p99 = p99;
+		this.p999 = p999;
+		this.max = max;
+	}
+	
+	/**
+	 * @return the number of recorded durations.
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	/**
+	 * @return the average duration.
+	 */
+	public long getMean() {
+		return mean;
+	}
+	
+	/**
+	 * @return the median.
+	 */
+	public long getP50() {
+		return p50;
+	}
+	
+	/**
+	 * @return the 90th percentile.
+	 */
+	public long getP90() {
+		return p90;
+	}
+	
+	/**
+	 * @return the 99th percentile.
+	 */
+	public long getP99() {
+		return p99;
+	}
+	
+	/**
+	 * @return the 99.9th percentile.
+	 */
+	public long getP999() {
+		return p999;
+	}
+	
+	/**
+	 * @return the longest duration.
+	 */
+	public long getMax() {
+		return max;
+	}
+	
+	@Override
+	public String toString() {
+		return "count=" + count + ", mean=" + mean + "ns, p50=" + p50 + "ns, p90=" + p90 + "ns, p99=" + p99
+				+ "ns, p99.9=" + p999 + "ns, max=" + max + "ns";
+	}
+}
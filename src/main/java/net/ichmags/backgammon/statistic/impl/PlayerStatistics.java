@@ -3,6 +3,8 @@
  */
 package net.ichmags.backgammon.statistic.impl;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import net.ichmags.backgammon.Common;
 import net.ichmags.backgammon.setup.impl.Dices;
 import net.ichmags.backgammon.statistic.IPlayerStatistics;
@@ -16,13 +18,17 @@ import net.ichmags.backgammon.statistic.IPlayerStatistics;
  * <li>count of games won</li>
  * <li>count of games lost</li>
  * </ul>
+ * A {@link net.ichmags.backgammon.setup.impl.Player} may play several games at once, so all counters
+ * are {@link LongAdder}s.
  * 
  * @author Anastasios Patrikis
  */
 public class PlayerStatistics extends DiceStatistics implements IPlayerStatistics {
 	
-	private int[] timesWon;
-	private int[] timesLost; 
+	private LongAdder gamesWon;
+	private LongAdder gamesLost;
+	private LongAdder matchesWon;
+	private LongAdder matchesLost;
 	
 	/**
 	 * Constructor.
@@ -32,8 +38,10 @@ public class PlayerStatistics extends DiceStatistics implements IPlayerStatistic
 	public PlayerStatistics(String id) {
 		super("Player " + id);
 		
-		timesWon = new int[]{0, 0};
-		timesLost = new int[]{0, 0};
+		gamesWon = new LongAdder();
+		gamesLost = new LongAdder();
+		matchesWon = new LongAdder();
+		matchesLost = new LongAdder();
 	}
 	
 	/**
@@ -41,7 +49,7 @@ public class PlayerStatistics extends DiceStatistics implements IPlayerStatistic
 	 */
 	@Override
 	public void addMatchDefeat() {
-		timesLost[1]++;
+		matchesLost.increment();
 	}
 	
 	/**
@@ -49,29 +57,69 @@ public class PlayerStatistics extends DiceStatistics implements IPlayerStatistic
 	 */
 	@Override
 	public void addMatchVictory() {
-		timesWon[1]++;		
+		matchesWon.increment();
 	}
 	
 	@Override
 	public void addGameDefeat(int value) {
-		timesLost[0]+=value;
+		gamesLost.add(value);
 	}
 	
 	@Override
 	public void addGameVictory(int value) {
-		timesWon[0]+=value;
+		gamesWon.add(value);
 	}
 	
 	@Override
 	public int getGameVictories() {
-		return timesWon[0];
+		return gamesWon.intValue();
+	}
+	
+	/**
+	 * @return the points of the lost games.
+	 */
+	public int getGameDefeats() {
+		return gamesLost.intValue();
+	}
+	
+	/**
+	 * @return the number of won matches.
+	 */
+	public int getMatchVictories() {
+		return matchesWon.intValue();
+	}
+	
+	/**
+	 * @return the number of lost matches.
+	 */
+	public int getMatchDefeats() {
+		return matchesLost.intValue();
+	}
+	
+	@Override
+	public PlayerStatisticsSnapshot snapshot() {
+		return new PlayerStatisticsSnapshot(getDisplay(), getSimpleCounts(), getDoubleCounts(),
+				getGameVictories(), getGameDefeats(), getMatchVictories(), getMatchDefeats());
+	}
+	
+	/**
+	 * Add the counts of other {@code PlayerStatistics} to these ones.
+	 * 
+	 * @param other the {@code PlayerStatistics} to add; they are not changed.
+	 */
+	public void merge(PlayerStatistics other) {
+		super.merge(other);
+		gamesWon.add(other.getGameVictories());
+		gamesLost.add(other.getGameDefeats());
+		matchesWon.add(other.getMatchVictories());
+		matchesLost.add(other.getMatchDefeats());
 	}
 	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder(super.toString()).append(Common.NEWLINE);
-		sb.append("Games won/lost  : ").append(timesWon[0]).append("/").append(timesLost[0]).append(Common.NEWLINE);
-		sb.append("Matches won/lost: ").append(timesWon[1]).append("/").append(timesLost[1]).append(Common.NEWLINE);
+		sb.append("Games won/lost  : ").append(getGameVictories()).append("/").append(getGameDefeats()).append(Common.NEWLINE);
+		sb.append("Matches won/lost: ").append(getMatchVictories()).append("/").append(getMatchDefeats()).append(Common.NEWLINE);
 		return sb.toString();
 	}
 }
@@ -0,0 +1,71 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+/**
+ * The {@code PlayerStatisticsSnapshot} holds the numbers of {@link PlayerStatistics} at one point in time.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class PlayerStatisticsSnapshot extends DiceStatisticsSnapshot {
+	
+	private final int gameVictories;
+	private final int gameDefeats;
+	private final int matchVictories;
+	private final int matchDefeats;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param display the display text of the {@link PlayerStatistics}.
+	 * @param simpleDices the counts of the values in rolls that were no <i>double</i>, not copied.
+	 * @param doubleDices the counts of the <i>doubles</i>, not copied.
+	 * @param gameVictories the points of the won games.
+	 * @param gameDefeats the points of the lost games.
+	 * @param matchVictories the number of won matches.
+	 * @param matchDefeats the number of lost matches.
+	 */
+	PlayerStatisticsSnapshot(String display, long[] simpleDices, long[] doubleDices,
+			int gameVictories, int gameDefeats, int matchVictories, int matchDefeats) {
+		super(display, simpleDices, doubleDices);
+		this.gameVictories = gameVictories;
+		this.gameDefeats = gameDefeats;
+		this.matchVictories = matchVictories;
+		this.matchDefeats = matchDefeats;
+	}
+	
+	/**
+	 * @return the points of the won games.
+	 */
+	public int getGameVictories() {
+		return gameVictories;
+	}
+	
+	/**
+	 * @return the points of the lost games.
+	 */
+	public int getGameDefeats() {
+		return gameDefeats;
+	}
+	
+	/**
+	 * @return the number of won matches.
+	 */
+	public int getMatchVictories() {
+		return matchVictories;
+	}
+	
+	/**
+	 * @return the number of lost matches.
+	 */
+	public int getMatchDefeats() {
+		return matchDefeats;
+	}
+	
+	@Override
+	public String toString() {
+		return super.toString() + ", games won/lost " + gameVictories + "/" + gameDefeats
+				+ ", matches won/lost " + matchVictories + "/" + matchDefeats;
+	}
+}
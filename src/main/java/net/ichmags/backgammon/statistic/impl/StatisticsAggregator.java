@@ -0,0 +1,157 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import net.ichmags.backgammon.Common;
+import net.ichmags.backgammon.statistic.IGameStatistics;
+
+/**
+ * The {@code StatisticsAggregator} merges the {@link GameStatistics} of finished games into totals.
+ * Every {@link net.ichmags.backgammon.game.impl.Game} adds its {@link GameStatistics} to the global
+ * instance when it is over; further instances may be created for any other grouping.
+ * 
+ * All counters are {@link LongAdder}s: games ending on many threads at once do not contend, and a
+ * {@link Totals} read does not block them. A {@link Totals} read while a game is merged may contain
+ * only a part of that game.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class StatisticsAggregator {
+	
+	/**
+	 * The totals of a {@code StatisticsAggregator} at one point in time.
+	 */
+	public static final class Totals {
+		
+		private final long games;
+		private final long rotations;
+		private final long[] simpleDices;
+		private final long[] doubleDices;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param aggregator the {@code StatisticsAggregator} to read.
+		 */
+		private Totals(StatisticsAggregator aggregator) {
+			this.games = aggregator.games.sum();
+			this.rotations = aggregator.rotations.sum();
+			this.simpleDices = new long[7];
+			this.doubleDices = new long[7];
+			for(int pos = 1; pos <= 6; pos++) {
+				simpleDices[pos] = aggregator.dices.getSimpleCount(pos);
+				doubleDices[pos] = aggregator.dices.getDoubleCount(pos);
+			}
+		}
+		
+		/**
+		 * @return the number of merged games.
+		 */
+		public long getGames() {
+			return games;
+		}
+		
+		/**
+		 * @return the rotations of all merged games.
+		 */
+		public long getRotations() {
+			return rotations;
+		}
+		
+		/**
+		 * @param value the dice value, 1 to 6.
+		 * @return how often the value was rolled in a roll that was no <i>double</i>.
+		 */
+		public long getSimpleCount(int value) {
+			return simpleDices[value];
+		}
+		
+		/**
+		 * @param value the dice value, 1 to 6.
+		 * @return how often the value was rolled as <i>double</i>.
+		 */
+		public long getDoubleCount(int value) {
+			return doubleDices[value];
+		}
+		
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder("Games: ").append(games).append(", Rotations: ").append(rotations).append(Common.NEWLINE);
+			sb.append("[Simple");
+			for(int pos = 1; pos <= 6; pos++) {
+				sb.append(", ").append(pos).append("'s:").append(simpleDices[pos]);
+			}
+			sb.append("]").append(Common.NEWLINE);
+			sb.append("[Double");
+			for(int pos = 1; pos <= 6; pos++) {
+				sb.append(", ").append(pos).append("'s:").append(doubleDices[pos]);
+			}
+			return sb.append("]").toString();
+		}
+	}
+	
+	/**
+	 * The global instance.
+	 */
+	private static StatisticsAggregator INSTANCE = new StatisticsAggregator();
+	
+	private final DiceStatistics dices;
+	private final LongAdder games;
+	private final LongAdder rotations;
+	
+	/**
+	 * Constructor.
+	 */
+	public StatisticsAggregator() {
+		this.dices = new DiceStatistics("All games");
+		this.games = new LongAdder();
+		this.rotations = new LongAdder();
+	}
+	
+	/**
+	 * Get a reference to the global instance, which all finished games are added to.
+	 * 
+	 * @return the reference to the global {@code StatisticsAggregator}.
+	 */
+	public static StatisticsAggregator get() {
+		return INSTANCE;
+	}
+	
+	/**
+	 * Add the {@link IGameStatistics} of a finished game.
+	 * 
+	 * @param statistics the {@link IGameStatistics}; only {@link GameStatistics} can be merged.
+	 */
+	public void add(IGameStatistics statistics) {
+		if( ! (statistics instanceof GameStatistics)) {
+			throw new IllegalArgumentException("Cannot merge " + statistics.getClass().getName());
+		}
+		dices.merge((GameStatistics)statistics);
+		rotations.add(statistics.getRotations());
+		games.increment();
+	}
+	
+	/**
+	 * @return the current {@link Totals}.
+	 */
+	public Totals getTotals() {
+		return new Totals(this);
+	}
+	
+	/**
+	 * Start again from zero; games merged at the same time may be counted partially.
+	 */
+	public void reset() {
+		dices.reset();
+		games.reset();
+		rotations.reset();
+	}
+	
+	@Override
+	public String toString() {
+		return getTotals().toString();
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code StatisticsExporter} writes many {@link DiceStatisticsSnapshot}s at once, as CSV or in a
+ * compact binary format, straight to a stream without building a {@link String} per snapshot.
+ * 
+ * The CSV has a header line, and one line per snapshot with the columns {@value #CSV_HEADER}; the
+ * columns not applying to a kind of snapshot are empty. The binary format starts with the {@code int}
+ * {@value #MAGIC} and a version {@code byte}, followed by the records: the kind as {@code byte}, the
+ * display text as modified UTF-8, the twelve counts of the dices as {@code long}s and the {@code int}
+ * numbers of the kind; a {@code 0} kind ends the records.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class StatisticsExporter {
+	
+	/**
+	 * The header line of the CSV.
+	 */
+	public static final String CSV_HEADER = "kind,display,rolls,"
+			+ "simple_1,simple_2,simple_3,simple_4,simple_5,simple_6,"
+			+ "double_1,double_2,double_3,double_4,double_5,double_6,"
+			+ "rotations,game_victories,game_defeats,match_victories,match_defeats";
+	
+	/**
+	 * The first {@code int} of the binary format, {@code "BGST"}.
+	 */
+	public static final int MAGIC = 0x42475354;
+	
+	private static final byte VERSION = 1;
+	private static final byte END = 0;
+	private static final byte DICE = 1;
+	private static final byte GAME = 2;
+	private static final byte PLAYER = 3;
+	
+	/**
+	 * {@code private} constructor, only static methods.
+	 */
+	private StatisticsExporter() {
+	}
+	
+	/**
+	 * Write snapshots as CSV.
+	 * 
+	 * @param out the {@link Writer}, it is not closed.
+	 * @param snapshots the {@link DiceStatisticsSnapshot}s.
+	 * @throws IOException in case the {@link Writer} fails.
+	 */
+	public static void writeCsv(Writer out, List<? extends DiceStatisticsSnapshot> snapshots)
+	throws IOException {
+		out.write(CSV_HEADER);
+		out.write('\n');
+		for(DiceStatisticsSnapshot snapshot : snapshots) {
+			out.write(getKindName(snapshot));
+			out.write(',');
+			writeCsvText(out, snapshot.getDisplay());
+			out.write(',');
+			out.write(Long.toString(snapshot.getNrOfRolls()));
+			for(int value = 1; value <= 6; value++) {
+				out.write(',');
+				out.write(Long.toString(snapshot.getSimpleCount(value)));
+			}
+			for(int value = 1; value <= 6; value++) {
+				out.write(',');
+				out.write(Long.toString(snapshot.getDoubleCount(value)));
+			}
+			
+			out.write(',');
+			if(snapshot instanceof GameStatisticsSnapshot) {
+				out.write(Integer.toString(((GameStatisticsSnapshot)snapshot).getRotations()));
+			}
+			if(snapshot instanceof PlayerStatisticsSnapshot) {
+				PlayerStatisticsSnapshot player = (PlayerStatisticsSnapshot)snapshot;
+				out.write(',' + Integer.toString(player.getGameVictories()) + ',' + player.getGameDefeats()
+						+ ',' + player.getMatchVictories() + ',' + player.getMatchDefeats());
+			} else {
+				out.write(",,,,");
+			}
+			out.write('\n');
+		}
+		out.flush();
+	}
+	
+	/**
+	 * Write snapshots in the binary format.
+	 * 
+	 * @param out the {@link OutputStream}, it is not closed.
+	 * @param snapshots the {@link DiceStatisticsSnapshot}s.
+	 * @throws IOException in case the {@link OutputStream} fails.
+	 */
+	public static void writeBinary(OutputStream out, List<? extends DiceStatisticsSnapshot> snapshots)
+	throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeByte(VERSION);
+		for(DiceStatisticsSnapshot snapshot : snapshots) {
+			data.writeByte(getKind(snapshot));
+			data.writeUTF(snapshot.getDisplay());
+			for(int value = 1; value <= 6; value++) {
+				data.writeLong(snapshot.getSimpleCount(value));
+			}
+			for(int value = 1; value <= 6; value++) {
+				data.writeLong(snapshot.getDoubleCount(value));
+			}
+			
+			if(snapshot instanceof GameStatisticsSnapshot) {
+				data.writeInt(((GameStatisticsSnapshot)snapshot).getRotations());
+			} else if(snapshot instanceof PlayerStatisticsSnapshot) {
+				PlayerStatisticsSnapshot player = (PlayerStatisticsSnapshot)snapshot;
+				data.writeInt(player.getGameVictories());
+				data.writeInt(player.getGameDefeats());
+				data.writeInt(player.getMatchVictories());
+				data.writeInt(player.getMatchDefeats());
+			}
+		}
+		data.writeByte(END);
+		data.flush();
+	}
+	
+	/**
+	 * Read snapshots written with {@link #writeBinary(OutputStream, List)}.
+	 * 
+	 * @param in the {@link InputStream}, it is not closed.
+	 * @return the {@link DiceStatisticsSnapshot}s, of the kinds they were written.
+	 * @throws IOException in case the {@link InputStream} fails, or does not hold the binary format.
+	 */
+	public static List<DiceStatisticsSnapshot> readBinary(InputStream in)
+	throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if(data.readInt() != MAGIC) {
+			throw new IOException("Not a statistics export");
+		}
+		byte version = data.readByte();
+		if(version != VERSION) {
+			throw new IOException("Unsupported statistics export version: " + version);
+		}
+		
+		List<DiceStatisticsSnapshot> snapshots = new ArrayList<>();
+		for(byte kind = data.readByte(); kind != END; kind = data.readByte()) {
+			String display = data.readUTF();
+			long[] simpleDices = new long[7];
+			long[] doubleDices = new long[7];
+			for(int value = 1; value <= 6; value++) {
+				simpleDices[value] = data.readLong();
+			}
+			for(int value = 1; value <= 6; value++) {
+				doubleDices[value] = data.readLong();
+			}
+			
+			switch(kind) {
+				case DICE:
+					snapshots.add(new DiceStatisticsSnapshot(display, simpleDices, doubleDices));
+					break;
+				case GAME:
+					snapshots.add(new GameStatisticsSnapshot(display, simpleDices, doubleDices, data.readInt()));
+					break;
+				case PLAYER:
+					snapshots.add(new PlayerStatisticsSnapshot(display, simpleDices, doubleDices,
+							data.readInt(), data.readInt(), data.readInt(), data.readInt()));
+					break;
+				default:
+					throw new IOException("Unknown statistics kind: " + kind);
+			}
+		}
+		return snapshots;
+	}
+	
+	/**
+	 * @param snapshot a {@link DiceStatisticsSnapshot}.
+	 * @return the kind of the binary format.
+	 */
+	private static byte getKind(DiceStatisticsSnapshot snapshot) {
+		if(snapshot instanceof GameStatisticsSnapshot) {
+			return GAME;
+		} else if(snapshot instanceof PlayerStatisticsSnapshot) {
+			return PLAYER;
+		}
+		return DICE;
+	}
+	
+	/**
+	 * @param snapshot a {@link DiceStatisticsSnapshot}.
+	 * @return the kind of the CSV.
+	 */
+	private static String getKindName(DiceStatisticsSnapshot snapshot) {
+		switch(getKind(snapshot)) {
+			case GAME:
+				return "game";
+			case PLAYER:
+				return "player";
+			default:
+				return "dice";
+		}
+	}
+	
+	/**
+	 * Write a text as CSV column, quoted if needed.
+	 * 
+	 * @param out the {@link Writer}.
+	 * @param text the text.
+	 * @throws IOException in case the {@link Writer} fails.
+	 */
+	private static void writeCsvText(Writer out, String text)
+	throws IOException {
+		if((text.indexOf(',') < 0) && (text.indexOf('"') < 0) && (text.indexOf('\n') < 0)) {
+			out.write(text);
+		} else {
+			out.write('"');
+			out.write(text.replace("\"", "\"\""));
+			out.write('"');
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Assert;
+import org.junit.Assume;
+
+/**
+ * The {@code AllocationBudget} measures the bytes a code allocates per operation with the allocation
+ * counter of the current {@link Thread}, and fails a test if a budget is exceeded.
+ * 
+ * The operation is run as often for warm-up as it is measured afterwards, so the JIT compiler has
+ * settled. A budget may be overridden with the system property {@code allocation.budget.<name>}, in
+ * bytes per operation. Tests are skipped on a JVM without allocation counters.
+ * 
+ * @author Anastasios Patrikis
+ */
+public final class AllocationBudget {
+	
+	/**
+	 * {@code private} constructor, only static methods.
+	 */
+	private AllocationBudget() {
+	}
+	
+	/**
+	 * Measure the bytes allocated per operation.
+	 * 
+	 * @param operation the operation.
+	 * @param runs the number of warm-up and measured runs.
+	 * @return the allocated bytes per run.
+	 */
+	public static long measure(Runnable operation, int runs) {
+		com.sun.management.ThreadMXBean threadBean = getThreadBean();
+		Assume.assumeTrue("Thread allocation counters not supported", threadBean != null);
+		
+		for(int run = 0; run < runs; run++) {
+			operation.run();
+		}
+		long threadId = Thread.currentThread().getId();
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for(int run = 0; run < runs; run++) {
+			operation.run();
+		}
+		long after = threadBean.getThreadAllocatedBytes(threadId);
+		return (after - before) / runs;
+	}
+	
+	/**
+	 * Check that an operation stays within its budget.
+	 * 
+	 * @param name the name of the operation, used for the system property of the budget.
+	 * @param budget the default budget in bytes per operation.
+	 * @param runs the number of measured runs.
+	 * @param operation the operation.
+	 * @return the allocated bytes per run.
+	 */
+	public static long assertWithin(String name, long budget, int runs, Runnable operation) {
+		long allowed = Long.getLong("allocation.budget." + name, budget);
+		long allocated = measure(operation, runs);
+		Assert.assertTrue(name + " allocates " + allocated + " bytes per operation, the budget is " + allowed,
+				allocated <= allowed);
+		return allocated;
+	}
+	
+	/**
+	 * @return the {@link com.sun.management.ThreadMXBean} with enabled allocation counters, or
+	 * {@code null} if the JVM has none.
+	 */
+	private static com.sun.management.ThreadMXBean getThreadBean() {
+		if( ! (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+			return null;
+		}
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		if( ! threadBean.isThreadAllocatedMemorySupported()) {
+			return null;
+		}
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		return threadBean;
+	}
+}
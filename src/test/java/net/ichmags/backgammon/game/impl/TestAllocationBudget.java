@@ -0,0 +1,71 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import net.ichmags.backgammon.AllocationBudget;
+import net.ichmags.backgammon.exception.InvalidMoveException;
+import net.ichmags.backgammon.game.IMove;
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.Player;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The allocation budgets of the move generation, in bytes per operation. They are set about a quarter
+ * above the measured values, so a new iterator or boxing in a loop shows up; lower them after an
+ * optimization.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class TestAllocationBudget {
+	
+	private IPlayer player1;
+	private Portes testGame;
+	private Board board;
+	private Dices dices;
+	
+	@Before
+	public void setUp() {
+		player1 = new Player().initialize("Tester 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		IPlayer player2 = new Player().initialize("Tester 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		testGame = new Portes();
+		testGame.initialize(player1, player2, null);
+		board = ((Board)testGame.board).clone();
+		dices = (Dices)testGame.dices;
+	}
+	
+	@Test
+	public void testMoveChecker() {
+		dices.restore(6, 5);
+		AllocationBudget.assertWithin("moveChecker", 480, 1000, () -> {
+			IMove move = testGame.moveChecker(player1, board, 1, dices.getUnused(6));
+			try {
+				testGame.undoMoveCheker(player1, board, move);
+			} catch (InvalidMoveException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		AllocationBudget.assertWithin("getPlayerView", 0, 1000, () -> board.getPlayerView(player1));
+	}
+	
+	@Test
+	public void testPlayableDices() {
+		AllocationBudget.assertWithin("checkIfAnyMoveIsPossible", 7000, 1000,
+				() -> testGame.checkIfAnyMoveIsPossible(player1, dices.restore(6, 5)));
+		AllocationBudget.assertWithin("findPlayableDices", 8800, 1000,
+				() -> testGame.findPlayableDices(player1, dices.restore(6, 5)));
+	}
+	
+	@Test
+	public void testLegalPlays() {
+		AllocationBudget.assertWithin("legalPlays", 30000, 200,
+				() -> LegalPlayGenerator.generate(testGame, player1, testGame.board, dices.restore(6, 5)));
+		AllocationBudget.assertWithin("legalPlaysDouble", 128000, 50,
+				() -> LegalPlayGenerator.generate(testGame, player1, testGame.board, dices.restore(6, 6)));
+	}
+}
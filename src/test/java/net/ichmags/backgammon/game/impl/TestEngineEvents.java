@@ -0,0 +1,106 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.DiceGenerator;
+import net.ichmags.backgammon.setup.impl.Player;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The Java Flight Recorder events of the {@link EngineEvents}, read back from a recording.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class TestEngineEvents {
+	
+	@Test
+	public void testEvents() throws Exception {
+		IPlayer player1 = new Player().initialize("Tester 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		IPlayer player2 = new Player().initialize("Tester 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		Fevga testGame = createEndGame(player1, player2);
+		Fevga sessionGame = createEndGame(player1, player2);
+		
+		Assert.assertFalse("Not recording", EngineEvents.isRecording());
+		Assert.assertNull("No event", EngineEvents.searchStarted());
+		
+		Path file = Files.createTempFile("backgammon", ".jfr");
+		try(Recording recording = new Recording()) {
+			recording.enable("net.ichmags.backgammon.Game");
+			recording.enable("net.ichmags.backgammon.Turn");
+			recording.enable("net.ichmags.backgammon.Search");
+			recording.start();
+			Assert.assertTrue("Recording", EngineEvents.isRecording());
+			
+			DiceGenerator.get().load(new int[]{1, 1});
+			Assert.assertEquals("Winner", player1, testGame.play(player1));
+			DiceGenerator.get().load(new int[]{1, 1});
+			Assert.assertEquals("Session finished", GameSession.State.FINISHED, new GameSession(sessionGame).start(player1));
+			Fevga perftGame = new Fevga();
+			perftGame.initialize(player1, player2, null);
+			Perft.run(perftGame, player1, 1);
+			
+			recording.stop();
+			recording.dump(file);
+		}
+		Assert.assertFalse("Stopped", EngineEvents.isRecording());
+		
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.delete(file);
+		
+		RecordedEvent game = find(events, "net.ichmags.backgammon.Game");
+		Assert.assertEquals("Variant", testGame.getName(), game.getString("variant"));
+		Assert.assertEquals("Winner", player1.getName(), game.getString("winner"));
+		Assert.assertEquals("Points", 2, game.getInt("points"));
+		
+		RecordedEvent turn = find(events, "net.ichmags.backgammon.Turn");
+		Assert.assertEquals("Dice", 1, turn.getInt("dice1"));
+		Assert.assertEquals("Legal plays", 1, turn.getInt("legalPlays"));
+		Assert.assertTrue("Analysis time", turn.getLong("analysisTime") > 0);
+		Assert.assertEquals("Turns of the loop and the session", 2,
+				events.stream().filter(e -> e.getEventType().getName().equals("net.ichmags.backgammon.Turn")).count());
+		
+		RecordedEvent search = find(events, "net.ichmags.backgammon.Search");
+		Assert.assertEquals("LegalPlayGenerator", search.getString("search"));
+		Assert.assertTrue("Nodes", search.getLong("nodes") > 0);
+		
+		RecordedEvent perft = events.stream().filter(e -> e.getEventType().getName().equals("net.ichmags.backgammon.Search"))
+				.filter(e -> "Perft".equals(e.getString("search"))).findFirst().get();
+		Assert.assertEquals("Perft depth", 1, perft.getInt("depth"));
+		Assert.assertEquals("Perft nodes", 1 + 22, perft.getLong("nodes"));
+	}
+	
+	private Fevga createEndGame(IPlayer player1, IPlayer player2) {
+		Fevga game = new Fevga() {
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer1() {
+				return Arrays.asList(24, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25);
+			};
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer2() {
+				return Arrays.asList(19, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24);
+			}
+		};
+		game.initialize(player1, player2, null);
+		game.setAutoPlayForcedMoves(true);
+		return game;
+	}
+	
+	private RecordedEvent find(List<RecordedEvent> events, String name) {
+		return events.stream().filter(e -> e.getEventType().getName().equals(name)).findFirst()
+				.orElseThrow(() -> new AssertionError("No event " + name));
+	}
+}
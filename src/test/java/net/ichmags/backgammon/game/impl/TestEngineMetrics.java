@@ -0,0 +1,96 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.Player;
+import net.ichmags.backgammon.statistic.impl.EngineMetrics;
+import net.ichmags.backgammon.statistic.impl.LatencyHistogram;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The {@link EngineMetrics} of a {@link Game}, switched on and off at runtime and read through JMX.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class TestEngineMetrics {
+	
+	private IPlayer player1;
+	private Portes testGame;
+	private Board board;
+	private EngineMetrics metrics;
+	
+	@Before
+	public void setUp() {
+		player1 = new Player().initialize("Tester 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		IPlayer player2 = new Player().initialize("Tester 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		testGame = new Portes();
+		testGame.initialize(player1, player2, null);
+		board = ((Board)testGame.board).clone();
+		metrics = EngineMetrics.get();
+		metrics.reset();
+	}
+	
+	@After
+	public void tearDown() {
+		metrics.setEnabled(false);
+		metrics.reset();
+	}
+	
+	@Test
+	public void testToggle() {
+		Dices dices = new Dices().restore(6, 5);
+		LatencyHistogram moveChecker = metrics.getHistogram(EngineMetrics.Operation.MOVE_CHECKER);
+		
+		metrics.setEnabled(false);
+		Assert.assertEquals("Off", 0, metrics.start());
+		testGame.moveChecker(player1, board, 1, dices.getUnused(6));
+		Assert.assertEquals("Not recorded", 0, moveChecker.getCount());
+		
+		metrics.setEnabled(true);
+		testGame.moveChecker(player1, board, 1, dices.getUnused(5));
+		Assert.assertEquals("Recorded", 1, moveChecker.getCount());
+		Assert.assertTrue("Duration", moveChecker.getMax() > 0);
+		
+		testGame.findPlayableDices(player1, dices.restore(6, 5));
+		Assert.assertEquals(1, metrics.getHistogram(EngineMetrics.Operation.FIND_PLAYABLE_DICES).getCount());
+		Assert.assertTrue("Nested checks", metrics.getHistogram(EngineMetrics.Operation.MOVE_CHECKER).getCount() > 1);
+	}
+	
+	@Test
+	public void testJmx() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(EngineMetrics.OBJECT_NAME);
+		
+		server.setAttribute(name, new Attribute("Enabled", true));
+		Assert.assertTrue("On by JMX", metrics.isEnabled());
+		testGame.checkIfAnyMoveIsPossible(player1, new Dices().restore(6, 5));
+		
+		TabularData latencies = (TabularData)server.getAttribute(name, "Latencies");
+		CompositeData row = latencies.get(new Object[] {EngineMetrics.Operation.CHECK_ANY_MOVE.name()});
+		CompositeData summary = (CompositeData)row.get("value");
+		Assert.assertEquals("Count", 1L, summary.get("count"));
+		Assert.assertTrue("Max", (Long)summary.get("max") > 0);
+		
+		server.invoke(name, "reset", null, null);
+		Assert.assertEquals("Reset", 0, metrics.getHistogram(EngineMetrics.Operation.CHECK_ANY_MOVE).getCount());
+		server.setAttribute(name, new Attribute("Enabled", false));
+		Assert.assertFalse("Off by JMX", metrics.isEnabled());
+	}
+}
@@ -1,11 +1,24 @@
 package net.ichmags.backgammon.game.impl;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 
+import net.ichmags.backgammon.game.IGame;
+import net.ichmags.backgammon.interaction.impl.PlayCommand;
+import net.ichmags.backgammon.interaction.impl.RedoCommand;
+import net.ichmags.backgammon.interaction.pojo.MoveCommand;
+import net.ichmags.backgammon.interaction.pojo.UndoCommand;
 import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IBoard;
+import net.ichmags.backgammon.setup.IDice;
 import net.ichmags.backgammon.setup.IDices;
 import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.IPosition;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.Checker;
 import net.ichmags.backgammon.setup.impl.DiceGenerator;
+import net.ichmags.backgammon.setup.impl.Dices;
 import net.ichmags.backgammon.setup.impl.DicesChoice;
 import net.ichmags.backgammon.setup.impl.Player;
 
@@ -134,4 +147,269 @@ public class TestGame {
 		Assert.assertNotNull("Dice can be used", playableDices2.getUnused(2));
 		Assert.assertNull("Dice can not be used", playableDices2.getUnused(1));
 	}
+	
+	@Test
+	public void testReset() {
+		Fevga testGame = new Fevga();
+		testGame.initialize(player1, player2, null);
+		IBoard board = testGame.board;
+		IBoard initialBoard = board.clone();
+		
+		DiceGenerator.get().load(new int[]{3, 1});
+		IDices dices = testGame.dices.roll();
+		boolean check = testGame.moveChecker(player1, testGame.board, 1, dices.getUnused(3)).isSuccess();
+		Assert.assertTrue("Move is possible", check);
+		Assert.assertNotEquals("Board changed", initialBoard, testGame.board);
+		
+		testGame.reset();
+		Assert.assertSame("Board is reused", board, testGame.board);
+		Assert.assertEquals("Board is reset", initialBoard, testGame.board);
+		Assert.assertEquals("Pip count is reset", ((Board)initialBoard).getPipCount(IPlayer.ID.ONE),
+				((Board)testGame.board).getPipCount(IPlayer.ID.ONE));
+	}
+	
+	@Test
+	public void testGamePool() throws ReflectiveOperationException {
+		GamePool.get().clear();
+		IGame game = GamePool.get().acquire(Portes.class, player1, player2, null);
+		Assert.assertTrue("Portes created", game instanceof Portes);
+		
+		Assert.assertTrue("Game is pooled", GamePool.get().release(game));
+		IGame reusedGame = GamePool.get().acquire(Portes.class, player1, player2, null);
+		Assert.assertSame("Game is reused", game, reusedGame);
+		
+		IGame otherGame = GamePool.get().acquire(Portes.class, player1, player2, null);
+		Assert.assertNotSame("Pool is empty", game, otherGame);
+		GamePool.get().clear();
+	}
+	
+	@Test
+	public void testGameSession() {
+		Fevga testGame = new Fevga() {
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer1() {
+				return Arrays.asList(24, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25);
+			};
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer2() {
+				return Arrays.asList(19, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 25);
+			}
+		};
+		testGame.initialize(player1, player2, null);
+		GameSession session = new GameSession(testGame);
+		Assert.assertEquals("Not started", GameSession.State.NOT_STARTED, session.getState());
+		
+		DiceGenerator.get().load(new int[]{1, 1});
+		GameSession.State state = session.start(player1);
+		Assert.assertEquals("Waiting for a move", GameSession.State.MOVE, state);
+		Assert.assertSame("Player 1 has to move", player1, session.getCurrentPlayer());
+		Assert.assertNotNull("Dices are selected", session.getSelectedDices());
+		
+		try {
+			session.chooseDices(session.getSelectedDices());
+			Assert.fail("Dices cannot be chosen when waiting for a move");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		
+		state = session.giveUp();
+		Assert.assertEquals("Game is over", GameSession.State.FINISHED, state);
+		Assert.assertSame("Player 2 wins", player2, session.getWinner());
+		Assert.assertEquals("Player 2 victory", 1, player2.getStatistics().getGameVictories());
+	}
+	
+	@Test
+	public void testPooledGameForgetsMoves() throws ReflectiveOperationException {
+		GamePool.get().clear();
+		Fevga testGame = (Fevga)GamePool.get().acquire(Fevga.class, player1, player2, null);
+		GameSnapshot start = testGame.snapshot(player1);
+		GameSession session = new GameSession(testGame);
+		DiceGenerator.get().load(new int[]{5, 3});
+		session.start(player1);
+		session.handle(new MoveCommand(1, 5));
+		session.giveUp();
+		Assert.assertTrue("Game is pooled", GamePool.get().release(testGame));
+		
+		Game restored = start.restore(player1, player2, null);
+		Assert.assertSame("Pooled game", testGame, restored);
+		Assert.assertFalse("No moves of the earlier game", restored.hasTransientState());
+		
+		((Dices)restored.dices).restore(5, 3);
+		GameSnapshot beforeUndo = restored.snapshot(player1);
+		session = new GameSession(restored, GameSession.State.MOVE, player1, null);
+		Assert.assertEquals("Undo ignored", GameSession.State.MOVE, session.handle(new UndoCommand()));
+		Assert.assertEquals("Board unchanged", beforeUndo, restored.snapshot(player1));
+		Assert.assertFalse("Dices unchanged", restored.dices.allUsed());
+		GamePool.get().clear();
+	}
+	
+	@Test
+	public void testUndoRedo() {
+		Fevga testGame = new Fevga();
+		testGame.initialize(player1, player2, null);
+		Board board = (Board)testGame.board;
+		GameSession session = new GameSession(testGame);
+		DiceGenerator.get().load(new int[]{5, 5, 3, 3});
+		session.start(player1);
+		
+		int pipCount = board.getPipCount(IPlayer.ID.ONE);
+		session.handle(new MoveCommand(1, 5));
+		session.handle(new MoveCommand(6, 5));
+		session.handle(new MoveCommand(11, 5));
+		Assert.assertEquals("Three moves", pipCount - 15, board.getPipCount(IPlayer.ID.ONE));
+		
+		session.handle(new UndoCommand());
+		session.handle(new UndoCommand());
+		session.handle(new UndoCommand());
+		session.handle(new UndoCommand()); // nothing left to undo
+		Assert.assertEquals("All moves undone", pipCount, board.getPipCount(IPlayer.ID.ONE));
+		Assert.assertEquals("Checkers on start", 15, board.getNrOfCheckers(IPlayer.ID.ONE, 1));
+		
+		session.handle(new RedoCommand());
+		session.handle(new RedoCommand());
+		Assert.assertEquals("Two moves redone", pipCount - 10, board.getPipCount(IPlayer.ID.ONE));
+		Assert.assertEquals("Checker on 11", 1, board.getNrOfCheckers(IPlayer.ID.ONE, 11));
+		
+		// a new move drops the undone ones
+		session.handle(new UndoCommand());
+		session.handle(new MoveCommand(6, 5));
+		session.handle(new RedoCommand());
+		Assert.assertEquals("No redo after a new move", pipCount - 10, board.getPipCount(IPlayer.ID.ONE));
+		
+		session.handle(new MoveCommand(11, 5));
+		session.handle(new MoveCommand(16, 5));
+		Assert.assertEquals("All dices played", pipCount - 20, board.getPipCount(IPlayer.ID.ONE));
+		session.handle(new UndoCommand()); // the history ends with the turn
+		Assert.assertEquals("No undo in the next turn", pipCount - 20, board.getPipCount(IPlayer.ID.ONE));
+	}
+	
+	@Test
+	public void testLegalPlays() {
+		Portes testGame = new Portes();
+		testGame.initialize(player1, player2, null);
+		Board board = (Board)testGame.board;
+		int pipCount = board.getPipCount(IPlayer.ID.ONE);
+		
+		DiceGenerator.get().load(new int[]{6, 6});
+		IDices dices = testGame.dices.roll();
+		List<LegalPlay> legalPlays = LegalPlayGenerator.generate(testGame, player1, board, dices);
+		Assert.assertTrue("Several plays", legalPlays.size() > 1);
+		legalPlays.forEach(play -> Assert.assertEquals("All dices played: " + play, 4, play.getNrOfMoves()));
+		Assert.assertEquals("Distinct plays", legalPlays.size(), new HashSet<>(legalPlays).size());
+		Assert.assertEquals("Board unchanged", pipCount, board.getPipCount(IPlayer.ID.ONE));
+		Assert.assertFalse("Dices unchanged", dices.allUsed());
+		Assert.assertNull("Not forced", LegalPlayGenerator.findForcedPlay(testGame, player1, board, dices));
+		
+		// in Fevga the first checker has to pass the opponent's start first
+		Fevga fevga = new Fevga();
+		fevga.initialize(player1, player2, null);
+		DiceGenerator.get().load(new int[]{3, 1});
+		Assert.assertEquals("Forced play", "1/4 4/5", String.valueOf(LegalPlayGenerator.findForcedPlay(fevga, player1, fevga.board, fevga.dices.roll())));
+	}
+	
+	@Test
+	public void testForcedMoves() {
+		Fevga testGame = new Fevga() {
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer1() {
+				return Arrays.asList(24, 24, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25);
+			};
+		};
+		testGame.initialize(player1, player2, null);
+		GameSession session = new GameSession(testGame);
+		DiceGenerator.get().load(new int[]{1, 2});
+		Assert.assertEquals("Waiting for a move", GameSession.State.MOVE, session.start(player1));
+		
+		testGame.initialize(player1, player2, null);
+		testGame.setAutoPlayForcedMoves(true);
+		session = new GameSession(testGame);
+		DiceGenerator.get().load(new int[]{1, 2});
+		Assert.assertEquals("Forced moves played", GameSession.State.FINISHED, session.start(player1));
+		Assert.assertSame("Player 1 wins", player1, session.getWinner());
+	}
+	
+	@Test
+	public void testPlayCommand() {
+		Fevga testGame = new Fevga();
+		testGame.initialize(player1, player2, null);
+		Board board = (Board)testGame.board;
+		GameSession session = new GameSession(testGame);
+		DiceGenerator.get().load(new int[]{3, 1, 3, 3});
+		session.start(player1);
+		int pipCount = board.getPipCount(IPlayer.ID.ONE);
+		
+		session.handle(new PlayCommand(1, 3));
+		Assert.assertEquals("Too few moves", pipCount, board.getPipCount(IPlayer.ID.ONE));
+		session.handle(new PlayCommand(1, 3, 1, 1));
+		Assert.assertEquals("Second checker must wait", pipCount, board.getPipCount(IPlayer.ID.ONE));
+		Assert.assertSame("Player 1 still to move", player1, session.getCurrentPlayer());
+		
+		// another order than "1/4 4/5" gives the same board
+		Assert.assertEquals("Next turn", GameSession.State.MOVE, session.handle(new PlayCommand(1, 1, 2, 3)));
+		Assert.assertEquals("Both dices played", pipCount - 4, board.getPipCount(IPlayer.ID.ONE));
+		Assert.assertEquals("Checker on 5", 1, board.getNrOfCheckers(IPlayer.ID.ONE, 5));
+		Assert.assertSame("Player 2 to move", player2, session.getCurrentPlayer());
+	}
+	
+	@Test
+	public void testPlayCommandRange() {
+		int[][] invalidPlays = {{1}, {26, 1}, {-1, 1}, {1, 0}, {1, 7}, {1, 1, 1, 1, 1, 1, 1, 1, 1, 1}};
+		for(int[] invalidPlay : invalidPlays) {
+			try {
+				new PlayCommand(invalidPlay);
+				Assert.fail("Invalid play accepted: " + Arrays.toString(invalidPlay));
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+		Assert.assertEquals("Enter from the bar", "0/6", new PlayCommand(0, 6).getPlay().toString());
+		Assert.assertEquals("Bear off", "22/off 20/off 19/24", new PlayCommand(22, 6, 20, 5, 19, 5).getPlay().toString());
+	}
+	
+	@Test
+	public void testSnapshot() throws ReflectiveOperationException {
+		Plakoto testGame = new Plakoto();
+		testGame.initialize(player1, player2, null);
+		DiceGenerator.get().load(new int[]{5, 5});
+		testGame.dices.roll().get(0).setStatus(IDice.Status.USED);
+		
+		// a mixed stack, which needs the explicit owner mask
+		Board board = (Board)testGame.board;
+		board.getAbsolutePosition(10).setTopChecker(Checker.get(player2));
+		board.getAbsolutePosition(10).setTopChecker(Checker.get(player1));
+		board.getAbsolutePosition(10).setTopChecker(Checker.get(player2));
+		
+		GameSnapshot snapshot = testGame.snapshot(player2);
+		Assert.assertTrue("Compact snapshot", snapshot.size() < 48);
+		
+		GameSnapshot readSnapshot = GameSnapshot.fromBytes(snapshot.toBytes());
+		Assert.assertEquals("Snapshot read", snapshot, readSnapshot);
+		Assert.assertEquals("Variant", Plakoto.class, readSnapshot.getVariant());
+		Assert.assertEquals("Player to move", IPlayer.ID.TWO, readSnapshot.getPlayerToMove());
+		
+		GamePool.get().clear();
+		Game restoredGame = readSnapshot.restore(player1, player2, null);
+		Assert.assertNotSame("New game", testGame, restoredGame);
+		Assert.assertEquals("Same state", snapshot, restoredGame.snapshot(player2));
+		Assert.assertEquals("Dices", testGame.dices, restoredGame.dices);
+		Assert.assertEquals("Pip count", board.getPipCount(IPlayer.ID.TWO), ((Board)restoredGame.board).getPipCount(IPlayer.ID.TWO));
+		
+		IPosition restoredPosition = ((Board)restoredGame.board).getAbsolutePosition(10);
+		Assert.assertEquals("Stack size", 3, restoredPosition.getNrOfCheckers());
+		Assert.assertEquals("Middle checker", IPlayer.ID.ONE, restoredPosition.readChecker(1).getOwner());
+		Assert.assertEquals("Top checker", IPlayer.ID.TWO, restoredPosition.readTopChecker().getOwner());
+		
+		byte[] bytes = snapshot.toBytes();
+		for(int length = 0; length <= bytes.length + 1; length++) {
+			if(length == bytes.length) {
+				continue;
+			}
+			try {
+				GameSnapshot.fromBytes(Arrays.copyOf(bytes, length));
+				Assert.fail("Snapshot of " + length + " bytes accepted");
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
 }
@@ -0,0 +1,112 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import net.ichmags.backgammon.interaction.pojo.MoveCommand;
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.DiceGenerator;
+import net.ichmags.backgammon.setup.impl.Player;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Anastasios Patrikis
+ */
+public class TestGameHibernator {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private IPlayer player1;
+	private IPlayer player2;
+	
+	@Before
+	public void setUp() {
+		player1 = new Player().initialize("Tester 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		player2 = new Player().initialize("Tester 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		GamePool.get().clear();
+	}
+	
+	private GameSession startSession() {
+		GameSession session = new GameSession((Game)new Fevga().initialize(player1, player2, null));
+		DiceGenerator.get().load(new int[]{3, 1});
+		session.start(player1);
+		return session;
+	}
+	
+	@Test
+	public void testLeastRecentlyUsed() throws IOException {
+		GameHibernator hibernator = new GameHibernator(folder.getRoot().toPath(), 2, 1, TimeUnit.HOURS);
+		
+		GameSession session1 = startSession();
+		GameSnapshot snapshot1 = session1.snapshot();
+		long id1 = hibernator.add(session1);
+		long id2 = hibernator.add(startSession());
+		long id3 = hibernator.add(startSession());
+		
+		Assert.assertEquals("All games", 3, hibernator.getNrOfGames());
+		Assert.assertEquals("Resident games", 2, hibernator.getNrOfResidentGames());
+		Assert.assertFalse("Oldest game hibernated", hibernator.isResident(id1));
+		Assert.assertTrue("Game 3 resident", hibernator.isResident(id3));
+		
+		hibernator.apply(id1, restored -> {
+			Assert.assertNotSame("Restored session", session1, restored);
+			Assert.assertNotSame("Hibernated game not reused", session1.getGame(), restored.getGame());
+			Assert.assertEquals("Restored state", GameSession.State.MOVE, restored.getState());
+			Assert.assertSame("Restored player", player1, restored.getCurrentPlayer());
+			Assert.assertEquals("Restored snapshot", snapshot1, restored.snapshot());
+			Assert.assertSame("Restored statistics", session1.getGame().getStatistics(), restored.getGame().getStatistics());
+			return null;
+		});
+		Assert.assertFalse("Game 2 hibernated", hibernator.isResident(id2));
+		
+		// the next event restores transparently
+		int pipCount = hibernator.apply(id2, session -> ((Board)session.getGame().board).getPipCount(IPlayer.ID.ONE));
+		hibernator.handle(id2, new MoveCommand(1, 3));
+		Assert.assertEquals("Move played", pipCount - 3,
+				(int)hibernator.apply(id2, session -> ((Board)session.getGame().board).getPipCount(IPlayer.ID.ONE)));
+		
+		hibernator.remove(id3);
+		Assert.assertEquals("Game removed", 2, hibernator.getNrOfGames());
+	}
+	
+	@Test
+	public void testIdle() throws IOException {
+		GameHibernator hibernator = new GameHibernator(folder.getRoot().toPath(), 10, 0, TimeUnit.MILLISECONDS);
+		long id = hibernator.add(startSession());
+		hibernator.add(startSession());
+		
+		Assert.assertEquals("Idle games hibernated", 2, hibernator.hibernateIdle());
+		Assert.assertEquals("No resident games", 0, hibernator.getNrOfResidentGames());
+		Assert.assertEquals("Hibernated files", 2, folder.getRoot().list().length);
+		
+		Assert.assertEquals("Restored state", GameSession.State.MOVE, hibernator.apply(id, session -> session.getState()));
+		Assert.assertEquals("File removed", 1, folder.getRoot().list().length);
+	}
+	
+	@Test
+	public void testTransientState() throws IOException {
+		GameHibernator hibernator = new GameHibernator(folder.getRoot().toPath(), 10, 0, TimeUnit.MILLISECONDS);
+		long id = hibernator.add(startSession());
+		
+		// the move could be undone, the history is not part of the snapshot
+		hibernator.handle(id, new MoveCommand(1, 3));
+		Assert.assertEquals("Undoable move stays", 0, hibernator.hibernateIdle());
+		Assert.assertTrue("Resident", hibernator.isResident(id));
+		
+		// the turn is over, the next player has not moved yet
+		hibernator.handle(id, new MoveCommand(4, 1));
+		Assert.assertEquals("Hibernated after the turn", 1, hibernator.hibernateIdle());
+		Assert.assertSame("Next player", player2, hibernator.apply(id, session -> session.getCurrentPlayer()));
+	}
+}
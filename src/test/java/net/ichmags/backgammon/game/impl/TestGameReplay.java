@@ -0,0 +1,98 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import net.ichmags.backgammon.exception.InvalidMoveException;
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.Player;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Anastasios Patrikis
+ */
+public class TestGameReplay {
+	
+	private IPlayer player1;
+	private IPlayer player2;
+	private GameReplay replay;
+	
+	@Before
+	public void setUp() {
+		player1 = new Player().initialize("Tester 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		player2 = new Player().initialize("Tester 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		replay = new GameReplay(player1, player2);
+	}
+	
+	private GameRecord createRecord() {
+		return new GameRecord(Fevga.class, IPlayer.ID.ONE)
+				.addTurn(IPlayer.ID.ONE, 3, 1).addMove(1, 3).addMove(4, 1)
+				.addTurn(IPlayer.ID.TWO, 6, 5).addMove(1, 6).addMove(7, 5)
+				.addTurn(IPlayer.ID.ONE, 6, 6).addMove(5, 6).addMove(11, 6).addMove(1, 6).addMove(1, 6);
+	}
+	
+	@Test
+	public void testReplay() throws InvalidMoveException {
+		GameRecord record = createRecord();
+		Assert.assertEquals("Turns", 3, record.getNrOfTurns());
+		Assert.assertEquals("Record read", record.toBytes().length, GameRecord.fromBytes(record.toBytes()).toBytes().length);
+		
+		Board board = (Board)replay.replay(record).board;
+		Assert.assertEquals("Pip count player 1", 15 * 24 - 4 - 24, board.getPipCount(IPlayer.ID.ONE));
+		Assert.assertEquals("Pip count player 2", 15 * 24 - 11, board.getPipCount(IPlayer.ID.TWO));
+		Assert.assertEquals("Checkers on 7", 2, board.getNrOfCheckers(IPlayer.ID.ONE, 7));
+		Assert.assertNull("No winner", replay.getWinner());
+		
+		// any turn, on the reused game
+		board = (Board)replay.replay(GameRecord.fromBytes(record.toBytes()), 1).board;
+		Assert.assertEquals("Pip count after turn 1", 15 * 24 - 4, board.getPipCount(IPlayer.ID.ONE));
+		Assert.assertEquals("Player 2 not moved", 15 * 24, board.getPipCount(IPlayer.ID.TWO));
+	}
+	
+	@Test
+	public void testSeek() throws InvalidMoveException {
+		GameRecord record = createRecord();
+		Dices boardOnly = new Dices(); // the dices before turn 0 are undefined
+		GameSnapshot[] states = new GameSnapshot[record.getNrOfTurns() + 1];
+		for(int turn = 0; turn <= record.getNrOfTurns(); turn++) {
+			Game game = replay.replay(record, turn);
+			states[turn] = GameSnapshot.of(game, null, boardOnly);
+		}
+		
+		IndexedGameRecord indexed = IndexedGameRecord.fromBytes(IndexedGameRecord.index(record, 2, replay).toBytes());
+		Assert.assertEquals("Interval", 2, indexed.getInterval());
+		Assert.assertEquals("Keyframe", IPlayer.ID.ONE, indexed.getKeyframe(2).getPlayerToMove());
+		for(int turn = record.getNrOfTurns(); turn >= 0; turn--) {
+			Assert.assertEquals("State after turn " + turn, states[turn], GameSnapshot.of(replay.seek(indexed, turn), null, boardOnly));
+		}
+	}
+	
+	@Test
+	public void testInvalidRecord() throws InvalidMoveException {
+		// the first checker must pass position 12 before another one moves
+		GameRecord invalidMove = new GameRecord(Fevga.class, IPlayer.ID.ONE)
+				.addTurn(IPlayer.ID.ONE, 3, 1).addMove(1, 3).addMove(1, 1);
+		try {
+			replay.replay(invalidMove);
+			Assert.fail("Invalid move replayed");
+		} catch (InvalidMoveException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Turn 0, move 1"));
+		}
+		
+		GameRecord missingMove = new GameRecord(Fevga.class, IPlayer.ID.ONE)
+				.addTurn(IPlayer.ID.ONE, 3, 1).addMove(1, 3);
+		try {
+			replay.replay(missingMove);
+			Assert.fail("Incomplete turn replayed");
+		} catch (InvalidMoveException e) {
+			Assert.assertTrue(e.getMessage(), e.getMessage().contains("all playable dices"));
+		}
+		replay.setStrict(false).replay(missingMove);
+	}
+}
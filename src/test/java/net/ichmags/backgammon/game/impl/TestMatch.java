@@ -0,0 +1,90 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import net.ichmags.backgammon.game.IGame;
+import net.ichmags.backgammon.interaction.ICommandProvider;
+import net.ichmags.backgammon.notification.IGameStatusChangedNotificationConsumer;
+import net.ichmags.backgammon.notification.INotification;
+import net.ichmags.backgammon.notification.impl.StatusEmitter;
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.DiceGenerator;
+import net.ichmags.backgammon.setup.impl.Player;
+import net.ichmags.backgammon.statistic.impl.GameStatisticsSnapshot;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The statistics of a {@link Match}, read while it is played and after it ended.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class TestMatch {
+	
+	/**
+	 * A {@link Fevga} {@link IGame} player 1 wins with a roll of 1-1, playing the forced moves.
+	 */
+	public static class EndGame extends Fevga {
+		
+		@Override
+		public IGame initialize(IPlayer player1, IPlayer player2, ICommandProvider commandProvider) {
+			IGame game = super.initialize(player1, player2, commandProvider);
+			setAutoPlayForcedMoves(true);
+			return game;
+		}
+		
+		@Override
+		protected List<Integer> getCheckerPositionsPlayer1() {
+			return Arrays.asList(24, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25);
+		}
+		
+		@Override
+		protected List<Integer> getCheckerPositionsPlayer2() {
+			return Arrays.asList(19, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24);
+		}
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCurrentGameStatistics() {
+		IPlayer player1 = new Player().initialize("Tester 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		IPlayer player2 = new Player().initialize("Tester 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		Match match = new Match();
+		List<Integer> rotations = new ArrayList<>();
+		IGameStatusChangedNotificationConsumer consumer = new IGameStatusChangedNotificationConsumer() {
+			@Override
+			public void message(INotification notification) {
+			}
+			@Override
+			public void boardChanged(INotification notification) {
+			}
+			@Override
+			public void dicesChanged(INotification notification) {
+				List<GameStatisticsSnapshot> current = match.getCurrentGameStatistics();
+				Assert.assertEquals("Running game", 1, current.size());
+				rotations.add(current.get(0).getRotations());
+			}
+		};
+		
+		DiceGenerator.get().load(new int[]{1, 1});
+		try {
+			match.start(player1, player2, 1, Collections.singletonList((Class<IGame>)(Class<?>)EndGame.class), true, null, consumer);
+		} finally {
+			StatusEmitter.get().removeConsumer(consumer);
+		}
+		
+		Assert.assertFalse("Read while playing", rotations.isEmpty());
+		Assert.assertTrue("Counted while playing: " + rotations, rotations.contains(1));
+		Assert.assertEquals("Played game", 1, match.getGameStatistics().size());
+		Assert.assertEquals("Rotations", 1, match.getGameStatistics().get(0).getRotations());
+		Assert.assertEquals("Same numbers after the end", 1, match.getCurrentGameStatistics().get(0).getRotations());
+	}
+}
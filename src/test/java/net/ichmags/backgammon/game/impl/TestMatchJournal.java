@@ -0,0 +1,124 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import net.ichmags.backgammon.interaction.pojo.MoveCommand;
+import net.ichmags.backgammon.interaction.pojo.UndoCommand;
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.DiceGenerator;
+import net.ichmags.backgammon.setup.impl.Player;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Anastasios Patrikis
+ */
+public class TestMatchJournal {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private IPlayer player1;
+	private IPlayer player2;
+	private Path file;
+	
+	@Before
+	public void setUp() {
+		player1 = new Player().initialize("Tester 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		player2 = new Player().initialize("Tester 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		file = folder.getRoot().toPath().resolve("match.journal");
+		GamePool.get().clear();
+	}
+	
+	@Test
+	public void testRecovery() throws IOException {
+		GameSnapshot afterMove;
+		try (MatchJournal journal = MatchJournal.open(file)) {
+			Game game = ((Game)new Fevga().initialize(player1, player2, null)).setJournal(journal);
+			GameSession session = new GameSession(game);
+			DiceGenerator.get().load(new int[]{3, 1});
+			session.start(player1);
+			session.handle(new MoveCommand(1, 3));
+			session.handle(new UndoCommand());
+			session.handle(new MoveCommand(1, 3));
+			session.handle(new MoveCommand(4, 1));
+			journal.turnEnded(player2);
+			
+			// a turn without end: the roll is on the disk at once, the move with the next commit
+			DiceGenerator.get().load(new int[]{6, 5});
+			IDices turnDices = session.getGame().rollDices(player2).getOption1();
+			game.moveChecker(player2, game.board, 1, turnDices.getUnused(6));
+			journal.commit();
+			afterMove = game.snapshot(player2);
+		}
+		Files.write(file, new byte[]{MatchJournal.MOVE}, StandardOpenOption.APPEND); // torn record
+		
+		try (MatchJournal journal = MatchJournal.open(file)) {
+			Assert.assertTrue("Running game", journal.hasRunningGame());
+			Assert.assertEquals("No finished games", 0, journal.getNrOfFinishedGames());
+			Assert.assertNull("Match not finished", journal.getMatchWinner());
+			
+			Game game = (Game)new Fevga().initialize(player1, player2, null);
+			IPlayer playerToMove = journal.replayRunningGame(game);
+			Assert.assertSame("Player to move", player2, playerToMove);
+			Assert.assertEquals("Replayed state", afterMove, game.snapshot(playerToMove));
+			
+			// the turn goes on with the recorded roll
+			IDices turnDices = game.rollDices(playerToMove).getOption1();
+			Assert.assertNull("Six played", turnDices.getUnused(6));
+			Assert.assertNotNull("Five to play", turnDices.getUnused(5));
+			Assert.assertEquals("Recorded roll", 6, game.dices.get(0).getValue());
+			Assert.assertEquals("Recorded roll", 5, game.dices.get(1).getValue());
+			Assert.assertTrue("Replayed move can be undone", game.hasTransientState());
+		}
+	}
+	
+	@Test
+	public void testCorruptRecord() throws IOException {
+		try (MatchJournal journal = MatchJournal.open(file)) {
+			journal.gameStarted((Game)new Fevga().initialize(player1, player2, null), player1);
+		}
+		Files.write(file, new byte[]{MatchJournal.TURN_END, 7}, StandardOpenOption.APPEND); // unknown player
+		
+		try {
+			MatchJournal.open(file).close();
+			Assert.fail("Corrupt record accepted");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testFinishedGames() throws IOException {
+		try (MatchJournal journal = MatchJournal.open(file)) {
+			Game game = (Game)new Portes().initialize(player1, player2, null);
+			journal.gameStarted(game, player2);
+			journal.gameEnded(player2, 2);
+			journal.gameStarted(game, player2);
+			journal.gameEnded(player1, 1);
+			journal.matchEnded(player1);
+		}
+		
+		try (MatchJournal journal = MatchJournal.open(file)) {
+			Assert.assertFalse("No running game", journal.hasRunningGame());
+			Assert.assertEquals("Finished games", 2, journal.getNrOfFinishedGames());
+			Assert.assertEquals("Winner game 1", IPlayer.ID.TWO, journal.getGameWinner(0));
+			Assert.assertEquals("Points game 1", 2, journal.getGameValue(0));
+			Assert.assertEquals("Winner game 2", IPlayer.ID.ONE, journal.getGameWinner(1));
+			Assert.assertEquals("Match winner", IPlayer.ID.ONE, journal.getMatchWinner());
+		}
+		Assert.assertEquals("Compact records", 14, Files.size(file));
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.Player;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The known {@link Perft} counts from the start positions; a change means the rules changed.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class TestPerft {
+	
+	private IPlayer player1;
+	private IPlayer player2;
+	
+	@Before
+	public void setUp() {
+		player1 = new Player().initialize("Tester 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		player2 = new Player().initialize("Tester 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+	}
+	
+	private long perft(Game game, int depth) {
+		game.initialize(player1, player2, null);
+		return Perft.run(game, player1, depth).getLeaves();
+	}
+	
+	@Test
+	public void testPortes() {
+		Assert.assertEquals("Depth 0", 1, perft(new Portes(), 0));
+		Assert.assertEquals("Depth 1", 447, perft(new Portes(), 1));
+	}
+	
+	@Test
+	public void testPlakoto() {
+		Assert.assertEquals("Depth 1", 59, perft(new Plakoto(), 1));
+		Assert.assertEquals("Depth 2", 3474, perft(new Plakoto(), 2));
+	}
+	
+	@Test
+	public void testFevga() {
+		Fevga testGame = new Fevga();
+		Assert.assertEquals("Depth 1", 22, perft(testGame, 1));
+		Perft.Result result = Perft.run(testGame, player1, 2);
+		Assert.assertEquals("Depth 2", 482, result.getLeaves());
+		Assert.assertEquals("Depth 2 nodes", 1 + 22 + 482, result.getNodes());
+		Assert.assertEquals("Board not changed", 360, ((Board)testGame.board).getPipCount(IPlayer.ID.ONE));
+	}
+}
@@ -2,6 +2,8 @@ package net.ichmags.backgammon.game.impl;
 
 import java.util.Arrays;
 
+import net.ichmags.backgammon.exception.InvalidMoveException;
+import net.ichmags.backgammon.game.IMove;
 import net.ichmags.backgammon.setup.CheckerColor;
 import net.ichmags.backgammon.setup.IDices;
 import net.ichmags.backgammon.setup.IPlayer;
@@ -77,4 +79,36 @@ public class TestPortes {
 		
 		Assert.assertEquals("No marked dices (all can be played)", 0, playableDices.usedCount());
 	}
+	
+	@Test
+	public void testUndoHit() throws InvalidMoveException {
+		Game testPortes = new Portes() {
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer1() {
+				return Arrays.asList(1, 1);
+			};
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer2() {
+				return Arrays.asList(19, 23);
+			}
+		};
+		testPortes.initialize(player1, player2, null);
+		
+		DiceGenerator.get().load(new int[]{5, 5});
+		IDices dices = testPortes.dices.roll();
+		IMove hit = testPortes.moveChecker(player1, testPortes.board, 1, dices.getUnused(5));
+		Assert.assertNotNull("Checker hit", hit.getOpponentHitChecker());
+		testPortes.undoMoveCheker(player1, testPortes.board, hit);
+		Assert.assertEquals("Hit checker returned", 0, testPortes.board.createPlayerView(player2).get(0).getNrOfCheckers());
+		
+		// the hit checker re-entered before the undo
+		hit = testPortes.moveChecker(player1, testPortes.board, 1, dices.getUnused(5));
+		testPortes.board.createPlayerView(player2).get(0).removeTopChecker();
+		try {
+			testPortes.undoMoveCheker(player1, testPortes.board, hit);
+			Assert.fail("The hit checker is missing");
+		} catch (InvalidMoveException e) {
+			Assert.assertTrue("Move still played", hit.isSuccess());
+		}
+	}
 }
@@ -0,0 +1,115 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.game.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.Player;
+import net.ichmags.backgammon.statistic.impl.EngineMetrics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Anastasios Patrikis
+ */
+public class TestRulesService {
+	
+	private IPlayer player1;
+	private IPlayer player2;
+	
+	@Before
+	public void setUp() {
+		player1 = new Player().initialize("Tester 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		player2 = new Player().initialize("Tester 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+	}
+	
+	@Test
+	public void testRules() throws ReflectiveOperationException {
+		Fevga testGame = new Fevga();
+		testGame.initialize(player1, player2, null);
+		GameSnapshot start = testGame.snapshot(player1);
+		RulesService rules = RulesService.get();
+		
+		List<LegalPlay> legalPlays = rules.getLegalPlays(start, 3, 1);
+		Assert.assertEquals("Forced play", 1, legalPlays.size());
+		Assert.assertEquals("Forced play moves", LegalPlay.of(1, 3, 4, 1), legalPlays.get(0));
+		Assert.assertTrue("Other order", rules.isLegal(start, 3, 1, LegalPlay.of(1, 1, 2, 3)));
+		Assert.assertFalse("Second checker must wait", rules.isLegal(start, 3, 1, LegalPlay.of(1, 3, 1, 1)));
+		Assert.assertFalse("Too few moves", rules.isLegal(start, 3, 1, LegalPlay.of(1, 3)));
+		
+		GameSnapshot next = rules.play(start, 3, 1, LegalPlay.of(1, 1, 2, 3));
+		Assert.assertEquals("Opponent to move", IPlayer.ID.TWO, next.getPlayerToMove());
+		Assert.assertEquals("Position not changed", start, testGame.snapshot(player1));
+		Board board = (Board)next.restore(player1, player2, null).board;
+		Assert.assertEquals("Checker on 5", 1, board.getNrOfCheckers(IPlayer.ID.ONE, 5));
+		
+		try {
+			rules.play(start, 3, 1, LegalPlay.of(1, 3));
+			Assert.fail("Illegal play accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testNotInstrumented() {
+		Portes testGame = new Portes();
+		testGame.initialize(player1, player2, null);
+		GameSnapshot start = testGame.snapshot(player1);
+		EngineMetrics metrics = EngineMetrics.get();
+		metrics.reset();
+		metrics.setEnabled(true);
+		try {
+			List<LegalPlay> legalPlays = RulesService.get().getLegalPlays(start, 6, 5);
+			Assert.assertFalse("Legal plays", legalPlays.isEmpty());
+			Assert.assertEquals("No move checks measured", 0, metrics.getHistogram(EngineMetrics.Operation.MOVE_CHECKER).getCount());
+			
+			RulesService.get().clear();
+			Assert.assertEquals("Same plays after clear", legalPlays, RulesService.get().getLegalPlays(start, 6, 5));
+			Assert.assertEquals("Still not measured", 0, metrics.getHistogram(EngineMetrics.Operation.MOVE_CHECKER).getCount());
+			
+			testGame.moveChecker(player1, ((Board)testGame.board).clone(), 1, new Dices().restore(6, 5).getUnused(6));
+			Assert.assertEquals("Game measured", 1, metrics.getHistogram(EngineMetrics.Operation.MOVE_CHECKER).getCount());
+		} finally {
+			metrics.setEnabled(false);
+			metrics.reset();
+		}
+	}
+	
+	@Test
+	public void testConcurrentCalls() throws InterruptedException, ExecutionException {
+		Portes testGame = new Portes();
+		testGame.initialize(player1, player2, null);
+		GameSnapshot start = testGame.snapshot(player1);
+		List<LegalPlay> expected = RulesService.get().getLegalPlays(start, 6, 6);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<LegalPlay>>> results = new ArrayList<>();
+			for(int call = 0; call < 32; call++) {
+				int dice = 1 + (call % 6);
+				results.add(executor.submit(() -> {
+					RulesService.get().getLegalPlays(start, dice, 7 - dice);
+					return RulesService.get().getLegalPlays(start, 6, 6);
+				}));
+			}
+			for(Future<List<LegalPlay>> result : results) {
+				Assert.assertEquals("Same legal plays", expected, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.interaction.impl;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.ichmags.backgammon.exception.ExitException;
+import net.ichmags.backgammon.game.ExitLevel;
+import net.ichmags.backgammon.game.impl.Fevga;
+import net.ichmags.backgammon.interaction.ICommand;
+import net.ichmags.backgammon.interaction.pojo.MoveCommand;
+import net.ichmags.backgammon.interaction.pojo.UndoCommand;
+import net.ichmags.backgammon.setup.CheckerColor;
+import net.ichmags.backgammon.setup.IDice;
+import net.ichmags.backgammon.setup.IDices;
+import net.ichmags.backgammon.setup.IPlayer;
+import net.ichmags.backgammon.setup.impl.Board;
+import net.ichmags.backgammon.setup.impl.DiceGenerator;
+import net.ichmags.backgammon.setup.impl.Dices;
+import net.ichmags.backgammon.setup.impl.DicesChoice;
+import net.ichmags.backgammon.setup.impl.Player;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Anastasios Patrikis
+ */
+public class TestRemoteCommandProvider {
+	
+	private IPlayer player1;
+	private IPlayer player2;
+	private ServerSocketChannel server;
+	private SocketChannel remote;
+	private RemoteCommandProvider host;
+	private int[] received = new int[RemoteProtocol.NR_OF_POSITIONS];
+	private int receivedPositions;
+	
+	@Before
+	public void setUp() throws IOException {
+		player1 = new Player().initialize("Tester 1", IPlayer.ID.ONE, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.WHITE);
+		player2 = new Player().initialize("Tester 2", IPlayer.ID.TWO, IPlayer.Type.LOCAL, Player.Level.AVERAGE, CheckerColor.BLACK);
+		
+		// loopback stand-in for the remote process
+		server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		remote = SocketChannel.open(server.getLocalAddress());
+		host = new RemoteCommandProvider(server.accept()).setTimeout(5000L);
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		host.close();
+		remote.close();
+		server.close();
+	}
+	
+	@Test
+	public void testPipelinedCommands() throws IOException, ExitException {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+		RemoteProtocol.writeMove(buffer, 24, 1);
+		RemoteProtocol.writeUndo(buffer);
+		RemoteProtocol.writeMove(buffer, 13, 6);
+		RemoteProtocol.writeExit(buffer, ExitLevel.GAME);
+		buffer.flip();
+		remote.write(buffer);
+		
+		ICommand command = host.getCommand();
+		Assert.assertTrue("Move command", command instanceof MoveCommand);
+		Assert.assertEquals("Move from", 24, ((MoveCommand)command).getFrom());
+		Assert.assertEquals("Move distance", 1, ((MoveCommand)command).getDistance());
+		Assert.assertTrue("Undo command", host.getCommand() instanceof UndoCommand);
+		Assert.assertEquals("Second move from", 13, ((MoveCommand)host.getCommand()).getFrom());
+		
+		try {
+			host.getCommand();
+			Assert.fail("Exit expected");
+		} catch (ExitException e) {
+			Assert.assertEquals("Exit level", ExitLevel.GAME, e.getExitLevel());
+		}
+	}
+	
+	@Test
+	public void testPlayFrame() throws IOException, ExitException {
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+		buffer.put(RemoteProtocol.PLAY).put((byte)3).put((byte)1).put((byte)6).put((byte)7); // odd length
+		RemoteProtocol.writePlay(buffer, 1, 6, 26, 6); // no position
+		RemoteProtocol.writePlay(buffer, 1, 6, 1, 0); // no dice value
+		RemoteProtocol.writePlay(buffer, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1); // too many moves
+		RemoteProtocol.writePlay(buffer, 1, 6, 1, 6, 7, 6, 7, 6);
+		buffer.flip();
+		remote.write(buffer);
+		
+		ICommand command = host.getCommand();
+		Assert.assertTrue("Play command", command instanceof PlayCommand);
+		PlayCommand play = (PlayCommand)command;
+		Assert.assertEquals("Number of moves", 4, play.getNrOfMoves());
+		Assert.assertEquals("Third move from", 7, play.getFrom(2));
+		Assert.assertEquals("Third move distance", 6, play.getDistance(2));
+	}
+	
+	/**
+	 * Play a {@link Fevga} game with a remote {@link IPlayer}: the invalid frames are dropped, the move
+	 * after them wins the game.
+	 */
+	@Test
+	public void testRemoteGame() throws IOException, ExitException {
+		Fevga game = new Fevga() {
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer1() {
+				return Arrays.asList(24, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25, 25);
+			};
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer2() {
+				return Arrays.asList(19, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 25);
+			}
+		};
+		game.initialize(player1, player2, null);
+		game.setRemoteCommandProvider(IPlayer.ID.ONE, host);
+		DiceGenerator.get().load(new int[]{1, 1});
+		
+		ByteBuffer buffer = ByteBuffer.allocate(64);
+		buffer.put(RemoteProtocol.MOVE).put((byte)1).put((byte)24); // too short
+		RemoteProtocol.writeMove(buffer, 30, 1); // no position
+		RemoteProtocol.writeMove(buffer, 24, 7); // no dice value
+		buffer.put(RemoteProtocol.EXIT).put((byte)1).put((byte)ExitLevel.values().length); // no exit level
+		buffer.put(RemoteProtocol.CHOICE).put((byte)1).put((byte)3); // no option
+		buffer.put(RemoteProtocol.UNDO).put((byte)1).put((byte)0); // unexpected payload
+		buffer.put((byte)0x7F).put((byte)0); // unknown type
+		RemoteProtocol.writeMove(buffer, 24, 1);
+		buffer.flip();
+		remote.write(buffer);
+		
+		Assert.assertSame("Remote player wins", player1, game.play(player1));
+	}
+	
+	/**
+	 * A connection closed while choosing the {@link Dices} does not fail at once, but ends the game with
+	 * the next request.
+	 */
+	@Test
+	public void testClosedWhileChoosing() throws IOException, ExitException {
+		DiceGenerator.get().load(new int[]{1, 2, 2, 1});
+		IDices first = new Dices().roll();
+		IDices second = new Dices().roll();
+		first.get(0).setStatus(IDice.Status.USED);
+		second.get(0).setStatus(IDice.Status.USED);
+		DicesChoice dicesChoice = new DicesChoice();
+		dicesChoice.addOption(first);
+		dicesChoice.addOption(second);
+		remote.close();
+		
+		Assert.assertSame("First option", first, host.chooseDices(dicesChoice));
+		try {
+			host.checkConnection();
+			Assert.fail("Exit expected");
+		} catch (ExitException e) {
+			Assert.assertEquals("Exit level", ExitLevel.GAME, e.getExitLevel());
+		}
+		try {
+			host.getCommand();
+			Assert.fail("Exit expected");
+		} catch (ExitException e) {
+			Assert.assertEquals("Exit level", ExitLevel.GAME, e.getExitLevel());
+		}
+	}
+	
+	@Test
+	public void testBoardDelta() throws IOException, ExitException {
+		class FevgaLocal extends Fevga {
+			public Board getBoard() {
+				return (Board)this.board;
+			}
+		};
+		FevgaLocal game = new FevgaLocal();
+		game.initialize(player1, player2, null);
+		Board board = game.getBoard();
+		DiceGenerator.get().load(new int[]{3, 1, 6, 5});
+		
+		// first turn: the full board
+		host.startTurn(player1, board, new Dices().roll());
+		List<Byte> frameTypes = exchange();
+		Assert.assertEquals("Board and dices", Arrays.asList(RemoteProtocol.BOARD, RemoteProtocol.DICES), frameTypes);
+		Assert.assertEquals("All positions sent", RemoteProtocol.NR_OF_POSITIONS, receivedPositions);
+		
+		// second turn: only the two changed positions
+		game.moveChecker(player1, board, 1, new Dices().roll().get(0));
+		host.startTurn(player2, board, new Dices().roll());
+		frameTypes = exchange();
+		Assert.assertEquals("Board and dices", Arrays.asList(RemoteProtocol.BOARD, RemoteProtocol.DICES), frameTypes);
+		Assert.assertEquals("Changed positions sent", 2, receivedPositions);
+		for(int pos = 0; pos < RemoteProtocol.NR_OF_POSITIONS; pos++) {
+			Assert.assertEquals("Position " + pos, RemoteProtocol.encodePosition(board, pos), received[pos]);
+		}
+		
+		// third turn: no board change
+		host.startTurn(player1, board, new Dices().roll());
+		Assert.assertEquals("Only dices", Arrays.asList(RemoteProtocol.DICES), exchange());
+	}
+	
+	/**
+	 * Let the host flush its frames by requesting a command, and read them on the remote side.
+	 */
+	private List<Byte> exchange() throws IOException, ExitException {
+		ByteBuffer buffer = ByteBuffer.allocate(8);
+		RemoteProtocol.writeUndo(buffer);
+		buffer.flip();
+		remote.write(buffer);
+		host.getCommand();
+		
+		List<Byte> frameTypes = new ArrayList<>();
+		receivedPositions = 0;
+		ByteBuffer in = ByteBuffer.allocate(1024);
+		do {
+			remote.read(in);
+			in.flip();
+			RemoteProtocol.readFrames(in, (type, payload) -> {
+				frameTypes.add(type);
+				if(type == RemoteProtocol.BOARD) {
+					receivedPositions = payload.remaining() / 2;
+					RemoteProtocol.readBoardDelta(payload, received);
+				}
+			});
+			in.compact();
+		} while(!frameTypes.contains(RemoteProtocol.DICES));
+		return frameTypes;
+	}
+}
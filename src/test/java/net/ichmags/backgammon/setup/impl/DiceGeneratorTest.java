@@ -38,4 +38,26 @@ public class DiceGeneratorTest {
 		int value = DiceGenerator.get().roll();
 		Assert.assertEquals("Ignored invalid values", 5, value);
 	}
+	
+	@Test
+	public void testOwnPredefinedValues() {
+		DiceGenerator game1 = new DiceGenerator();
+		DiceGenerator game2 = new DiceGenerator();
+		game1.load(new int[]{6, 6});
+		game2.setSeed(42L);
+		
+		DiceGenerator reference = new DiceGenerator();
+		reference.setSeed(42L);
+		Assert.assertEquals("Other game rolls its own values", reference.roll(), new Dices(game2).roll().get(0).getValue());
+		Assert.assertEquals("Loaded values stay in the game", 6, game1.roll());
+		
+		DiceGenerator.get().load(new int[]{3});
+		Assert.assertEquals("Own values first", 6, game1.roll());
+		Assert.assertEquals("Then the shared ones", 3, game1.roll());
+		
+		game1.load(new int[]{2});
+		game1.clear();
+		DiceGenerator.get().load(new int[]{4});
+		Assert.assertEquals("Cleared values are not rolled", 4, game1.roll());
+	}
 }
@@ -106,4 +106,155 @@ public class TestBoard {
 		Assert.assertEquals("Original has checker on position 1", playerPositions.get(1).getNrOfCheckers(), 1);
 		Assert.assertEquals("Original has no checker on position 2", playerPositions.get(2).getNrOfCheckers(), 0);
 	}
+	
+	/**
+	 * Test the incrementally tracked figures.
+	 */
+	@Test
+	public void testTrackedFigures() {
+		class FevgaLocal extends Fevga{
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer1() {
+				return Arrays.asList(1, 1, 14, 20);
+			};
+			
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer2() {
+				return Arrays.asList(1, 25);
+			}
+			
+			public Board getBoard() {
+				return (Board)this.board;
+			}
+		};
+		FevgaLocal testFevga = new FevgaLocal();
+		testFevga.initialize(player1, player2, null);
+		
+		Board board = testFevga.getBoard();
+		Assert.assertEquals("Pip count player 1", 24 + 24 + 11 + 5, board.getPipCount(IPlayer.ID.ONE));
+		Assert.assertEquals("Pip count player 2", 24, board.getPipCount(IPlayer.ID.TWO));
+		Assert.assertEquals("Outside home player 1", 3, board.getNrOfCheckersOutsideHome(IPlayer.ID.ONE));
+		Assert.assertEquals("Out player 2", 1, board.getNrOfOutCheckers(IPlayer.ID.TWO));
+		Assert.assertEquals("Rearmost player 1", 1, board.getRearmostCheckerPosition(IPlayer.ID.ONE));
+		Assert.assertEquals("Leading player 1", 20, board.getLeadingCheckerPosition(IPlayer.ID.ONE));
+		
+		DiceGenerator.get().load(new int[]{6, 5});
+		IDices dices = new Dices().roll();
+		
+		Board testBoard = board.clone();
+		boolean check = testFevga.moveChecker(player1, testBoard, 14, dices.getUnused(6)).isSuccess();
+		Assert.assertTrue("Move is possible", check);
+		Assert.assertEquals("Clone pip count after move", 24 + 24 + 5 + 5, testBoard.getPipCount(IPlayer.ID.ONE));
+		Assert.assertEquals("Clone outside home after move", 2, testBoard.getNrOfCheckersOutsideHome(IPlayer.ID.ONE));
+		Assert.assertEquals("Original pip count unchanged", 24 + 24 + 11 + 5, board.getPipCount(IPlayer.ID.ONE));
+		
+		check = testFevga.moveChecker(player1, testBoard, 20, dices.getUnused(5)).isSuccess();
+		Assert.assertFalse("Take out is not possible: checkers outside home", check);
+		Assert.assertEquals("Leading checker after move", 20, testBoard.getLeadingCheckerPosition(IPlayer.ID.ONE));
+	}
+	
+	/**
+	 * Test the {@link Position} bit masks, seen from both {@link Player}s.
+	 */
+	@Test
+	public void testPositionMasks() {
+		class FevgaLocal extends Fevga{
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer1() {
+				return Arrays.asList(1, 1, 3);
+			};
+			
+			@Override
+			protected java.util.List<Integer> getCheckerPositionsPlayer2() {
+				return Arrays.asList(1, 14);
+			}
+			
+			public Board getBoard() {
+				return (Board)this.board;
+			}
+		};
+		FevgaLocal testFevga = new FevgaLocal();
+		testFevga.initialize(player1, player2, null);
+		
+		Board board = testFevga.getBoard();
+		Assert.assertEquals("Owned by player 1", (1 << 1) | (1 << 3), board.getOwnedPositions(IPlayer.ID.ONE));
+		Assert.assertEquals("Blocked for player 1", (1 << 13) | (1 << 2), board.getBlockedPositions(IPlayer.ID.ONE));
+		Assert.assertEquals("Owned by player 2", (1 << 1) | (1 << 14), board.getOwnedPositions(IPlayer.ID.TWO));
+		Assert.assertEquals("Blocked for player 2", (1 << 13) | (1 << 15), board.getBlockedPositions(IPlayer.ID.TWO));
+		
+		DiceGenerator.get().load(new int[]{1, 2});
+		IDices dices = new Dices().roll();
+		Assert.assertEquals("Blocked target for dice 1", (1 << 2), board.getBlockedTargets(IPlayer.ID.ONE, 1));
+		Assert.assertEquals("No blocked target for dice 2", 0, board.getBlockedTargets(IPlayer.ID.ONE, 2));
+		Assert.assertEquals("Blocked target for dice 1 of player 2", (1 << 15), board.getBlockedTargets(IPlayer.ID.TWO, 1));
+		
+		boolean check = testFevga.moveChecker(player1, board, 3, dices.getUnused(2)).isSuccess();
+		Assert.assertTrue("Move is possible", check);
+		Assert.assertEquals("Owned by player 1 after move", (1 << 1) | (1 << 5), board.getOwnedPositions(IPlayer.ID.ONE));
+		Assert.assertEquals("Blocked for player 2 after move", (1 << 13) | (1 << 17), board.getBlockedPositions(IPlayer.ID.TWO));
+	}
+	
+	/**
+	 * Test the {@link BoardLayout} is shared by the {@link Board}s of a variant.
+	 */
+	@Test
+	public void testSharedLayout() {
+		class FevgaLocal extends Fevga{
+			public Board getBoard() {
+				return (Board)this.board;
+			}
+		};
+		FevgaLocal firstFevga = new FevgaLocal();
+		firstFevga.initialize(player1, player2, null);
+		FevgaLocal secondFevga = new FevgaLocal();
+		secondFevga.initialize(player1, player2, null);
+		
+		BoardLayout layout = new Board(firstFevga).getLayout();
+		Assert.assertEquals("Compiled layout is equivalent", layout, firstFevga.getBoard().getLayout());
+		Assert.assertSame("Variant layout is shared", firstFevga.getBoard().getLayout(), secondFevga.getBoard().getLayout());
+		Assert.assertSame("Compiled layout is shared", layout, new Board(secondFevga).getLayout());
+		
+		Assert.assertEquals("Relative position of player 2", 1, layout.getRelativePosition(IPlayer.ID.TWO, 13));
+		Assert.assertEquals("Out position of player 2", 25, layout.getRelativePosition(IPlayer.ID.TWO, 27));
+		Assert.assertEquals("Position not used by player 1", -1, layout.getRelativePosition(IPlayer.ID.ONE, 26));
+	}
+	
+	/**
+	 * Test the shared {@link Checker} instances.
+	 */
+	@Test
+	public void testSharedCheckers() {
+		Assert.assertSame("Same owner and color", Checker.get(player1), Checker.get(IPlayer.ID.ONE, CheckerColor.WHITE));
+		Assert.assertNotSame("Different owner", Checker.get(player1), Checker.get(player2));
+		
+		class FevgaLocal extends Fevga{
+			public Board getBoard() {
+				return (Board)this.board;
+			}
+		};
+		FevgaLocal game = new FevgaLocal();
+		game.initialize(player1, player2, null);
+		Board board = game.getBoard();
+		Board clone = board.clone();
+		IPositions positions = board.getPlayerView(player1);
+		IPositions clonePositions = clone.getPlayerView(player1);
+		Assert.assertSame("Checkers are shared by clones", positions.get(1).readTopChecker(), clonePositions.get(1).readTopChecker());
+		Assert.assertSame("Checkers are shared on a position", positions.get(1).readTopChecker(), positions.get(1).readChecker(0));
+		
+		Assert.assertSame("Player view is shared", positions, board.getPlayerView(player1));
+		Assert.assertNotSame("Clone has its own view", positions, clonePositions);
+		Assert.assertNotSame("Clone view shows its own positions", positions.get(1), clonePositions.get(1));
+		try {
+			positions.add(positions.get(1));
+			Assert.fail("Player view is read-only");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		
+		IPositions createdPositions = board.createPlayerView(player1);
+		Assert.assertNotSame("Created view is new", createdPositions, board.createPlayerView(player1));
+		Assert.assertSame("Created view shows the positions", positions.get(1), createdPositions.get(1));
+		createdPositions.add(createdPositions.get(1));
+		Assert.assertEquals("Created view can be changed", positions.get().size() + 1, createdPositions.get().size());
+	}
 }
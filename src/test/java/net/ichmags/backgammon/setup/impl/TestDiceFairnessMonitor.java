@@ -0,0 +1,179 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.setup.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.ichmags.backgammon.notification.IGameStatusChangedNotificationConsumer;
+import net.ichmags.backgammon.notification.INotification;
+import net.ichmags.backgammon.notification.impl.StatusEmitter;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The {@link DiceFairnessMonitor} with fair random values, and with biased values of a {@link DiceFairnessMonitor.Sequence}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class TestDiceFairnessMonitor {
+	
+	private List<INotification> warnings;
+	private IGameStatusChangedNotificationConsumer consumer;
+	
+	@Before
+	public void setUp() {
+		DiceFairnessMonitor.get().reset();
+		warnings = new ArrayList<>();
+		consumer = new IGameStatusChangedNotificationConsumer() {
+			@Override
+			public void message(INotification notification) {
+				if(notification.getLevel() == INotification.Level.WARN) {
+					warnings.add(notification);
+				}
+			}
+			@Override
+			public void boardChanged(INotification notification) {
+			}
+			@Override
+			public void dicesChanged(INotification notification) {
+			}
+		};
+		StatusEmitter.get().addConsumer(consumer);
+	}
+	
+	@After
+	public void tearDown() {
+		StatusEmitter.get().removeConsumer(consumer);
+		DiceFairnessMonitor.get().reset();
+	}
+	
+	@Test
+	public void testFairDices() {
+		DiceGenerator.get().setSeed(20161024L);
+		for(int roll = 0; roll < 12000; roll++) {
+			DiceGenerator.get().roll();
+		}
+		
+		DiceFairnessMonitor.Report report = DiceFairnessMonitor.get().getReport();
+		Assert.assertEquals("Values", 12000, report.getSamples());
+		Assert.assertFalse("Fair: " + report, report.isBiased());
+		Assert.assertTrue("Correlation", Math.abs(report.getSerialCorrelation()) < 0.05);
+		Assert.assertTrue("No warning", warnings.isEmpty());
+	}
+	
+	@Test
+	public void testLoadedValuesIgnored() {
+		int[] values = new int[1200];
+		for(int pos = 0; pos < values.length; pos++) {
+			values[pos] = (pos % 2 == 0) ? 6 : 6 - (pos / 2) % 2;
+		}
+		DiceGenerator.get().load(values);
+		for(int pos = 0; pos < values.length; pos++) {
+			Assert.assertEquals("Loaded value", values[pos], DiceGenerator.get().roll());
+		}
+		
+		Assert.assertEquals("No values checked", 0, DiceFairnessMonitor.get().getReport().getSamples());
+		Assert.assertTrue("No warning", warnings.isEmpty());
+	}
+	
+	@Test
+	public void testGeneratorOfGame() {
+		DiceGenerator.get().setSeed(20161024L);
+		DiceGenerator ofGame = new DiceGenerator();
+		ofGame.roll();
+		DiceGenerator.get().roll();
+		ofGame.setSeed(20161025L);
+		for(int roll = 0; roll < 100; roll++) {
+			ofGame.roll();
+		}
+		
+		Assert.assertEquals("Values of both generators", 102, DiceFairnessMonitor.get().getReport().getSamples());
+		Assert.assertEquals("Values of the own Random", 100, ofGame.getFairness().getReport().getSamples());
+		Assert.assertEquals("Values of the shared Random", 2, DiceGenerator.get().getFairness().getReport().getSamples());
+	}
+	
+	@Test
+	public void testLoadedDice() {
+		int[] values = new int[1200];
+		for(int pos = 0; pos < values.length; pos++) {
+			values[pos] = (pos % 2 == 0) ? 6 : 1 + (pos / 2) % 5;
+		}
+		DiceFairnessMonitor.Sequence sequence = record(values);
+		
+		DiceFairnessMonitor.Report report = sequence.getReport();
+		Assert.assertEquals("Name", "loaded", report.getName());
+		Assert.assertEquals("Sixes", 600, report.getCount(6));
+		Assert.assertTrue("Chi-square: " + report, report.getChiSquare() > DiceFairnessMonitor.CHI_SQUARE_THRESHOLD);
+		Assert.assertTrue("Biased", report.isBiased());
+		Assert.assertTrue("Biased in total", DiceFairnessMonitor.get().getReport().isBiased());
+		Assert.assertEquals("One warning", 1, warnings.size());
+	}
+	
+	@Test
+	public void testSequence() {
+		int[] values = new int[1200];
+		for(int pos = 0; pos < values.length; pos++) {
+			values[pos] = 1 + pos % 6;
+		}
+		DiceFairnessMonitor.Report report = record(values).getReport();
+		Assert.assertEquals("Equal counts", 0.0, report.getChiSquare(), 0.0001);
+		Assert.assertTrue("Correlation: " + report, report.getSerialCorrelation() > 0.1);
+		Assert.assertTrue("Biased", report.isBiased());
+		Assert.assertEquals("One warning", 1, warnings.size());
+	}
+	
+	@Test
+	public void testWindow() {
+		int[] values = new int[DiceFairnessMonitor.WINDOW_SIZE + 1200];
+		for(int pos = 0; pos < values.length; pos++) {
+			values[pos] = (pos < DiceFairnessMonitor.WINDOW_SIZE) ? 1 + (pos * 5) % 6 : 6;
+		}
+		DiceFairnessMonitor.Sequence sequence = record(values);
+		
+		DiceFairnessMonitor.Report report = sequence.getReport();
+		Assert.assertEquals("Full window", 1, sequence.getCompletedWindows());
+		Assert.assertEquals("Values of the new window", 1200, report.getSamples());
+		Assert.assertEquals("Only sixes", 1200, report.getCount(6));
+		Assert.assertTrue("Biased", report.isBiased());
+		Assert.assertEquals("Warning per window", 2, warnings.size());
+	}
+	
+	@Test
+	public void testConcurrentRolls() throws InterruptedException {
+		DiceGenerator.get().setSeed(20161024L);
+		List<Thread> threads = new ArrayList<>();
+		for(int thread = 0; thread < 4; thread++) {
+			threads.add(new Thread(() -> {
+				for(int roll = 0; roll < 3000; roll++) {
+					DiceGenerator.get().roll();
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for(Thread thread : threads) {
+			thread.join();
+		}
+		
+		DiceFairnessMonitor.Report report = DiceGenerator.get().getFairness().getReport();
+		Assert.assertEquals("Values of all threads", 12000, report.getSamples());
+		long counted = 0;
+		for(int face = 1; face <= 6; face++) {
+			counted += report.getCount(face);
+		}
+		Assert.assertEquals("Counts of all threads", 12000, counted);
+		Assert.assertFalse("Fair: " + report, report.isBiased());
+	}
+	
+	private DiceFairnessMonitor.Sequence record(int[] values) {
+		DiceFairnessMonitor.Sequence sequence = DiceFairnessMonitor.get().register("loaded", false);
+		for(int value : values) {
+			sequence.record(value);
+		}
+		return sequence;
+	}
+}
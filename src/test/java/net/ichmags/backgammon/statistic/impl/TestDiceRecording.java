@@ -0,0 +1,123 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.ichmags.backgammon.setup.impl.Dices;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The packed {@link DiceRecording}, and its use in the {@link GameStatistics}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class TestDiceRecording {
+	
+	@Test
+	public void testRecording() {
+		DiceRecording recording = new DiceRecording();
+		recording.add(new Dices().restore(3, 5));
+		recording.add(new Dices().restore(2, 2));
+		recording.add(6, 1);
+		
+		Assert.assertEquals("Rolls", 3, recording.getNrOfRolls());
+		Assert.assertEquals("Dices", 8, recording.getNrOfDices());
+		List<Integer> values = new ArrayList<>();
+		recording.forEachDice(values::add);
+		Assert.assertEquals("[3, 5, 2, 2, 2, 2, 6, 1]", values.toString());
+		Assert.assertEquals(values.toString(), recording.toString());
+		Assert.assertEquals("Empty", "[]", new DiceRecording().toString());
+		
+		try {
+			recording.add(0, 7);
+			Assert.fail("Invalid values accepted");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testStream() throws IOException {
+		DiceRecording recording = new DiceRecording();
+		for(int roll = 0; roll < 1000; roll++) {
+			recording.add(1 + roll % 6, 1 + (roll / 6) % 6);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		recording.writeTo(out);
+		Assert.assertEquals("One byte per roll", 4 + 1000, out.size());
+		
+		DiceRecording read = DiceRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+		Assert.assertEquals(recording.getNrOfDices(), read.getNrOfDices());
+		Assert.assertEquals(recording.toString(), read.toString());
+		
+		byte[] invalid = out.toByteArray();
+		invalid[4] = 0x07;
+		try {
+			DiceRecording.readFrom(new ByteArrayInputStream(invalid));
+			Assert.fail("Invalid roll accepted");
+		} catch(IOException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testStreamInChunks() throws IOException {
+		DiceRecording recording = new DiceRecording();
+		for(int roll = 0; roll < 10000; roll++) {
+			recording.add(1 + roll % 6, 1 + (roll / 6) % 6);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		recording.writeTo(out);
+		Assert.assertEquals(recording.toString(), DiceRecording.readFrom(new ByteArrayInputStream(out.toByteArray())).toString());
+		
+		byte[] truncated = new byte[]{0x7F, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x11, 0x22, 0x33};
+		try {
+			DiceRecording.readFrom(new ByteArrayInputStream(truncated));
+			Assert.fail("Missing rolls accepted");
+		} catch(IOException e) {
+			// expected, without allocating the rolls of the header
+		}
+	}
+	
+	@Test
+	public void testGameStatistics() throws IOException {
+		GameStatistics statistics = new GameStatistics();
+		statistics.addDices(new Dices().restore(4, 1));
+		statistics.addDices(new Dices().restore(5, 5));
+		DiceRecording copy = statistics.getDiceRecording();
+		statistics.addDices(new Dices().restore(6, 2));
+		
+		Assert.assertEquals("Copy not changed", 2, copy.getNrOfRolls());
+		Assert.assertTrue(statistics.toString().contains("Dice recording: [4, 1, 5, 5, 5, 5, 6, 2]"));
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		statistics.writeDiceRecording(out);
+		Assert.assertEquals("[4, 1, 5, 5, 5, 5, 6, 2]", DiceRecording.readFrom(new ByteArrayInputStream(out.toByteArray())).toString());
+	}
+	
+	@Test
+	public void testSnapshotWhilePlaying() throws InterruptedException {
+		GameStatistics statistics = new GameStatistics();
+		Thread game = new Thread(() -> {
+			Dices dices = new Dices();
+			for(int roll = 0; roll < 20000; roll++) {
+				statistics.addDices(dices.restore(1 + roll % 6, 1 + (roll / 6) % 6));
+			}
+		});
+		game.start();
+		while(game.isAlive()) {
+			GameStatisticsSnapshot snapshot = statistics.snapshot();
+			Assert.assertEquals("Consistent snapshot", snapshot.getRotations(), snapshot.getNrOfRolls());
+		}
+		game.join();
+		Assert.assertEquals("All rolls", 20000, statistics.snapshot().getRotations());
+	}
+}
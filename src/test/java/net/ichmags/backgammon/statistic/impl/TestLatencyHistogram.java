@@ -0,0 +1,78 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The buckets and percentiles of the {@link LatencyHistogram}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class TestLatencyHistogram {
+	
+	@Test
+	public void testBuckets() {
+		for(long value = 0; value < 100000; value++) {
+			int bucket = LatencyHistogram.getBucket(value);
+			Assert.assertTrue("Upper bound of " + value, value <= LatencyHistogram.getUpperBound(bucket));
+			if(bucket > 0) {
+				Assert.assertTrue("Lower bound of " + value, value > LatencyHistogram.getUpperBound(bucket - 1));
+			}
+		}
+		Assert.assertEquals(Long.MAX_VALUE, LatencyHistogram.getUpperBound(LatencyHistogram.getBucket(Long.MAX_VALUE)));
+	}
+	
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assert.assertEquals("Empty", 0, histogram.getPercentile(99));
+		
+		for(long value = 1; value <= 1000; value++) {
+			histogram.record(value * 1000);
+		}
+		Assert.assertEquals(1000, histogram.getCount());
+		Assert.assertEquals(1000000, histogram.getMax());
+		Assert.assertEquals(500500, histogram.getMean());
+		assertNear("p50", 500000, histogram.getPercentile(50));
+		assertNear("p90", 900000, histogram.getPercentile(90));
+		assertNear("p99", 990000, histogram.getPercentile(99));
+		Assert.assertEquals("p100", 1000000, histogram.getPercentile(100));
+		
+		histogram.reset();
+		Assert.assertEquals(0, histogram.getCount());
+		Assert.assertEquals(0, histogram.getMax());
+	}
+	
+	@Test
+	public void testConcurrentRecording() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram();
+		List<Thread> threads = new ArrayList<>();
+		for(int thread = 1; thread <= 8; thread++) {
+			long offset = thread;
+			threads.add(new Thread(() -> {
+				for(long value = 1; value <= 10000; value++) {
+					histogram.record(value * 100 + offset);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for(Thread thread : threads) {
+			thread.join();
+		}
+		
+		Assert.assertEquals("Count of all threads", 80000, histogram.getCount());
+		Assert.assertEquals("Max of all stripes", 1000008, histogram.getMax());
+		assertNear("p50", 500000, histogram.getPercentile(50));
+		Assert.assertEquals("p100", 1000008, histogram.getPercentile(100));
+	}
+	
+	private void assertNear(String name, long expected, long actual) {
+		Assert.assertTrue(name + " is " + actual, (actual >= expected) && (actual <= expected + expected / LatencyHistogram.SUB_BUCKETS));
+	}
+}
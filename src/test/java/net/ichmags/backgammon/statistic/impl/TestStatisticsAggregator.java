@@ -0,0 +1,103 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.ichmags.backgammon.setup.impl.Dices;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Statistics updated from many threads at once, and merged by the {@link StatisticsAggregator}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class TestStatisticsAggregator {
+	
+	private static final int THREADS = 8;
+	private static final int GAMES = 250;
+	
+	@Test
+	public void testSharedPlayer() throws Exception {
+		PlayerStatistics player = new PlayerStatistics("1");
+		runConcurrently(() -> {
+			for(int game = 0; game < GAMES; game++) {
+				player.addDices(new Dices().restore(3, 5));
+				player.addDices(new Dices().restore(6, 6));
+				player.addGameVictory(2);
+				player.addGameDefeat(1);
+			}
+			player.addMatchVictory();
+		});
+		
+		Assert.assertEquals("Threes", THREADS * GAMES, player.getSimpleCount(3));
+		Assert.assertEquals("Fives", THREADS * GAMES, player.getSimpleCount(5));
+		Assert.assertEquals("Double sixes", THREADS * GAMES, player.getDoubleCount(6));
+		Assert.assertEquals("Games won", 2 * THREADS * GAMES, player.getGameVictories());
+		Assert.assertEquals("Games lost", THREADS * GAMES, player.getGameDefeats());
+		Assert.assertEquals("Matches won", THREADS, player.getMatchVictories());
+	}
+	
+	@Test
+	public void testAggregator() throws Exception {
+		StatisticsAggregator aggregator = new StatisticsAggregator();
+		runConcurrently(() -> {
+			for(int game = 0; game < GAMES; game++) {
+				GameStatistics statistics = new GameStatistics();
+				statistics.addDices(new Dices().restore(1, 2));
+				statistics.addDices(new Dices().restore(4, 4));
+				statistics.addDices(new Dices().restore(2, 6));
+				aggregator.add(statistics);
+			}
+		});
+		
+		StatisticsAggregator.Totals totals = aggregator.getTotals();
+		Assert.assertEquals("Games", THREADS * GAMES, totals.getGames());
+		Assert.assertEquals("Rotations", 3 * THREADS * GAMES, totals.getRotations());
+		Assert.assertEquals("Twos", 2 * THREADS * GAMES, totals.getSimpleCount(2));
+		Assert.assertEquals("Double fours", THREADS * GAMES, totals.getDoubleCount(4));
+		Assert.assertEquals("No threes", 0, totals.getSimpleCount(3));
+		
+		aggregator.reset();
+		Assert.assertEquals("Reset", 0, aggregator.getTotals().getGames());
+		Assert.assertEquals("Reset twos", 0, aggregator.getTotals().getSimpleCount(2));
+	}
+	
+	@Test
+	public void testMerge() {
+		DiceStatistics total = new DiceStatistics("Total");
+		GameStatistics game = new GameStatistics();
+		game.addDices(new Dices().restore(1, 1));
+		game.addDices(new Dices().restore(1, 3));
+		total.merge(game);
+		total.merge(game);
+		
+		Assert.assertEquals("Ones", 2, total.getSimpleCount(1));
+		Assert.assertEquals("Double ones", 2, total.getDoubleCount(1));
+		Assert.assertTrue(total.toString().endsWith("[Double, 1's:2, 2's:0, 3's:0, 4's:0, 5's:0, 6's:0]"));
+		Assert.assertEquals("Recording", 6, game.getDiceRecording().getNrOfDices());
+	}
+	
+	private void runConcurrently(Runnable task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for(int thread = 0; thread < THREADS; thread++) {
+				results.add(executor.submit(task));
+			}
+			for(Future<?> result : results) {
+				result.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * www.ichmags.net - Backgammon
+ */
+package net.ichmags.backgammon.statistic.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import net.ichmags.backgammon.setup.impl.Dices;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The snapshots of the statistics, written and read by the {@link StatisticsExporter}.
+ * 
+ * @author Anastasios Patrikis
+ */
+public class TestStatisticsExporter {
+	
+	private List<DiceStatisticsSnapshot> snapshots;
+	
+	@Before
+	public void setUp() {
+		GameStatistics game = new GameStatistics();
+		game.addDices(new Dices().restore(2, 5));
+		game.addDices(new Dices().restore(3, 3));
+		game.addDices(new Dices().restore(5, 1));
+		
+		PlayerStatistics player = new PlayerStatistics("1, \"Tester\"");
+		player.addDices(new Dices().restore(2, 5));
+		player.addGameVictory(2);
+		player.addGameDefeat(1);
+		player.addMatchVictory();
+		
+		DiceStatistics match = new DiceStatistics("Match");
+		match.addDices(new Dices().restore(6, 6));
+		
+		snapshots = Arrays.asList(game.snapshot(), player.snapshot(), match.snapshot());
+	}
+	
+	@Test
+	public void testSnapshots() {
+		GameStatisticsSnapshot game = (GameStatisticsSnapshot)snapshots.get(0);
+		Assert.assertEquals("Rotations", 3, game.getRotations());
+		Assert.assertEquals("Rolls", 3, game.getNrOfRolls());
+		Assert.assertEquals("Fives", 2, game.getSimpleCount(5));
+		Assert.assertEquals("Double threes", 1, game.getDoubleCount(3));
+		
+		PlayerStatisticsSnapshot player = (PlayerStatisticsSnapshot)snapshots.get(1);
+		Assert.assertEquals("Games won", 2, player.getGameVictories());
+		Assert.assertEquals("Games lost", 1, player.getGameDefeats());
+		Assert.assertEquals("Matches won", 1, player.getMatchVictories());
+		Assert.assertEquals("Display", "Player 1, \"Tester\"", player.getDisplay());
+	}
+	
+	@Test
+	public void testCsv() throws IOException {
+		StringWriter out = new StringWriter();
+		StatisticsExporter.writeCsv(out, snapshots);
+		String[] lines = out.toString().split("\n");
+		
+		Assert.assertEquals(4, lines.length);
+		Assert.assertEquals(StatisticsExporter.CSV_HEADER, lines[0]);
+		Assert.assertEquals("game,Game,3,1,1,0,0,2,0,0,0,1,0,0,0,3,,,,", lines[1]);
+		Assert.assertEquals("player,\"Player 1, \"\"Tester\"\"\",1,0,1,0,0,1,0,0,0,0,0,0,0,,2,1,1,0", lines[2]);
+		Assert.assertEquals("dice,Match,1,0,0,0,0,0,0,0,0,0,0,0,1,,,,,", lines[3]);
+		for(String line : lines) {
+			Assert.assertEquals("Columns: " + line, 20, line.replaceAll("\"[^\"]*(\"\"[^\"]*)*\"", "x").split(",", -1).length);
+		}
+	}
+	
+	@Test
+	public void testBinary() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StatisticsExporter.writeBinary(out, snapshots);
+		List<DiceStatisticsSnapshot> read = StatisticsExporter.readBinary(new ByteArrayInputStream(out.toByteArray()));
+		
+		Assert.assertEquals(snapshots.size(), read.size());
+		for(int pos = 0; pos < snapshots.size(); pos++) {
+			Assert.assertEquals("Kind", snapshots.get(pos).getClass(), read.get(pos).getClass());
+			Assert.assertEquals(snapshots.get(pos).toString(), read.get(pos).toString());
+		}
+		
+		byte[] invalid = out.toByteArray();
+		invalid[0] = 0;
+		try {
+			StatisticsExporter.readBinary(new ByteArrayInputStream(invalid));
+			Assert.fail("Invalid export accepted");
+		} catch(IOException e) {
+			// expected
+		}
+	}
+}